@@ -0,0 +1,85 @@
+package io.github.cowwoc.canister.benchmark;
+
+import io.github.cowwoc.canister.core.internal.client.CommandRunner;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Measures the overhead of {@link CommandRunner#apply()}: spawning a process and draining its output.
+ * <p>
+ * The process replays a recorded {@code docker container ls} output using {@code cat}, so the results
+ * exclude the time that the Docker CLI and daemon would spend producing the output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class CommandRunnerBenchmark
+{
+	@Param({"0", "1000"})
+	public int lines;
+	private Path output;
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		output = Files.createTempFile("container-ls", ".json");
+		Files.writeString(output, Fixtures.repeat("container-ls", lines));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		Files.deleteIfExists(output);
+	}
+
+	/**
+	 * Returns a runner that prints the recorded output.
+	 *
+	 * @return the runner
+	 */
+	private CommandRunner createRunner()
+	{
+		ProcessBuilder processBuilder = new ProcessBuilder("cat", output.toString());
+		return new CommandRunner(processBuilder).
+			failureHandler(result ->
+			{
+				throw new IOException("Unexpected failure: " + result);
+			});
+	}
+
+	@Benchmark
+	public CommandResult buffered() throws IOException, InterruptedException, TimeoutException
+	{
+		return createRunner().apply();
+	}
+
+	@Benchmark
+	public CommandResult streaming(Blackhole blackhole)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		return createRunner().
+			stdoutConsumer(blackhole::consume).
+			apply();
+	}
+}
@@ -0,0 +1,63 @@
+package io.github.cowwoc.canister.benchmark;
+
+import io.github.cowwoc.canister.core.util.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time it takes to look up a value in a merged configuration, such as one that combines a
+ * classpath resource, a file and environment variables.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ConfigurationBenchmark
+{
+	private static final int LAYERS = 3;
+	private static final int KEYS_PER_LAYER = 50;
+	private Configuration configuration;
+
+	@Setup
+	public void setUp()
+	{
+		Configuration[] layers = new Configuration[LAYERS];
+		for (int layer = 0; layer < LAYERS; ++layer)
+		{
+			layers[layer] = Configuration.empty();
+			for (int key = 0; key < KEYS_PER_LAYER; ++key)
+				layers[layer].put("layer" + layer + ".key" + key, "value" + key);
+		}
+		configuration = Configuration.merge(layers);
+	}
+
+	@Benchmark
+	public String firstLayer()
+	{
+		return configuration.getStringOrDefault("layer0.key25", null);
+	}
+
+	@Benchmark
+	public String lastLayer()
+	{
+		return configuration.getStringOrDefault("layer" + (LAYERS - 1) + ".key25", null);
+	}
+
+	@Benchmark
+	public String missing()
+	{
+		return configuration.getStringOrDefault("missing.key", "default");
+	}
+}
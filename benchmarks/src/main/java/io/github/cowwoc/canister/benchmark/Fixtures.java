@@ -0,0 +1,121 @@
+package io.github.cowwoc.canister.benchmark;
+
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.StringJoiner;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Recorded daemon output that the benchmarks replay, so that they do not require a Docker daemon.
+ * <p>
+ * Each fixture contains a single recorded element, such as a line of {@code ls} output or an object returned
+ * by {@code inspect}. The element is repeated to produce output of any size, replacing the following
+ * placeholders with values that are unique to each element:
+ * <ul>
+ *   <li>{@code ${index}}: the element's index</li>
+ *   <li>{@code ${id}}: a 64-character hexadecimal ID</li>
+ *   <li>{@code ${shortId}}: a 25-character ID</li>
+ *   <li>{@code ${port}}: a port number</li>
+ * </ul>
+ */
+public final class Fixtures
+{
+	/**
+	 * Returns a recorded element.
+	 *
+	 * @param name the name of the fixture
+	 * @return the element, with its placeholders intact
+	 * @throws UncheckedIOException if the fixture could not be read
+	 */
+	public static String load(String name)
+	{
+		String path = "fixtures/" + name + ".json";
+		try (InputStream in = Fixtures.class.getResourceAsStream(path))
+		{
+			if (in == null)
+				throw new IllegalArgumentException("Fixture not found: " + path);
+			return new String(in.readAllBytes(), UTF_8).strip();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the output of a command that returned a fixed number of lines.
+	 *
+	 * @param name  the name of the fixture
+	 * @param count the number of lines to return
+	 * @return the lines, separated by {@code \n}
+	 * @throws UncheckedIOException if the fixture could not be read
+	 */
+	public static String repeat(String name, int count)
+	{
+		String template = load(name);
+		StringJoiner joiner = new StringJoiner("\n");
+		for (int i = 0; i < count; ++i)
+			joiner.add(substitute(template, i));
+		return joiner.toString();
+	}
+
+	/**
+	 * Returns the output of an {@code inspect} command that returned a fixed number of objects.
+	 *
+	 * @param name  the name of the fixture
+	 * @param count the number of objects to return
+	 * @return a JSON array containing the objects
+	 * @throws UncheckedIOException if the fixture could not be read
+	 */
+	public static String array(String name, int count)
+	{
+		String template = load(name);
+		StringJoiner joiner = new StringJoiner(",\n", "[\n", "\n]");
+		for (int i = 0; i < count; ++i)
+			joiner.add(substitute(template, i));
+		return joiner.toString();
+	}
+
+	/**
+	 * Replaces the placeholders of an element.
+	 *
+	 * @param template the element
+	 * @param index    the index of the element
+	 * @return the updated element
+	 */
+	private static String substitute(String template, int index)
+	{
+		return template.
+			replace("${index}", String.valueOf(index)).
+			replace("${id}", "%064x".formatted(index)).
+			replace("${shortId}", "%025x".formatted(index)).
+			replace("${port}", String.valueOf(1024 + index % 64_000));
+	}
+
+	/**
+	 * Creates a client whose parsers can be invoked without a Docker daemon. The client's executable is a stub
+	 * that exits immediately.
+	 *
+	 * @return the client
+	 * @throws IOException if the stub could not be created
+	 */
+	public static DefaultDockerClient createClient() throws IOException
+	{
+		Path executable = Files.createTempFile("docker", ".sh",
+			PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+		executable.toFile().deleteOnExit();
+		Files.writeString(executable, "#!/bin/sh\nexit 0\n");
+		return new DefaultDockerClient(executable);
+	}
+
+	private Fixtures()
+	{
+	}
+}
@@ -0,0 +1,41 @@
+package io.github.cowwoc.canister.benchmark;
+
+import io.github.cowwoc.canister.core.spi.util.ImageReferenceValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time it takes to validate image references of increasing complexity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ImageReferenceValidatorBenchmark
+{
+	@Param({
+		"nginx",
+		"nginx:1.27",
+		"registry.example.com:5000/team/service:1.4.0",
+		"ghcr.io/example/team/service/api:2025.06.09-4b1f2e0"
+	})
+	public String reference;
+
+	@Benchmark
+	public void validate()
+	{
+		ImageReferenceValidator.validate(reference, "reference");
+	}
+}
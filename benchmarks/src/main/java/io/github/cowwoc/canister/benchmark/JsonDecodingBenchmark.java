@@ -0,0 +1,85 @@
+package io.github.cowwoc.canister.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonFields;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares decoding the lines of {@code ls --format json} output into a tree against decoding only the
+ * fields that the parsers use.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class JsonDecodingBenchmark
+{
+	private static final Pattern SPLIT_LINES = Pattern.compile("\n");
+	@Param({"container-ls", "image-ls", "node-ls", "service-ls"})
+	public String fixture;
+	@Param("50000")
+	public int lines;
+	private String[] output;
+	private String[] fields;
+	private JsonMapper jsonMapper;
+	private JsonFieldReader reader;
+
+	@Setup
+	public void setUp()
+	{
+		output = SPLIT_LINES.split(Fixtures.repeat(fixture, lines));
+		// The fields that the corresponding parser reads
+		fields = switch (fixture)
+		{
+			case "container-ls" -> new String[]{"ID", "Names"};
+			case "image-ls" -> new String[]{"ID", "Repository", "Digest", "Tag"};
+			case "node-ls" -> new String[]{"Availability", "EngineVersion", "Hostname", "ID", "ManagerStatus",
+				"Status"};
+			case "service-ls" -> new String[]{"ID", "Name"};
+			default -> throw new AssertionError("Unexpected fixture: " + fixture);
+		};
+		jsonMapper = JsonMapper.builder().build();
+		reader = new JsonFieldReader(jsonMapper, fields);
+	}
+
+	@Benchmark
+	public void tree(Blackhole blackhole) throws JsonProcessingException
+	{
+		for (String line : output)
+		{
+			JsonNode json = jsonMapper.readTree(line);
+			for (String field : fields)
+				blackhole.consume(json.get(field).textValue());
+		}
+	}
+
+	@Benchmark
+	public void streaming(Blackhole blackhole)
+	{
+		for (String line : output)
+		{
+			JsonFields json = reader.read(line);
+			for (String field : fields)
+				blackhole.consume(json.getString(field));
+		}
+	}
+}
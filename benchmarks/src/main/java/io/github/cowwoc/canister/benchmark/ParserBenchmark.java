@@ -0,0 +1,147 @@
+package io.github.cowwoc.canister.benchmark;
+
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.main.parser.ContainerParser;
+import io.github.cowwoc.canister.docker.main.parser.ImageParser;
+import io.github.cowwoc.canister.docker.main.parser.NetworkParser;
+import io.github.cowwoc.canister.docker.main.parser.NodeParser;
+import io.github.cowwoc.canister.docker.main.parser.ServiceParser;
+import io.github.cowwoc.canister.docker.main.resource.DefaultContainer;
+import io.github.cowwoc.canister.docker.resource.ContainerElement;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.DockerImageElement;
+import io.github.cowwoc.canister.docker.resource.Network;
+import io.github.cowwoc.canister.docker.resource.NetworkElement;
+import io.github.cowwoc.canister.docker.resource.NodeElement;
+import io.github.cowwoc.canister.docker.resource.ServiceElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time it takes each parser to convert recorded output into resources.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ParserBenchmark
+{
+	@Param({"10", "1000", "50000"})
+	public int elements;
+	private DefaultDockerClient client;
+	private ContainerParser containerParser;
+	private ImageParser imageParser;
+	private NetworkParser networkParser;
+	private NodeParser nodeParser;
+	private ServiceParser serviceParser;
+	private CommandResult containerList;
+	private CommandResult imageList;
+	private CommandResult networkList;
+	private CommandResult nodeList;
+	private CommandResult serviceList;
+	private CommandResult containerInspect;
+	private CommandResult imageInspect;
+	private CommandResult networkInspect;
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		client = Fixtures.createClient();
+		containerParser = client.getContainerParser();
+		imageParser = client.getImageParser();
+		networkParser = client.getNetworkParser();
+		nodeParser = client.getNodeParser();
+		serviceParser = client.getServiceParser();
+
+		containerList = toResult(Fixtures.repeat("container-ls", elements));
+		imageList = toResult(Fixtures.repeat("image-ls", elements));
+		networkList = toResult(Fixtures.repeat("network-ls", elements));
+		nodeList = toResult(Fixtures.repeat("node-ls", elements));
+		serviceList = toResult(Fixtures.repeat("service-ls", elements));
+		containerInspect = toResult(Fixtures.array("container-inspect", elements));
+		imageInspect = toResult(Fixtures.array("image-inspect", elements));
+		networkInspect = toResult(Fixtures.array("network-inspect", elements));
+	}
+
+	/**
+	 * Returns the result of a command that succeeded.
+	 *
+	 * @param stdout the command's output
+	 * @return the result
+	 */
+	private static CommandResult toResult(String stdout)
+	{
+		return new CommandResult(List.of("docker"), null, stdout, "", 0);
+	}
+
+	@TearDown
+	public void tearDown()
+	{
+		client.close();
+	}
+
+	@Benchmark
+	public List<ContainerElement> listContainers()
+	{
+		return containerParser.list(containerList);
+	}
+
+	@Benchmark
+	public List<DockerImageElement> listImages()
+	{
+		return imageParser.list(imageList);
+	}
+
+	@Benchmark
+	public List<NetworkElement> listNetworks()
+	{
+		return networkParser.list(networkList);
+	}
+
+	@Benchmark
+	public List<NodeElement> listNodes()
+	{
+		return nodeParser.listNodes(nodeList);
+	}
+
+	@Benchmark
+	public List<ServiceElement> listServices()
+	{
+		return serviceParser.listServices(serviceList);
+	}
+
+	@Benchmark
+	public List<DefaultContainer> containersFromServer()
+	{
+		return containerParser.containersFromServer(containerInspect);
+	}
+
+	@Benchmark
+	public List<DockerImage> imagesFromServer()
+	{
+		return imageParser.imagesFromServer(imageInspect);
+	}
+
+	@Benchmark
+	public List<Network> networksFromServer()
+	{
+		return networkParser.networksFromServer(networkInspect);
+	}
+}
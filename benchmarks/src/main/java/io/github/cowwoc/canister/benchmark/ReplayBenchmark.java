@@ -0,0 +1,94 @@
+package io.github.cowwoc.canister.benchmark;
+
+import io.github.cowwoc.canister.core.internal.client.CommandRecorder;
+import io.github.cowwoc.canister.core.internal.client.CommandReplayer;
+import io.github.cowwoc.canister.core.internal.client.CommandReplayer.Timing;
+import io.github.cowwoc.canister.core.internal.client.JournalEntry;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.main.parser.ContainerParser;
+import io.github.cowwoc.canister.docker.resource.ContainerElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time it takes the client to run a command and parse its output, with the command's result
+ * served from a journal instead of a Docker daemon.
+ * <p>
+ * The journal is recorded from fixtures. To measure the output of a production daemon instead, record a
+ * workload that lists containers using {@link DefaultDockerClient#setRecorder(CommandRecorder)} and pass the
+ * journal's path in the {@code journal} parameter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ReplayBenchmark
+{
+	private static final List<String> LIST_CONTAINERS = List.of("container", "ls", "--format", "json", "--all",
+		"--no-trunc");
+	@Param({"10", "1000"})
+	public int elements;
+	/**
+	 * The path of the journal to replay, or an empty string to record one from fixtures.
+	 */
+	@Param("")
+	public String journal;
+	private Path recording;
+	private DefaultDockerClient client;
+	private ContainerParser containerParser;
+
+	@Setup
+	public void setUp() throws IOException
+	{
+		Path path;
+		if (journal.isEmpty())
+		{
+			recording = Files.createTempFile("journal", ".gz");
+			try (CommandRecorder recorder = new CommandRecorder(recording))
+			{
+				recorder.record(new JournalEntry(LIST_CONTAINERS, "", Fixtures.repeat("container-ls", elements), "",
+					0, Instant.now(), Duration.ZERO));
+			}
+			path = recording;
+		}
+		else
+			path = Path.of(journal);
+		client = Fixtures.createClient();
+		client.setReplayer(new CommandReplayer(path, Timing.FASTEST));
+		containerParser = client.getContainerParser();
+	}
+
+	@TearDown
+	public void tearDown() throws IOException
+	{
+		client.close();
+		if (recording != null)
+			Files.deleteIfExists(recording);
+	}
+
+	@Benchmark
+	public List<ContainerElement> listContainers() throws IOException, InterruptedException
+	{
+		return containerParser.list(client.run(LIST_CONTAINERS));
+	}
+}
\ No newline at end of file
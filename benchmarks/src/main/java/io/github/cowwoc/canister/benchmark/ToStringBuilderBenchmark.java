@@ -0,0 +1,60 @@
+package io.github.cowwoc.canister.benchmark;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time it takes to convert a typical resource to a String.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ToStringBuilderBenchmark
+{
+	private final String id = "%064x".formatted(42);
+	private final List<String> tags = List.of("registry.example.com/team/service:1.4.0",
+		"registry.example.com/team/service:latest");
+	private final Map<String, String> labels = Map.of(
+		"com.docker.compose.project", "web",
+		"com.docker.compose.service", "frontend",
+		"maintainer", "NGINX Docker Maintainers <docker-maint@nginx.com>");
+
+	@Benchmark
+	public String flat()
+	{
+		return new ToStringBuilder(ToStringBuilderBenchmark.class).
+			add("id", id).
+			add("name", "web-frontend-42").
+			add("port", 8080).
+			toString();
+	}
+
+	@Benchmark
+	public String nested()
+	{
+		return new ToStringBuilder(ToStringBuilderBenchmark.class).
+			add("id", id).
+			add("tags", tags).
+			add("labels", labels).
+			add("state", new ToStringBuilder().
+				add("status", "running").
+				add("exitCode", 0).
+				toString()).
+			toString();
+	}
+}
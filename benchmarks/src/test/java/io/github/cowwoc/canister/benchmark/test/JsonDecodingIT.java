@@ -0,0 +1,81 @@
+package io.github.cowwoc.canister.benchmark.test;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.cowwoc.canister.benchmark.Fixtures;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonFields;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Ensures that {@link JsonFieldReader} decodes the recorded {@code ls} output into the same values as
+ * {@link JsonMapper#readTree(String)}, which the list parsers used before. The parsers convert the values
+ * into list elements without consulting the JSON again, so identical values result in identical elements.
+ */
+public final class JsonDecodingIT
+{
+	private static final Pattern SPLIT_LINES = Pattern.compile("\n");
+	private static final int LINES = 100;
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	@DataProvider(name = "fixtures")
+	public static Object[][] fixtures()
+	{
+		// The fields that the corresponding parser reads
+		return new Object[][]
+			{
+				{"container-ls", List.of("ID", "Names")},
+				{"image-ls", List.of("ID", "Repository", "Digest", "Tag")},
+				{"network-ls", List.of("ID", "Name")},
+				{"node-ls", List.of("Availability", "EngineVersion", "Hostname", "ID", "ManagerStatus", "Status")},
+				{"service-ls", List.of("ID", "Name")}
+			};
+	}
+
+	@Test(dataProvider = "fixtures")
+	public void parserFieldsMatchTree(String fixture, List<String> names) throws JsonProcessingException
+	{
+		// Reading a subset of the fields skips the subtrees of the remaining fields
+		JsonFieldReader reader = new JsonFieldReader(jsonMapper, names.toArray(String[]::new));
+		for (String line : SPLIT_LINES.split(Fixtures.repeat(fixture, LINES)))
+		{
+			JsonNode tree = jsonMapper.readTree(line);
+			JsonFields fields = reader.read(line);
+			for (String name : names)
+				requireThat(fields.getString(name), name).isEqualTo(tree.get(name).textValue());
+		}
+	}
+
+	@Test(dataProvider = "fixtures")
+	public void allFieldsMatchTree(String fixture, List<String> ignored) throws JsonProcessingException
+	{
+		for (String line : SPLIT_LINES.split(Fixtures.repeat(fixture, LINES)))
+		{
+			JsonNode tree = jsonMapper.readTree(line);
+			List<String> names = new ArrayList<>();
+			tree.fieldNames().forEachRemaining(names::add);
+			JsonFields fields = new JsonFieldReader(jsonMapper, names.toArray(String[]::new)).read(line);
+			for (String name : names)
+			{
+				JsonNode expected = tree.get(name);
+				switch (expected.getNodeType())
+				{
+					case STRING -> requireThat(fields.getString(name), name).isEqualTo(expected.textValue());
+					case BOOLEAN -> requireThat(fields.getBoolean(name), name).isEqualTo(expected.booleanValue());
+					case OBJECT, ARRAY -> requireThat(fields.getNode(name), name).isEqualTo(expected);
+					case NULL -> requireThat(fields.getString(name), name).isNull();
+					default -> throw new AssertionError("Unexpected type: " + expected.getNodeType() + "\n" +
+						"Field: " + name);
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
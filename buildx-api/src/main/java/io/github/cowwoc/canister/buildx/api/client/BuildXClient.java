@@ -1,7 +1,9 @@
 package io.github.cowwoc.canister.buildx.api.client;
 
 import io.github.cowwoc.canister.core.client.Client;
+import io.github.cowwoc.canister.core.client.RetryPolicy;
 import io.github.cowwoc.canister.core.id.BuilderId;
+import io.github.cowwoc.canister.core.metrics.ClientMetrics;
 import io.github.cowwoc.canister.core.resource.Builder;
 import io.github.cowwoc.canister.core.resource.BuilderCreator;
 import io.github.cowwoc.canister.core.resource.BuilderRemover;
@@ -24,6 +26,18 @@ public interface BuildXClient extends Client
 	@Override
 	BuildXClient retryTimeout(Duration duration);
 
+	@Override
+	BuildXClient retryPolicy(RetryPolicy policy);
+
+	@Override
+	BuildXClient metrics(ClientMetrics metrics);
+
+	@Override
+	BuildXClient maxRunningCommands(int maximum);
+
+	@Override
+	BuildXClient coalesceReads(Duration ttl);
+
 	/**
 	 * Looks up the default builder.
 	 *
@@ -8,11 +8,26 @@
 import io.github.cowwoc.canister.buildx.internal.resource.DefaultBuilderRemover;
 import io.github.cowwoc.canister.buildx.internal.resource.DefaultImage;
 import io.github.cowwoc.canister.buildx.internal.resource.DefaultImageBuilder;
+import io.github.cowwoc.canister.core.client.RetryPolicy;
+import io.github.cowwoc.canister.core.exception.CommandTimeoutException;
 import io.github.cowwoc.canister.core.id.BuilderId;
 import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.core.internal.client.CommandBulkhead;
+import io.github.cowwoc.canister.core.internal.client.CommandBulkhead.Lane;
+import io.github.cowwoc.canister.core.internal.client.CommandCoalescer;
+import io.github.cowwoc.canister.core.internal.client.CommandCoalescer.Coalesced;
+import io.github.cowwoc.canister.core.internal.client.CommandOperation;
+import io.github.cowwoc.canister.core.internal.client.CommandRecorder;
+import io.github.cowwoc.canister.core.internal.client.CommandReplayer;
 import io.github.cowwoc.canister.core.internal.client.CommandRunner;
+import io.github.cowwoc.canister.core.internal.client.CommandTransport;
 import io.github.cowwoc.canister.core.internal.client.InternalClient;
+import io.github.cowwoc.canister.core.internal.client.JournalEntry;
 import io.github.cowwoc.canister.core.internal.client.Operation;
+import io.github.cowwoc.canister.core.internal.client.ProcessRegistry;
+import io.github.cowwoc.canister.core.internal.util.RetryDelay;
+import io.github.cowwoc.canister.core.metrics.ClientMetrics;
+import io.github.cowwoc.canister.core.metrics.CommandMetrics;
 import io.github.cowwoc.canister.core.resource.Builder;
 import io.github.cowwoc.canister.core.resource.Builder.Node.Status;
 import io.github.cowwoc.canister.core.resource.BuilderCreator;
@@ -24,7 +39,6 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
@@ -32,9 +46,11 @@
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.regex.Matcher;
 
@@ -46,16 +62,55 @@
 @SuppressWarnings("PMD.MoreThanOneLogger")
 public abstract class AbstractBuildXClient implements InternalClient, InternalBuildXClient
 {
-	private final static Duration SLEEP_DURATION = java.time.Duration.ofMillis(100);
 	protected final static ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name("docker-", 1).factory();
+	/**
+	 * Commands whose first argument is followed by a subcommand, such as {@code container ls}.
+	 */
+	private static final Set<String> MANAGEMENT_COMMANDS = Set.of("builder", "buildx", "checkpoint", "compose",
+		"config", "container", "context", "image", "manifest", "network", "node", "plugin", "secret", "service",
+		"stack", "swarm", "system", "trust", "volume");
+	/**
+	 * The subcommands whose output describes the current state of resources, without modifying them.
+	 */
+	private static final Set<String> READ_ONLY_SUBCOMMANDS = Set.of("inspect", "ls", "ps", "version", "info");
+	/**
+	 * The attempt number of the operation that {@code retry()} is running on the current thread.
+	 */
+	private static final ThreadLocal<Integer> ATTEMPT = new ThreadLocal<>();
+	/**
+	 * The deadline of the operation that {@code retry(operation, deadline)} is running on the current thread.
+	 * Commands that are still running at this time are terminated.
+	 *
+	 * @see #getCommandDeadline(List)
+	 */
+	private static final ThreadLocal<Instant> DEADLINE = new ThreadLocal<>();
 	/**
 	 * The path of the command-line executable.
 	 */
 	protected final Path executable;
-	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+	/**
+	 * The client whose configuration and resources this client shares, or {@code this} if this client is not
+	 * a view of another client.
+	 */
+	private final AbstractBuildXClient root;
+	private final JsonMapper jsonMapper;
 	private Duration retryTimeout = Duration.ofSeconds(30);
-	@SuppressWarnings("this-escape")
-	private final BuildXParser buildXParser = new BuildXParser(this);
+	private RetryPolicy retryPolicy = RetryPolicy.defaults();
+	private ClientMetrics metrics = ClientMetrics.disabled();
+	/**
+	 * Limits the number of commands that run at the same time, or {@code null} if this client is a view.
+	 * Replaced by {@link #maxRunningCommands(int)} while other threads run commands.
+	 */
+	private volatile CommandBulkhead bulkhead;
+	/**
+	 * Shares the results of read-only commands, or {@code null} if coalescing is disabled.
+	 */
+	private volatile CommandCoalescer coalescer;
+	private volatile CommandTransport transport;
+	private volatile CommandRecorder recorder;
+	private volatile CommandReplayer replayer;
+	private final ProcessRegistry processRegistry;
+	private final BuildXParser buildXParser;
 	private boolean closed;
 	protected final Logger log = LoggerFactory.getLogger(AbstractBuildXClient.class);
 
@@ -68,16 +123,60 @@ public abstract class AbstractBuildXClient implements InternalClient, InternalBu
 	 *                                  executable file
 	 * @throws IOException              if an I/O error occurs while reading {@code executable}'s attributes
 	 */
+	@SuppressWarnings("this-escape")
 	protected AbstractBuildXClient(Path executable) throws IOException
 	{
 		requireThat(executable, "executable").exists().isRegularFile().isExecutable();
 		this.executable = executable;
+		this.root = this;
+		this.jsonMapper = JsonMapper.builder().build();
+		this.processRegistry = new ProcessRegistry();
+		this.buildXParser = new BuildXParser(this);
+		this.bulkhead = new CommandBulkhead(64);
+	}
+
+	/**
+	 * Creates a view of another client. The view shares the client's configuration, JSON mapper, parsers,
+	 * bulkhead and processes. The view cannot be reconfigured, and is closed when the client is closed.
+	 *
+	 * @param root the client to share
+	 */
+	protected AbstractBuildXClient(AbstractBuildXClient root)
+	{
+		assert root != null;
+		this.root = root.root;
+		this.executable = root.executable;
+		this.jsonMapper = root.jsonMapper;
+		this.processRegistry = root.processRegistry;
+		this.buildXParser = root.buildXParser;
+	}
+
+	/**
+	 * Indicates if this client is a view of another client.
+	 *
+	 * @return {@code true} if the client shares the configuration of another client
+	 */
+	protected boolean isView()
+	{
+		return root != this;
+	}
+
+	/**
+	 * Ensures that the client's configuration may be modified.
+	 *
+	 * @throws UnsupportedOperationException if the client is a view of another client
+	 */
+	protected void ensureMutable()
+	{
+		if (isView())
+			throw new UnsupportedOperationException("A view cannot be reconfigured. Configure its parent instead.");
 	}
 
 	@Override
 	public BuildXClient retryTimeout(Duration duration)
 	{
 		requireThat(duration, "duration").isNotNull();
+		ensureMutable();
 		retryTimeout = duration;
 		return this;
 	}
@@ -85,7 +184,7 @@ public BuildXClient retryTimeout(Duration duration)
 	@Override
 	public Duration getRetryTimeout()
 	{
-		return retryTimeout;
+		return root.retryTimeout;
 	}
 
 	@Override
@@ -93,7 +192,8 @@ public <V> V retry(Operation<V> operation) throws IOException, InterruptedExcept
 	{
 		try
 		{
-			return retry(operation, Instant.now().plus(getRetryTimeout()));
+			// The retry timeout limits how long failures are retried. Only read-only commands are limited by it.
+			return retry(operation, Instant.now().plus(getRetryTimeout()), false);
 		}
 		catch (TimeoutException e)
 		{
@@ -101,108 +201,532 @@ public <V> V retry(Operation<V> operation) throws IOException, InterruptedExcept
 		}
 	}
 
+	@Override
+	public BuildXClient retryPolicy(RetryPolicy policy)
+	{
+		requireThat(policy, "policy").isNotNull();
+		ensureMutable();
+		retryPolicy = policy;
+		return this;
+	}
+
+	@Override
+	public RetryPolicy getRetryPolicy()
+	{
+		return root.retryPolicy;
+	}
+
+	@Override
+	public BuildXClient metrics(ClientMetrics metrics)
+	{
+		requireThat(metrics, "metrics").isNotNull();
+		ensureMutable();
+		this.metrics = metrics;
+		return this;
+	}
+
+	@Override
+	public BuildXClient maxRunningCommands(int maximum)
+	{
+		requireThat(maximum, "maximum").isPositive();
+		ensureMutable();
+		bulkhead = new CommandBulkhead(maximum);
+		return this;
+	}
+
+	@Override
+	public BuildXClient coalesceReads(Duration ttl)
+	{
+		ensureMutable();
+		if (ttl == null)
+			coalescer = null;
+		else
+		{
+			requireThat(ttl, "ttl").isGreaterThanOrEqualTo(Duration.ZERO);
+			coalescer = new CommandCoalescer(ttl);
+		}
+		return this;
+	}
+
+	@Override
+	public ClientMetrics getMetrics()
+	{
+		return root.metrics;
+	}
+
+	@Override
+	public RetryDelay newRetryDelay()
+	{
+		RetryPolicy policy = root.retryPolicy;
+		return new RetryDelay(policy.getInitialDelay(), policy.getMaximumDelay(), policy.getMultiplier(),
+			policy.getJitter());
+	}
+
 	@Override
 	public <V> V retry(Operation<V> operation, Instant deadline)
 		throws IOException, InterruptedException, TimeoutException
 	{
-		while (true)
+		try
 		{
-			try
-			{
-				return operation.run(deadline);
-			}
-			catch (FileNotFoundException e)
+			return retry(operation, deadline, true);
+		}
+		catch (CommandTimeoutException e)
+		{
+			TimeoutException timeout = new TimeoutException(e.getMessage());
+			timeout.initCause(e);
+			throw timeout;
+		}
+	}
+
+	/**
+	 * Runs an operation, retrying on intermittent {@code IOException}s.
+	 *
+	 * @param <V>             the type of value returned by the operation
+	 * @param operation       the operation
+	 * @param deadline        the absolute time by which the operation must succeed. The method will retry
+	 *                        failed operations while the current time is before this value.
+	 * @param enforceDeadline {@code true} to terminate commands that are still running when the deadline
+	 *                        expires
+	 * @return the value returned by the operation
+	 * @throws IOException          if an I/O error persists beyond the {@code deadline}
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 * @throws TimeoutException     if the deadline expires before the operation completes successfully, and no
+	 *                              other exception was thrown to indicate the failure
+	 */
+	private <V> V retry(Operation<V> operation, Instant deadline, boolean enforceDeadline)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		RetryPolicy policy = root.retryPolicy;
+		RetryDelay delay = null;
+		Integer outerAttempt = ATTEMPT.get();
+		Instant outerDeadline = DEADLINE.get();
+		if (enforceDeadline && (outerDeadline == null || deadline.isBefore(outerDeadline)))
+			DEADLINE.set(deadline);
+		try
+		{
+			for (int attempt = 1; true; ++attempt)
 			{
-				// Failures that are assumed to be non-intermittent
-				throw e;
+				ATTEMPT.set(attempt);
+				try
+				{
+					return operation.run(deadline);
+				}
+				catch (IOException | RuntimeException e)
+				{
+					// The deadline applies to every attempt, so there is no time left to retry
+					if (e instanceof CommandTimeoutException || !policy.isTransient(e))
+						throw e;
+					if (delay == null)
+						delay = newRetryDelay();
+					if (!sleepBeforeRetry(delay, deadline))
+						throw e;
+					log.debug("Retrying after sleep", e);
+				}
 			}
-			catch (IOException e)
+		}
+		finally
+		{
+			if (outerAttempt == null)
+				ATTEMPT.remove();
+			else
+				ATTEMPT.set(outerAttempt);
+			if (outerDeadline == null)
+				DEADLINE.remove();
+			else
+				DEADLINE.set(outerDeadline);
+		}
+	}
+
+	@Override
+	public boolean sleepBeforeRetry(RetryDelay delay, Instant deadline) throws InterruptedException
+	{
+		Duration timeLeft = Duration.between(Instant.now(), deadline);
+		if (!timeLeft.isPositive())
+			return false;
+		Duration slept = delay.sleep(timeLeft);
+		getMetrics().onBackoff(slept);
+		return true;
+	}
+
+	@Override
+	public JsonMapper getJsonMapper()
+	{
+		ensureOpen();
+		return jsonMapper;
+	}
+
+	@Override
+	public CommandTransport getTransport()
+	{
+		return root.transport;
+	}
+
+	@Override
+	public void setTransport(CommandTransport transport)
+	{
+		ensureOpen();
+		ensureMutable();
+		CommandTransport oldTransport = this.transport;
+		this.transport = transport;
+		if (oldTransport != null && oldTransport != transport)
+			oldTransport.close();
+	}
+
+	@Override
+	public CommandRecorder getRecorder()
+	{
+		return root.recorder;
+	}
+
+	@Override
+	public void setRecorder(CommandRecorder recorder)
+	{
+		ensureOpen();
+		ensureMutable();
+		CommandRecorder oldRecorder = this.recorder;
+		this.recorder = recorder;
+		if (oldRecorder != null && oldRecorder != recorder)
+			oldRecorder.close();
+	}
+
+	@Override
+	public CommandReplayer getReplayer()
+	{
+		return root.replayer;
+	}
+
+	@Override
+	public void setReplayer(CommandReplayer replayer)
+	{
+		ensureOpen();
+		ensureMutable();
+		this.replayer = replayer;
+	}
+
+	@Override
+	public Process startProcess(ProcessBuilder processBuilder, List<String> arguments) throws IOException
+	{
+		ensureOpen();
+		return processRegistry.start(processBuilder, getSubcommand(arguments));
+	}
+
+	@Override
+	public ProcessRegistry getProcessRegistry()
+	{
+		return processRegistry;
+	}
+
+	@Override
+	public Map<String, Integer> getRunningProcesses()
+	{
+		return processRegistry.getCounts();
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments) throws IOException, InterruptedException
+	{
+		ensureOpen();
+		Instant deadline = getCommandDeadline(arguments);
+		CommandCoalescer coalescer = root.coalescer;
+		if (coalescer == null || !isReadOnly(arguments))
+			return discardCoalescedResults(arguments, () -> runCommand(arguments, deadline));
+		Coalesced coalesced = coalescer.run(getProcessBuilder(arguments).command(), deadline,
+			() -> runCommand(arguments, deadline));
+		if (coalesced.coalesced())
+			getMetrics().onCoalesced(getSubcommand(arguments));
+		return coalesced.result();
+	}
+
+	/**
+	 * Runs a command without sharing its result.
+	 *
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param deadline  the time by which the command must complete, or {@code null} if it is unbounded
+	 * @return the result of the command
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private CommandResult runCommand(List<String> arguments, Instant deadline)
+		throws IOException, InterruptedException
+	{
+		return admit(arguments, deadline, () ->
+		{
+			CommandTransport transport = getTransport();
+			if (transport != null && getReplayer() == null && transport.supports(arguments))
 			{
-				// WORKAROUND: https://github.com/moby/moby/issues/50160
-				if (!sleepBeforeRetry(deadline, e))
-					throw e;
+				CommandResult result = runOverTransport(transport, arguments, deadline);
+				if (result.exitCode() != 0)
+					commandFailed(result);
+				return result;
 			}
-			catch (IllegalStateException e)
+			return apply(newCommandRunner(arguments, deadline));
+		});
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, Consumer<String> stdout)
+		throws IOException, InterruptedException
+	{
+		ensureOpen();
+		Instant deadline = getCommandDeadline(arguments);
+		return discardCoalescedResults(arguments, () -> admit(arguments, deadline, () ->
+		{
+			CommandTransport transport = getTransport();
+			if (transport != null && getReplayer() == null && transport.supports(arguments))
 			{
-				if (e.getClass().getName().
-					equals("io.github.cowwoc.canister.core.exception.UnsupportedExporterException"))
+				CommandResult result = runOverTransport(transport, arguments, deadline);
+				if (result.exitCode() != 0)
 				{
-					// Surprisingly, the following error occurs intermittently under load:
-					//
-					// ERROR: failed to build: docker exporter does not currently support exporting manifest lists
-					if (!sleepBeforeRetry(deadline, e))
-						throw e;
+					commandFailed(result);
+					return result;
 				}
-				else
-					throw e;
+				result.stdout().lines().forEach(stdout);
+				return new CommandResult(result.command(), result.workingDirectory(), "", result.stderr(),
+					result.exitCode());
 			}
-		}
+			return apply(newCommandRunner(arguments, deadline).
+				stdoutConsumer(stdout));
+		}));
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, ByteBuffer stdin) throws IOException, InterruptedException
+	{
+		ensureOpen();
+		Instant deadline = getCommandDeadline(arguments);
+		return discardCoalescedResults(arguments, () -> admit(arguments, deadline, () ->
+			apply(newCommandRunner(arguments, deadline).stdin(stdin))));
+	}
+
+	/**
+	 * Returns the time by which a command must complete.
+	 * <p>
+	 * Read-only commands are expected to return promptly, so they are limited to the
+	 * {@link #retryTimeout(Duration) retry timeout} even if the operation has no deadline. Otherwise, an
+	 * unresponsive daemon would block {@code retry(operation)} indefinitely. Commands that modify resources,
+	 * such as pulling or building images, may legitimately run for longer, so they are only limited by
+	 * {@code retry(operation, deadline)}.
+	 *
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @return the deadline, or {@code null} if the command is unbounded
+	 */
+	private Instant getCommandDeadline(List<String> arguments)
+	{
+		Instant deadline = DEADLINE.get();
+		if (!isReadOnly(arguments))
+			return deadline;
+		Instant readDeadline = Instant.now().plus(getRetryTimeout());
+		if (deadline == null || readDeadline.isBefore(deadline))
+			return readDeadline;
+		return deadline;
 	}
 
 	/**
-	 * Checks if a timeout occurred.
+	 * Runs a command once the number of running commands drops below {@link #maxRunningCommands(int)}.
 	 *
-	 * @param deadline the absolute time by which the operation must succeed. The method will retry failed
-	 *                 operations while the current time is before this value.
-	 * @param t        the exception that was thrown
-	 * @return {@code true} if the operation may be retried
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param deadline  the time by which the command must complete, or {@code null} if it is unbounded
+	 * @param operation runs the command
+	 * @return the result of the command
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
 	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
 	 *                              due to shutdown signals.
 	 */
-	@SuppressWarnings("BooleanMethodIsAlwaysInverted")
-	private boolean sleepBeforeRetry(Instant deadline, Throwable t) throws InterruptedException
+	private CommandResult admit(List<String> arguments, Instant deadline, CommandOperation operation)
+		throws IOException, InterruptedException
 	{
-		Instant nextRetry = Instant.now().plus(SLEEP_DURATION);
-		if (nextRetry.isAfter(deadline))
-			return false;
-		Thread.sleep(SLEEP_DURATION);
-		log.debug("Retrying after sleep", t);
-		return true;
+		CommandBulkhead bulkhead = root.bulkhead;
+		Lane lane;
+		if (isReadOnly(arguments))
+			lane = Lane.READ;
+		else
+			lane = Lane.MUTATION;
+		long startTime = System.nanoTime();
+		int queueDepth;
+		try
+		{
+			queueDepth = bulkhead.acquire(lane, deadline);
+		}
+		catch (TimeoutException e)
+		{
+			throw new CommandTimeoutException(e);
+		}
+		try
+		{
+			getMetrics().onAdmitted(getSubcommand(arguments), Duration.ofNanos(System.nanoTime() - startTime),
+				queueDepth);
+			return operation.run();
+		}
+		finally
+		{
+			bulkhead.release();
+		}
 	}
 
 	/**
-	 * Checks if a timeout occurred.
+	 * Runs a command, discarding the shared results of read-only commands if it might modify resources.
+	 * <p>
+	 * Results are discarded before the command runs, and again after it completes because read-only commands
+	 * that start while it is running might observe the resources before they were modified.
 	 *
-	 * @param deadline the absolute time by which the operation must succeed. The method will retry failed
-	 *                 operations while the current time is before this value.
-	 * @return {@code true} if the operation may be retried
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param operation runs the command
+	 * @return the result of the command
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
 	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
 	 *                              due to shutdown signals.
 	 */
-	protected boolean sleepBeforeRetry(Instant deadline) throws InterruptedException
+	private CommandResult discardCoalescedResults(List<String> arguments, CommandOperation operation)
+		throws IOException, InterruptedException
 	{
-		Instant nextRetry = Instant.now().plus(SLEEP_DURATION);
-		if (nextRetry.isAfter(deadline))
+		CommandCoalescer coalescer = root.coalescer;
+		if (coalescer == null || isReadOnly(arguments))
+			return operation.run();
+		coalescer.clear();
+		try
+		{
+			return operation.run();
+		}
+		finally
+		{
+			coalescer.clear();
+		}
+	}
+
+	/**
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @return {@code true} if the command returns the state of resources without modifying them
+	 */
+	private static boolean isReadOnly(List<String> arguments)
+	{
+		// "buildx inspect --bootstrap" starts the builder
+		if (arguments.contains("--bootstrap"))
 			return false;
-		Thread.sleep(SLEEP_DURATION);
-		log.debug("Retrying after sleep");
-		return true;
+		// docker container inspect <id>, docker ps, docker version
+		for (int i = 0; i < Math.min(2, arguments.size()); ++i)
+		{
+			if (READ_ONLY_SUBCOMMANDS.contains(arguments.get(i)))
+				return true;
+		}
+		return false;
 	}
 
-	@Override
-	public JsonMapper getJsonMapper()
+	/**
+	 * Runs a command.
+	 *
+	 * @param runner the command's runner
+	 * @return the result of the command
+	 * @throws CommandTimeoutException if the command did not exit before its deadline
+	 * @throws IOException             if an I/O error occurs. These errors are typically transient, and
+	 *                                 retrying the request may resolve the issue.
+	 * @throws InterruptedException    if the thread is interrupted before the operation completes. This can
+	 *                                 happen due to shutdown signals.
+	 */
+	private static CommandResult apply(CommandRunner runner) throws IOException, InterruptedException
 	{
-		ensureOpen();
-		return jsonMapper;
+		try
+		{
+			return runner.apply();
+		}
+		catch (TimeoutException e)
+		{
+			throw new CommandTimeoutException(e);
+		}
 	}
 
-	@Override
-	public CommandResult run(List<String> arguments) throws IOException, InterruptedException
+	/**
+	 * Returns a runner for a command that reports its measurements and failures to this client.
+	 *
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param deadline  the time by which the command must complete, or {@code null} if it is unbounded
+	 * @return the runner
+	 */
+	private CommandRunner newCommandRunner(List<String> arguments, Instant deadline)
 	{
-		ensureOpen();
 		return new CommandRunner(getProcessBuilder(arguments)).
-			failureHandler(this::commandFailed).
-			apply();
+			metrics(getMetrics(), getSubcommand(arguments), getAttempt()).
+			deadline(deadline).
+			recorder(getRecorder()).
+			replayer(getReplayer()).
+			failureHandler(this::commandFailed);
 	}
 
-	@Override
-	public CommandResult run(List<String> arguments, ByteBuffer stdin) throws IOException, InterruptedException
+	/**
+	 * Sends a command to the daemon without starting a process.
+	 *
+	 * @param transport the transport to send the command over
+	 * @param arguments the command-line arguments that the command is equivalent to
+	 * @param deadline  the time by which the command must complete, or {@code null} if it is unbounded
+	 * @return the result of the command
+	 * @throws CommandTimeoutException if the command did not complete before its deadline
+	 * @throws IOException             if an I/O error occurs. These errors are typically transient, and
+	 *                                 retrying the request may resolve the issue.
+	 * @throws InterruptedException    if the thread is interrupted before the operation completes. This can
+	 *                                 happen due to shutdown signals.
+	 */
+	private CommandResult runOverTransport(CommandTransport transport, List<String> arguments,
+		Instant deadline) throws IOException, InterruptedException
 	{
-		ensureOpen();
-		return new CommandRunner(getProcessBuilder(arguments)).
-			stdin(stdin).
-			failureHandler(this::commandFailed).
-			apply();
+		Instant start = Instant.now();
+		long startTime = System.nanoTime();
+		CommandResult result;
+		try
+		{
+			result = transport.run(arguments, deadline);
+		}
+		catch (TimeoutException e)
+		{
+			throw new CommandTimeoutException(e);
+		}
+		Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+		// The responses are predominantly ASCII, so their length approximates the number of bytes
+		getMetrics().onCommand(new CommandMetrics(getSubcommand(arguments), getAttempt(), Duration.ZERO,
+			duration, result.exitCode(), result.stdout().length(), result.stderr().length()));
+		CommandRecorder recorder = getRecorder();
+		if (recorder != null)
+		{
+			recorder.record(new JournalEntry(arguments, "", result.stdout(), result.stderr(), result.exitCode(),
+				start, duration));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the subcommand that a command runs, for the purpose of aggregating measurements.
+	 *
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @return the first argument, followed by the second argument if the first argument is a management
+	 * 	command such as {@code container}
+	 */
+	protected static String getSubcommand(List<String> arguments)
+	{
+		if (arguments.isEmpty())
+			return "";
+		String command = arguments.getFirst();
+		if (arguments.size() > 1 && MANAGEMENT_COMMANDS.contains(command))
+		{
+			String subcommand = arguments.get(1);
+			if (!subcommand.startsWith("-"))
+				return command + " " + subcommand;
+		}
+		return command;
+	}
+
+	/**
+	 * @return the number of times that the operation that is running on the current thread was attempted,
+	 * 	including the current attempt
+	 */
+	private static int getAttempt()
+	{
+		Integer attempt = ATTEMPT.get();
+		if (attempt == null)
+			return 1;
+		return attempt;
 	}
 
 	@Override
@@ -301,11 +825,11 @@ public Builder getBuilder(Predicate<Builder> predicate) throws IOException, Inte
 	}
 
 	@Override
-	@SuppressWarnings("BusyWait")
 	public Builder waitUntilBuilderStatus(BuilderId id, Builder.Node.Status status, Instant deadline)
 		throws IOException, InterruptedException, TimeoutException
 	{
 		ensureOpen();
+		RetryDelay delay = newRetryDelay();
 		while (true)
 		{
 			Builder builder = getBuilder(id);
@@ -341,7 +865,7 @@ else if (builder.getNodes().isEmpty())
 					throw new TimeoutException(message.toString());
 				}
 			}
-			Thread.sleep(100);
+			sleepBeforeRetry(delay, deadline);
 		}
 	}
 
@@ -389,12 +913,21 @@ public void ensureOpen()
 	@Override
 	public boolean isClosed()
 	{
-		return closed;
+		return root.closed;
 	}
 
 	@Override
 	public void close()
 	{
+		// Views are closed along with the client that they were created from
+		if (isView() || closed)
+			return;
 		this.closed = true;
+		if (transport != null)
+			transport.close();
+		CommandRecorder recorder = this.recorder;
+		if (recorder != null)
+			recorder.close();
+		processRegistry.close();
 	}
 }
\ No newline at end of file
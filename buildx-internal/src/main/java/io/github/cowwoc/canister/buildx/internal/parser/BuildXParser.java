@@ -1,7 +1,6 @@
 package io.github.cowwoc.canister.buildx.internal.parser;
 
 import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.github.cowwoc.canister.buildx.internal.client.InternalBuildXClient;
 import io.github.cowwoc.canister.buildx.internal.resource.DefaultBuilder;
 import io.github.cowwoc.canister.buildx.internal.resource.DefaultBuilder.DefaultNode;
@@ -9,6 +8,8 @@
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.id.BuilderId;
 import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonFields;
 import io.github.cowwoc.canister.core.resource.Builder;
 import io.github.cowwoc.canister.core.resource.Builder.Driver;
 import io.github.cowwoc.canister.core.resource.CommandResult;
@@ -109,18 +110,18 @@ public List<Builder> getBuilders(CommandResult result) throws IOException
 			throw result.unexpectedResponse();
 		}
 		InternalBuildXClient client = getClient();
-		JsonMapper jm = client.getJsonMapper();
+		JsonFieldReader reader = new JsonFieldReader(client.getJsonMapper(), "Name", "Driver", "Error", "Nodes");
 		List<Builder> builders = new ArrayList<>();
 		for (String line : SPLIT_LINES.split(result.stdout()))
 		{
 			if (line.isBlank())
 				continue;
-			JsonNode json = jm.readTree(line);
+			JsonFields fields = reader.read(line);
 			List<Builder.Node> nodes = new ArrayList<>();
-			BuilderId id = BuilderId.of(json.get("Name").textValue());
-			Driver driver = driverFromServer(json.get("Driver").textValue());
-			String error = json.get("Error").textValue();
-			for (JsonNode node : json.get("Nodes"))
+			BuilderId id = BuilderId.of(fields.getString("Name"));
+			Driver driver = driverFromServer(fields.getString("Driver"));
+			String error = fields.getString("Error");
+			for (JsonNode node : fields.getNode("Nodes"))
 			{
 				String name = node.get("Name").textValue();
 				Builder.Node.Status status = getBuilderNodeStatus(node.get("Status").textValue());
@@ -13,8 +13,6 @@
 import io.github.cowwoc.canister.core.spi.util.ParameterValidator;
 import io.github.cowwoc.canister.core.spi.util.Processes;
 import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -37,7 +35,6 @@ public class DefaultImageBuilder implements ImageBuilder
 	private final Set<AbstractExporter> exporters = new LinkedHashSet<>();
 	private BuilderId builder;
 	private BuildListener listener = new DefaultBuildListener();
-	private final Logger log = LoggerFactory.getLogger(DefaultImageBuilder.class);
 
 	/**
 	 * Creates an image builder.
@@ -132,8 +129,7 @@ public ImageId apply(Path buildContext) throws IOException, InterruptedException
 			return client.retry(_ ->
 			{
 				ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
-				log.debug("Running: {}", processBuilder.command());
-				Process process = processBuilder.start();
+				Process process = client.startProcess(processBuilder, arguments);
 				listener.buildStarted(process.inputReader(), process.errorReader(), process::waitFor);
 				Output output = listener.waitUntilBuildCompletes();
 
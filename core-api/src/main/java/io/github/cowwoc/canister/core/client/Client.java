@@ -1,8 +1,11 @@
 package io.github.cowwoc.canister.core.client;
 
+import io.github.cowwoc.canister.core.metrics.ClientMetrics;
+
 import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 
 /**
@@ -15,6 +18,10 @@ public interface Client extends AutoCloseable
 	 * default is 10 seconds.
 	 * <p>
 	 * If the timeout is exceeded, the command fails with the last encountered {@code IOException}.
+	 * <p>
+	 * Commands that only read the state of resources, such as {@code inspect} or {@code ls}, are also
+	 * terminated if they run for longer than this duration, so that an unresponsive daemon cannot block them
+	 * indefinitely. Commands that modify resources are only limited by explicit deadlines.
 	 *
 	 * @param duration the timeout
 	 * @return this
@@ -22,6 +29,52 @@ public interface Client extends AutoCloseable
 	 */
 	Client retryTimeout(Duration duration);
 
+	/**
+	 * Sets the policy that determines how long to wait between attempts when retrying a failed command or
+	 * polling for a state change. The default is {@link RetryPolicy#defaults()}.
+	 *
+	 * @param policy the policy
+	 * @return this
+	 * @throws NullPointerException if {@code policy} is null
+	 */
+	Client retryPolicy(RetryPolicy policy);
+
+	/**
+	 * Sets the destination of measurements about the commands that the client runs. The default is
+	 * {@link ClientMetrics#disabled()}.
+	 *
+	 * @param metrics the destination
+	 * @return this
+	 * @throws NullPointerException if {@code metrics} is null
+	 */
+	Client metrics(ClientMetrics metrics);
+
+	/**
+	 * Limits the number of commands that this client runs at the same time, across all threads. Commands that
+	 * exceed the limit wait until another command exits. Commands that might modify resources, such as
+	 * starting or stopping a container, are admitted before commands that look up or list resources, so that
+	 * they are not delayed by a burst of lookups. The default is 64.
+	 *
+	 * @param maximum the maximum number of commands to run at the same time
+	 * @return this
+	 * @throws IllegalArgumentException if {@code maximum} is not positive
+	 * @see ClientMetrics#onAdmitted(String, Duration, int)
+	 */
+	Client maxRunningCommands(int maximum);
+
+	/**
+	 * Shares the result of read-only commands, such as {@code inspect} or {@code ls}, between threads that run
+	 * identical commands at the same time. This reduces the number of processes that are spawned, and the load
+	 * on the daemon, when many threads look up the same resource at once. Running a command that might modify
+	 * a resource discards all shared results. Coalescing is disabled by default.
+	 *
+	 * @param ttl how long to share a result after the command completes, {@code Duration.ZERO} to only share
+	 *            results between commands that overlap, or {@code null} to disable coalescing
+	 * @return this
+	 * @throws IllegalArgumentException if {@code ttl} is negative
+	 */
+	Client coalesceReads(Duration ttl);
+
 	/**
 	 * Returns the resources that match the specified filters.
 	 *
@@ -37,6 +90,17 @@ public interface Client extends AutoCloseable
 	List<Object> getAll(Predicate<? super Class<?>> typeFilter, Predicate<Object> resourceFilter)
 		throws IOException, InterruptedException;
 
+	/**
+	 * Returns the number of long-running processes, such as {@code container logs --follow}, that the client
+	 * started and that have not exited yet. Closing the client terminates these processes.
+	 * <p>
+	 * Commands whose output the client reads to completion are not included, and are not terminated when the
+	 * client is closed.
+	 *
+	 * @return a map from each subcommand to the number of processes that are running it
+	 */
+	Map<String, Integer> getRunningProcesses();
+
 	/**
 	 * Determines if the client is closed.
 	 *
@@ -0,0 +1,225 @@
+package io.github.cowwoc.canister.core.client;
+
+import io.github.cowwoc.canister.core.exception.UnsupportedExporterException;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Determines how a client waits between attempts when retrying failed commands or polling for a state change.
+ * <p>
+ * The delay starts at {@link #getInitialDelay() initialDelay} and is multiplied by
+ * {@link #getMultiplier() multiplier} after every attempt, up to {@link #getMaximumDelay() maximumDelay}.
+ * Each delay is randomly shortened by up to {@link #getJitter() jitter} percent so that threads that failed at
+ * the same time do not retry in lockstep.
+ * <p>
+ * <b>Thread-safety</b>: This class is immutable.
+ */
+public final class RetryPolicy
+{
+	private static final RetryPolicy DEFAULT = new RetryPolicy(Duration.ofMillis(100), Duration.ofSeconds(2),
+		2.0, 0.2, RetryPolicy::isTransientByDefault);
+
+	/**
+	 * Returns the default policy. The delay starts at 100 milliseconds and doubles after every attempt, up to 2
+	 * seconds, with 20% jitter. Commands are retried if they fail with an {@code IOException} other than
+	 * {@code FileNotFoundException}, or with an {@code UnsupportedExporterException}.
+	 *
+	 * @return the default policy
+	 */
+	public static RetryPolicy defaults()
+	{
+		return DEFAULT;
+	}
+
+	/**
+	 * The default classification of failures.
+	 *
+	 * @param t the exception that was thrown
+	 * @return {@code true} if retrying the operation may resolve the failure
+	 */
+	private static boolean isTransientByDefault(Throwable t)
+	{
+		return switch (t)
+		{
+			// Failures that are assumed to be non-intermittent
+			case FileNotFoundException _ -> false;
+			// WORKAROUND: https://github.com/moby/moby/issues/50160
+			case IOException _ -> true;
+			// Surprisingly, the following error occurs intermittently under load:
+			//
+			// ERROR: failed to build: docker exporter does not currently support exporting manifest lists
+			case UnsupportedExporterException _ -> true;
+			default -> false;
+		};
+	}
+
+	private final Duration initialDelay;
+	private final Duration maximumDelay;
+	private final double multiplier;
+	private final double jitter;
+	private final Predicate<? super Throwable> isTransient;
+
+	/**
+	 * Creates a new policy.
+	 *
+	 * @param initialDelay the delay before the first retry
+	 * @param maximumDelay the maximum delay between attempts
+	 * @param multiplier   the value that the delay is multiplied by after every attempt
+	 * @param jitter       the maximum fraction of each delay that is randomly removed
+	 * @param isTransient  returns {@code true} if retrying an operation that threw an exception may succeed
+	 */
+	private RetryPolicy(Duration initialDelay, Duration maximumDelay, double multiplier, double jitter,
+		Predicate<? super Throwable> isTransient)
+	{
+		assert initialDelay != null;
+		assert maximumDelay != null;
+		assert isTransient != null;
+		this.initialDelay = initialDelay;
+		this.maximumDelay = maximumDelay;
+		this.multiplier = multiplier;
+		this.jitter = jitter;
+		this.isTransient = isTransient;
+	}
+
+	/**
+	 * Returns the delay before the first retry.
+	 *
+	 * @return the delay
+	 */
+	public Duration getInitialDelay()
+	{
+		return initialDelay;
+	}
+
+	/**
+	 * Returns a policy with a different initial delay.
+	 *
+	 * @param initialDelay the delay before the first retry
+	 * @return the new policy
+	 * @throws NullPointerException     if {@code initialDelay} is null
+	 * @throws IllegalArgumentException if {@code initialDelay} is negative, or greater than the maximum delay
+	 */
+	public RetryPolicy withInitialDelay(Duration initialDelay)
+	{
+		requireThat(initialDelay, "initialDelay").isGreaterThanOrEqualTo(Duration.ZERO).
+			isLessThanOrEqualTo(maximumDelay, "maximumDelay");
+		return new RetryPolicy(initialDelay, maximumDelay, multiplier, jitter, isTransient);
+	}
+
+	/**
+	 * Returns the maximum delay between attempts.
+	 *
+	 * @return the delay
+	 */
+	public Duration getMaximumDelay()
+	{
+		return maximumDelay;
+	}
+
+	/**
+	 * Returns a policy with a different maximum delay.
+	 *
+	 * @param maximumDelay the maximum delay between attempts
+	 * @return the new policy
+	 * @throws NullPointerException     if {@code maximumDelay} is null
+	 * @throws IllegalArgumentException if {@code maximumDelay} is less than the initial delay
+	 */
+	public RetryPolicy withMaximumDelay(Duration maximumDelay)
+	{
+		requireThat(maximumDelay, "maximumDelay").isGreaterThanOrEqualTo(initialDelay, "initialDelay");
+		return new RetryPolicy(initialDelay, maximumDelay, multiplier, jitter, isTransient);
+	}
+
+	/**
+	 * Returns the value that the delay is multiplied by after every attempt.
+	 *
+	 * @return the multiplier
+	 */
+	public double getMultiplier()
+	{
+		return multiplier;
+	}
+
+	/**
+	 * Returns a policy with a different multiplier.
+	 *
+	 * @param multiplier the value that the delay is multiplied by after every attempt. {@code 1.0} retries at
+	 *                   a fixed interval.
+	 * @return the new policy
+	 * @throws IllegalArgumentException if {@code multiplier} is less than {@code 1.0}
+	 */
+	public RetryPolicy withMultiplier(double multiplier)
+	{
+		requireThat(multiplier, "multiplier").isGreaterThanOrEqualTo(1.0);
+		return new RetryPolicy(initialDelay, maximumDelay, multiplier, jitter, isTransient);
+	}
+
+	/**
+	 * Returns the maximum fraction of each delay that is randomly removed.
+	 *
+	 * @return a value between {@code 0.0} (no jitter) and {@code 1.0} (each delay is between zero and its
+	 * 	nominal value)
+	 */
+	public double getJitter()
+	{
+		return jitter;
+	}
+
+	/**
+	 * Returns a policy with a different jitter.
+	 *
+	 * @param jitter the maximum fraction of each delay that is randomly removed
+	 * @return the new policy
+	 * @throws IllegalArgumentException if {@code jitter} is not between {@code 0.0} and {@code 1.0}
+	 */
+	public RetryPolicy withJitter(double jitter)
+	{
+		requireThat(jitter, "jitter").isBetween(0.0, true, 1.0, true);
+		return new RetryPolicy(initialDelay, maximumDelay, multiplier, jitter, isTransient);
+	}
+
+	/**
+	 * Indicates if retrying an operation that failed may succeed.
+	 *
+	 * @param t the exception that the operation threw
+	 * @return {@code true} if the operation should be retried
+	 * @throws NullPointerException if {@code t} is null
+	 */
+	public boolean isTransient(Throwable t)
+	{
+		requireThat(t, "t").isNotNull();
+		return isTransient.test(t);
+	}
+
+	/**
+	 * Returns a policy with a different classification of failures.
+	 *
+	 * @param isTransient returns {@code true} if retrying an operation that threw an exception may succeed.
+	 *                    Only {@code IOException}s and {@code RuntimeException}s are passed to this function;
+	 *                    other exceptions are never retried.
+	 * @return the new policy
+	 * @throws NullPointerException if {@code isTransient} is null
+	 */
+	public RetryPolicy withTransientFailures(Predicate<? super Throwable> isTransient)
+	{
+		requireThat(isTransient, "isTransient").isNotNull();
+		return new RetryPolicy(initialDelay, maximumDelay, multiplier, jitter, isTransient);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(RetryPolicy.class).
+			add("initialDelay", initialDelay).
+			add("maximumDelay", maximumDelay).
+			add("multiplier", multiplier).
+			add("jitter", jitter).
+			toString();
+	}
+}
@@ -0,0 +1,30 @@
+package io.github.cowwoc.canister.core.exception;
+
+import java.io.IOException;
+import java.io.Serial;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Thrown when a command does not complete before the deadline of the operation that runs it. The command's
+ * process, and any processes that it started, are terminated.
+ * <p>
+ * The deadline applies to every attempt of the operation, so this exception is never retried.
+ */
+public class CommandTimeoutException extends IOException
+{
+	@Serial
+	private static final long serialVersionUID = 0L;
+
+	/**
+	 * Creates an exception.
+	 *
+	 * @param cause the underlying exception
+	 * @throws NullPointerException if {@code cause} is null
+	 */
+	public CommandTimeoutException(Throwable cause)
+	{
+		super(cause.getMessage(), cause);
+		requireThat(cause, "cause").isNotNull();
+	}
+}
@@ -0,0 +1,71 @@
+package io.github.cowwoc.canister.core.metrics;
+
+import io.github.cowwoc.canister.core.client.Client;
+
+import java.time.Duration;
+
+/**
+ * Receives measurements of the commands that a client runs.
+ * <p>
+ * Commands are identified by their subcommand, such as {@code container ls} or {@code inspect}, so that
+ * measurements can be aggregated across invocations.
+ * <p>
+ * <b>Thread-safety</b>: Implementations must be thread-safe. The methods are invoked on the thread that ran
+ * the command, so they should return quickly.
+ *
+ * @see Client#metrics(ClientMetrics)
+ * @see InMemoryClientMetrics
+ * @see JfrClientMetrics
+ */
+public interface ClientMetrics
+{
+	/**
+	 * Returns an implementation that discards all measurements.
+	 *
+	 * @return the implementation
+	 */
+	static ClientMetrics disabled()
+	{
+		return DisabledClientMetrics.INSTANCE;
+	}
+
+	/**
+	 * Invoked after a command exits.
+	 *
+	 * @param command the command's measurements
+	 */
+	void onCommand(CommandMetrics command);
+
+	/**
+	 * Invoked after the client slept before retrying a failed command or polling for a state change.
+	 *
+	 * @param delay the duration that the thread slept for
+	 */
+	void onBackoff(Duration delay);
+
+	/**
+	 * Invoked after the client converted a command's output into resources.
+	 *
+	 * @param subcommand the subcommand that produced the output
+	 * @param duration   the time spent parsing the output
+	 */
+	void onParse(String subcommand, Duration duration);
+
+	/**
+	 * Invoked when the client admits a command to run.
+	 *
+	 * @param subcommand the subcommand that was admitted
+	 * @param waitTime   the time that the command waited for other commands to exit
+	 * @param queueDepth the number of commands that were already waiting when the command arrived
+	 * @see Client#maxRunningCommands(int)
+	 */
+	void onAdmitted(String subcommand, Duration waitTime, int queueDepth);
+
+	/**
+	 * Invoked when a command was not run because it shared the result of an identical command.
+	 *
+	 * @param subcommand the subcommand that was not run
+	 * @see Client#coalesceReads(Duration)
+	 */
+	void onCoalesced(String subcommand);
+}
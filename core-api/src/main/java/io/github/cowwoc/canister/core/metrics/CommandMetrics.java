@@ -0,0 +1,45 @@
+package io.github.cowwoc.canister.core.metrics;
+
+import java.time.Duration;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.that;
+
+/**
+ * The measurements of a single command.
+ *
+ * @param subcommand  the subcommand that was run, such as {@code container ls}
+ * @param attempt     the number of times that the command was run, including this time. Values greater than
+ *                    {@code 1} indicate that the command was retried.
+ * @param spawnTime   the time it took to start the process, or {@code Duration.ZERO} if the command was sent
+ *                    to the daemon without starting a process
+ * @param wallTime    the time between starting the command and its exit
+ * @param exitCode    the command's exit code
+ * @param stdoutBytes the number of bytes that the command wrote to its standard output stream
+ * @param stderrBytes the number of bytes that the command wrote to its standard error stream
+ */
+public record CommandMetrics(String subcommand, int attempt, Duration spawnTime, Duration wallTime,
+                             int exitCode, long stdoutBytes, long stderrBytes)
+{
+	/**
+	 * Creates new measurements.
+	 *
+	 * @param subcommand  the subcommand that was run, such as {@code container ls}
+	 * @param attempt     the number of times that the command was run, including this time. Values greater
+	 *                    than {@code 1} indicate that the command was retried.
+	 * @param spawnTime   the time it took to start the process, or {@code Duration.ZERO} if the command was
+	 *                    sent to the daemon without starting a process
+	 * @param wallTime    the time between starting the command and its exit
+	 * @param exitCode    the command's exit code
+	 * @param stdoutBytes the number of bytes that the command wrote to its standard output stream
+	 * @param stderrBytes the number of bytes that the command wrote to its standard error stream
+	 */
+	public CommandMetrics
+	{
+		assert that(subcommand, "subcommand").isNotNull().elseThrow();
+		assert that(attempt, "attempt").isPositive().elseThrow();
+		assert that(spawnTime, "spawnTime").isNotNull().elseThrow();
+		assert that(wallTime, "wallTime").isNotNull().elseThrow();
+		assert that(stdoutBytes, "stdoutBytes").isNotNegative().elseThrow();
+		assert that(stderrBytes, "stderrBytes").isNotNegative().elseThrow();
+	}
+}
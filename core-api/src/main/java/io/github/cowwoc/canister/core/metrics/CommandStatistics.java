@@ -0,0 +1,179 @@
+package io.github.cowwoc.canister.core.metrics;
+
+import io.github.cowwoc.canister.core.client.Client;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The aggregated measurements of a subcommand.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ *
+ * @see InMemoryClientMetrics
+ */
+public final class CommandStatistics
+{
+	private final LongAdder commands = new LongAdder();
+	private final LongAdder retries = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder coalesced = new LongAdder();
+	private final LongAdder stdoutBytes = new LongAdder();
+	private final LongAdder stderrBytes = new LongAdder();
+	private final Histogram spawnTime = new Histogram();
+	private final Histogram wallTime = new Histogram();
+	private final Histogram parseTime = new Histogram();
+	private final Histogram waitTime = new Histogram();
+
+	/**
+	 * Creates empty statistics.
+	 */
+	CommandStatistics()
+	{
+	}
+
+	/**
+	 * Records the measurements of a command.
+	 *
+	 * @param command the measurements
+	 */
+	void record(CommandMetrics command)
+	{
+		commands.increment();
+		if (command.attempt() > 1)
+			retries.increment();
+		if (command.exitCode() != 0)
+			failures.increment();
+		stdoutBytes.add(command.stdoutBytes());
+		stderrBytes.add(command.stderrBytes());
+		spawnTime.record(command.spawnTime());
+		wallTime.record(command.wallTime());
+	}
+
+	/**
+	 * Records a command that shared the result of an identical command.
+	 */
+	void onCoalesced()
+	{
+		coalesced.increment();
+	}
+
+	/**
+	 * Returns the number of times that the subcommand was run, including retries.
+	 *
+	 * @return the number of commands
+	 */
+	public long getCommands()
+	{
+		return commands.sum();
+	}
+
+	/**
+	 * Returns the number of times that the subcommand was run again after an earlier attempt failed.
+	 *
+	 * @return the number of retries
+	 */
+	public long getRetries()
+	{
+		return retries.sum();
+	}
+
+	/**
+	 * Returns the number of times that the subcommand returned a non-zero exit code.
+	 *
+	 * @return the number of failures
+	 */
+	public long getFailures()
+	{
+		return failures.sum();
+	}
+
+	/**
+	 * Returns the number of times that the subcommand was not run because it shared the result of an
+	 * identical command.
+	 *
+	 * @return the number of commands that were not run
+	 */
+	public long getCoalesced()
+	{
+		return coalesced.sum();
+	}
+
+	/**
+	 * Returns the total number of bytes that the subcommand wrote to its standard output stream.
+	 *
+	 * @return the number of bytes
+	 */
+	public long getStdoutBytes()
+	{
+		return stdoutBytes.sum();
+	}
+
+	/**
+	 * Returns the total number of bytes that the subcommand wrote to its standard error stream.
+	 *
+	 * @return the number of bytes
+	 */
+	public long getStderrBytes()
+	{
+		return stderrBytes.sum();
+	}
+
+	/**
+	 * Returns the time it took to start the subcommand's processes.
+	 *
+	 * @return the distribution of durations
+	 */
+	public Histogram getSpawnTime()
+	{
+		return spawnTime;
+	}
+
+	/**
+	 * Returns the time between starting the subcommand and its exit.
+	 *
+	 * @return the distribution of durations
+	 */
+	public Histogram getWallTime()
+	{
+		return wallTime;
+	}
+
+	/**
+	 * Returns the time spent converting the subcommand's output into resources.
+	 *
+	 * @return the distribution of durations
+	 */
+	public Histogram getParseTime()
+	{
+		return parseTime;
+	}
+
+	/**
+	 * Returns the time that the subcommand waited for other commands to exit before it could run.
+	 *
+	 * @return the distribution of durations
+	 * @see Client#maxRunningCommands(int)
+	 */
+	public Histogram getWaitTime()
+	{
+		return waitTime;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(CommandStatistics.class).
+			add("commands", getCommands()).
+			add("retries", getRetries()).
+			add("failures", getFailures()).
+			add("coalesced", getCoalesced()).
+			add("stdoutBytes", getStdoutBytes()).
+			add("stderrBytes", getStderrBytes()).
+			add("spawnTime", spawnTime).
+			add("wallTime", wallTime).
+			add("parseTime", parseTime).
+			add("waitTime", waitTime).
+			toString();
+	}
+}
@@ -0,0 +1,49 @@
+package io.github.cowwoc.canister.core.metrics;
+
+import java.time.Duration;
+
+/**
+ * Discards all measurements.
+ */
+final class DisabledClientMetrics implements ClientMetrics
+{
+	static final DisabledClientMetrics INSTANCE = new DisabledClientMetrics();
+
+	/**
+	 * Use {@link ClientMetrics#disabled()} instead.
+	 */
+	private DisabledClientMetrics()
+	{
+	}
+
+	@Override
+	public void onCommand(CommandMetrics command)
+	{
+	}
+
+	@Override
+	public void onBackoff(Duration delay)
+	{
+	}
+
+	@Override
+	public void onParse(String subcommand, Duration duration)
+	{
+	}
+
+	@Override
+	public void onAdmitted(String subcommand, Duration waitTime, int queueDepth)
+	{
+	}
+
+	@Override
+	public void onCoalesced(String subcommand)
+	{
+	}
+
+	@Override
+	public String toString()
+	{
+		return "disabled";
+	}
+}
@@ -0,0 +1,176 @@
+package io.github.cowwoc.canister.core.metrics;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The distribution of a set of durations.
+ * <p>
+ * Durations are counted in buckets whose width grows with their magnitude, so percentiles are accurate to
+ * within 12.5% regardless of whether the durations are measured in microseconds or minutes.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class Histogram
+{
+	/**
+	 * The number of bits used to divide each power of two into sub-buckets.
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	/**
+	 * Values below this threshold are counted in a bucket of their own.
+	 */
+	private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+	private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS;
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Creates an empty histogram.
+	 */
+	public Histogram()
+	{
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param duration the duration
+	 * @throws NullPointerException     if {@code duration} is null
+	 * @throws IllegalArgumentException if {@code duration} is negative
+	 */
+	public void record(Duration duration)
+	{
+		requireThat(duration, "duration").isGreaterThanOrEqualTo(Duration.ZERO);
+		long nanos = toNanos(duration);
+		buckets.incrementAndGet(getBucket(nanos));
+		count.increment();
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+	}
+
+	/**
+	 * @param duration a duration
+	 * @return the number of nanoseconds in the duration, or {@code Long.MAX_VALUE} on overflow
+	 */
+	private static long toNanos(Duration duration)
+	{
+		try
+		{
+			return duration.toNanos();
+		}
+		catch (ArithmeticException _)
+		{
+			return Long.MAX_VALUE;
+		}
+	}
+
+	/**
+	 * @param nanos a non-negative number of nanoseconds
+	 * @return the index of the bucket that counts the value
+	 */
+	private static int getBucket(long nanos)
+	{
+		if (nanos < LINEAR_BUCKETS)
+			return (int) nanos;
+		int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return LINEAR_BUCKETS + (exponent - (SUB_BUCKET_BITS + 1)) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * @param bucket the index of a bucket
+	 * @return the largest value that the bucket counts
+	 */
+	private static long getUpperBound(int bucket)
+	{
+		if (bucket < LINEAR_BUCKETS)
+			return bucket;
+		int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+		int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+		int shift = exponent - SUB_BUCKET_BITS;
+		long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+		return lowerBound + ((1L << shift) - 1);
+	}
+
+	/**
+	 * Returns the number of durations that were recorded.
+	 *
+	 * @return the number of durations
+	 */
+	public long getCount()
+	{
+		return count.sum();
+	}
+
+	/**
+	 * Returns the sum of the durations that were recorded.
+	 *
+	 * @return the sum
+	 */
+	public Duration getTotal()
+	{
+		return Duration.ofNanos(totalNanos.sum());
+	}
+
+	/**
+	 * Returns the longest duration that was recorded.
+	 *
+	 * @return {@code Duration.ZERO} if no durations were recorded
+	 */
+	public Duration getMaximum()
+	{
+		return Duration.ofNanos(maxNanos.get());
+	}
+
+	/**
+	 * Returns the duration below which a percentage of the recorded durations fall.
+	 *
+	 * @param percentile a value between {@code 0} and {@code 100}, such as {@code 99} for the 99th percentile
+	 * @return {@code Duration.ZERO} if no durations were recorded
+	 * @throws IllegalArgumentException if {@code percentile} is not between {@code 0} and {@code 100}
+	 */
+	public Duration getPercentile(double percentile)
+	{
+		requireThat(percentile, "percentile").isBetween(0.0, true, 100.0, true);
+		long total = 0;
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; ++i)
+		{
+			counts[i] = buckets.get(i);
+			total += counts[i];
+		}
+		if (total == 0)
+			return Duration.ZERO;
+		long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+		long seen = 0;
+		long max = maxNanos.get();
+		for (int i = 0; i < BUCKETS; ++i)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+				return Duration.ofNanos(Math.min(getUpperBound(i), max));
+		}
+		return Duration.ofNanos(max);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(Histogram.class).
+			add("count", getCount()).
+			add("p50", getPercentile(50)).
+			add("p99", getPercentile(99)).
+			add("maximum", getMaximum()).
+			toString();
+	}
+}
@@ -0,0 +1,133 @@
+package io.github.cowwoc.canister.core.metrics;
+
+import io.github.cowwoc.canister.core.client.Client;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Aggregates measurements in memory, by subcommand.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class InMemoryClientMetrics implements ClientMetrics
+{
+	private final ConcurrentMap<String, CommandStatistics> subcommandToStatistics = new ConcurrentHashMap<>();
+	private final Histogram backoffTime = new Histogram();
+	private final LongAccumulator maximumQueueDepth = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * Creates empty metrics.
+	 */
+	public InMemoryClientMetrics()
+	{
+	}
+
+	@Override
+	public void onCommand(CommandMetrics command)
+	{
+		requireThat(command, "command").isNotNull();
+		getOrCreate(command.subcommand()).record(command);
+	}
+
+	@Override
+	public void onBackoff(Duration delay)
+	{
+		backoffTime.record(delay);
+	}
+
+	@Override
+	public void onParse(String subcommand, Duration duration)
+	{
+		requireThat(subcommand, "subcommand").isNotNull();
+		getOrCreate(subcommand).getParseTime().record(duration);
+	}
+
+	@Override
+	public void onAdmitted(String subcommand, Duration waitTime, int queueDepth)
+	{
+		requireThat(subcommand, "subcommand").isNotNull();
+		getOrCreate(subcommand).getWaitTime().record(waitTime);
+		maximumQueueDepth.accumulate(queueDepth);
+	}
+
+	@Override
+	public void onCoalesced(String subcommand)
+	{
+		requireThat(subcommand, "subcommand").isNotNull();
+		getOrCreate(subcommand).onCoalesced();
+	}
+
+	/**
+	 * @param subcommand a subcommand
+	 * @return the subcommand's statistics
+	 */
+	private CommandStatistics getOrCreate(String subcommand)
+	{
+		return subcommandToStatistics.computeIfAbsent(subcommand, _ -> new CommandStatistics());
+	}
+
+	/**
+	 * Returns the subcommands that were measured.
+	 *
+	 * @return the subcommands
+	 */
+	public Set<String> getSubcommands()
+	{
+		return Set.copyOf(subcommandToStatistics.keySet());
+	}
+
+	/**
+	 * Returns the statistics of a subcommand.
+	 *
+	 * @param subcommand the subcommand, such as {@code container ls}
+	 * @return {@code null} if the subcommand was not measured
+	 * @throws NullPointerException if {@code subcommand} is null
+	 */
+	public CommandStatistics getStatistics(String subcommand)
+	{
+		requireThat(subcommand, "subcommand").isNotNull();
+		return subcommandToStatistics.get(subcommand);
+	}
+
+	/**
+	 * Returns the time that the client spent backing off before retrying failed commands or polling for state
+	 * changes.
+	 *
+	 * @return the distribution of delays
+	 */
+	public Histogram getBackoffTime()
+	{
+		return backoffTime;
+	}
+
+	/**
+	 * Returns the largest number of commands that were waiting for other commands to exit at the same time.
+	 *
+	 * @return the number of commands
+	 * @see Client#maxRunningCommands(int)
+	 */
+	public long getMaximumQueueDepth()
+	{
+		return maximumQueueDepth.get();
+	}
+
+	@Override
+	public String toString()
+	{
+		Map<String, CommandStatistics> sorted = new TreeMap<>(subcommandToStatistics);
+		return new ToStringBuilder(InMemoryClientMetrics.class).
+			add("subcommands", sorted).
+			add("backoffTime", backoffTime).
+			add("maximumQueueDepth", getMaximumQueueDepth()).
+			toString();
+	}
+}
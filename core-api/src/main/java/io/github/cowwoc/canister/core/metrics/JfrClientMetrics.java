@@ -0,0 +1,231 @@
+package io.github.cowwoc.canister.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import java.time.Duration;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Emits measurements as Java Flight Recorder events, so they can be analyzed alongside the rest of the
+ * application's recording.
+ * <p>
+ * The following events are emitted, and are disabled unless a recording enables them:
+ * <ul>
+ *   <li>{@value #COMMAND_EVENT}: a command exited</li>
+ *   <li>{@value #BACKOFF_EVENT}: the client slept before retrying a command or polling for a state
+ *   change</li>
+ *   <li>{@value #PARSE_EVENT}: the client converted a command's output into resources</li>
+ *   <li>{@value #ADMISSION_EVENT}: a command waited for other commands to exit before it could run</li>
+ *   <li>{@value #COALESCED_EVENT}: a command shared the result of an identical command</li>
+ * </ul>
+ * <p>
+ * The {@code jdk.jfr} module is optional for the rest of the library, so applications that use this class
+ * must ensure that it is present at runtime, such as by declaring {@code requires jdk.jfr} or by including it
+ * in their {@code jlink} image.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class JfrClientMetrics implements ClientMetrics
+{
+	/**
+	 * The name of the event that is emitted when a command exits.
+	 */
+	public static final String COMMAND_EVENT = "io.github.cowwoc.canister.Command";
+	/**
+	 * The name of the event that is emitted when the client backs off.
+	 */
+	public static final String BACKOFF_EVENT = "io.github.cowwoc.canister.Backoff";
+	/**
+	 * The name of the event that is emitted when the client parses a command's output.
+	 */
+	public static final String PARSE_EVENT = "io.github.cowwoc.canister.Parse";
+	/**
+	 * The name of the event that is emitted when a command waits for other commands to exit.
+	 */
+	public static final String ADMISSION_EVENT = "io.github.cowwoc.canister.Admission";
+	/**
+	 * The name of the event that is emitted when a command shares the result of an identical command.
+	 */
+	public static final String COALESCED_EVENT = "io.github.cowwoc.canister.Coalesced";
+
+	/**
+	 * Creates a new instance.
+	 */
+	public JfrClientMetrics()
+	{
+	}
+
+	@Override
+	public void onCommand(CommandMetrics command)
+	{
+		requireThat(command, "command").isNotNull();
+		CommandEvent event = new CommandEvent();
+		if (!event.shouldCommit())
+			return;
+		event.subcommand = command.subcommand();
+		event.attempt = command.attempt();
+		event.spawnTime = command.spawnTime().toNanos();
+		event.wallTime = command.wallTime().toNanos();
+		event.exitCode = command.exitCode();
+		event.stdoutBytes = command.stdoutBytes();
+		event.stderrBytes = command.stderrBytes();
+		event.commit();
+	}
+
+	@Override
+	public void onBackoff(Duration delay)
+	{
+		requireThat(delay, "delay").isNotNull();
+		BackoffEvent event = new BackoffEvent();
+		if (!event.shouldCommit())
+			return;
+		event.delay = delay.toNanos();
+		event.commit();
+	}
+
+	@Override
+	public void onParse(String subcommand, Duration duration)
+	{
+		requireThat(subcommand, "subcommand").isNotNull();
+		requireThat(duration, "duration").isNotNull();
+		ParseEvent event = new ParseEvent();
+		if (!event.shouldCommit())
+			return;
+		event.subcommand = subcommand;
+		event.parseTime = duration.toNanos();
+		event.commit();
+	}
+
+	@Override
+	public void onAdmitted(String subcommand, Duration waitTime, int queueDepth)
+	{
+		requireThat(subcommand, "subcommand").isNotNull();
+		requireThat(waitTime, "waitTime").isNotNull();
+		// Only commands that had to wait are of interest
+		if (!waitTime.isPositive())
+			return;
+		AdmissionEvent event = new AdmissionEvent();
+		if (!event.shouldCommit())
+			return;
+		event.subcommand = subcommand;
+		event.waitTime = waitTime.toNanos();
+		event.queueDepth = queueDepth;
+		event.commit();
+	}
+
+	@Override
+	public void onCoalesced(String subcommand)
+	{
+		requireThat(subcommand, "subcommand").isNotNull();
+		CoalescedEvent event = new CoalescedEvent();
+		if (!event.shouldCommit())
+			return;
+		event.subcommand = subcommand;
+		event.commit();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "JfrClientMetrics";
+	}
+
+	/**
+	 * A command exited.
+	 */
+	@Name(COMMAND_EVENT)
+	@Label("Canister Command")
+	@Category("Canister")
+	@StackTrace(false)
+	static final class CommandEvent extends Event
+	{
+		@Label("Subcommand")
+		String subcommand;
+		@Label("Attempt")
+		@Description("The number of times that the command was run, including this time")
+		int attempt;
+		@Label("Spawn Time")
+		@Timespan
+		long spawnTime;
+		@Label("Wall Time")
+		@Timespan
+		long wallTime;
+		@Label("Exit Code")
+		int exitCode;
+		@Label("Stdout")
+		@DataAmount
+		long stdoutBytes;
+		@Label("Stderr")
+		@DataAmount
+		long stderrBytes;
+	}
+
+	/**
+	 * The client slept before retrying a command or polling for a state change.
+	 */
+	@Name(BACKOFF_EVENT)
+	@Label("Canister Backoff")
+	@Category("Canister")
+	static final class BackoffEvent extends Event
+	{
+		@Label("Delay")
+		@Timespan
+		long delay;
+	}
+
+	/**
+	 * The client converted a command's output into resources.
+	 */
+	@Name(PARSE_EVENT)
+	@Label("Canister Parse")
+	@Category("Canister")
+	@StackTrace(false)
+	static final class ParseEvent extends Event
+	{
+		@Label("Subcommand")
+		String subcommand;
+		@Label("Parse Time")
+		@Timespan
+		long parseTime;
+	}
+
+	/**
+	 * A command waited for other commands to exit before it could run.
+	 */
+	@Name(ADMISSION_EVENT)
+	@Label("Canister Admission")
+	@Category("Canister")
+	@StackTrace(false)
+	static final class AdmissionEvent extends Event
+	{
+		@Label("Subcommand")
+		String subcommand;
+		@Label("Wait Time")
+		@Timespan
+		long waitTime;
+		@Label("Queue Depth")
+		@Description("The number of commands that were already waiting when the command arrived")
+		int queueDepth;
+	}
+
+	/**
+	 * A command shared the result of an identical command.
+	 */
+	@Name(COALESCED_EVENT)
+	@Label("Canister Coalesced Command")
+	@Category("Canister")
+	@StackTrace(false)
+	static final class CoalescedEvent extends Event
+	{
+		@Label("Subcommand")
+		String subcommand;
+	}
+}
@@ -71,6 +71,18 @@ public static void consume(BufferedReader reader, Queue<Throwable> exceptions, C
 		}
 	}
 
+	/**
+	 * Terminates a process and all of its descendants. The descendants are terminated first, so that they are
+	 * not orphaned if the process exits.
+	 *
+	 * @param process the process
+	 */
+	public static void destroyTree(Process process)
+	{
+		process.descendants().forEach(ProcessHandle::destroy);
+		process.destroy();
+	}
+
 	/**
 	 * Returns the working directory of a {@code ProcessBuilder}.
 	 *
@@ -6,10 +6,13 @@
 	requires io.github.cowwoc.pouch.core;
 	requires io.github.cowwoc.requirements12.java;
 	requires transitive org.slf4j;
+	// Only JfrClientMetrics uses JFR, so runtime images without jdk.jfr can use the rest of the library
+	requires static jdk.jfr;
 
 	exports io.github.cowwoc.canister.core.client;
 	exports io.github.cowwoc.canister.core.exception;
 	exports io.github.cowwoc.canister.core.id;
+	exports io.github.cowwoc.canister.core.metrics;
 	exports io.github.cowwoc.canister.core.resource;
 	exports io.github.cowwoc.canister.core.util;
 	exports io.github.cowwoc.canister.core.spi.resource;
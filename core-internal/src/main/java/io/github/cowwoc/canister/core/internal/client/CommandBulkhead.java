@@ -0,0 +1,213 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of commands that run at the same time.
+ * <p>
+ * Commands that cannot run immediately wait in one of two lanes. Commands in the {@link Lane#MUTATION} lane,
+ * such as starting or stopping a container, are admitted before any command in the {@link Lane#READ} lane,
+ * so that interactive operations are not delayed by a burst of lookups or listings. Commands within the same
+ * lane are admitted in the order that they arrive.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class CommandBulkhead
+{
+	private final int maximum;
+	private final ReentrantLock lock = new ReentrantLock(true);
+	private final Condition[] laneToCondition = new Condition[Lane.values().length];
+	// The following fields are guarded by "lock"
+	private final int[] laneToWaiting = new int[Lane.values().length];
+	private int running;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param maximum the maximum number of commands that may run at the same time
+	 */
+	public CommandBulkhead(int maximum)
+	{
+		assert maximum > 0 : maximum;
+		this.maximum = maximum;
+		for (Lane lane : Lane.values())
+			laneToCondition[lane.ordinal()] = lock.newCondition();
+	}
+
+	/**
+	 * Waits until a command may run. Each successful invocation must be followed by an invocation of
+	 * {@link #release()}.
+	 *
+	 * @param lane     the lane to wait in
+	 * @param deadline the time to stop waiting, or {@code null} to wait indefinitely
+	 * @return the number of commands that were waiting in any lane when the command arrived
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws TimeoutException     if the deadline expires before the command may run
+	 */
+	public int acquire(Lane lane, Instant deadline) throws InterruptedException, TimeoutException
+	{
+		lock.lock();
+		try
+		{
+			int queueDepth = getQueueDepth();
+			if (queueDepth == 0 && running < maximum)
+			{
+				++running;
+				return 0;
+			}
+			++laneToWaiting[lane.ordinal()];
+			try
+			{
+				while (running >= maximum || hasPrecedence(lane))
+					await(laneToCondition[lane.ordinal()], deadline);
+			}
+			catch (InterruptedException | TimeoutException e)
+			{
+				// Pass on any signal that this thread consumed
+				--laneToWaiting[lane.ordinal()];
+				signalNext();
+				throw e;
+			}
+			--laneToWaiting[lane.ordinal()];
+			++running;
+			// Admit another command if there is room for it
+			signalNext();
+			return queueDepth;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits for a condition to be signalled.
+	 *
+	 * @param condition the condition
+	 * @param deadline  the time to stop waiting, or {@code null} to wait indefinitely
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 * @throws TimeoutException     if the deadline expires before the condition is signalled
+	 */
+	private static void await(Condition condition, Instant deadline)
+		throws InterruptedException, TimeoutException
+	{
+		if (deadline == null)
+		{
+			condition.await();
+			return;
+		}
+		Duration timeLeft = Duration.between(Instant.now(), deadline);
+		if (!timeLeft.isPositive() || !condition.await(timeLeft.toNanos(), TimeUnit.NANOSECONDS))
+			throw new TimeoutException("The deadline expired before the command could run");
+	}
+
+	/**
+	 * Indicates that a command finished running.
+	 */
+	public void release()
+	{
+		lock.lock();
+		try
+		{
+			assert running > 0 : running;
+			--running;
+			signalNext();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of commands that are waiting to run.
+	 *
+	 * @return the number of commands
+	 */
+	public int getQueueDepth()
+	{
+		lock.lock();
+		try
+		{
+			int total = 0;
+			for (int waiting : laneToWaiting)
+				total += waiting;
+			return total;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @param lane a lane
+	 * @return {@code true} if commands are waiting in a lane that takes precedence over {@code lane}
+	 */
+	private boolean hasPrecedence(Lane lane)
+	{
+		for (int i = 0; i < lane.ordinal(); ++i)
+		{
+			if (laneToWaiting[i] > 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Wakes up the command that should run next, if there is room for it.
+	 */
+	private void signalNext()
+	{
+		if (running >= maximum)
+			return;
+		for (Lane lane : Lane.values())
+		{
+			if (laneToWaiting[lane.ordinal()] > 0)
+			{
+				laneToCondition[lane.ordinal()].signal();
+				return;
+			}
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		lock.lock();
+		try
+		{
+			return new ToStringBuilder(CommandBulkhead.class).
+				add("maximum", maximum).
+				add("running", running).
+				add("queueDepth", getQueueDepth()).
+				toString();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * The lanes that commands wait in, from highest to lowest precedence.
+	 */
+	public enum Lane
+	{
+		/**
+		 * Commands that might modify resources.
+		 */
+		MUTATION,
+		/**
+		 * Commands that look up or list resources.
+		 */
+		READ
+	}
+}
@@ -0,0 +1,202 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import io.github.cowwoc.canister.core.exception.CommandTimeoutException;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shares the result of a command between callers that run an identical command at the same time, so that
+ * only one process is spawned.
+ * <p>
+ * If a command fails with an exception, the callers that were waiting for it run the command again instead
+ * of sharing the exception, so each caller's retry policy applies independently.
+ * <p>
+ * Expired results are swept at most once per time-to-live, so the number of shared results is bounded by the
+ * number of distinct commands that complete within roughly two time-to-live periods.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class CommandCoalescer
+{
+	private final long ttlNanos;
+	private final ConcurrentMap<List<String>, Flight> commandToFlight = new ConcurrentHashMap<>();
+	/**
+	 * The value of {@link System#nanoTime()} after which expired results should be swept.
+	 */
+	private final AtomicLong nextSweep;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param ttl how long to share a result after the command completes. {@code Duration.ZERO} only shares
+	 *            results between callers whose commands overlap.
+	 */
+	public CommandCoalescer(Duration ttl)
+	{
+		assert ttl != null;
+		assert !ttl.isNegative();
+		this.ttlNanos = ttl.toNanos();
+		this.nextSweep = new AtomicLong(System.nanoTime() + ttlNanos);
+	}
+
+	/**
+	 * Runs a command, or waits for an identical command that is already running.
+	 *
+	 * @param command   the command-line, including the executable
+	 * @param deadline  the time by which the command must complete, or {@code null} to wait indefinitely
+	 * @param operation runs the command
+	 * @return the result of the command
+	 * @throws CommandTimeoutException if the deadline expires while waiting for an identical command
+	 * @throws IOException             if an I/O error occurs. These errors are typically transient, and
+	 *                                 retrying the request may resolve the issue.
+	 * @throws InterruptedException    if the thread is interrupted before the operation completes. This can
+	 *                                 happen due to shutdown signals.
+	 */
+	public Coalesced run(List<String> command, Instant deadline, CommandOperation operation)
+		throws IOException, InterruptedException
+	{
+		sweepExpired();
+		while (true)
+		{
+			Flight flight = new Flight();
+			Flight existing = commandToFlight.putIfAbsent(command, flight);
+			if (existing == null)
+				return new Coalesced(runFlight(command, flight, operation), false);
+			if (existing.isExpired())
+			{
+				commandToFlight.remove(command, existing);
+				continue;
+			}
+			try
+			{
+				if (deadline == null)
+					return new Coalesced(existing.result.get(), true);
+				long timeLeft = Duration.between(Instant.now(), deadline).toNanos();
+				return new Coalesced(existing.result.get(timeLeft, TimeUnit.NANOSECONDS), true);
+			}
+			catch (ExecutionException _)
+			{
+				// The command failed. Run it again.
+			}
+			catch (TimeoutException e)
+			{
+				throw new CommandTimeoutException(e);
+			}
+		}
+	}
+
+	/**
+	 * Removes the results that may no longer be shared. Results are otherwise only removed when an identical
+	 * command runs again, so commands that do not repeat would accumulate.
+	 */
+	private void sweepExpired()
+	{
+		if (ttlNanos == 0)
+		{
+			// Results are removed as soon as their command completes
+			return;
+		}
+		long now = System.nanoTime();
+		long next = nextSweep.get();
+		if (now - next < 0 || !nextSweep.compareAndSet(next, now + ttlNanos))
+			return;
+		commandToFlight.values().removeIf(Flight::isExpired);
+	}
+
+	/**
+	 * Runs a command on behalf of all the callers that are waiting for it.
+	 *
+	 * @param command   the command-line, including the executable
+	 * @param flight    the state shared by the callers
+	 * @param operation runs the command
+	 * @return the result of the command
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private CommandResult runFlight(List<String> command, Flight flight, CommandOperation operation)
+		throws IOException, InterruptedException
+	{
+		CommandResult result;
+		try
+		{
+			result = operation.run();
+		}
+		catch (IOException | InterruptedException | RuntimeException | Error e)
+		{
+			commandToFlight.remove(command, flight);
+			flight.result.completeExceptionally(e);
+			throw e;
+		}
+		if (ttlNanos == 0)
+			commandToFlight.remove(command, flight);
+		else
+			flight.expiresAt = System.nanoTime() + ttlNanos;
+		flight.result.complete(result);
+		return result;
+	}
+
+	/**
+	 * Discards all shared results, including the results of commands that are still running, so that
+	 * subsequent commands observe any changes made since they started. Callers that are already waiting for a
+	 * running command still receive its result.
+	 */
+	public void clear()
+	{
+		commandToFlight.clear();
+	}
+
+	/**
+	 * The outcome of {@link #run(List, Instant, CommandOperation)}.
+	 *
+	 * @param result    the result of the command
+	 * @param coalesced {@code true} if the result was produced by another caller's command
+	 */
+	public record Coalesced(CommandResult result, boolean coalesced)
+	{
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param result    the result of the command
+		 * @param coalesced {@code true} if the result was produced by another caller's command
+		 */
+		public Coalesced
+		{
+			assert result != null;
+		}
+	}
+
+	/**
+	 * A command that is running or whose result is being shared.
+	 */
+	private static final class Flight
+	{
+		final CompletableFuture<CommandResult> result = new CompletableFuture<>();
+		/**
+		 * The value of {@link System#nanoTime()} after which the result may no longer be shared, or {@code 0}
+		 * if the command is running.
+		 */
+		volatile long expiresAt;
+
+		/**
+		 * @return {@code true} if the result may no longer be shared
+		 */
+		boolean isExpired()
+		{
+			long expiresAt = this.expiresAt;
+			return expiresAt != 0 && System.nanoTime() - expiresAt > 0;
+		}
+	}
+}
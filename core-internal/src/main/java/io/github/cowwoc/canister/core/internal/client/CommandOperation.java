@@ -0,0 +1,23 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import io.github.cowwoc.canister.core.resource.CommandResult;
+
+import java.io.IOException;
+
+/**
+ * Runs a command.
+ */
+@FunctionalInterface
+public interface CommandOperation
+{
+	/**
+	 * Runs the command.
+	 *
+	 * @return the result of the command
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	CommandResult run() throws IOException, InterruptedException;
+}
@@ -0,0 +1,109 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Records the commands that a client runs to a journal, so that they can be served back by a
+ * {@link CommandReplayer} without a daemon.
+ * <p>
+ * The journal is a gzip-compressed sequence of {@link JournalEntry entries}. Each entry is flushed as soon
+ * as it is recorded, so a journal remains readable up to its last complete entry even if the JVM exits
+ * without closing the recorder.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class CommandRecorder implements AutoCloseable
+{
+	/**
+	 * Identifies the file format.
+	 */
+	static final int MAGIC = 0x434A524E;
+	/**
+	 * The version of the file format.
+	 */
+	static final int VERSION = 1;
+	private final Path path;
+	// The following fields are guarded by "this"
+	private final DataOutputStream out;
+	private boolean closed;
+
+	/**
+	 * Creates a new journal, replacing any existing file.
+	 *
+	 * @param path the path of the journal
+	 * @throws NullPointerException if {@code path} is null
+	 * @throws IOException          if an I/O error occurs while creating the file
+	 */
+	public CommandRecorder(Path path) throws IOException
+	{
+		requireThat(path, "path").isNotNull();
+		this.path = path;
+		this.out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(
+			Files.newOutputStream(path)), true));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.flush();
+	}
+
+	/**
+	 * Returns the path of the journal.
+	 *
+	 * @return the path
+	 */
+	public Path getPath()
+	{
+		return path;
+	}
+
+	/**
+	 * Appends a command to the journal. If the recorder is closed, this method has no effect.
+	 *
+	 * @param entry the command
+	 * @throws NullPointerException if {@code entry} is null
+	 * @throws UncheckedIOException if an I/O error occurs while writing to the journal
+	 */
+	public synchronized void record(JournalEntry entry)
+	{
+		requireThat(entry, "entry").isNotNull();
+		if (closed)
+			return;
+		try
+		{
+			entry.writeTo(out);
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Closes the journal.
+	 *
+	 * @throws UncheckedIOException if an I/O error occurs while closing the journal
+	 */
+	@Override
+	public synchronized void close()
+	{
+		if (closed)
+			return;
+		closed = true;
+		try
+		{
+			out.close();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+}
\ No newline at end of file
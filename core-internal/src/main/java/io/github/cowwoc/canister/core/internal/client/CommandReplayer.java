@@ -0,0 +1,215 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Serves back the commands that were recorded by a {@link CommandRecorder}, without running them.
+ * <p>
+ * Commands are matched by their arguments and the digest of their stdin. If the same command was recorded
+ * more than once, its results are served in the order that they were recorded, starting over once all of
+ * them were served. This allows a workload that polls the same resource to be replayed any number of times.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class CommandReplayer
+{
+	private final Path path;
+	private final Timing timing;
+	private final Map<Key, Recordings> keyToRecordings;
+	private final int size;
+
+	/**
+	 * Loads a journal.
+	 * <p>
+	 * If the journal ends with an incomplete entry, such as when the recording JVM exited without closing its
+	 * recorder, the entry is ignored.
+	 *
+	 * @param path   the path of the journal
+	 * @param timing the amount of time that replayed commands take to run
+	 * @throws NullPointerException if any of the arguments are null
+	 * @throws IOException          if an I/O error occurs while reading the journal, or if the file is not a
+	 *                              journal
+	 */
+	public CommandReplayer(Path path, Timing timing) throws IOException
+	{
+		requireThat(path, "path").isNotNull();
+		requireThat(timing, "timing").isNotNull();
+		this.path = path;
+		this.timing = timing;
+
+		Map<Key, List<JournalEntry>> keyToEntries = new HashMap<>();
+		int size = 0;
+		try (InputStream is = Files.newInputStream(path);
+		     DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(is))))
+		{
+			int magic = in.readInt();
+			if (magic != CommandRecorder.MAGIC)
+				throw new IOException("Not a command journal: " + path);
+			int version = in.readInt();
+			if (version != CommandRecorder.VERSION)
+				throw new IOException("Unsupported journal version: " + version);
+			while (true)
+			{
+				JournalEntry entry;
+				try
+				{
+					entry = JournalEntry.readFrom(in);
+				}
+				catch (EOFException _)
+				{
+					break;
+				}
+				keyToEntries.computeIfAbsent(new Key(entry.arguments(), entry.stdinDigest()),
+					_ -> new ArrayList<>()).add(entry);
+				++size;
+			}
+		}
+		this.keyToRecordings = HashMap.newHashMap(keyToEntries.size());
+		keyToEntries.forEach((key, entries) -> keyToRecordings.put(key, new Recordings(List.copyOf(entries))));
+		this.size = size;
+	}
+
+	/**
+	 * Returns the path of the journal.
+	 *
+	 * @return the path
+	 */
+	public Path getPath()
+	{
+		return path;
+	}
+
+	/**
+	 * Returns the amount of time that replayed commands take to run.
+	 *
+	 * @return the timing
+	 */
+	public Timing getTiming()
+	{
+		return timing;
+	}
+
+	/**
+	 * Returns the number of commands in the journal.
+	 *
+	 * @return the number of commands
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns the recorded result of a command, waiting for as long as the command originally took to run if
+	 * the timing is {@link Timing#ORIGINAL}.
+	 *
+	 * @param arguments   the command-line arguments to pass to the executable, excluding the executable itself
+	 * @param stdinDigest the value returned by {@link JournalEntry#digest(java.nio.ByteBuffer)} for the bytes
+	 *                    to pass into the command's stdin stream
+	 * @param deadline    the absolute time by which the command must exit, or {@code null} to wait
+	 *                    indefinitely
+	 * @return the recorded result
+	 * @throws NullPointerException  if {@code arguments} or {@code stdinDigest} are null
+	 * @throws IllegalStateException if the command was not recorded
+	 * @throws InterruptedException  if the thread is interrupted while waiting
+	 * @throws TimeoutException      if the command originally took longer to run than the time left until the
+	 *                               deadline
+	 */
+	public JournalEntry replay(List<String> arguments, String stdinDigest, Instant deadline)
+		throws InterruptedException, TimeoutException
+	{
+		Recordings recordings = keyToRecordings.get(new Key(arguments, stdinDigest));
+		if (recordings == null)
+		{
+			throw new IllegalStateException("No recorded result for command: " + arguments + "\n" +
+				"Journal: " + path);
+		}
+		JournalEntry entry = recordings.next();
+		if (timing == Timing.ORIGINAL)
+		{
+			Duration duration = entry.duration();
+			if (deadline != null)
+			{
+				Duration timeLeft = Duration.between(Instant.now(), deadline);
+				if (duration.compareTo(timeLeft) > 0)
+				{
+					if (timeLeft.isPositive())
+						Thread.sleep(timeLeft);
+					throw new TimeoutException("The command did not exit before " + deadline + ": " + arguments);
+				}
+			}
+			Thread.sleep(duration);
+		}
+		return entry;
+	}
+
+	/**
+	 * The amount of time that replayed commands take to run.
+	 */
+	public enum Timing
+	{
+		/**
+		 * Commands take as long as they did when they were recorded.
+		 */
+		ORIGINAL,
+		/**
+		 * Commands return immediately.
+		 */
+		FASTEST
+	}
+
+	/**
+	 * Identifies a command.
+	 *
+	 * @param arguments   the command-line arguments, excluding the executable
+	 * @param stdinDigest the digest of the command's stdin
+	 */
+	private record Key(List<String> arguments, String stdinDigest)
+	{
+	}
+
+	/**
+	 * The results of a command, served round-robin.
+	 *
+	 * @param entries the results, in the order that they were recorded
+	 * @param next    the index of the next result to serve
+	 */
+	private record Recordings(List<JournalEntry> entries, AtomicInteger next)
+	{
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param entries the results, in the order that they were recorded
+		 */
+		Recordings(List<JournalEntry> entries)
+		{
+			this(entries, new AtomicInteger());
+		}
+
+		/**
+		 * @return the next result
+		 */
+		JournalEntry next()
+		{
+			int index = next.getAndUpdate(value -> (value + 1) % entries.size());
+			return entries.get(index);
+		}
+	}
+}
\ No newline at end of file
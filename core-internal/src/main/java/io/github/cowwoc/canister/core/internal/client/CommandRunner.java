@@ -1,5 +1,7 @@
 package io.github.cowwoc.canister.core.internal.client;
 
+import io.github.cowwoc.canister.core.metrics.ClientMetrics;
+import io.github.cowwoc.canister.core.metrics.CommandMetrics;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.core.spi.util.Exceptions;
 import io.github.cowwoc.canister.core.spi.util.Processes;
@@ -8,15 +10,26 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.StringJoiner;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
@@ -28,10 +41,26 @@
 public final class CommandRunner
 {
 	private final static ByteBuffer EMPTY_BYTE_BUFFER = ByteBuffer.allocate(0);
+	/**
+	 * The maximum number of stderr lines that are retained when stdout is streamed.
+	 */
+	private static final int MAX_STDERR_LINES = 1000;
+	/**
+	 * The charset that {@link Process#inputReader()} uses to decode the output of processes.
+	 */
+	private static final Charset NATIVE_CHARSET = Charset.forName(System.getProperty("native.encoding"),
+		Charset.defaultCharset());
 	private final ProcessBuilder processBuilder;
 	private ByteBuffer stdin = EMPTY_BYTE_BUFFER;
 	private Predicate<String> terminateOnStdout = _ -> false;
+	private Consumer<String> stdoutConsumer;
+	private ClientMetrics metrics;
+	private String subcommand;
+	private int attempt;
 	private FailureHandler failureHandler;
+	private Instant deadline;
+	private CommandRecorder recorder;
+	private CommandReplayer replayer;
 	private final Logger log = LoggerFactory.getLogger(CommandRunner.class);
 	private final Logger stdoutLog = LoggerFactory.getLogger(CommandRunner.class.getName() + ".stdout");
 	private final Logger stderrLog = LoggerFactory.getLogger(CommandRunner.class.getName() + ".stderr");
@@ -74,6 +103,43 @@ public CommandRunner terminateOnStdout(Predicate<String> terminateOnStdout)
 		return this;
 	}
 
+	/**
+	 * Streams stdout to a function, one line at a time, instead of buffering it.
+	 * <p>
+	 * The function is invoked as soon as each line is read, so the command's output does not need to fit in
+	 * memory. When stdout is streamed, {@link CommandResult#stdout()} is empty and {@link CommandResult#stderr()}
+	 * only contains the last {@value #MAX_STDERR_LINES} lines of stderr.
+	 * <p>
+	 * If the function throws an exception, subsequent lines are discarded and the exception is rethrown by
+	 * {@link #apply()} once the command exits successfully. If the command fails, the exception is discarded
+	 * because the output of failed commands is not expected to be well-formed.
+	 *
+	 * @param stdoutConsumer the function, or {@code null} to buffer stdout
+	 * @return this
+	 */
+	public CommandRunner stdoutConsumer(Consumer<String> stdoutConsumer)
+	{
+		this.stdoutConsumer = stdoutConsumer;
+		return this;
+	}
+
+	/**
+	 * Reports the command's measurements once it exits.
+	 *
+	 * @param metrics    the destination of the measurements, or {@code null} to disable measurements
+	 * @param subcommand the subcommand that is being run, such as {@code container ls}
+	 * @param attempt    the number of times that the command was run, including this time
+	 * @return this
+	 */
+	public CommandRunner metrics(ClientMetrics metrics, String subcommand, int attempt)
+	{
+		assert metrics == null || subcommand != null;
+		this.metrics = metrics;
+		this.subcommand = subcommand;
+		this.attempt = attempt;
+		return this;
+	}
+
 	/**
 	 * Specifies the function to invoke if the command fails.
 	 *
@@ -85,25 +151,89 @@ public CommandRunner failureHandler(FailureHandler failureHandler)
 		return this;
 	}
 
+	/**
+	 * Sets the time by which the command must exit.
+	 *
+	 * @param deadline the absolute time by which the command must exit, or {@code null} to wait indefinitely
+	 * @return this
+	 */
+	public CommandRunner deadline(Instant deadline)
+	{
+		this.deadline = deadline;
+		return this;
+	}
+
+	/**
+	 * Records the command to a journal once it exits.
+	 *
+	 * @param recorder the journal, or {@code null} to disable recording
+	 * @return this
+	 */
+	public CommandRunner recorder(CommandRecorder recorder)
+	{
+		this.recorder = recorder;
+		return this;
+	}
+
+	/**
+	 * Returns the recorded result of the command instead of running it.
+	 *
+	 * @param replayer the journal, or {@code null} to run the command
+	 * @return this
+	 */
+	public CommandRunner replayer(CommandReplayer replayer)
+	{
+		this.replayer = replayer;
+		return this;
+	}
+
 	/**
 	 * Runs a command and returns its output.
 	 *
 	 * @return the output of the command
-	 * @throws IOException          if the executable could not be found
-	 * @throws InterruptedException if the thread was interrupted before the operation completed
+	 * @throws IOException           if the executable could not be found
+	 * @throws InterruptedException  if the thread was interrupted before the operation completed. The process
+	 *                               and its descendants are terminated.
+	 * @throws TimeoutException      if the command did not exit before the deadline. The process and its
+	 *                               descendants are terminated.
+	 * @throws IllegalStateException if a {@link #replayer(CommandReplayer) replayer} is set and the command was
+	 *                               not recorded
 	 */
-	public CommandResult apply() throws IOException, InterruptedException
+	public CommandResult apply() throws IOException, InterruptedException, TimeoutException
 	{
+		Instant deadline = this.deadline;
+		if (deadline != null && !Instant.now().isBefore(deadline))
+		{
+			throw new TimeoutException("The deadline expired before the command started: " +
+				processBuilder.command());
+		}
+		CommandRecorder recorder = this.recorder;
+		CommandReplayer replayer = this.replayer;
+		String stdinDigest;
+		if (recorder == null && replayer == null)
+			stdinDigest = "";
+		else
+			stdinDigest = JournalEntry.digest(stdin);
+		if (replayer != null)
+			return replay(replayer, stdinDigest, deadline);
 		log.debug("Running: {}", processBuilder.command());
+		Instant start = Instant.now();
+		long startTime = System.nanoTime();
 		Process process = processBuilder.start();
+		long spawnTime = System.nanoTime() - startTime;
+		Consumer<String> stdoutConsumer = this.stdoutConsumer;
 		StringJoiner stdoutJoiner = new StringJoiner("\n");
 		StringJoiner stderrJoiner = new StringJoiner("\n");
+		LineRingBuffer stderrBuffer = new LineRingBuffer(MAX_STDERR_LINES);
 		BlockingQueue<Throwable> exceptions = new LinkedBlockingQueue<>();
+		AtomicReference<Throwable> consumerFailure = new AtomicReference<>();
 
 		writeIntoStdin(stdin, process, exceptions);
 		Thread parentThread = Thread.currentThread();
-		try (BufferedReader stdoutReader = process.inputReader();
-		     BufferedReader stderrReader = process.errorReader())
+		CountingInputStream stdoutBytes = new CountingInputStream(process.getInputStream());
+		CountingInputStream stderrBytes = new CountingInputStream(process.getErrorStream());
+		try (BufferedReader stdoutReader = newReader(stdoutBytes);
+		     BufferedReader stderrReader = newReader(stderrBytes))
 		{
 			Thread stdoutThread = Thread.startVirtualThread(() ->
 			{
@@ -111,7 +241,21 @@ public CommandResult apply() throws IOException, InterruptedException
 				currentThread.setName(parentThread.getName() + " -> " + Threads.getName(currentThread));
 				Processes.consume(stdoutReader, exceptions, line ->
 				{
-					stdoutJoiner.add(line);
+					// The journal contains the full output, even if the caller streams it
+					if (stdoutConsumer == null || recorder != null)
+						stdoutJoiner.add(line);
+					if (stdoutConsumer != null && consumerFailure.get() == null)
+					{
+						// Keep draining stdout so that the process does not block on a full pipe
+						try
+						{
+							stdoutConsumer.accept(line);
+						}
+						catch (RuntimeException | AssertionError e)
+						{
+							consumerFailure.set(e);
+						}
+					}
 					stdoutLog.debug(line);
 					if (terminateOnStdout.test(line))
 						process.destroy();
@@ -123,31 +267,210 @@ public CommandResult apply() throws IOException, InterruptedException
 				currentThread.setName(parentThread.getName() + " -> " + Threads.getName(currentThread));
 				Processes.consume(stderrReader, exceptions, line ->
 				{
-					stderrJoiner.add(line);
+					if (stdoutConsumer == null || recorder != null)
+						stderrJoiner.add(line);
+					if (stdoutConsumer != null)
+						stderrBuffer.add(line);
 					stderrLog.debug(line);
 				});
 			});
 
-			// We have to invoke Thread.join() to ensure that all the data is read. Blocking on Process.waitFor()
-			// does not guarantee this.
-			stdoutThread.join();
-			stderrThread.join();
-			int exitCode = process.waitFor();
+			int exitCode;
+			try
+			{
+				// We have to invoke Thread.join() to ensure that all the data is read. Blocking on
+				// Process.waitFor() does not guarantee this.
+				if (!joinUntil(stdoutThread, deadline) || !joinUntil(stderrThread, deadline) ||
+					!waitUntil(process, deadline))
+				{
+					Processes.destroyTree(process);
+					throw new TimeoutException("The command did not exit before " + deadline + ": " +
+						processBuilder.command());
+				}
+				exitCode = process.exitValue();
+			}
+			catch (InterruptedException e)
+			{
+				// Do not leave the command running after the caller has given up on it
+				Processes.destroyTree(process);
+				throw e;
+			}
+			Duration duration = Duration.ofNanos(System.nanoTime() - startTime);
+			if (metrics != null)
+			{
+				metrics.onCommand(new CommandMetrics(subcommand, attempt, Duration.ofNanos(spawnTime), duration,
+					exitCode, stdoutBytes.getCount(), stderrBytes.getCount()));
+			}
 			IOException exception = Exceptions.combineAsIOException(exceptions);
 			if (exception != null)
 				throw exception;
-			String stdout = stdoutJoiner.toString();
-			String stderr = stderrJoiner.toString();
+			if (recorder != null)
+			{
+				recorder.record(new JournalEntry(getArguments(), stdinDigest, stdoutJoiner.toString(),
+					stderrJoiner.toString(), exitCode, start, duration));
+			}
+			String stdout;
+			String stderr;
+			if (stdoutConsumer == null)
+			{
+				stdout = stdoutJoiner.toString();
+				stderr = stderrJoiner.toString();
+			}
+			else
+			{
+				stdout = "";
+				stderr = stderrBuffer.toString();
+			}
 
 			Path workingDirectory = Processes.getWorkingDirectory(processBuilder);
 			CommandResult result = new CommandResult(processBuilder.command(), workingDirectory, stdout, stderr,
 				exitCode);
 			if (exitCode != 0)
+			{
 				failureHandler.onFailure(result);
+				return result;
+			}
+			Throwable failure = consumerFailure.get();
+			if (failure instanceof RuntimeException e)
+				throw e;
+			if (failure instanceof AssertionError e)
+				throw e;
 			return result;
 		}
 	}
 
+	/**
+	 * Returns the recorded result of the command.
+	 *
+	 * @param replayer    the journal
+	 * @param stdinDigest the digest of the bytes to pass into the command's stdin stream
+	 * @param deadline    the absolute time by which the command must exit, or {@code null} to wait
+	 *                    indefinitely
+	 * @return the recorded result
+	 * @throws IOException           if the failure handler rejects the result
+	 * @throws InterruptedException  if the thread is interrupted while waiting
+	 * @throws TimeoutException      if the command originally took longer to run than the time left until the
+	 *                               deadline
+	 * @throws IllegalStateException if the command was not recorded
+	 */
+	private CommandResult replay(CommandReplayer replayer, String stdinDigest, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		log.debug("Replaying: {}", processBuilder.command());
+		long startTime = System.nanoTime();
+		JournalEntry entry = replayer.replay(getArguments(), stdinDigest, deadline);
+		// Consume stdin as the process would have
+		stdin.position(stdin.limit());
+		String stdout = entry.stdout();
+		String stderr = entry.stderr();
+		int exitCode = entry.exitCode();
+		Throwable consumerFailure = null;
+		Consumer<String> stdoutConsumer = this.stdoutConsumer;
+		if (stdoutConsumer != null)
+		{
+			// The recorded output already ends wherever terminateOnStdout terminated the original process
+			for (String line : (Iterable<String>) stdout.lines()::iterator)
+			{
+				try
+				{
+					stdoutConsumer.accept(line);
+				}
+				catch (RuntimeException | AssertionError e)
+				{
+					consumerFailure = e;
+					break;
+				}
+			}
+			stdout = "";
+			LineRingBuffer stderrBuffer = new LineRingBuffer(MAX_STDERR_LINES);
+			stderr.lines().forEach(stderrBuffer::add);
+			stderr = stderrBuffer.toString();
+		}
+		if (metrics != null)
+		{
+			// The output is predominantly ASCII, so its length approximates the number of bytes
+			metrics.onCommand(new CommandMetrics(subcommand, attempt, Duration.ZERO,
+				Duration.ofNanos(System.nanoTime() - startTime), exitCode, entry.stdout().length(),
+				entry.stderr().length()));
+		}
+		Path workingDirectory = Processes.getWorkingDirectory(processBuilder);
+		CommandResult result = new CommandResult(processBuilder.command(), workingDirectory, stdout, stderr,
+			exitCode);
+		if (exitCode != 0)
+		{
+			failureHandler.onFailure(result);
+			return result;
+		}
+		if (consumerFailure instanceof RuntimeException e)
+			throw e;
+		if (consumerFailure instanceof AssertionError e)
+			throw e;
+		return result;
+	}
+
+	/**
+	 * Returns the arguments that identify the command in a journal.
+	 *
+	 * @return the command-line arguments, excluding the executable so that journals can be replayed on
+	 * 	machines where the executable is installed at a different path
+	 */
+	private List<String> getArguments()
+	{
+		List<String> command = processBuilder.command();
+		return command.subList(1, command.size());
+	}
+
+	/**
+	 * Waits for a thread to terminate.
+	 *
+	 * @param thread   the thread
+	 * @param deadline the time to stop waiting, or {@code null} to wait indefinitely
+	 * @return {@code false} if the deadline expired before the thread terminated
+	 * @throws InterruptedException if the current thread is interrupted while waiting
+	 */
+	private static boolean joinUntil(Thread thread, Instant deadline) throws InterruptedException
+	{
+		if (deadline == null)
+		{
+			thread.join();
+			return true;
+		}
+		Duration timeLeft = Duration.between(Instant.now(), deadline);
+		if (!timeLeft.isPositive())
+			return !thread.isAlive();
+		return thread.join(timeLeft);
+	}
+
+	/**
+	 * Waits for a process to exit.
+	 *
+	 * @param process  the process
+	 * @param deadline the time to stop waiting, or {@code null} to wait indefinitely
+	 * @return {@code false} if the deadline expired before the process exited
+	 * @throws InterruptedException if the current thread is interrupted while waiting
+	 */
+	private static boolean waitUntil(Process process, Instant deadline) throws InterruptedException
+	{
+		if (deadline == null)
+		{
+			process.waitFor();
+			return true;
+		}
+		Duration timeLeft = Duration.between(Instant.now(), deadline);
+		return process.waitFor(Math.max(0, timeLeft.toNanos()), TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Returns a reader that decodes the output of a process.
+	 *
+	 * @param in the process' output
+	 * @return the reader
+	 */
+	private static BufferedReader newReader(InputStream in)
+	{
+		return new BufferedReader(new InputStreamReader(in, NATIVE_CHARSET));
+	}
+
 	/**
 	 * Writes data into a process' {@code stdin} stream.
 	 *
@@ -175,6 +498,60 @@ private static void writeIntoStdin(ByteBuffer bytes, Process process, BlockingQu
 		}
 	}
 
+	/**
+	 * Counts the bytes that are read from a stream.
+	 * <p>
+	 * <b>Thread-safety</b>: This class is not thread-safe.
+	 */
+	private static final class CountingInputStream extends FilterInputStream
+	{
+		private long count;
+
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param in the stream to read from
+		 */
+		CountingInputStream(InputStream in)
+		{
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			int result = super.read();
+			if (result != -1)
+				++count;
+			return result;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException
+		{
+			int result = super.read(b, off, len);
+			if (result > 0)
+				count += result;
+			return result;
+		}
+
+		@Override
+		public long skip(long n) throws IOException
+		{
+			long result = super.skip(n);
+			count += result;
+			return result;
+		}
+
+		/**
+		 * @return the number of bytes that were read
+		 */
+		public long getCount()
+		{
+			return count;
+		}
+	}
+
 	/**
 	 * Invoked if the command fails.
 	 */
@@ -0,0 +1,66 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import io.github.cowwoc.canister.core.resource.CommandResult;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes commands without forking the command-line executable.
+ * <p>
+ * Transports produce the same {@code CommandResult} (stdout, stderr and exit code) that the executable would
+ * have, so parsers do not need to know which transport was used. Commands that a transport does not
+ * {@link #supports(List) support} fall back to the executable.
+ * <p>
+ * Transports must not block past the deadline of a command, even if the daemon stops responding. Once the
+ * deadline expires they release the connection that the command was sent over, terminating any process that
+ * relays it.
+ */
+public interface CommandTransport extends AutoCloseable
+{
+	/**
+	 * Indicates if the transport can execute a command.
+	 *
+	 * @param arguments the command-line arguments that would have been passed to the executable
+	 * @return {@code true} if {@link #run(List, Instant)} may be invoked with these arguments
+	 */
+	boolean supports(List<String> arguments);
+
+	/**
+	 * Runs a command and returns its output.
+	 *
+	 * @param arguments the command-line arguments that would have been passed to the executable
+	 * @param deadline  the time by which the command must complete, or {@code null} if it is unbounded
+	 * @return the output of the command
+	 * @throws NullPointerException     if {@code arguments} is null
+	 * @throws IllegalArgumentException if the transport does not {@link #supports(List) support} the command
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes
+	 * @throws TimeoutException         if the command did not complete before the deadline
+	 */
+	CommandResult run(List<String> arguments, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException;
+
+	/**
+	 * Starts a command whose output is consumed while it runs, such as {@code docker system events}.
+	 *
+	 * @param arguments the command-line arguments that would have been passed to the executable
+	 * @return the process that produces the output of the command, or {@code null} if the command should be
+	 * 	run by the executable
+	 * @throws NullPointerException if {@code arguments} is null
+	 * @throws IOException          if an I/O error occurs while starting the command
+	 */
+	default Process start(List<String> arguments) throws IOException
+	{
+		return null;
+	}
+
+	/**
+	 * Releases any resources held by the transport.
+	 */
+	@Override
+	void close();
+}
@@ -1,6 +1,10 @@
 package io.github.cowwoc.canister.core.internal.client;
 
 import io.github.cowwoc.canister.core.client.Client;
+import io.github.cowwoc.canister.core.client.RetryPolicy;
+import io.github.cowwoc.canister.core.exception.CommandTimeoutException;
+import io.github.cowwoc.canister.core.internal.util.RetryDelay;
+import io.github.cowwoc.canister.core.metrics.ClientMetrics;
 
 import java.io.IOException;
 import java.time.Duration;
@@ -17,21 +21,53 @@ public interface InternalClient extends Client
 	 */
 	Duration getRetryTimeout();
 
+	/**
+	 * @return the policy that determines how long to wait between attempts
+	 */
+	RetryPolicy getRetryPolicy();
+
+	/**
+	 * @return the destination of measurements about the commands that the client runs
+	 */
+	ClientMetrics getMetrics();
+
+	/**
+	 * Returns a new sequence of delays that follows the client's {@link #getRetryPolicy() retry policy}.
+	 *
+	 * @return the sequence of delays
+	 */
+	RetryDelay newRetryDelay();
+
+	/**
+	 * Sleeps before retrying an operation or polling a condition, unless the deadline has passed.
+	 *
+	 * @param delay    the sequence of delays that the operation is using
+	 * @param deadline the absolute time by which the operation must succeed
+	 * @return {@code false} if the deadline has passed
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	boolean sleepBeforeRetry(RetryDelay delay, Instant deadline) throws InterruptedException;
+
 	/**
 	 * Runs an operation, retrying on intermittent {@code IOException}s.
 	 *
 	 * @param <V>       the type of value returned by the operation
 	 * @param operation the operation
 	 * @return the value returned by the operation
-	 * @throws IOException          if an I/O error persists beyond the configured retry timeout
-	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
-	 *                              due to shutdown signals.
+	 * @throws CommandTimeoutException if a read-only command runs for longer than the configured retry timeout
+	 * @throws IOException             if an I/O error persists beyond the configured retry timeout
+	 * @throws InterruptedException    if the thread is interrupted before the operation completes. This can
+	 *                                 happen due to shutdown signals.
 	 * @see #retryTimeout(Duration)
 	 */
 	<V> V retry(Operation<V> operation) throws IOException, InterruptedException;
 
 	/**
 	 * Runs an operation, retrying on intermittent {@code IOException}s.
+	 * <p>
+	 * The deadline also limits every command that the operation runs. Commands that have not exited by the
+	 * deadline are terminated, along with any processes that they started.
 	 *
 	 * @param <V>       the type of value returned by the operation
 	 * @param operation the operation
@@ -42,7 +78,8 @@ public interface InternalClient extends Client
 	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
 	 *                              due to shutdown signals.
 	 * @throws TimeoutException     if the deadline expires before the operation completes successfully, and no
-	 *                              other exception was thrown to indicate the failure
+	 *                              other exception was thrown to indicate the failure, or if a command did
+	 *                              not exit before the deadline
 	 */
 	<V> V retry(Operation<V> operation, Instant deadline)
 		throws IOException, InterruptedException, TimeoutException;
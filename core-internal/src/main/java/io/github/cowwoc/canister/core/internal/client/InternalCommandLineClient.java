@@ -9,6 +9,7 @@
 import java.time.Instant;
 import java.util.List;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * The internals shared by all command-line clients.
@@ -30,6 +31,76 @@ public interface InternalCommandLineClient extends InternalClient
 	 */
 	ProcessBuilder getProcessBuilder(List<String> arguments);
 
+	/**
+	 * Starts a command whose streams are consumed by the caller. The process is tracked until it exits, and is
+	 * terminated if the client is closed first.
+	 *
+	 * @param processBuilder the value returned by {@link #getProcessBuilder(List) getProcessBuilder(arguments)}
+	 * @param arguments      the command-line arguments that {@code processBuilder} was created with
+	 * @return the process
+	 * @throws IOException           if the executable could not be found
+	 * @throws IllegalStateException if the client is closed
+	 */
+	Process startProcess(ProcessBuilder processBuilder, List<String> arguments) throws IOException;
+
+	/**
+	 * Returns the processes that were started by {@link #startProcess(ProcessBuilder, List)} and have not
+	 * exited.
+	 *
+	 * @return the processes
+	 */
+	ProcessRegistry getProcessRegistry();
+
+	/**
+	 * Returns the transport that executes commands without forking the executable.
+	 *
+	 * @return {@code null} if all commands are executed by forking the executable
+	 */
+	CommandTransport getTransport();
+
+	/**
+	 * Sets the transport that executes commands without forking the executable. Commands that the transport
+	 * does not support continue to fork the executable.
+	 * <p>
+	 * The client takes ownership of the transport, closing it when the client is closed.
+	 *
+	 * @param transport the transport, or {@code null} to fork the executable for all commands
+	 */
+	void setTransport(CommandTransport transport);
+
+	/**
+	 * Returns the journal that commands are recorded to.
+	 *
+	 * @return {@code null} if commands are not recorded
+	 */
+	CommandRecorder getRecorder();
+
+	/**
+	 * Records the result of every command that the client runs to a journal, so that the workload can be
+	 * replayed without a daemon. Long-running commands whose output is consumed while they run, such as
+	 * {@code system events}, are not recorded.
+	 * <p>
+	 * The client takes ownership of the recorder, closing it when the client is closed.
+	 *
+	 * @param recorder the journal, or {@code null} to disable recording
+	 */
+	void setRecorder(CommandRecorder recorder);
+
+	/**
+	 * Returns the journal that the results of commands are served from.
+	 *
+	 * @return {@code null} if commands are run
+	 */
+	CommandReplayer getReplayer();
+
+	/**
+	 * Serves the result of every command from a journal instead of running it. The transport is bypassed while
+	 * a replayer is set.
+	 *
+	 * @param replayer the journal, or {@code null} to run commands
+	 */
+	void setReplayer(CommandReplayer replayer);
+
 	/**
 	 * Runs a command and returns its output.
 	 *
@@ -53,6 +124,22 @@ public interface InternalCommandLineClient extends InternalClient
 	 */
 	CommandResult run(List<String> arguments, ByteBuffer stdin) throws IOException, InterruptedException;
 
+	/**
+	 * Runs a command, streaming its stdout to a function one line at a time instead of buffering it.
+	 * <p>
+	 * The returned result's {@link CommandResult#stdout() stdout} is empty and its
+	 * {@link CommandResult#stderr() stderr} may be truncated. If the command fails, the lines that were passed to
+	 * {@code stdout} are not expected to be well-formed.
+	 *
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param stdout    the function to pass stdout lines to
+	 * @return the result of the command
+	 * @throws NullPointerException if any of the arguments are null
+	 * @throws IOException          if the executable could not be found
+	 * @throws InterruptedException if the thread was interrupted before the operation completed
+	 */
+	CommandResult run(List<String> arguments, Consumer<String> stdout) throws IOException, InterruptedException;
+
 	/**
 	 * Invoked when a command fails.
 	 *
@@ -81,6 +168,9 @@ public interface InternalCommandLineClient extends InternalClient
 
 	/**
 	 * Runs an operation, retrying on intermittent {@code IOException}s.
+	 * <p>
+	 * The deadline also limits every command that the operation runs. Commands that have not exited by the
+	 * deadline are terminated, along with any processes that they started.
 	 *
 	 * @param <V>       the type of value returned by the operation
 	 * @param operation the operation
@@ -91,7 +181,8 @@ public interface InternalCommandLineClient extends InternalClient
 	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
 	 *                              due to shutdown signals.
 	 * @throws TimeoutException     if the deadline expires before the operation completes successfully, and no
-	 *                              other exception was thrown to indicate the failure
+	 *                              other exception was thrown to indicate the failure, or if a command did
+	 *                              not exit before the deadline
 	 */
 	<V> V retry(Operation<V> operation, Instant deadline)
 		throws IOException, InterruptedException, TimeoutException;
@@ -0,0 +1,153 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import io.github.cowwoc.canister.core.internal.util.Digests;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A command that was recorded by a {@link CommandRecorder}.
+ *
+ * @param arguments   the command-line arguments that were passed to the executable, excluding the executable
+ *                    itself
+ * @param stdinDigest the SHA-256 digest of the bytes that were passed into the command's stdin stream, as a
+ *                    hexadecimal string, or an empty string if the command did not read from stdin
+ * @param stdout      the full contents of the command's stdout stream
+ * @param stderr      the full contents of the command's stderr stream
+ * @param exitCode    the exit code returned by the command
+ * @param start       the time that the command started
+ * @param duration    the amount of time that the command took to run
+ */
+public record JournalEntry(List<String> arguments, String stdinDigest, String stdout, String stderr,
+                           int exitCode, Instant start, Duration duration)
+{
+	/**
+	 * Creates a new entry.
+	 *
+	 * @param arguments   the command-line arguments that were passed to the executable, excluding the
+	 *                    executable itself
+	 * @param stdinDigest the SHA-256 digest of the bytes that were passed into the command's stdin stream, as a
+	 *                    hexadecimal string, or an empty string if the command did not read from stdin
+	 * @param stdout      the full contents of the command's stdout stream
+	 * @param stderr      the full contents of the command's stderr stream
+	 * @param exitCode    the exit code returned by the command
+	 * @param start       the time that the command started
+	 * @param duration    the amount of time that the command took to run
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code duration} is negative
+	 */
+	public JournalEntry
+	{
+		requireThat(arguments, "arguments").isNotNull();
+		requireThat(stdinDigest, "stdinDigest").isNotNull();
+		requireThat(stdout, "stdout").isNotNull();
+		requireThat(stderr, "stderr").isNotNull();
+		requireThat(start, "start").isNotNull();
+		requireThat(duration, "duration").isGreaterThanOrEqualTo(Duration.ZERO);
+		arguments = List.copyOf(arguments);
+	}
+
+	/**
+	 * Returns the digest that identifies the input of a command.
+	 *
+	 * @param stdin the bytes to pass into the command's stdin stream. The buffer's position is not modified.
+	 * @return the SHA-256 digest of the remaining bytes, as a hexadecimal string, or an empty string if there
+	 * 	are no remaining bytes
+	 */
+	public static String digest(ByteBuffer stdin)
+	{
+		if (!stdin.hasRemaining())
+			return "";
+		MessageDigest digest = Digests.newSha256();
+		digest.update(stdin.duplicate());
+		return Digests.toHex(digest);
+	}
+
+	/**
+	 * Writes the entry to a stream.
+	 *
+	 * @param out the stream to write to
+	 * @throws IOException if an I/O error occurs
+	 */
+	void writeTo(DataOutputStream out) throws IOException
+	{
+		out.writeInt(arguments.size());
+		for (String argument : arguments)
+			writeString(out, argument);
+		writeString(out, stdinDigest);
+		writeString(out, stdout);
+		writeString(out, stderr);
+		out.writeInt(exitCode);
+		out.writeLong(start.getEpochSecond());
+		out.writeInt(start.getNano());
+		out.writeLong(duration.toNanos());
+	}
+
+	/**
+	 * Reads an entry from a stream.
+	 *
+	 * @param in the stream to read from
+	 * @return the entry
+	 * @throws IOException if an I/O error occurs or the stream is malformed
+	 */
+	static JournalEntry readFrom(DataInputStream in) throws IOException
+	{
+		int count = in.readInt();
+		if (count < 0)
+			throw new IOException("Malformed journal entry. Number of arguments: " + count);
+		List<String> arguments = new ArrayList<>(count);
+		for (int i = 0; i < count; ++i)
+			arguments.add(readString(in));
+		String stdinDigest = readString(in);
+		String stdout = readString(in);
+		String stderr = readString(in);
+		int exitCode = in.readInt();
+		Instant start = Instant.ofEpochSecond(in.readLong(), in.readInt());
+		Duration duration = Duration.ofNanos(in.readLong());
+		return new JournalEntry(arguments, stdinDigest, stdout, stderr, exitCode, start, duration);
+	}
+
+	/**
+	 * Writes a string to a stream.
+	 * <p>
+	 * {@link DataOutputStream#writeUTF(String)} is not used because it is limited to 64KiB, which is exceeded
+	 * by the output of many commands.
+	 *
+	 * @param out   the stream to write to
+	 * @param value the string
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static void writeString(DataOutputStream out, String value) throws IOException
+	{
+		byte[] bytes = value.getBytes(UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a string that was written by {@link #writeString(DataOutputStream, String)}.
+	 *
+	 * @param in the stream to read from
+	 * @return the string
+	 * @throws IOException if an I/O error occurs or the stream is malformed
+	 */
+	private static String readString(DataInputStream in) throws IOException
+	{
+		int length = in.readInt();
+		if (length < 0)
+			throw new IOException("Malformed journal entry. String length: " + length);
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, UTF_8);
+	}
+}
\ No newline at end of file
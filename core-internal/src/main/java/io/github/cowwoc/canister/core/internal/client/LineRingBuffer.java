@@ -0,0 +1,81 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import java.util.StringJoiner;
+
+/**
+ * Retains the most recent lines of a stream, discarding older lines once the buffer is full.
+ * <p>
+ * <b>Thread-safety</b>: This class is not thread-safe.
+ */
+public final class LineRingBuffer
+{
+	private final String[] lines;
+	/**
+	 * The index of the oldest line.
+	 */
+	private int start;
+	/**
+	 * The number of lines in the buffer.
+	 */
+	private int size;
+	/**
+	 * The number of lines that were discarded.
+	 */
+	private long discarded;
+
+	/**
+	 * Creates a new buffer.
+	 *
+	 * @param capacity the maximum number of lines to retain
+	 */
+	public LineRingBuffer(int capacity)
+	{
+		assert capacity > 0 : capacity;
+		this.lines = new String[capacity];
+	}
+
+	/**
+	 * Adds a line to the buffer, discarding the oldest line if the buffer is full.
+	 *
+	 * @param line a line
+	 */
+	public void add(String line)
+	{
+		if (size < lines.length)
+		{
+			lines[(start + size) % lines.length] = line;
+			++size;
+			return;
+		}
+		lines[start] = line;
+		start = (start + 1) % lines.length;
+		++discarded;
+	}
+
+	/**
+	 * Returns the number of lines that were discarded.
+	 *
+	 * @return the number of lines
+	 */
+	public long getDiscarded()
+	{
+		return discarded;
+	}
+
+	/**
+	 * Returns the retained lines, separated by {@code \n}. If any lines were discarded, the first line
+	 * indicates how many.
+	 *
+	 * @return the lines
+	 */
+	@Override
+	public String toString()
+	{
+		StringJoiner joiner = new StringJoiner("\n");
+		if (discarded > 0)
+			joiner.add("[" + discarded + " lines omitted]");
+		for (int i = 0; i < size; ++i)
+			joiner.add(lines[(start + i) % lines.length]);
+		return joiner.toString();
+	}
+}
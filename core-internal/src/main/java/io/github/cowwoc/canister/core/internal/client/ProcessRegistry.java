@@ -0,0 +1,173 @@
+package io.github.cowwoc.canister.core.internal.client;
+
+import io.github.cowwoc.canister.core.spi.util.Processes;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.lang.ref.Cleaner.Cleanable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Tracks the processes that a client started and handed over to the caller, such as
+ * {@code container logs --follow}, until they exit.
+ * <p>
+ * Closing the registry terminates all the processes that are still running, along with any processes that
+ * they started.
+ * <p>
+ * Commands whose output the client consumes itself, through {@code CommandRunner}, are not tracked. They
+ * are terminated when their deadline expires, but commands that run without a deadline keep running until
+ * they exit, even after the client is closed.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+public final class ProcessRegistry
+{
+	private static final Cleaner CLEANER = Cleaner.create();
+	// The following fields are guarded by "this"
+	private final Map<Process, String> processToSubcommand = new HashMap<>();
+	private boolean closed;
+	private final Logger log = LoggerFactory.getLogger(ProcessRegistry.class);
+
+	/**
+	 * Creates a new instance.
+	 */
+	public ProcessRegistry()
+	{
+	}
+
+	/**
+	 * Starts a process and tracks it until it exits.
+	 *
+	 * @param processBuilder the {@code ProcessBuilder} to start the process with
+	 * @param subcommand     the subcommand that the process runs, such as {@code container logs}
+	 * @return the process
+	 * @throws IOException           if the process could not be started
+	 * @throws IllegalStateException if the registry is closed
+	 */
+	public Process start(ProcessBuilder processBuilder, String subcommand) throws IOException
+	{
+		assert processBuilder != null;
+		assert subcommand != null;
+		log.debug("Running: {}", processBuilder.command());
+		Process process = processBuilder.start();
+		synchronized (this)
+		{
+			if (closed)
+			{
+				Processes.destroyTree(process);
+				throw new IllegalStateException("client was closed");
+			}
+			processToSubcommand.put(process, subcommand);
+		}
+		process.onExit().thenRun(() ->
+		{
+			synchronized (this)
+			{
+				processToSubcommand.remove(process);
+			}
+		});
+		return process;
+	}
+
+	/**
+	 * Warns if {@code owner} becomes unreachable before it is closed, and terminates the process that it
+	 * wraps.
+	 *
+	 * @param owner   the object that exposes the process's streams to the caller
+	 * @param process the process
+	 * @return the function that {@code owner} must invoke when it is closed
+	 */
+	public Cleanable detectLeaks(Object owner, Process process)
+	{
+		assert owner != null;
+		assert process != null;
+		// The action must not reference the owner, or the owner would never become unreachable
+		LeakDetector detector = new LeakDetector(process);
+		Cleanable cleanable = CLEANER.register(owner, detector);
+		return () ->
+		{
+			detector.released = true;
+			cleanable.clean();
+		};
+	}
+
+	/**
+	 * Returns the number of processes that are running, grouped by subcommand.
+	 *
+	 * @return a map from each subcommand to the number of processes that are running it
+	 */
+	public synchronized Map<String, Integer> getCounts()
+	{
+		Map<String, Integer> subcommandToCount = new TreeMap<>();
+		for (String subcommand : processToSubcommand.values())
+			subcommandToCount.merge(subcommand, 1, Integer::sum);
+		return subcommandToCount;
+	}
+
+	/**
+	 * Terminates all the processes that are running, and any processes that are started in the future.
+	 */
+	public void close()
+	{
+		List<Process> processes;
+		synchronized (this)
+		{
+			if (closed)
+				return;
+			closed = true;
+			processes = new ArrayList<>(processToSubcommand.keySet());
+		}
+		if (!processes.isEmpty())
+			log.debug("Terminating {} processes", processes.size());
+		for (Process process : processes)
+			Processes.destroyTree(process);
+	}
+
+	@Override
+	public synchronized String toString()
+	{
+		return new ToStringBuilder(ProcessRegistry.class).
+			add("processes", getCounts()).
+			add("closed", closed).
+			toString();
+	}
+
+	/**
+	 * Terminates a process whose owner became unreachable without being closed.
+	 */
+	private static final class LeakDetector implements Runnable
+	{
+		private final Process process;
+		/**
+		 * {@code true} if the owner was closed.
+		 */
+		volatile boolean released;
+		private final Logger log = LoggerFactory.getLogger(LeakDetector.class);
+
+		/**
+		 * @param process the process
+		 */
+		LeakDetector(Process process)
+		{
+			assert process != null;
+			this.process = process;
+		}
+
+		@Override
+		public void run()
+		{
+			if (released || !process.isAlive())
+				return;
+			log.warn("The streams of a process were never closed. Terminating: {}",
+				process.info().commandLine().orElse(String.valueOf(process.pid())));
+			Processes.destroyTree(process);
+		}
+	}
+}
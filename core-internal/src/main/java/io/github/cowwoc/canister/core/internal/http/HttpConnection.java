@@ -0,0 +1,261 @@
+package io.github.cowwoc.canister.core.internal.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A persistent HTTP/1.1 connection over a pair of byte streams.
+ * <p>
+ * Requests are sent one at a time. The connection may be reused for subsequent requests so long as
+ * {@link #isReusable()} returns {@code true}.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class HttpConnection implements Closeable
+{
+	private final InputStream in;
+	private final OutputStream out;
+	private final Closeable resource;
+	private final String host;
+	private boolean reusable = true;
+
+	/**
+	 * Creates a new connection.
+	 *
+	 * @param in       the stream to read responses from
+	 * @param out      the stream to write requests to
+	 * @param resource the resource to release when the connection is closed
+	 * @param host     the value of the {@code Host} header
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code host} contains whitespace or is empty
+	 */
+	public HttpConnection(InputStream in, OutputStream out, Closeable resource, String host)
+	{
+		requireThat(in, "in").isNotNull();
+		requireThat(out, "out").isNotNull();
+		requireThat(resource, "resource").isNotNull();
+		requireThat(host, "host").doesNotContainWhitespace().isNotEmpty();
+		this.in = new BufferedInputStream(in);
+		this.out = new BufferedOutputStream(out);
+		this.resource = resource;
+		this.host = host;
+	}
+
+	/**
+	 * Sends a request and waits for its response.
+	 *
+	 * @param method the request method
+	 * @param target the request target (e.g. {@code /containers/json?all=1})
+	 * @param body   the JSON request body, or {@code null} if the request does not have a body
+	 * @return the response
+	 * @throws NullPointerException     if {@code method} or {@code target} are null
+	 * @throws IllegalArgumentException if {@code method} or {@code target} contain whitespace or are empty
+	 * @throws IllegalStateException    if the connection cannot be reused
+	 * @throws IOException              if an I/O error occurs. The connection cannot be reused after this
+	 *                                  exception is thrown.
+	 */
+	public HttpResponse send(String method, String target, String body) throws IOException
+	{
+		requireThat(method, "method").doesNotContainWhitespace().isNotEmpty();
+		requireThat(target, "target").doesNotContainWhitespace().isNotEmpty();
+		if (!reusable)
+			throw new IllegalStateException("The connection cannot be reused");
+		reusable = false;
+
+		StringBuilder request = new StringBuilder(128).append(method).append(' ').append(target).
+			append(" HTTP/1.1\r\n" +
+				"Host: ").append(host).append("\r\n");
+		byte[] bodyBytes;
+		if (body == null)
+			bodyBytes = new byte[0];
+		else
+		{
+			bodyBytes = body.getBytes(UTF_8);
+			request.append("Content-Type: application/json\r\n" +
+				"Content-Length: ").append(bodyBytes.length).append("\r\n");
+		}
+		request.append("\r\n");
+		out.write(request.toString().getBytes(ISO_8859_1));
+		out.write(bodyBytes);
+		out.flush();
+
+		String statusLine = readLine();
+		if (statusLine == null)
+			throw new EOFException("The server closed the connection before responding");
+		// HTTP/1.1 200 OK
+		String[] tokens = statusLine.split(" ", 3);
+		if (tokens.length < 2 || !tokens[0].startsWith("HTTP/1."))
+			throw new IOException("Malformed status line: " + statusLine);
+		int statusCode;
+		try
+		{
+			statusCode = Integer.parseInt(tokens[1]);
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IOException("Malformed status line: " + statusLine, e);
+		}
+
+		Map<String, String> headers = new HashMap<>();
+		while (true)
+		{
+			String line = readLine();
+			if (line == null)
+				throw new EOFException("The server closed the connection while sending headers");
+			if (line.isEmpty())
+				break;
+			int separator = line.indexOf(':');
+			if (separator == -1)
+				throw new IOException("Malformed header: " + line);
+			headers.put(line.substring(0, separator).strip().toLowerCase(Locale.ROOT),
+				line.substring(separator + 1).strip());
+		}
+
+		boolean keepAlive = !"close".equalsIgnoreCase(headers.get("connection"));
+		byte[] responseBody;
+		String transferEncoding = headers.get("transfer-encoding");
+		String contentLength = headers.get("content-length");
+		if (method.equals("HEAD") || statusCode == 204 || statusCode == 304 || statusCode < 200)
+			responseBody = new byte[0];
+		else if (transferEncoding != null && transferEncoding.toLowerCase(Locale.ROOT).contains("chunked"))
+			responseBody = readChunked();
+		else if (contentLength != null)
+		{
+			try
+			{
+				responseBody = readFully(Integer.parseInt(contentLength));
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IOException("Malformed Content-Length: " + contentLength, e);
+			}
+		}
+		else
+		{
+			// The body is delimited by the end of the stream
+			responseBody = in.readAllBytes();
+			keepAlive = false;
+		}
+		reusable = keepAlive;
+		return new HttpResponse(statusCode, headers, new String(responseBody, UTF_8));
+	}
+
+	/**
+	 * Reads a body that uses chunked transfer encoding.
+	 *
+	 * @return the decoded body
+	 * @throws IOException if an I/O error occurs
+	 */
+	private byte[] readChunked() throws IOException
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		while (true)
+		{
+			String line = readLine();
+			if (line == null)
+				throw new EOFException("The server closed the connection while sending a chunk");
+			int extension = line.indexOf(';');
+			if (extension != -1)
+				line = line.substring(0, extension);
+			int size;
+			try
+			{
+				size = Integer.parseInt(line.strip(), 16);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IOException("Malformed chunk size: " + line, e);
+			}
+			if (size == 0)
+			{
+				// Skip the trailers
+				while (true)
+				{
+					String trailer = readLine();
+					if (trailer == null || trailer.isEmpty())
+						return body.toByteArray();
+				}
+			}
+			body.write(readFully(size));
+			String terminator = readLine();
+			if (terminator == null || !terminator.isEmpty())
+				throw new IOException("Malformed chunk terminator: " + terminator);
+		}
+	}
+
+	/**
+	 * Reads an exact number of bytes.
+	 *
+	 * @param length the number of bytes to read
+	 * @return the bytes
+	 * @throws IOException if an I/O error occurs or the end of the stream is reached first
+	 */
+	private byte[] readFully(int length) throws IOException
+	{
+		byte[] result = in.readNBytes(length);
+		if (result.length != length)
+			throw new EOFException("Expected " + length + " bytes but only " + result.length + " were available");
+		return result;
+	}
+
+	/**
+	 * Reads a line that is terminated by {@code CRLF}.
+	 *
+	 * @return the line without its terminator, or {@code null} if the end of the stream was reached before any
+	 * 	bytes were read
+	 * @throws IOException if an I/O error occurs
+	 */
+	private String readLine() throws IOException
+	{
+		ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+		while (true)
+		{
+			int next = in.read();
+			if (next == -1)
+			{
+				if (line.size() == 0)
+					return null;
+				throw new EOFException("The server closed the connection mid-line");
+			}
+			if (next == '\n')
+			{
+				byte[] bytes = line.toByteArray();
+				int length = bytes.length;
+				if (length > 0 && bytes[length - 1] == '\r')
+					--length;
+				return new String(bytes, 0, length, ISO_8859_1);
+			}
+			line.write(next);
+		}
+	}
+
+	/**
+	 * Indicates if the connection may be used to send another request.
+	 *
+	 * @return {@code true} if the connection may be reused
+	 */
+	public boolean isReusable()
+	{
+		return reusable;
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		reusable = false;
+		resource.close();
+	}
+}
@@ -0,0 +1,18 @@
+package io.github.cowwoc.canister.core.internal.http;
+
+import java.io.IOException;
+
+/**
+ * Opens new connections to an HTTP server.
+ */
+@FunctionalInterface
+public interface HttpConnectionFactory
+{
+	/**
+	 * Opens a new connection.
+	 *
+	 * @return the connection
+	 * @throws IOException if an I/O error occurs while connecting to the server
+	 */
+	HttpConnection connect() throws IOException;
+}
@@ -0,0 +1,231 @@
+package io.github.cowwoc.canister.core.internal.http;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * A pool of keep-alive HTTP/1.1 connections.
+ * <p>
+ * Each request borrows an idle connection (or opens a new one), and returns it to the pool once the response
+ * has been consumed. Idle connections beyond {@code maxIdle} are closed.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class HttpConnectionPool implements AutoCloseable
+{
+	private final HttpConnectionFactory factory;
+	private final BlockingQueue<HttpConnection> idle;
+	private volatile boolean closed;
+	private final Logger log = LoggerFactory.getLogger(HttpConnectionPool.class);
+
+	/**
+	 * Creates a new pool.
+	 *
+	 * @param factory opens new connections
+	 * @param maxIdle the maximum number of idle connections to retain
+	 * @throws NullPointerException     if {@code factory} is null
+	 * @throws IllegalArgumentException if {@code maxIdle} is not positive
+	 */
+	public HttpConnectionPool(HttpConnectionFactory factory, int maxIdle)
+	{
+		requireThat(factory, "factory").isNotNull();
+		requireThat(maxIdle, "maxIdle").isPositive();
+		this.factory = factory;
+		this.idle = new ArrayBlockingQueue<>(maxIdle);
+	}
+
+	/**
+	 * Sends a request and waits for its response.
+	 * <p>
+	 * If a pooled connection turns out to have been closed by the server, idempotent requests ({@code GET} and
+	 * {@code HEAD}) are retried once over a new connection.
+	 *
+	 * @param method   the request method
+	 * @param target   the request target (e.g. {@code /containers/json?all=1})
+	 * @param body     the JSON request body, or {@code null} if the request does not have a body
+	 * @param deadline the time by which the response must arrive, or {@code null} if it is unbounded
+	 * @return the response
+	 * @throws NullPointerException     if {@code method} or {@code target} are null
+	 * @throws IllegalArgumentException if {@code method} or {@code target} contain whitespace or are empty
+	 * @throws IllegalStateException    if the pool is closed
+	 * @throws IOException              if an I/O error occurs
+	 * @throws InterruptedException     if the thread is interrupted before the response arrives. The connection
+	 *                                  is closed.
+	 * @throws TimeoutException         if the deadline expires before the response arrives. The connection is
+	 *                                  closed.
+	 */
+	public HttpResponse send(String method, String target, String body, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		if (closed)
+			throw new IllegalStateException("The pool is closed");
+		if (deadline != null && !Instant.now().isBefore(deadline))
+		{
+			throw new TimeoutException("The deadline expired before the request was sent: " + method + " " +
+				target);
+		}
+		HttpConnection connection = idle.poll();
+		if (connection != null)
+		{
+			try
+			{
+				HttpResponse response = exchange(connection, method, target, body, deadline);
+				release(connection);
+				return response;
+			}
+			catch (IOException e)
+			{
+				closeQuietly(connection);
+				if (!method.equals("GET") && !method.equals("HEAD"))
+					throw e;
+				log.debug("Pooled connection was stale, retrying over a new connection", e);
+			}
+		}
+		connection = factory.connect();
+		try
+		{
+			HttpResponse response = exchange(connection, method, target, body, deadline);
+			release(connection);
+			return response;
+		}
+		catch (IOException | RuntimeException e)
+		{
+			closeQuietly(connection);
+			throw e;
+		}
+	}
+
+	/**
+	 * Sends a request over a connection, closing the connection if the response does not arrive in time.
+	 * <p>
+	 * The request is sent by a separate thread because reads from the standard output of a process cannot be
+	 * interrupted. Closing the connection closes its socket or terminates its process, which unblocks the
+	 * thread.
+	 *
+	 * @param connection the connection
+	 * @param method     the request method
+	 * @param target     the request target
+	 * @param body       the JSON request body, or {@code null} if the request does not have a body
+	 * @param deadline   the time by which the response must arrive, or {@code null} if it is unbounded
+	 * @return the response
+	 * @throws IOException          if an I/O error occurs
+	 * @throws InterruptedException if the thread is interrupted before the response arrives. The connection is
+	 *                              closed.
+	 * @throws TimeoutException     if the deadline expires before the response arrives. The connection is
+	 *                              closed.
+	 */
+	private HttpResponse exchange(HttpConnection connection, String method, String target, String body,
+		Instant deadline) throws IOException, InterruptedException, TimeoutException
+	{
+		FutureTask<HttpResponse> response = new FutureTask<>(() -> connection.send(method, target, body));
+		Thread.ofVirtual().start(response);
+		try
+		{
+			if (deadline == null)
+				return response.get();
+			long timeLeft = Duration.between(Instant.now(), deadline).toNanos();
+			return response.get(timeLeft, TimeUnit.NANOSECONDS);
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException ioe)
+				throw ioe;
+			if (cause instanceof RuntimeException re)
+				throw re;
+			if (cause instanceof Error error)
+				throw error;
+			throw new AssertionError(cause);
+		}
+		catch (InterruptedException e)
+		{
+			closeQuietly(connection);
+			throw e;
+		}
+		catch (TimeoutException _)
+		{
+			closeQuietly(connection);
+			throw new TimeoutException("The server did not respond before " + deadline + ": " + method + " " +
+				target);
+		}
+	}
+
+	/**
+	 * Returns a connection to the pool, or closes it if it cannot be reused.
+	 *
+	 * @param connection the connection
+	 */
+	private void release(HttpConnection connection)
+	{
+		if (closed || !connection.isReusable() || !idle.offer(connection))
+		{
+			closeQuietly(connection);
+			return;
+		}
+		// close() may have drained the pool between the check and the offer
+		if (closed && idle.remove(connection))
+			closeQuietly(connection);
+	}
+
+	/**
+	 * Closes a connection, logging any failures.
+	 *
+	 * @param connection the connection
+	 */
+	private void closeQuietly(HttpConnection connection)
+	{
+		try
+		{
+			connection.close();
+		}
+		catch (IOException e)
+		{
+			log.debug("Failed to close connection", e);
+		}
+	}
+
+	/**
+	 * Returns the number of idle connections in the pool.
+	 *
+	 * @return the number of idle connections
+	 */
+	public int getIdleCount()
+	{
+		return idle.size();
+	}
+
+	@Override
+	public void close()
+	{
+		closed = true;
+		while (true)
+		{
+			HttpConnection connection = idle.poll();
+			if (connection == null)
+				break;
+			closeQuietly(connection);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(HttpConnectionPool.class).
+			add("factory", factory).
+			add("idle", idle.size()).
+			toString();
+	}
+}
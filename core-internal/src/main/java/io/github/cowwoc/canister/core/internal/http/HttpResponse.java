@@ -0,0 +1,40 @@
+package io.github.cowwoc.canister.core.internal.http;
+
+import java.util.Map;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.that;
+
+/**
+ * An HTTP/1.1 response.
+ *
+ * @param statusCode the status code
+ * @param headers    the response headers, keyed by their lowercase name
+ * @param body       the decoded response body
+ */
+public record HttpResponse(int statusCode, Map<String, String> headers, String body)
+{
+	/**
+	 * Creates a response.
+	 *
+	 * @param statusCode the status code
+	 * @param headers    the response headers, keyed by their lowercase name
+	 * @param body       the decoded response body
+	 */
+	public HttpResponse
+	{
+		assert that(statusCode, "statusCode").isBetween(100, 600).elseThrow();
+		assert headers != null;
+		assert body != null;
+		headers = Map.copyOf(headers);
+	}
+
+	/**
+	 * Indicates if the server reported a failure.
+	 *
+	 * @return {@code true} if the status code is 400 or higher
+	 */
+	public boolean isError()
+	{
+		return statusCode >= 400;
+	}
+}
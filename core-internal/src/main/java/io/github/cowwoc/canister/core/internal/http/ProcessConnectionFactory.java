@@ -0,0 +1,97 @@
+package io.github.cowwoc.canister.core.internal.http;
+
+import io.github.cowwoc.canister.core.spi.util.Processes;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Opens HTTP connections over the standard input and output of a process, such as
+ * {@code docker system dial-stdio}, that relays them to the server.
+ * <p>
+ * Each connection runs its own process, which is terminated when the connection is closed. Pooling the
+ * connections keeps the processes, and any SSH or TLS session that they established, alive between requests.
+ * <p>
+ * Reads from the standard output of a process cannot be interrupted, so {@link HttpConnectionPool} closes a
+ * connection whose response does not arrive before the deadline of its request. This terminates the process,
+ * and any SSH session that it relays, even if the remote daemon stopped responding.
+ */
+public final class ProcessConnectionFactory implements HttpConnectionFactory
+{
+	private final List<String> command;
+	private final Logger log = LoggerFactory.getLogger(ProcessConnectionFactory.class);
+
+	/**
+	 * Creates a new factory.
+	 *
+	 * @param command the command that starts the process
+	 * @throws NullPointerException     if {@code command} is null
+	 * @throws IllegalArgumentException if {@code command} is empty
+	 */
+	public ProcessConnectionFactory(List<String> command)
+	{
+		requireThat(command, "command").isNotEmpty();
+		this.command = List.copyOf(command);
+	}
+
+	@Override
+	public HttpConnection connect() throws IOException
+	{
+		log.debug("Running: {}", command);
+		Process process = new ProcessBuilder(command).start();
+		// Drain stderr so that the process does not block on a full pipe. The messages explain why the
+		// process exited, such as an SSH authentication failure.
+		Thread.ofVirtual().start(() -> logErrors(process));
+		InputStream in = process.getInputStream();
+		OutputStream out = process.getOutputStream();
+		// The hostname is ignored by the server, but HTTP/1.1 requires the header to be present
+		return new HttpConnection(in, out, () ->
+		{
+			Processes.destroyTree(process);
+			// stderr is closed by logErrors() once the process exits
+			try (in)
+			{
+				out.close();
+			}
+		}, "localhost");
+	}
+
+	/**
+	 * Logs the standard error stream of a process until the process exits.
+	 *
+	 * @param process the process
+	 */
+	private void logErrors(Process process)
+	{
+		try (BufferedReader reader = process.errorReader())
+		{
+			while (true)
+			{
+				String line = reader.readLine();
+				if (line == null)
+					break;
+				log.debug("{}: {}", process.pid(), line);
+			}
+		}
+		catch (IOException e)
+		{
+			log.debug("Failed to read stderr of process {}", process.pid(), e);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(ProcessConnectionFactory.class).
+			add("command", command).
+			toString();
+	}
+}
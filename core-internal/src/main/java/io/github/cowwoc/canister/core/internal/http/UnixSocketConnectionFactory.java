@@ -0,0 +1,58 @@
+package io.github.cowwoc.canister.core.internal.http;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Opens HTTP connections over a Unix domain socket.
+ */
+public final class UnixSocketConnectionFactory implements HttpConnectionFactory
+{
+	private final UnixDomainSocketAddress address;
+
+	/**
+	 * Creates a new factory.
+	 *
+	 * @param socket the path of the socket (e.g. {@code /var/run/docker.sock})
+	 * @throws NullPointerException if {@code socket} is null
+	 */
+	public UnixSocketConnectionFactory(Path socket)
+	{
+		requireThat(socket, "socket").isNotNull();
+		this.address = UnixDomainSocketAddress.of(socket);
+	}
+
+	@Override
+	public HttpConnection connect() throws IOException
+	{
+		SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+		try
+		{
+			channel.connect(address);
+		}
+		catch (IOException e)
+		{
+			channel.close();
+			throw e;
+		}
+		// The hostname is ignored by the server, but HTTP/1.1 requires the header to be present
+		return new HttpConnection(Channels.newInputStream(channel), Channels.newOutputStream(channel), channel,
+			"localhost");
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(UnixSocketConnectionFactory.class).
+			add("socket", address.getPath()).
+			toString();
+	}
+}
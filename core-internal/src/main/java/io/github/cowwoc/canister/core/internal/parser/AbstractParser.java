@@ -47,6 +47,57 @@ protected Client getClient()
 		return client;
 	}
 
+	/**
+	 * Passes the non-blank lines of a command's output to a collector.
+	 *
+	 * @param <T>       the type of value that is built
+	 * @param stdout    the standard output stream of a command
+	 * @param collector the collector
+	 * @return the value that was built from the lines
+	 */
+	protected static <T> T collect(String stdout, LineCollector<T> collector)
+	{
+		for (String line : SPLIT_LINES.split(stdout))
+		{
+			if (line.isBlank())
+				continue;
+			collector.accept(line);
+		}
+		return collector.finish();
+	}
+
+	/**
+	 * Indicates if every line of an error message matches at least one of the specified patterns.
+	 * <p>
+	 * Commands that operate on multiple resources report a separate error for each resource that failed.
+	 *
+	 * @param stderr   the standard error stream of a command
+	 * @param patterns the expected errors
+	 * @return {@code false} if {@code stderr} is empty or contains an unexpected error
+	 */
+	protected static boolean everyLineMatches(String stderr, List<Pattern> patterns)
+	{
+		boolean matched = false;
+		for (String line : SPLIT_LINES.split(stderr))
+		{
+			if (line.isBlank())
+				continue;
+			boolean lineMatched = false;
+			for (Pattern pattern : patterns)
+			{
+				if (pattern.matcher(line).matches())
+				{
+					lineMatched = true;
+					break;
+				}
+			}
+			if (!lineMatched)
+				return false;
+			matched = true;
+		}
+		return matched;
+	}
+
 	/**
 	 * Returns the {@code int} value of a JSON node.
 	 *
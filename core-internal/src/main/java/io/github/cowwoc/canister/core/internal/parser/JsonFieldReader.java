@@ -0,0 +1,113 @@
+package io.github.cowwoc.canister.core.internal.parser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads selected top-level fields of a JSON object without building a tree for the entire object.
+ * <p>
+ * The object is decoded token by token. Fields that were not selected are skipped along with their children,
+ * and decoding stops as soon as all selected fields were read. Selected fields whose value is an object or
+ * array are converted into a tree.
+ * <p>
+ * <b>Thread-safety</b>: This class is immutable.
+ */
+public final class JsonFieldReader
+{
+	private final JsonMapper jsonMapper;
+	private final List<String> names;
+	private final Map<String, Integer> nameToIndex;
+
+	/**
+	 * Creates a new reader.
+	 *
+	 * @param jsonMapper the JSON configuration
+	 * @param names      the names of the fields to read
+	 */
+	public JsonFieldReader(JsonMapper jsonMapper, String... names)
+	{
+		assert jsonMapper != null;
+		this.jsonMapper = jsonMapper;
+		this.names = List.of(names);
+		this.nameToIndex = HashMap.newHashMap(names.length);
+		for (int i = 0; i < names.length; ++i)
+			nameToIndex.put(names[i], i);
+	}
+
+	/**
+	 * Returns the names of the fields that are read.
+	 *
+	 * @return the names
+	 */
+	List<String> getNames()
+	{
+		return names;
+	}
+
+	/**
+	 * Returns the index of a field.
+	 *
+	 * @param name the name of the field
+	 * @return the index of the field
+	 * @throws IllegalArgumentException if the field was not selected
+	 */
+	int indexOf(String name)
+	{
+		Integer index = nameToIndex.get(name);
+		if (index == null)
+			throw new IllegalArgumentException("Field was not selected: " + name + "\n" +
+				"Selected: " + names);
+		return index;
+	}
+
+	/**
+	 * Reads the selected fields of a JSON object.
+	 *
+	 * @param json the JSON representation of an object
+	 * @return the values of the selected fields. Fields that are absent have a {@code null} value.
+	 * @throws AssertionError if {@code json} is not a well-formed JSON object
+	 */
+	public JsonFields read(String json)
+	{
+		Object[] values = new Object[names.size()];
+		try (JsonParser parser = jsonMapper.createParser(json))
+		{
+			if (parser.nextToken() != JsonToken.START_OBJECT)
+				throw new AssertionError("Expected a JSON object: " + json);
+			int remaining = values.length;
+			while (remaining > 0 && parser.nextToken() == JsonToken.FIELD_NAME)
+			{
+				Integer index = nameToIndex.get(parser.currentName());
+				JsonToken token = parser.nextToken();
+				if (index == null)
+				{
+					parser.skipChildren();
+					continue;
+				}
+				values[index] = switch (token)
+				{
+					case VALUE_STRING -> parser.getText();
+					case VALUE_TRUE -> true;
+					case VALUE_FALSE -> false;
+					case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getNumberValue();
+					case START_OBJECT, START_ARRAY -> parser.readValueAsTree();
+					case VALUE_NULL -> null;
+					default -> throw new AssertionError("Unexpected token: " + token + "\n" +
+						"JSON: " + json);
+				};
+				--remaining;
+			}
+		}
+		catch (IOException e)
+		{
+			throw new AssertionError(json, e);
+		}
+		return new JsonFields(this, values);
+	}
+}
@@ -0,0 +1,93 @@
+package io.github.cowwoc.canister.core.internal.parser;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * The values of the fields that a {@link JsonFieldReader} read from a JSON object.
+ */
+public final class JsonFields
+{
+	private final JsonFieldReader reader;
+	private final Object[] values;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param reader the reader that read the fields
+	 * @param values the value of each field, in the order that the reader selected them
+	 */
+	JsonFields(JsonFieldReader reader, Object[] values)
+	{
+		assert reader != null;
+		assert values != null;
+		this.reader = reader;
+		this.values = values;
+	}
+
+	/**
+	 * Returns the value of a string field.
+	 *
+	 * @param name the name of the field
+	 * @return {@code null} if the field is absent or {@code null}
+	 * @throws IllegalArgumentException if the field was not selected
+	 * @throws AssertionError           if the field is not a string
+	 */
+	public String getString(String name)
+	{
+		Object value = values[reader.indexOf(name)];
+		if (value == null || value instanceof String)
+			return (String) value;
+		throw new AssertionError(name + " must be a string.\n" +
+			"Actual: " + value);
+	}
+
+	/**
+	 * Returns the value of a boolean field.
+	 *
+	 * @param name the name of the field
+	 * @return {@code false} if the field is absent or {@code null}
+	 * @throws IllegalArgumentException if the field was not selected
+	 * @throws AssertionError           if the field is not a boolean
+	 */
+	public boolean getBoolean(String name)
+	{
+		Object value = values[reader.indexOf(name)];
+		return switch (value)
+		{
+			case null -> false;
+			case Boolean bool -> bool;
+			default -> throw new AssertionError(name + " must be a boolean.\n" +
+				"Actual: " + value);
+		};
+	}
+
+	/**
+	 * Returns the value of a field that contains an object or an array.
+	 *
+	 * @param name the name of the field
+	 * @return {@code null} if the field is absent or {@code null}
+	 * @throws IllegalArgumentException if the field was not selected
+	 * @throws AssertionError           if the field is not an object or an array
+	 */
+	public JsonNode getNode(String name)
+	{
+		Object value = values[reader.indexOf(name)];
+		if (value == null || value instanceof JsonNode)
+			return (JsonNode) value;
+		throw new AssertionError(name + " must be an object or an array.\n" +
+			"Actual: " + value);
+	}
+
+	@Override
+	public String toString()
+	{
+		List<String> names = reader.getNames();
+		StringJoiner joiner = new StringJoiner(", ", "{", "}");
+		for (int i = 0; i < values.length; ++i)
+			joiner.add(names.get(i) + "=" + values[i]);
+		return joiner.toString();
+	}
+}
@@ -0,0 +1,45 @@
+package io.github.cowwoc.canister.core.internal.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Converts each line of a command's output, containing a JSON object, into a list element.
+ *
+ * @param <E> the type of elements in the list
+ */
+public final class JsonLinesCollector<E> implements LineCollector<List<E>>
+{
+	private final JsonFieldReader reader;
+	private final Function<JsonFields, E> mapper;
+	private final List<E> elements = new ArrayList<>();
+
+	/**
+	 * Creates a new collector.
+	 *
+	 * @param reader reads the fields that {@code mapper} needs from each line
+	 * @param mapper converts the fields of each JSON object into a list element
+	 */
+	public JsonLinesCollector(JsonFieldReader reader, Function<JsonFields, E> mapper)
+	{
+		assert reader != null;
+		assert mapper != null;
+		this.reader = reader;
+		this.mapper = mapper;
+	}
+
+	@Override
+	public void accept(String line)
+	{
+		if (line.isBlank())
+			return;
+		elements.add(mapper.apply(reader.read(line)));
+	}
+
+	@Override
+	public List<E> finish()
+	{
+		return elements;
+	}
+}
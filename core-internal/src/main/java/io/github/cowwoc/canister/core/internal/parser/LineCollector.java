@@ -0,0 +1,31 @@
+package io.github.cowwoc.canister.core.internal.parser;
+
+import java.util.function.Consumer;
+
+/**
+ * Builds a value incrementally from the lines that a command writes to stdout, so that the command's output
+ * does not need to be buffered in its entirety.
+ * <p>
+ * <b>Thread-safety</b>: Implementations are not required to be thread-safe. Lines are passed to
+ * {@link #accept(String)} by a single thread, and {@link #finish()} is invoked after the command exits.
+ *
+ * @param <T> the type of value that is built
+ */
+public interface LineCollector<T> extends Consumer<String>
+{
+	/**
+	 * Consumes the next line of output.
+	 *
+	 * @param line a line, which may be blank
+	 * @throws AssertionError if the line is malformed
+	 */
+	@Override
+	void accept(String line);
+
+	/**
+	 * Returns the value that was built from the lines.
+	 *
+	 * @return the value
+	 */
+	T finish();
+}
@@ -0,0 +1,44 @@
+package io.github.cowwoc.canister.core.internal.util;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Message digest helper functions.
+ */
+public final class Digests
+{
+	/**
+	 * Returns a new SHA-256 digest.
+	 *
+	 * @return the digest
+	 */
+	public static MessageDigest newSha256()
+	{
+		try
+		{
+			return MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			// Every implementation of the Java platform is required to support SHA-256
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Completes a digest.
+	 *
+	 * @param digest the digest
+	 * @return the value of the digest, as a lowercase hexadecimal string
+	 */
+	public static String toHex(MessageDigest digest)
+	{
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private Digests()
+	{
+	}
+}
\ No newline at end of file
@@ -13,6 +13,8 @@
 /**
  * Generates a sequence of durations to wait before retrying a failed operation. This implementation uses the
  * truncated exponential backoff algorithm.
+ * <p>
+ * <b>Thread-safety</b>: This class is not thread-safe.
  */
 public final class RetryDelay
 {
@@ -23,14 +25,18 @@
 	/**
 	 * The multiplier that is applied to a value when advancing to the next value in the sequence.
 	 */
-	private final float multiplier;
+	private final double multiplier;
+	/**
+	 * The maximum fraction of each delay that is randomly removed.
+	 */
+	private final double jitter;
 	/**
 	 * The current delay.
 	 */
 	private Duration delay;
 
 	/**
-	 * Creates a RetryDelay.
+	 * Creates a RetryDelay with a jitter of 10%.
 	 *
 	 * @param initial    the initial delay to sleep
 	 * @param maximum    the maximum delay to sleep
@@ -40,14 +46,33 @@
 	 *                                  {@code initial}. If {@code multiplier} is less than {@code 1.0}.
 	 */
 	public RetryDelay(Duration initial, Duration maximum, float multiplier)
+	{
+		this(initial, maximum, multiplier, 0.1);
+	}
+
+	/**
+	 * Creates a RetryDelay.
+	 *
+	 * @param initial    the initial delay to sleep
+	 * @param maximum    the maximum delay to sleep
+	 * @param multiplier the multiplier to apply to the current delay after each retry
+	 * @param jitter     the maximum fraction of each delay that is randomly removed
+	 * @throws NullPointerException     if {@code initial} or {@code timeLimit} are null
+	 * @throws IllegalArgumentException if {@code initial} is negative. If {@code maximum} is less than
+	 *                                  {@code initial}. If {@code multiplier} is less than {@code 1.0}. If
+	 *                                  {@code jitter} is not between {@code 0.0} and {@code 1.0}.
+	 */
+	public RetryDelay(Duration initial, Duration maximum, double multiplier, double jitter)
 	{
 		requireThat(initial, "initial").isNotNull();
 		requireThat(!initial.isNegative(), "!initial.isNegative()").isTrue();
 		requireThat(maximum, "maximum").isGreaterThanOrEqualTo(initial, "initial");
-		requireThat(multiplier, "multiplier").isGreaterThanOrEqualTo(1.0f);
+		requireThat(multiplier, "multiplier").isGreaterThanOrEqualTo(1.0);
+		requireThat(jitter, "jitter").isBetween(0.0, true, 1.0, true);
 
 		this.maximum = maximum;
 		this.multiplier = multiplier;
+		this.jitter = jitter;
 		this.delay = initial;
 	}
 
@@ -55,35 +80,41 @@ public RetryDelay(Duration initial, Duration maximum, float multiplier)
 	 * Sleeps until it is time to retry an operation.
 	 *
 	 * @param timeLeft the maximum duration that the thread may sleep
+	 * @return the duration that the thread slept for
 	 * @throws NullPointerException if {@code timeLeft} is null
 	 * @throws InterruptedException if the thread is interrupted
 	 */
-	public void sleep(Duration timeLeft) throws InterruptedException
+	public Duration sleep(Duration timeLeft) throws InterruptedException
 	{
 		requireThat(timeLeft, "timeLeft").isNotNull();
 		assert that(delay, "delay").isLessThanOrEqualTo(maximum, "maximum").elseThrow();
 
-		Duration newDelay = Temporals.multiply(delay, multiplier);
-		ThreadLocalRandom random = ThreadLocalRandom.current();
-		newDelay = Duration.ofSeconds(
-			random.nextLong((long) (newDelay.toSeconds() * 0.9), newDelay.getSeconds() + 1),
-			random.nextInt((int) Math.round(newDelay.getNano() * 0.9), newDelay.getNano() + 1));
+		long nanos = delay.toNanos();
+		if (jitter > 0.0 && nanos > 0)
+		{
+			long minimum = (long) (nanos * (1.0 - jitter));
+			nanos = ThreadLocalRandom.current().nextLong(minimum, nanos + 1);
+		}
+		Duration duration = Collections.min(List.of(timeLeft, Duration.ofNanos(nanos)));
 
-		Duration oldDelay = delay;
+		Duration newDelay = Temporals.multiply(delay, multiplier);
 		delay = Collections.min(List.of(newDelay, maximum));
 
-		Duration duration = Collections.min(List.of(timeLeft, oldDelay));
+		if (duration.isNegative())
+			return Duration.ZERO;
 		Thread.sleep(duration);
+		return duration;
 	}
 
 	/**
 	 * Sleeps until it is time to retry an operation.
 	 *
+	 * @return the duration that the thread slept for
 	 * @throws InterruptedException if the thread is interrupted
 	 */
-	public void sleep() throws InterruptedException
+	public Duration sleep() throws InterruptedException
 	{
-		sleep(maximum);
+		return sleep(maximum);
 	}
 
 	/**
@@ -96,4 +127,4 @@ public Duration getNextDelay(Duration timeLeft)
 	{
 		return Collections.min(List.of(timeLeft, delay));
 	}
-}
\ No newline at end of file
+}
@@ -13,9 +13,12 @@
 
 	exports io.github.cowwoc.canister.core.internal.client to
 		io.github.cowwoc.canister.buildx.internal, io.github.cowwoc.canister.docker.main,
-		io.github.cowwoc.canister.docker.test;
+		io.github.cowwoc.canister.docker.fake, io.github.cowwoc.canister.docker.test;
 	exports io.github.cowwoc.canister.core.internal.util to
-		io.github.cowwoc.canister.buildx.main, io.github.cowwoc.canister.buildx.test,
+		io.github.cowwoc.canister.buildx.internal, io.github.cowwoc.canister.buildx.main,
+		io.github.cowwoc.canister.buildx.test, io.github.cowwoc.canister.docker.main,
+		io.github.cowwoc.canister.docker.test;
+	exports io.github.cowwoc.canister.core.internal.http to
 		io.github.cowwoc.canister.docker.main, io.github.cowwoc.canister.docker.test;
 	exports io.github.cowwoc.canister.core.internal.parser to
 		io.github.cowwoc.canister.buildx.internal, io.github.cowwoc.canister.docker.main;
@@ -0,0 +1,237 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.docker.id.ConfigId;
+import io.github.cowwoc.canister.docker.id.ContainerId;
+import io.github.cowwoc.canister.docker.id.NetworkId;
+import io.github.cowwoc.canister.docker.id.NodeId;
+import io.github.cowwoc.canister.docker.id.ServiceId;
+import io.github.cowwoc.canister.docker.id.TaskId;
+import io.github.cowwoc.canister.docker.resource.Config;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Network;
+import io.github.cowwoc.canister.docker.resource.Node;
+import io.github.cowwoc.canister.docker.resource.Service;
+import io.github.cowwoc.canister.docker.resource.Task;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A view of a {@link DockerClient} whose methods run in the background.
+ * <p>
+ * Each method returns immediately with a {@code CompletableFuture} that is completed by a thread of the
+ * view's executor. If the operation fails, the future completes exceptionally with the exception that the
+ * corresponding {@code DockerClient} method would have thrown.
+ * <p>
+ * Cancelling a future that has not completed using {@code cancel(true)} interrupts the thread that is running
+ * the operation, which terminates any commands that it started. {@code cancel(false)} completes the future
+ * without interrupting the operation, which runs to completion and whose result is discarded. Futures that are derived from the returned futures, such as those
+ * returned by {@code thenApply()}, do not propagate their cancellation to the operation.
+ * <p>
+ * <b>Thread-safety</b>: This interface is thread-safe.
+ *
+ * @see DockerClient#async()
+ */
+public interface AsyncDockerClient
+{
+	/**
+	 * Returns the client that operations are run on.
+	 *
+	 * @return the client
+	 */
+	DockerClient getClient();
+
+	/**
+	 * Returns the executor that runs the operations.
+	 *
+	 * @return the executor
+	 */
+	Executor getExecutor();
+
+	/**
+	 * Runs an operation in the background. Use this method to run operations that this interface does not
+	 * provide a shortcut for, such as {@code client -> client.pullImage("nginx").apply()}.
+	 *
+	 * @param <V>       the type of value returned by the operation
+	 * @param operation the operation to run
+	 * @return the value returned by the operation
+	 * @throws NullPointerException if {@code operation} is null
+	 */
+	<V> CompletableFuture<V> submit(DockerOperation<V> operation);
+
+	/**
+	 * Returns all the configs.
+	 *
+	 * @return the configs
+	 * @see DockerClient#getConfigs()
+	 */
+	CompletableFuture<List<Config>> getConfigs();
+
+	/**
+	 * Looks up a config.
+	 *
+	 * @param id the config's ID or name
+	 * @return the config, or {@code null} if no match is found
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getConfig(ConfigId)
+	 */
+	CompletableFuture<Config> getConfig(ConfigId id);
+
+	/**
+	 * Returns all the containers.
+	 *
+	 * @return the containers
+	 * @see DockerClient#getContainers()
+	 */
+	CompletableFuture<List<Container>> getContainers();
+
+	/**
+	 * Looks up a container.
+	 *
+	 * @param id the container's ID or name
+	 * @return the container, or {@code null} if no match is found
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getContainer(ContainerId)
+	 */
+	CompletableFuture<Container> getContainer(ContainerId id);
+
+	/**
+	 * Waits until a container stops running.
+	 *
+	 * @param id the container's ID or name
+	 * @return the exit code returned by the container
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#waitUntilContainerStops(ContainerId)
+	 */
+	CompletableFuture<Integer> waitUntilContainerStops(ContainerId id);
+
+	/**
+	 * Returns all the images.
+	 *
+	 * @return the images
+	 * @see DockerClient#getImages()
+	 */
+	CompletableFuture<List<DockerImage>> getImages();
+
+	/**
+	 * Looks up an image.
+	 *
+	 * @param id the image's ID or reference
+	 * @return the image, or {@code null} if no match is found
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getImage(ImageId)
+	 */
+	CompletableFuture<DockerImage> getImage(ImageId id);
+
+	/**
+	 * Pulls an image from a registry, using the default platform.
+	 *
+	 * @param reference the reference to pull. For example, {@code docker.io/nasa/rocket-ship}. The tag
+	 *                  defaults to {@code latest}.
+	 * @return the image
+	 * @throws NullPointerException if {@code reference} is null
+	 * @see DockerClient#pullImage(String)
+	 */
+	CompletableFuture<DockerImage> pullImage(String reference);
+
+	/**
+	 * Returns all the networks.
+	 *
+	 * @return the networks
+	 * @see DockerClient#getNetworks()
+	 */
+	CompletableFuture<List<Network>> getNetworks();
+
+	/**
+	 * Looks up a network.
+	 *
+	 * @param id the network's ID or name
+	 * @return the network, or {@code null} if no match is found
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getNetwork(NetworkId)
+	 */
+	CompletableFuture<Network> getNetwork(NetworkId id);
+
+	/**
+	 * Returns all the swarm nodes.
+	 *
+	 * @return the nodes
+	 * @see DockerClient#getNodes()
+	 */
+	CompletableFuture<List<Node>> getNodes();
+
+	/**
+	 * Looks up a node.
+	 *
+	 * @param id the node's ID or hostname
+	 * @return the node, or {@code null} if no match is found
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getNode(NodeId)
+	 */
+	CompletableFuture<Node> getNode(NodeId id);
+
+	/**
+	 * Returns all the swarm services.
+	 *
+	 * @return the services
+	 * @see DockerClient#getServices()
+	 */
+	CompletableFuture<List<Service>> getServices();
+
+	/**
+	 * Looks up a service.
+	 *
+	 * @param id the service's ID or name
+	 * @return the service, or {@code null} if no match is found
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getService(ServiceId)
+	 */
+	CompletableFuture<Service> getService(ServiceId id);
+
+	/**
+	 * Lists a service's tasks.
+	 *
+	 * @param id the service's ID or name
+	 * @return the tasks
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getTasksByService(ServiceId)
+	 */
+	CompletableFuture<List<Task>> getTasksByService(ServiceId id);
+
+	/**
+	 * Looks up a task.
+	 *
+	 * @param id the task's ID
+	 * @return the task, or {@code null} if no match is found
+	 * @throws NullPointerException if {@code id} is null
+	 * @see DockerClient#getTask(TaskId)
+	 */
+	CompletableFuture<Task> getTask(TaskId id);
+
+	/**
+	 * An operation that runs on a {@code DockerClient}.
+	 *
+	 * @param <V> the type of value returned by the operation
+	 */
+	@FunctionalInterface
+	interface DockerOperation<V>
+	{
+		/**
+		 * Runs the operation.
+		 *
+		 * @param client the client to run the operation on
+		 * @return the value returned by the operation
+		 * @throws IOException          if an I/O error occurs. These errors are typically transient, and
+		 *                              retrying the request may resolve the issue.
+		 * @throws InterruptedException if the thread is interrupted before the operation completes. This can
+		 *                              happen if the future is cancelled.
+		 * @throws TimeoutException     if a deadline expires before the operation completes
+		 */
+		V apply(DockerClient client) throws IOException, InterruptedException, TimeoutException;
+	}
+}
@@ -0,0 +1,33 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.that;
+
+/**
+ * Statistics about a client's resource cache.
+ *
+ * @param size          the number of resources in the cache
+ * @param hits          the number of lookups that were served from the cache
+ * @param misses        the number of lookups that had to query the daemon
+ * @param evictions     the number of resources that were removed to make room for new ones
+ * @param invalidations the number of resources that were removed because they changed
+ */
+public record CacheStatistics(int size, long hits, long misses, long evictions, long invalidations)
+{
+	/**
+	 * Creates new statistics.
+	 *
+	 * @param size          the number of resources in the cache
+	 * @param hits          the number of lookups that were served from the cache
+	 * @param misses        the number of lookups that had to query the daemon
+	 * @param evictions     the number of resources that were removed to make room for new ones
+	 * @param invalidations the number of resources that were removed because they changed
+	 */
+	public CacheStatistics
+	{
+		assert that(size, "size").isNotNegative().elseThrow();
+		assert that(hits, "hits").isNotNegative().elseThrow();
+		assert that(misses, "misses").isNotNegative().elseThrow();
+		assert that(evictions, "evictions").isNotNegative().elseThrow();
+		assert that(invalidations, "invalidations").isNotNegative().elseThrow();
+	}
+}
@@ -1,6 +1,7 @@
 package io.github.cowwoc.canister.docker.api.client;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ServiceLoader;
 
 /**
@@ -17,10 +18,46 @@
 	 */
 	public static DockerClient fromPath() throws IOException
 	{
-		DockerFinder builder = ServiceLoader.load(DockerFinder.class).findFirst().
+		return getFinder().fromPath();
+	}
+
+	/**
+	 * Returns a client that sends read-only requests directly to the Docker Engine API over
+	 * {@code /var/run/docker.sock}, instead of forking the {@code docker} executable. All other commands are
+	 * delegated to the {@code docker} executable resolved from the {@code PATH} environment variable.
+	 *
+	 * @return the client
+	 * @throws IOException if an I/O error occurs while building the client
+	 */
+	public static DockerClient fromSocket() throws IOException
+	{
+		return fromSocket(Path.of("/var/run/docker.sock"));
+	}
+
+	/**
+	 * Returns a client that sends read-only requests directly to the Docker Engine API over a Unix domain
+	 * socket, instead of forking the {@code docker} executable. All other commands are delegated to the
+	 * {@code docker} executable resolved from the {@code PATH} environment variable.
+	 *
+	 * @param socket the path of the Docker daemon's socket
+	 * @return the client
+	 * @throws NullPointerException if {@code socket} is null
+	 * @throws IOException          if an I/O error occurs while building the client
+	 */
+	public static DockerClient fromSocket(Path socket) throws IOException
+	{
+		return getFinder().fromSocket(socket);
+	}
+
+	/**
+	 * @return the {@code DockerFinder} implementation
+	 * @throws IllegalStateException if no implementation is available
+	 */
+	private static DockerFinder getFinder()
+	{
+		return ServiceLoader.load(DockerFinder.class).findFirst().
 			orElseThrow(() -> new IllegalStateException(
 				"Unable to find a BuildXClient implementation. Did you forget to declare a dependency on " +
 					"\"canister-buildx-main\"?"));
-		return builder.fromPath();
 	}
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package io.github.cowwoc.canister.docker.api.client;
 
 import io.github.cowwoc.canister.buildx.api.client.BuildXClient;
+import io.github.cowwoc.canister.core.client.RetryPolicy;
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
 import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.core.metrics.ClientMetrics;
 import io.github.cowwoc.canister.core.resource.Image;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
 import io.github.cowwoc.canister.docker.exception.NotSwarmMemberException;
@@ -32,6 +34,7 @@
 import io.github.cowwoc.canister.docker.resource.DockerImage;
 import io.github.cowwoc.canister.docker.resource.DockerImageBuilder;
 import io.github.cowwoc.canister.docker.resource.DockerImageElement;
+import io.github.cowwoc.canister.docker.resource.EventSubscriber;
 import io.github.cowwoc.canister.docker.resource.ImagePuller;
 import io.github.cowwoc.canister.docker.resource.ImagePusher;
 import io.github.cowwoc.canister.docker.resource.ImageRemover;
@@ -57,9 +60,12 @@
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * A Docker client.
@@ -69,6 +75,118 @@ public interface DockerClient extends BuildXClient
 	@Override
 	DockerClient retryTimeout(Duration duration);
 
+	@Override
+	DockerClient retryPolicy(RetryPolicy policy);
+
+	@Override
+	DockerClient metrics(ClientMetrics metrics);
+
+	@Override
+	DockerClient maxRunningCommands(int maximum);
+
+	@Override
+	DockerClient coalesceReads(Duration ttl);
+
+	/**
+	 * Caches the snapshots that are returned by {@code getConfig()}, {@code getContainer()},
+	 * {@code getImage()}, {@code getNetwork()}, {@code getNode()} and {@code getService()}. Repeated lookups of
+	 * the same resource are served from memory until the daemon reports an event for it, or until this client
+	 * runs a command that refers to it by ID or name. Caching is disabled by default.
+	 *
+	 * @param maximumSize the maximum number of resources to cache, or {@code 0} to disable caching. When the
+	 *                    cache is full, the least-recently-used resource is evicted.
+	 * @return this
+	 * @throws IllegalArgumentException if {@code maximumSize} is negative
+	 */
+	DockerClient cacheResources(int maximumSize);
+
+	/**
+	 * Returns statistics about the resource cache.
+	 *
+	 * @return the statistics, or all zeros if caching is disabled
+	 * @see #cacheResources(int)
+	 */
+	CacheStatistics getCacheStatistics();
+
+	/**
+	 * Limits the number of commands that {@code getAll()} and methods that return a list of resources, such as
+	 * {@code getContainers()}, run in parallel. These methods split the resources into batches that are
+	 * inspected in parallel, and {@code getAll()} lists the tasks of each service in parallel. The limit is
+	 * shared by all threads that use this client. The default is 8.
+	 * <p>
+	 * This limit only controls how far a single lookup fans out. Every command, including the ones that these
+	 * methods run, is also subject to {@link #maxRunningCommands(int)}, which limits the total number of
+	 * commands that the client runs at once. If this limit exceeds {@code maxRunningCommands}, the extra
+	 * commands wait in the bulkhead's queue.
+	 *
+	 * @param maximum the maximum number of commands to run in parallel. {@code 1} runs the commands
+	 *                sequentially.
+	 * @return this
+	 * @throws IllegalArgumentException if {@code maximum} is not positive
+	 */
+	DockerClient maxConcurrentCommands(int maximum);
+
+	/**
+	 * Sends read-only commands, such as {@code inspect} or {@code ls}, to the Docker Engine API of the client's
+	 * context over long-lived {@code docker system dial-stdio} processes, instead of starting a new process for
+	 * each command. Against remote {@code ssh://} or {@code tcp://} contexts, this avoids the cost of starting
+	 * the executable and establishing a new SSH or TLS session for every command. The processes are pooled per
+	 * context, so that commands that run at the same time do not wait for each other. All other commands
+	 * continue to start the {@code docker} executable. Disabled by default.
+	 *
+	 * @param enabled {@code true} to send read-only commands over {@code dial-stdio}
+	 * @return this
+	 */
+	DockerClient dialStdio(boolean enabled);
+
+	/**
+	 * Returns a view of this client whose methods return a {@code CompletableFuture} instead of blocking. Each
+	 * operation runs on a new virtual thread.
+	 *
+	 * @return the asynchronous view
+	 */
+	AsyncDockerClient async();
+
+	/**
+	 * Returns a view of this client whose methods return a {@code CompletableFuture} instead of blocking.
+	 *
+	 * @param executor the executor that runs the operations
+	 * @return the asynchronous view
+	 * @throws NullPointerException if {@code executor} is null
+	 */
+	AsyncDockerClient async(Executor executor);
+
+	/**
+	 * Returns a client that runs queries against many contexts in parallel. Each context is queried by the
+	 * {@link #withContext(ContextId) view} of this client for that context.
+	 *
+	 * @param contexts the contexts to query
+	 * @return the fleet client
+	 * @throws NullPointerException     if {@code contexts} or any of its elements are null
+	 * @throws IllegalArgumentException if {@code contexts} is empty
+	 * @throws IllegalStateException    if the client is closed
+	 * @see #createContext(String, ContextEndpoint)
+	 */
+	FleetClient fleet(Collection<ContextId> contexts);
+
+	/**
+	 * Returns a local copy of the daemon's state that is kept up-to-date by its events. Use this instead of
+	 * polling methods such as {@code getAll()} when the state is read frequently.
+	 * <p>
+	 * The mirror must be closed before this client.
+	 *
+	 * @param resyncInterval the amount of time to wait between listing every resource to repair drift
+	 * @return the mirror, after it has listed every resource
+	 * @throws NullPointerException     if {@code resyncInterval} is null
+	 * @throws IllegalArgumentException if {@code resyncInterval} is not positive
+	 * @throws IllegalStateException    if the client is closed
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	StateMirror mirror(Duration resyncInterval) throws IOException, InterruptedException;
+
 	/**
 	 * Authenticates with the Docker Hub registry.
 	 *
@@ -135,6 +253,59 @@ DockerClient login(String username, String password, String serverAddress)
 	 */
 	List<Config> getConfigs(Predicate<ConfigElement> predicate) throws IOException, InterruptedException;
 
+	/**
+	 * Returns the configs that match a filter. Unlike a predicate, the filter is evaluated by the Docker
+	 * daemon, so configs that do not match are never inspected.
+	 *
+	 * @param filter the filter
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<Config> getConfigs(Filter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Returns all the configs, inspecting each one as it is consumed.
+	 *
+	 * @return the configs
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @see #streamConfigs(Filter)
+	 */
+	Stream<Config> streamConfigs() throws IOException, InterruptedException;
+
+	/**
+	 * Returns the configs that match a filter, inspecting each one as it is consumed.
+	 * <p>
+	 * The configs are listed before this method returns, but are only inspected once the stream reaches
+	 * them. Inspections are batched, and the size of each batch grows as more elements are consumed, so
+	 * short-circuiting operations such as {@code findFirst()} only inspect the elements that they consume.
+	 * Elements that are removed after they are listed are omitted from the stream.
+	 * <p>
+	 * While the stream is consumed, I/O errors are rethrown as {@code UncheckedIOException}, and
+	 * interruptions are rethrown as {@code WrappedCheckedException} with the thread's interrupted status
+	 * restored.
+	 *
+	 * @param filter the filter
+	 * @return the matching configs
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	Stream<Config> streamConfigs(Filter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Returns a config.
 	 *
@@ -197,6 +368,56 @@ DockerClient login(String username, String password, String serverAddress)
 	List<Container> getContainers(Predicate<ContainerElement> predicate)
 		throws IOException, InterruptedException;
 
+	/**
+	 * Returns the containers that match a filter. Unlike a predicate, the filter is evaluated by the Docker
+	 * daemon, so containers that do not match are never inspected.
+	 *
+	 * @param filter the filter
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<Container> getContainers(Filter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Returns all the containers, inspecting each one as it is consumed.
+	 *
+	 * @return the containers
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @see #streamContainers(Filter)
+	 */
+	Stream<Container> streamContainers() throws IOException, InterruptedException;
+
+	/**
+	 * Returns the containers that match a filter, inspecting each one as it is consumed.
+	 * <p>
+	 * The containers are listed before this method returns, but are only inspected once the stream reaches
+	 * them. Inspections are batched, and the size of each batch grows as more elements are consumed, so
+	 * short-circuiting operations such as {@code findFirst()} only inspect the elements that they consume.
+	 * Elements that are removed after they are listed are omitted from the stream.
+	 * <p>
+	 * While the stream is consumed, I/O errors are rethrown as {@code UncheckedIOException}, and
+	 * interruptions are rethrown as {@code WrappedCheckedException} with the thread's interrupted status
+	 * restored.
+	 *
+	 * @param filter the filter
+	 * @return the matching containers
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	Stream<Container> streamContainers(Filter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Returns a container.
 	 *
@@ -443,6 +664,16 @@ Container waitUntilContainerStatus(Container.Status status, ContainerId id)
 	 */
 	ContainerLogs getContainerLogs(ContainerId id);
 
+	/**
+	 * Subscribes to events reported by the Docker daemon.
+	 * <p>
+	 * All subscriptions with the same filters share a single event stream, which is stopped once the last
+	 * subscription is closed.
+	 *
+	 * @return the event subscriber
+	 */
+	EventSubscriber events();
+
 	/**
 	 * Returns all the contexts.
 	 *
@@ -559,6 +790,43 @@ List<Context> getContexts(Predicate<ContextElement> predicate)
 	 */
 	DockerClient setClientContext(ContextId id);
 
+	/**
+	 * Returns a view of this client that runs commands against a different context. Unlike
+	 * {@link #setClientContext(ContextId)}, this method does not modify this client, so threads that target
+	 * different contexts may share it.
+	 * <p>
+	 * The view shares this client's configuration, JSON mapper, parsers, limits on running commands and
+	 * processes. Resources are cached separately for each context, with the same maximum size as this client.
+	 * Views are immutable: methods that modify their configuration, such as {@code retryTimeout()} or
+	 * {@code setClientContext()}, throw {@code UnsupportedOperationException}. The same view is returned for
+	 * each context, and closing it has no effect; views are closed when this client is closed.
+	 *
+	 * @param id the context's ID
+	 * @return the view
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id}'s format is invalid
+	 * @throws IllegalStateException    if the client is closed
+	 */
+	DockerClient withContext(String id);
+
+	/**
+	 * Returns a view of this client that runs commands against a different context. Unlike
+	 * {@link #setClientContext(ContextId)}, this method does not modify this client, so threads that target
+	 * different contexts may share it.
+	 * <p>
+	 * The view shares this client's configuration, JSON mapper, parsers, limits on running commands and
+	 * processes. Resources are cached separately for each context, with the same maximum size as this client.
+	 * Views are immutable: methods that modify their configuration, such as {@code retryTimeout()} or
+	 * {@code setClientContext()}, throw {@code UnsupportedOperationException}. The same view is returned for
+	 * each context, and closing it has no effect; views are closed when this client is closed.
+	 *
+	 * @param id the context's ID
+	 * @return the view
+	 * @throws NullPointerException  if {@code id} is null
+	 * @throws IllegalStateException if the client is closed
+	 */
+	DockerClient withContext(ContextId id);
+
 	/**
 	 * Returns the current user's context.
 	 *
@@ -631,6 +899,21 @@ List<Context> getContexts(Predicate<ContextElement> predicate)
 	 */
 	List<ImageId> getImageIds(Predicate<DockerImageElement> predicate) throws IOException, InterruptedException;
 
+	/**
+	 * Returns the image IDs that match a filter. Unlike a predicate, the filter is evaluated by the Docker
+	 * daemon.
+	 *
+	 * @param filter the filter
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<ImageId> getImageIds(Filter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Returns all the images.
 	 *
@@ -656,6 +939,56 @@ List<Context> getContexts(Predicate<ContextElement> predicate)
 	List<DockerImage> getImages(Predicate<DockerImageElement> predicate)
 		throws IOException, InterruptedException;
 
+	/**
+	 * Returns the images that match a filter. Unlike a predicate, the filter is evaluated by the Docker
+	 * daemon, so images that do not match are never inspected.
+	 *
+	 * @param filter the filter
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<DockerImage> getImages(Filter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Returns all the images, inspecting each one as it is consumed.
+	 *
+	 * @return the images
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @see #streamImages(Filter)
+	 */
+	Stream<DockerImage> streamImages() throws IOException, InterruptedException;
+
+	/**
+	 * Returns the images that match a filter, inspecting each one as it is consumed.
+	 * <p>
+	 * The images are listed before this method returns, but are only inspected once the stream reaches
+	 * them. Inspections are batched, and the size of each batch grows as more elements are consumed, so
+	 * short-circuiting operations such as {@code findFirst()} only inspect the elements that they consume.
+	 * Elements that are removed after they are listed are omitted from the stream.
+	 * <p>
+	 * While the stream is consumed, I/O errors are rethrown as {@code UncheckedIOException}, and
+	 * interruptions are rethrown as {@code WrappedCheckedException} with the thread's interrupted status
+	 * restored.
+	 *
+	 * @param filter the filter
+	 * @return the matching images
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	Stream<DockerImage> streamImages(Filter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Looks up an image.
 	 *
@@ -852,6 +1185,56 @@ List<DockerImage> getImages(Predicate<DockerImageElement> predicate)
 	 */
 	List<Network> getNetworks(Predicate<NetworkElement> predicate) throws IOException, InterruptedException;
 
+	/**
+	 * Returns the networks that match a filter. Unlike a predicate, the filter is evaluated by the Docker
+	 * daemon, so networks that do not match are never inspected.
+	 *
+	 * @param filter the filter
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<Network> getNetworks(Filter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Returns all the networks, inspecting each one as it is consumed.
+	 *
+	 * @return the networks
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @see #streamNetworks(Filter)
+	 */
+	Stream<Network> streamNetworks() throws IOException, InterruptedException;
+
+	/**
+	 * Returns the networks that match a filter, inspecting each one as it is consumed.
+	 * <p>
+	 * The networks are listed before this method returns, but are only inspected once the stream reaches
+	 * them. Inspections are batched, and the size of each batch grows as more elements are consumed, so
+	 * short-circuiting operations such as {@code findFirst()} only inspect the elements that they consume.
+	 * Elements that are removed after they are listed are omitted from the stream.
+	 * <p>
+	 * While the stream is consumed, I/O errors are rethrown as {@code UncheckedIOException}, and
+	 * interruptions are rethrown as {@code WrappedCheckedException} with the thread's interrupted status
+	 * restored.
+	 *
+	 * @param filter the filter
+	 * @return the matching networks
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	Stream<Network> streamNetworks(Filter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Looks up a network.
 	 *
@@ -905,6 +1288,59 @@ List<DockerImage> getImages(Predicate<DockerImageElement> predicate)
 	 */
 	List<Node> getNodes(Predicate<NodeElement> predicate) throws IOException, InterruptedException;
 
+	/**
+	 * Returns the swarm nodes that match a filter. Unlike a predicate, the filter is evaluated by the Docker
+	 * daemon, so nodes that do not match are never inspected.
+	 *
+	 * @param filter the filter
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<Node> getNodes(Filter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Returns all the swarm nodes, inspecting each one as it is consumed.
+	 *
+	 * @return the swarm nodes
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @see #streamNodes(Filter)
+	 */
+	Stream<Node> streamNodes() throws IOException, InterruptedException;
+
+	/**
+	 * Returns the swarm nodes that match a filter, inspecting each one as it is consumed.
+	 * <p>
+	 * The swarm nodes are listed before this method returns, but are only inspected once the stream reaches
+	 * them. Inspections are batched, and the size of each batch grows as more elements are consumed, so
+	 * short-circuiting operations such as {@code findFirst()} only inspect the elements that they consume.
+	 * Elements that are removed after they are listed are omitted from the stream.
+	 * <p>
+	 * While the stream is consumed, I/O errors are rethrown as {@code UncheckedIOException}, and
+	 * interruptions are rethrown as {@code WrappedCheckedException} with the thread's interrupted status
+	 * restored.
+	 *
+	 * @param filter the filter
+	 * @return the matching swarm nodes
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	Stream<Node> streamNodes(Filter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Lists the manager nodes in the swarm.
 	 *
@@ -1162,11 +1598,64 @@ NodeId setNodeRole(NodeId id, Role role, Instant deadline)
 	 */
 	List<Service> getServices(Predicate<ServiceElement> predicate) throws IOException, InterruptedException;
 
+	/**
+	 * Returns the swarm services that match a filter. Unlike a predicate, the filter is evaluated by the Docker
+	 * daemon, so services that do not match are never inspected.
+	 *
+	 * @param filter the filter
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	List<Service> getServices(Filter filter) throws IOException, InterruptedException;
+
+	/**
+	 * Returns all the swarm services, inspecting each one as it is consumed.
+	 *
+	 * @return the swarm services
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 * @see #streamServices(Filter)
+	 */
+	Stream<Service> streamServices() throws IOException, InterruptedException;
+
+	/**
+	 * Returns the swarm services that match a filter, inspecting each one as it is consumed.
+	 * <p>
+	 * The swarm services are listed before this method returns, but are only inspected once the stream reaches
+	 * them. Inspections are batched, and the size of each batch grows as more elements are consumed, so
+	 * short-circuiting operations such as {@code findFirst()} only inspect the elements that they consume.
+	 * Elements that are removed after they are listed are omitted from the stream.
+	 * <p>
+	 * While the stream is consumed, I/O errors are rethrown as {@code UncheckedIOException}, and
+	 * interruptions are rethrown as {@code WrappedCheckedException} with the thread's interrupted status
+	 * restored.
+	 *
+	 * @param filter the filter
+	 * @return the matching swarm services
+	 * @throws NullPointerException     if {@code filter} is null
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	Stream<Service> streamServices(Filter filter) throws IOException, InterruptedException;
+
 	/**
 	 * Returns a service.
 	 *
 	 * @param id the ID of the service
-	 * @return the service
+	 * @return null if no match is found
 	 * @throws NullPointerException     if {@code id} is null
 	 * @throws IllegalArgumentException if {@code id}'s format is invalid
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
@@ -1181,7 +1670,7 @@ NodeId setNodeRole(NodeId id, Role role, Instant deadline)
 	 * Returns a service.
 	 *
 	 * @param id the ID of the service
-	 * @return the service
+	 * @return null if no match is found
 	 * @throws NullPointerException     if {@code id} is null
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
@@ -1,6 +1,7 @@
 package io.github.cowwoc.canister.docker.api.client;
 
 import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Finds the {@code docker} executable.
@@ -15,4 +16,16 @@
 	 * @throws IOException if an I/O error occurs while building the client
 	 */
 	DockerClient fromPath() throws IOException;
+
+	/**
+	 * Returns a client that sends read-only requests directly to the Docker Engine API over a Unix domain
+	 * socket. All other commands are delegated to the {@code docker} executable located in the {@code PATH}
+	 * environment variable.
+	 *
+	 * @param socket the path of the Docker daemon's socket (e.g. {@code /var/run/docker.sock})
+	 * @return the client
+	 * @throws NullPointerException if {@code socket} is null
+	 * @throws IOException          if an I/O error occurs while building the client
+	 */
+	DockerClient fromSocket(Path socket) throws IOException;
 }
\ No newline at end of file
@@ -0,0 +1,276 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.Node.Role;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Conditions that the Docker daemon evaluates when listing resources.
+ * <p>
+ * Unlike a {@code Predicate}, which is evaluated after the daemon returns every resource, a filter is passed
+ * to the {@code ls} command using {@code --filter}. Resources that do not match are never returned or
+ * inspected.
+ * <p>
+ * The daemon returns resources that match at least one value of each key. For example,
+ * {@code Filter.empty().status(RUNNING).status(PAUSED).label("env", "prod")} matches containers that are
+ * running or paused, and are labeled {@code env=prod}. Each command supports different keys, and rejects
+ * keys that it does not support. See the documentation of the command's {@code --filter} option for the list
+ * of supported keys.
+ * <p>
+ * <b>Thread-safety</b>: This class is immutable.
+ */
+public final class Filter
+{
+	private static final Filter EMPTY = new Filter(List.of());
+
+	/**
+	 * Returns a filter that matches all resources.
+	 *
+	 * @return the filter
+	 */
+	public static Filter empty()
+	{
+		return EMPTY;
+	}
+
+	/**
+	 * The {@code key=value} pairs that are passed to {@code --filter}.
+	 */
+	private final List<String> conditions;
+
+	/**
+	 * Creates a new filter.
+	 *
+	 * @param conditions the {@code key=value} pairs that are passed to {@code --filter}
+	 */
+	private Filter(List<String> conditions)
+	{
+		assert conditions != null;
+		this.conditions = conditions;
+	}
+
+	/**
+	 * Returns the {@code key=value} pairs that are passed to {@code --filter}.
+	 *
+	 * @return the conditions, in the order that they were added
+	 */
+	public List<String> getConditions()
+	{
+		return conditions;
+	}
+
+	/**
+	 * Indicates if the filter matches all resources.
+	 *
+	 * @return {@code true} if the filter has no conditions
+	 */
+	public boolean isEmpty()
+	{
+		return conditions.isEmpty();
+	}
+
+	/**
+	 * Returns a filter with an additional condition.
+	 *
+	 * @param key   the name of the condition
+	 * @param value the value of the condition
+	 * @return the new filter
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if any of the arguments contain leading or trailing whitespace or are
+	 *                                  empty, or if {@code key} contains an equals sign
+	 */
+	public Filter with(String key, String value)
+	{
+		requireThat(key, "key").isStripped().isNotEmpty().doesNotContain("=");
+		requireThat(value, "value").isStripped().isNotEmpty();
+		List<String> conditions = new ArrayList<>(this.conditions.size() + 1);
+		conditions.addAll(this.conditions);
+		conditions.add(key + "=" + value);
+		return new Filter(List.copyOf(conditions));
+	}
+
+	/**
+	 * Matches resources that have a label, regardless of its value.
+	 *
+	 * @param key the label's key
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code key} is null
+	 * @throws IllegalArgumentException if {@code key} contains leading or trailing whitespace or is empty
+	 */
+	public Filter label(String key)
+	{
+		return with("label", key);
+	}
+
+	/**
+	 * Matches resources that have a label with a value.
+	 *
+	 * @param key   the label's key
+	 * @param value the label's value
+	 * @return the new filter
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if any of the arguments contain leading or trailing whitespace or are
+	 *                                  empty
+	 */
+	public Filter label(String key, String value)
+	{
+		requireThat(key, "key").isStripped().isNotEmpty();
+		requireThat(value, "value").isStripped().isNotEmpty();
+		return with("label", key + "=" + value);
+	}
+
+	/**
+	 * Matches resources whose ID starts with a value.
+	 *
+	 * @param id the ID or a prefix of it
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains leading or trailing whitespace or is empty
+	 */
+	public Filter id(String id)
+	{
+		return with("id", id);
+	}
+
+	/**
+	 * Matches resources whose name contains a value.
+	 *
+	 * @param name the name or a part of it
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code name} is null
+	 * @throws IllegalArgumentException if {@code name} contains leading or trailing whitespace or is empty
+	 */
+	public Filter name(String name)
+	{
+		return with("name", name);
+	}
+
+	/**
+	 * Matches containers that have a status.
+	 *
+	 * @param status the status
+	 * @return the new filter
+	 * @throws NullPointerException if {@code status} is null
+	 */
+	public Filter status(Container.Status status)
+	{
+		requireThat(status, "status").isNotNull();
+		return with("status", status.name().toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Matches containers that were created from an image or one of its descendants.
+	 *
+	 * @param image the image's ID or reference
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code image} is null
+	 * @throws IllegalArgumentException if {@code image} contains leading or trailing whitespace or is empty
+	 */
+	public Filter ancestor(String image)
+	{
+		return with("ancestor", image);
+	}
+
+	/**
+	 * Matches containers or images that were created before another one.
+	 *
+	 * @param id the ID or name of the other container or image
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains leading or trailing whitespace or is empty
+	 */
+	public Filter before(String id)
+	{
+		return with("before", id);
+	}
+
+	/**
+	 * Matches containers or images that were created after another one.
+	 *
+	 * @param id the ID or name of the other container or image
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if {@code id} contains leading or trailing whitespace or is empty
+	 */
+	public Filter since(String id)
+	{
+		return with("since", id);
+	}
+
+	/**
+	 * Matches images or networks depending on whether they are dangling. Images are dangling if they are
+	 * untagged and not referenced by other images. Networks are dangling if no container is connected to them.
+	 *
+	 * @param dangling {@code true} to match dangling resources, {@code false} to match all other resources
+	 * @return the new filter
+	 */
+	public Filter dangling(boolean dangling)
+	{
+		return with("dangling", String.valueOf(dangling));
+	}
+
+	/**
+	 * Matches images whose reference matches a pattern.
+	 *
+	 * @param pattern a reference, optionally containing wildcards (e.g. {@code "busybox:*"})
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code pattern} is null
+	 * @throws IllegalArgumentException if {@code pattern} contains leading or trailing whitespace or is empty
+	 */
+	public Filter reference(String pattern)
+	{
+		return with("reference", pattern);
+	}
+
+	/**
+	 * Matches nodes that have a role.
+	 *
+	 * @param role the role
+	 * @return the new filter
+	 * @throws NullPointerException if {@code role} is null
+	 */
+	public Filter role(Role role)
+	{
+		requireThat(role, "role").isNotNull();
+		return with("role", role.name().toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Matches networks that use a driver.
+	 *
+	 * @param driver the name of the driver
+	 * @return the new filter
+	 * @throws NullPointerException     if {@code driver} is null
+	 * @throws IllegalArgumentException if {@code driver} contains leading or trailing whitespace or is empty
+	 */
+	public Filter driver(String driver)
+	{
+		return with("driver", driver);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		return o instanceof Filter other && other.conditions.equals(conditions);
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return conditions.hashCode();
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(Filter.class).
+			add("conditions", conditions).
+			toString();
+	}
+}
\ No newline at end of file
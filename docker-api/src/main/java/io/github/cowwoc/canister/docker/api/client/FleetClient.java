@@ -0,0 +1,128 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import io.github.cowwoc.canister.docker.api.client.AsyncDockerClient.DockerOperation;
+import io.github.cowwoc.canister.docker.id.ContextId;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Network;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Runs the same query against many Docker contexts in parallel.
+ * <p>
+ * Each context is queried by its own {@link DockerClient#withContext(ContextId) view} of the client that
+ * created the fleet, so queries against different contexts do not wait for each other, and a fleet-wide
+ * query takes as long as the slowest context instead of the sum of all contexts. Contexts that fail or do not
+ * respond within the {@link #timeout(Duration) timeout} are reported in {@link FleetResult#failures()}
+ * instead of failing the entire query.
+ * <p>
+ * <b>Thread-safety</b>: This interface is thread-safe.
+ *
+ * @see DockerClient#fleet(Collection)
+ */
+public interface FleetClient extends AutoCloseable
+{
+	/**
+	 * Returns the contexts that queries are run against.
+	 *
+	 * @return the contexts, in the order that their results are returned
+	 */
+	List<ContextId> getContexts();
+
+	/**
+	 * Returns the client that runs queries against a context.
+	 *
+	 * @param context a context
+	 * @return the client
+	 * @throws NullPointerException     if {@code context} is null
+	 * @throws IllegalArgumentException if the context is not part of the fleet
+	 */
+	DockerClient getClient(ContextId context);
+
+	/**
+	 * Sets the maximum amount of time that each context may take to respond to a query. Queries that are still
+	 * running when the timeout expires are cancelled, terminating any commands that they started. The default
+	 * is 1 minute.
+	 *
+	 * @param timeout the timeout
+	 * @return this
+	 * @throws NullPointerException     if {@code timeout} is null
+	 * @throws IllegalArgumentException if {@code timeout} is not positive
+	 */
+	FleetClient timeout(Duration timeout);
+
+	/**
+	 * Runs an operation against every context, and returns one value per context.
+	 *
+	 * @param <V>       the type of value returned by the operation
+	 * @param operation the operation to run
+	 * @return the value returned by each context, and the failure of each context that did not return one
+	 * @throws NullPointerException  if {@code operation} is null
+	 * @throws IllegalStateException if the client is closed
+	 * @throws InterruptedException  if the thread is interrupted before all contexts respond. The operations
+	 *                               that are still running are cancelled.
+	 */
+	<V> FleetResult<V> query(DockerOperation<V> operation) throws InterruptedException;
+
+	/**
+	 * Runs an operation that returns multiple elements, such as {@link DockerClient#getContainers()}, against
+	 * every context and merges the elements that they return.
+	 *
+	 * @param <E>       the type of elements returned by the operation
+	 * @param operation the operation to run
+	 * @return the elements returned by all contexts, and the failure of each context that did not return
+	 * 	any
+	 * @throws NullPointerException  if {@code operation} is null
+	 * @throws IllegalStateException if the client is closed
+	 * @throws InterruptedException  if the thread is interrupted before all contexts respond. The operations
+	 *                               that are still running are cancelled.
+	 */
+	<E> FleetResult<E> queryAll(DockerOperation<? extends Collection<? extends E>> operation)
+		throws InterruptedException;
+
+	/**
+	 * Returns the containers of every context.
+	 *
+	 * @return the containers
+	 * @throws IllegalStateException if the client is closed
+	 * @throws InterruptedException  if the thread is interrupted before all contexts respond
+	 * @see DockerClient#getContainers()
+	 */
+	FleetResult<Container> getContainers() throws InterruptedException;
+
+	/**
+	 * Returns the images of every context.
+	 *
+	 * @return the images
+	 * @throws IllegalStateException if the client is closed
+	 * @throws InterruptedException  if the thread is interrupted before all contexts respond
+	 * @see DockerClient#getImages()
+	 */
+	FleetResult<DockerImage> getImages() throws InterruptedException;
+
+	/**
+	 * Returns the networks of every context.
+	 *
+	 * @return the networks
+	 * @throws IllegalStateException if the client is closed
+	 * @throws InterruptedException  if the thread is interrupted before all contexts respond
+	 * @see DockerClient#getNetworks()
+	 */
+	FleetResult<Network> getNetworks() throws InterruptedException;
+
+	/**
+	 * Determines if the client is closed.
+	 *
+	 * @return {@code true} if the client is closed
+	 */
+	boolean isClosed();
+
+	/**
+	 * Closes the fleet. The client that created the fleet, and its views, remain open.
+	 */
+	@Override
+	void close();
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import io.github.cowwoc.canister.docker.id.ContextId;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The result of running a query against many Docker contexts.
+ *
+ * @param <V>      the type of values returned by the query
+ * @param values   the values returned by the contexts that responded, tagged with their context
+ * @param failures maps each context that did not respond to the reason. Contexts that did not respond before
+ *                 the timeout map to a {@code TimeoutException}.
+ * @see FleetClient
+ */
+public record FleetResult<V>(List<Sourced<V>> values, Map<ContextId, Throwable> failures)
+{
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param values   the values returned by the contexts that responded, tagged with their context
+	 * @param failures maps each context that did not respond to the reason. Contexts that did not respond
+	 *                 before the timeout map to a {@code TimeoutException}.
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	public FleetResult
+	{
+		requireThat(values, "values").isNotNull();
+		requireThat(failures, "failures").isNotNull();
+		values = List.copyOf(values);
+		// Retain the order of the contexts
+		failures = Collections.unmodifiableMap(new LinkedHashMap<>(failures));
+	}
+
+	/**
+	 * Indicates if all the contexts responded.
+	 *
+	 * @return {@code true} if none of the contexts failed
+	 */
+	public boolean isComplete()
+	{
+		return failures.isEmpty();
+	}
+
+	/**
+	 * Returns the values without their context.
+	 *
+	 * @return the values
+	 */
+	public List<V> getValues()
+	{
+		return values.stream().map(Sourced::value).toList();
+	}
+
+	/**
+	 * A value that was returned by a context.
+	 *
+	 * @param <V>     the type of the value
+	 * @param context the context that returned the value
+	 * @param value   the value
+	 */
+	public record Sourced<V>(ContextId context, V value)
+	{
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param context the context that returned the value
+		 * @param value   the value
+		 * @throws NullPointerException if {@code context} is null
+		 */
+		public Sourced
+		{
+			requireThat(context, "context").isNotNull();
+		}
+	}
+}
\ No newline at end of file
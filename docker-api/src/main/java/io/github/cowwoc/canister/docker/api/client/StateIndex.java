@@ -0,0 +1,155 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Node;
+import io.github.cowwoc.canister.docker.resource.Service;
+import io.github.cowwoc.canister.docker.resource.Task;
+
+import java.util.List;
+
+/**
+ * Looks up the resources of a {@link StateMirror} without scanning them.
+ * <p>
+ * The index is updated incrementally, before the mirror's listeners are notified, so lookups reflect the
+ * latest snapshot. Lookups never run commands. Names and ID prefixes are resolved in constant and logarithmic
+ * time respectively, and lookups by status, label or reference only visit the matching resources.
+ * <p>
+ * <b>Thread-safety</b>: This interface is thread-safe.
+ *
+ * @see StateMirror#getIndex()
+ */
+public interface StateIndex
+{
+	/**
+	 * Returns the container with a name.
+	 *
+	 * @param name the container's name
+	 * @return null if no match is found
+	 * @throws NullPointerException if {@code name} is null
+	 */
+	Container getContainerByName(String name);
+
+	/**
+	 * Returns the containers whose ID starts with a prefix.
+	 *
+	 * @param prefix the ID or a prefix of it
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code prefix} is null
+	 * @throws IllegalArgumentException if {@code prefix} is empty
+	 */
+	List<Container> getContainersByIdPrefix(String prefix);
+
+	/**
+	 * Returns the containers that have a status.
+	 *
+	 * @param status the status
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException if {@code status} is null
+	 */
+	List<Container> getContainers(Container.Status status);
+
+	/**
+	 * Returns the images whose ID starts with a prefix.
+	 *
+	 * @param prefix the ID or a prefix of it
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code prefix} is null
+	 * @throws IllegalArgumentException if {@code prefix} is empty
+	 */
+	List<DockerImage> getImagesByIdPrefix(String prefix);
+
+	/**
+	 * Returns the images that are referenced by a name (e.g. {@code nasa/rocket-ship}), a name and tag (e.g.
+	 * {@code nasa/rocket-ship:1.0}) or a name and digest (e.g. {@code nasa/rocket-ship@sha256:afcc...}).
+	 *
+	 * @param reference the reference
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException if {@code reference} is null
+	 */
+	List<DockerImage> getImagesByReference(String reference);
+
+	/**
+	 * Returns the swarm node with a hostname.
+	 *
+	 * @param hostname the node's hostname
+	 * @return null if no match is found
+	 * @throws NullPointerException if {@code hostname} is null
+	 */
+	Node getNodeByHostname(String hostname);
+
+	/**
+	 * Returns the swarm nodes whose ID starts with a prefix.
+	 *
+	 * @param prefix the ID or a prefix of it
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code prefix} is null
+	 * @throws IllegalArgumentException if {@code prefix} is empty
+	 */
+	List<Node> getNodesByIdPrefix(String prefix);
+
+	/**
+	 * Returns the swarm nodes that have a role.
+	 *
+	 * @param role the role
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException if {@code role} is null
+	 */
+	List<Node> getNodes(Node.Role role);
+
+	/**
+	 * Returns the swarm nodes that have a status.
+	 *
+	 * @param status the status
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException if {@code status} is null
+	 */
+	List<Node> getNodes(Node.Status status);
+
+	/**
+	 * Returns the swarm nodes that have a label.
+	 *
+	 * @param label a value returned by {@link Node#getLabels()}
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException if {@code label} is null
+	 */
+	List<Node> getNodesByLabel(String label);
+
+	/**
+	 * Returns the swarm service with a name.
+	 *
+	 * @param name the service's name
+	 * @return null if no match is found
+	 * @throws NullPointerException if {@code name} is null
+	 */
+	Service getServiceByName(String name);
+
+	/**
+	 * Returns the swarm services whose ID starts with a prefix.
+	 *
+	 * @param prefix the ID or a prefix of it
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code prefix} is null
+	 * @throws IllegalArgumentException if {@code prefix} is empty
+	 */
+	List<Service> getServicesByIdPrefix(String prefix);
+
+	/**
+	 * Returns the swarm tasks whose ID starts with a prefix.
+	 *
+	 * @param prefix the ID or a prefix of it
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException     if {@code prefix} is null
+	 * @throws IllegalArgumentException if {@code prefix} is empty
+	 */
+	List<Task> getTasksByIdPrefix(String prefix);
+
+	/**
+	 * Returns the swarm tasks that are in a state.
+	 *
+	 * @param state the state
+	 * @return an empty list if no match is found
+	 * @throws NullPointerException if {@code state} is null
+	 */
+	List<Task> getTasks(Task.State state);
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * A local copy of a Docker daemon's containers, images, networks, swarm nodes, services and tasks that is
+ * kept up-to-date by the daemon's events.
+ * <p>
+ * The mirror lists every resource once when it is created. After that, it only inspects the resources that
+ * events report as changed, and periodically lists every resource again to repair any drift, such as events
+ * that were lost while the event stream was reconnecting. Reads never run commands or block: they return an
+ * immutable snapshot that is replaced whenever the mirror is updated.
+ * <p>
+ * <b>Thread-safety</b>: This interface is thread-safe.
+ *
+ * @see DockerClient#mirror(Duration)
+ */
+public interface StateMirror extends AutoCloseable
+{
+	/**
+	 * Returns the latest state of the daemon.
+	 *
+	 * @return the snapshot
+	 */
+	StateSnapshot getSnapshot();
+
+	/**
+	 * Returns an index over the latest snapshot.
+	 *
+	 * @return the index
+	 */
+	StateIndex getIndex();
+
+	/**
+	 * Notifies a listener every time that the snapshot is replaced.
+	 *
+	 * @param listener the listener
+	 * @throws NullPointerException  if {@code listener} is null
+	 * @throws IllegalStateException if the mirror is closed
+	 */
+	void addListener(Listener listener);
+
+	/**
+	 * Stops notifying a listener. Has no effect if the listener was not added.
+	 *
+	 * @param listener the listener
+	 * @throws NullPointerException if {@code listener} is null
+	 */
+	void removeListener(Listener listener);
+
+	/**
+	 * Lists every resource again, replacing the snapshot, and waits for it to complete.
+	 *
+	 * @throws IllegalStateException if the mirror is closed
+	 * @throws IOException           if an I/O error occurs. These errors are typically transient, and retrying
+	 *                               the request may resolve the issue.
+	 * @throws InterruptedException  if the thread is interrupted before the operation completes. This can
+	 *                               happen due to shutdown signals.
+	 */
+	void resync() throws IOException, InterruptedException;
+
+	/**
+	 * Determines if the mirror is closed.
+	 *
+	 * @return {@code true} if the mirror is closed
+	 */
+	boolean isClosed();
+
+	/**
+	 * Stops updating the mirror. The client that created the mirror remains open.
+	 */
+	@Override
+	void close();
+
+	/**
+	 * Receives changes to the mirror.
+	 * <p>
+	 * Listeners are invoked on the thread that updates the mirror and must return quickly. Long-running work
+	 * should be handed off to another thread.
+	 */
+	@FunctionalInterface
+	interface Listener
+	{
+		/**
+		 * Invoked after the snapshot is replaced.
+		 *
+		 * @param previous the previous snapshot
+		 * @param current  the new snapshot
+		 */
+		void onChange(StateSnapshot previous, StateSnapshot current);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,72 @@
+package io.github.cowwoc.canister.docker.api.client;
+
+import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.docker.id.ContainerId;
+import io.github.cowwoc.canister.docker.id.NetworkId;
+import io.github.cowwoc.canister.docker.id.NodeId;
+import io.github.cowwoc.canister.docker.id.ServiceId;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Network;
+import io.github.cowwoc.canister.docker.resource.Node;
+import io.github.cowwoc.canister.docker.resource.Service;
+import io.github.cowwoc.canister.docker.resource.Task;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The state of a Docker daemon at a point in time.
+ * <p>
+ * Swarm resources are empty if the daemon is not a swarm manager.
+ *
+ * @param containers maps the ID of each container to its state
+ * @param images     maps the ID of each image to its state
+ * @param networks   maps the ID of each network to its state
+ * @param nodes      maps the ID of each swarm node to its state
+ * @param services   maps the ID of each swarm service to its state
+ * @param tasks      maps the ID of each swarm service to the state of its tasks
+ * @param time       the time that the snapshot was last updated
+ * @see StateMirror
+ */
+public record StateSnapshot(Map<ContainerId, Container> containers, Map<ImageId, DockerImage> images,
+                            Map<NetworkId, Network> networks, Map<NodeId, Node> nodes,
+                            Map<ServiceId, Service> services, Map<ServiceId, List<Task>> tasks, Instant time)
+{
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param containers maps the ID of each container to its state
+	 * @param images     maps the ID of each image to its state
+	 * @param networks   maps the ID of each network to its state
+	 * @param nodes      maps the ID of each swarm node to its state
+	 * @param services   maps the ID of each swarm service to its state
+	 * @param tasks      maps the ID of each swarm service to the state of its tasks
+	 * @param time       the time that the snapshot was last updated
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	public StateSnapshot
+	{
+		requireThat(containers, "containers").isNotNull();
+		requireThat(images, "images").isNotNull();
+		requireThat(networks, "networks").isNotNull();
+		requireThat(nodes, "nodes").isNotNull();
+		requireThat(services, "services").isNotNull();
+		requireThat(tasks, "tasks").isNotNull();
+		requireThat(time, "time").isNotNull();
+		containers = Map.copyOf(containers);
+		images = Map.copyOf(images);
+		networks = Map.copyOf(networks);
+		nodes = Map.copyOf(nodes);
+		services = Map.copyOf(services);
+		Map<ServiceId, List<Task>> copyOfTasks = new HashMap<>(tasks.size());
+		for (Entry<ServiceId, List<Task>> entry : tasks.entrySet())
+			copyOfTasks.put(entry.getKey(), List.copyOf(entry.getValue()));
+		tasks = Map.copyOf(copyOfTasks);
+	}
+}
\ No newline at end of file
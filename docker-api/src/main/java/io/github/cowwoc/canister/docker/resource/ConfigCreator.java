@@ -1,6 +1,7 @@
 package io.github.cowwoc.canister.docker.resource;
 
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
+import io.github.cowwoc.canister.core.util.CreateResult;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
 
 import java.io.IOException;
@@ -82,4 +83,64 @@
 	 *                                  happen due to shutdown signals.
 	 */
 	Config apply(String name, ByteBuffer value) throws IOException, InterruptedException;
+
+	/**
+	 * Creates a config containing a {@link StandardCharsets#UTF_8 UTF_8}-encoded String, unless a config with
+	 * the same name already exists.
+	 *
+	 * @param name  the config's name
+	 * @param value the config's value
+	 * @return the outcome of {@link #applyIfAbsent(String, ByteBuffer)}
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if:
+	 *                                  <ul>
+	 *                                    <li>{@code name} is empty.</li>
+	 *                                    <li>{@code name} contains more than 64 characters.</li>
+	 *                                    <li>{@code name} contains characters other than
+	 *                                    {@code [a-zA-Z0-9-_.]}.</li>
+	 *                                    <li>{@code value.getBytes(UTF_8).length} is greater than
+	 *                                    {@link #MAX_SIZE_IN_BYTES}.</li>
+	 *                                  </ul>
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws ResourceInUseException   if other configs repeatedly take the name and are removed before they
+	 *                                  can be inspected
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	CreateResult<Config> applyIfAbsent(String name, String value) throws IOException, InterruptedException;
+
+	/**
+	 * Creates a config unless a config with the same name already exists.
+	 * <p>
+	 * The config is labeled with a hash of its labels and value ({@code io.github.cowwoc.canister.spec-hash}).
+	 * If a config with the same name exists, its label is compared to the hash instead of creating a new
+	 * config, so reconciling a config that is already up to date costs a single {@code inspect} command.
+	 *
+	 * @param name  the config's name
+	 * @param value the config's value
+	 * @return {@link CreateResult#created(Object) created} if a new config was created,
+	 * 	{@link CreateResult#existed(Object) existed} if an existing config was created with the same labels
+	 * 	and value, or {@link CreateResult#conflictedWith(Object) conflicted} if an existing config has the
+	 * 	same name but different or unknown labels or value
+	 * @throws NullPointerException     if {@code name} or {@code value} are null
+	 * @throws IllegalArgumentException if:
+	 *                                  <ul>
+	 *                                    <li>{@code name} is empty.</li>
+	 *                                    <li>{@code name} contains more than 64 characters.</li>
+	 *                                    <li>{@code name} contains characters other than
+	 *                                    {@code [a-zA-Z0-9-_.]}.</li>
+	 *                                    <li>{@code value} contains more than {@link #MAX_SIZE_IN_BYTES}
+	 *                                    bytes.</li>
+	 *                                  </ul>
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws ResourceInUseException   if other configs repeatedly take the name and are removed before they
+	 *                                  can be inspected
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	CreateResult<Config> applyIfAbsent(String name, ByteBuffer value) throws IOException, InterruptedException;
 }
\ No newline at end of file
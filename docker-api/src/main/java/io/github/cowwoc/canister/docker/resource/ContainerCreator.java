@@ -2,6 +2,7 @@
 
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
+import io.github.cowwoc.canister.core.util.CreateResult;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -218,6 +219,31 @@
 	 */
 	Container apply() throws IOException, InterruptedException;
 
+	/**
+	 * Creates the container unless a container with the same name already exists.
+	 * <p>
+	 * The container is labeled with a hash of its configuration
+	 * ({@code io.github.cowwoc.canister.spec-hash}). If a container with the same name exists, its label is
+	 * compared to the hash instead of creating a new container, so reconciling a container that is already up
+	 * to date costs a single {@code inspect} command.
+	 *
+	 * @return {@link CreateResult#created(Object) created} if a new container was created,
+	 * 	{@link CreateResult#existed(Object) existed} if an existing container was created with the same
+	 * 	configuration, or {@link CreateResult#conflictedWith(Object) conflicted} if an existing container has
+	 * 	the same name but a different or unknown configuration
+	 * @throws IllegalStateException     if the container's {@link #name(String) name} is not set
+	 * @throws ResourceNotFoundException if the referenced image is not available locally and cannot be pulled
+	 *                                   from Docker Hub, either because the repository does not exist or
+	 *                                   requires different authentication credentials
+	 * @throws ResourceInUseException    if other containers repeatedly take the name and are removed before
+	 *                                   they can be inspected
+	 * @throws IOException               if an I/O error occurs. These errors are typically transient, and
+	 *                                   retrying the request may resolve the issue.
+	 * @throws InterruptedException      if the thread is interrupted before the operation completes. This can
+	 *                                   happen due to shutdown signals.
+	 */
+	CreateResult<Container> applyIfAbsent() throws IOException, InterruptedException;
+
 	/**
 	 * Options that apply to bind mounts.
 	 *
@@ -0,0 +1,43 @@
+package io.github.cowwoc.canister.docker.resource;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.that;
+
+/**
+ * An event that was reported by the Docker daemon.
+ *
+ * @param type       the type of object that emitted the event (e.g. {@code container}, {@code image},
+ *                   {@code network}, {@code node} or {@code service})
+ * @param action     the action that took place (e.g. {@code create}, {@code start} or {@code die})
+ * @param actorId    the ID of the object that emitted the event
+ * @param attributes additional information about the object (e.g. {@code name}, {@code image} or
+ *                   {@code exitCode})
+ * @param time       the time that the event took place
+ * @see <a href="https://docs.docker.com/reference/cli/docker/system/events/">docker system events</a>
+ */
+public record DockerEvent(String type, String action, String actorId, Map<String, String> attributes,
+                          Instant time)
+{
+	/**
+	 * Creates an event.
+	 *
+	 * @param type       the type of object that emitted the event (e.g. {@code container}, {@code image},
+	 *                   {@code network}, {@code node} or {@code service})
+	 * @param action     the action that took place (e.g. {@code create}, {@code start} or {@code die})
+	 * @param actorId    the ID of the object that emitted the event
+	 * @param attributes additional information about the object (e.g. {@code name}, {@code image} or
+	 *                   {@code exitCode})
+	 * @param time       the time that the event took place
+	 */
+	public DockerEvent
+	{
+		assert that(type, "type").isNotEmpty().elseThrow();
+		assert that(action, "action").isNotEmpty().elseThrow();
+		assert actorId != null;
+		assert attributes != null;
+		assert time != null;
+		attributes = Map.copyOf(attributes);
+	}
+}
@@ -0,0 +1,30 @@
+package io.github.cowwoc.canister.docker.resource;
+
+/**
+ * Receives events from the Docker daemon.
+ * <p>
+ * Listeners are invoked on a shared thread and must return quickly. Long-running work should be handed off
+ * to another thread.
+ */
+@FunctionalInterface
+public interface EventListener
+{
+	/**
+	 * Invoked when the daemon reports an event.
+	 *
+	 * @param event the event
+	 */
+	void onEvent(DockerEvent event);
+
+	/**
+	 * Invoked if the event stream fails permanently. No further events are delivered to the listener after
+	 * this method is invoked.
+	 * <p>
+	 * Transient failures, such as the daemon restarting, are retried without notifying the listener.
+	 *
+	 * @param cause the reason for the failure
+	 */
+	default void onFailure(Throwable cause)
+	{
+	}
+}
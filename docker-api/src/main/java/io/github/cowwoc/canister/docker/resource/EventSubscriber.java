@@ -0,0 +1,76 @@
+package io.github.cowwoc.canister.docker.resource;
+
+import io.github.cowwoc.canister.docker.id.ContainerId;
+
+import java.io.IOException;
+
+/**
+ * Subscribes to events reported by the Docker daemon.
+ * <p>
+ * Filters are applied by the daemon. Subscriptions with the same filters share a single event stream.
+ */
+public interface EventSubscriber
+{
+	/**
+	 * Adds a filter to the subscription. Filters with different keys must all match; filters with the same key
+	 * match if any of their values matches.
+	 *
+	 * @param key   the filter's key (e.g. {@code type}, {@code event}, {@code container} or {@code label})
+	 * @param value the filter's value
+	 * @return this
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if any of the arguments contain whitespace, or are empty
+	 * @see <a href="https://docs.docker.com/reference/cli/docker/system/events/#filter">Filtering events</a>
+	 */
+	EventSubscriber filter(String key, String value);
+
+	/**
+	 * Only delivers events that are emitted by a type of object.
+	 *
+	 * @param type the type of object (e.g. {@code container}, {@code image}, {@code network}, {@code node} or
+	 *             {@code service})
+	 * @return this
+	 * @throws NullPointerException     if {@code type} is null
+	 * @throws IllegalArgumentException if {@code type} contains whitespace, or is empty
+	 */
+	EventSubscriber type(String type);
+
+	/**
+	 * Only delivers events with an action.
+	 *
+	 * @param action the action (e.g. {@code create}, {@code start} or {@code die})
+	 * @return this
+	 * @throws NullPointerException     if {@code action} is null
+	 * @throws IllegalArgumentException if {@code action} contains whitespace, or is empty
+	 */
+	EventSubscriber action(String action);
+
+	/**
+	 * Only delivers events that are emitted by a container.
+	 *
+	 * @param id the container's ID or name
+	 * @return this
+	 * @throws NullPointerException if {@code id} is null
+	 */
+	EventSubscriber container(ContainerId id);
+
+	/**
+	 * Only delivers events for objects with a label.
+	 *
+	 * @param label the label's key, or {@code key=value} to match a specific value
+	 * @return this
+	 * @throws NullPointerException     if {@code label} is null
+	 * @throws IllegalArgumentException if {@code label} contains whitespace, or is empty
+	 */
+	EventSubscriber label(String label);
+
+	/**
+	 * Starts delivering events to a listener.
+	 *
+	 * @param listener the listener
+	 * @return the subscription. Closing it stops the delivery of events.
+	 * @throws NullPointerException if {@code listener} is null
+	 * @throws IOException          if an I/O error occurs while starting the event stream
+	 */
+	EventSubscription subscribe(EventListener listener) throws IOException;
+}
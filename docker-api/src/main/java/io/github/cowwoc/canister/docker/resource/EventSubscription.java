@@ -0,0 +1,13 @@
+package io.github.cowwoc.canister.docker.resource;
+
+/**
+ * A listener's registration to receive events.
+ */
+public interface EventSubscription extends AutoCloseable
+{
+	/**
+	 * Stops delivering events to the listener. Subsequent invocations have no effect.
+	 */
+	@Override
+	void close();
+}
@@ -1,6 +1,7 @@
 package io.github.cowwoc.canister.docker.resource;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -8,8 +9,11 @@
  * <p>
  * Implementations must support repeated invocations of the process, as retries may occur due to intermittent
  * failures.
+ * <p>
+ * The process keeps running until it exits or the listener is closed. Listeners that are discarded without
+ * being closed are reported as leaks.
  */
-public interface ProcessListener
+public interface ProcessListener extends AutoCloseable
 {
 	/**
 	 * Returns the container's standard output as a byte stream.
@@ -48,4 +52,12 @@
 	 * @throws InterruptedException if the thread is interrupted before the operation completes
 	 */
 	int waitFor() throws InterruptedException;
+
+	/**
+	 * Terminates the process, if it is still running, and releases its streams.
+	 *
+	 * @throws IOException if an I/O error occurs while closing the streams
+	 */
+	@Override
+	void close() throws IOException;
 }
\ No newline at end of file
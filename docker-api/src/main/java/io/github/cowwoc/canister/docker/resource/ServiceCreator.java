@@ -2,6 +2,7 @@
 
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
+import io.github.cowwoc.canister.core.util.CreateResult;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
 import io.github.cowwoc.canister.docker.resource.ContainerCreator.BindMountOptions;
 import io.github.cowwoc.canister.docker.resource.ContainerCreator.PortBinding;
@@ -203,6 +204,31 @@
 	 */
 	Service apply() throws IOException, InterruptedException;
 
+	/**
+	 * Creates the service unless a service with the same name already exists.
+	 * <p>
+	 * The service is labeled with a hash of its configuration ({@code io.github.cowwoc.canister.spec-hash}).
+	 * If a service with the same name exists, its label is compared to the hash instead of creating a new
+	 * service, so reconciling a service that is already up to date costs a single {@code inspect} command.
+	 *
+	 * @return {@link CreateResult#created(Object) created} if a new service was created,
+	 * 	{@link CreateResult#existed(Object) existed} if an existing service was created with the same
+	 * 	configuration, or {@link CreateResult#conflictedWith(Object) conflicted} if an existing service has
+	 * 	the same name but a different or unknown configuration
+	 * @throws IllegalStateException     if the service's {@link #name(String) name} is not set
+	 * @throws ResourceNotFoundException if the referenced image is not available locally and cannot be pulled
+	 *                                   from Docker Hub, either because the repository does not exist or
+	 *                                   requires different authentication credentials
+	 * @throws NotSwarmManagerException  if the current node is not a swarm manager
+	 * @throws ResourceInUseException    if other services repeatedly take the name and are removed before
+	 *                                   they can be inspected
+	 * @throws IOException               if an I/O error occurs. These errors are typically transient, and
+	 *                                   retrying the request may resolve the issue.
+	 * @throws InterruptedException      if the thread is interrupted before the operation completes. This can
+	 *                                   happen due to shutdown signals.
+	 */
+	CreateResult<Service> applyIfAbsent() throws IOException, InterruptedException;
+
 	/**
 	 * A mode of operation.
 	 */
@@ -0,0 +1,85 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Executes {@code docker config} commands.
+ * <p>
+ * {@code docker config create} reads the config's value from the standard input stream, which transports
+ * cannot provide, so configs are added using {@link FakeDockerDaemon#addConfig(String, byte[])} instead.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class ConfigCommands
+{
+	private final DaemonState state;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param state the resources of the daemon
+	 */
+	ConfigCommands(DaemonState state)
+	{
+		assert state != null;
+		this.state = state;
+	}
+
+	/**
+	 * @param arguments the command-line arguments, starting with {@code config}
+	 * @return {@code true} if the command is supported
+	 */
+	static boolean supports(List<String> arguments)
+	{
+		return switch (arguments.get(1))
+		{
+			case "ls", "inspect" -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code config}
+	 * @return the result of the command
+	 */
+	CommandResult run(List<String> arguments)
+	{
+		List<String> parameters = arguments.subList(2, arguments.size());
+		return switch (arguments.get(1))
+		{
+			case "ls" -> list(arguments);
+			case "inspect" -> inspect(arguments, Options.parse(parameters, Set.of("--format"), true));
+			default -> throw new IllegalArgumentException("Unsupported command: " + arguments);
+		};
+	}
+
+	private CommandResult list(List<String> arguments)
+	{
+		List<ObjectNode> rows = new ArrayList<>();
+		for (FakeConfig config : state.configs.values())
+			rows.add(config.toRow(state.jsonMapper));
+		return state.success(arguments, state.toJsonLines(rows));
+	}
+
+	private CommandResult inspect(List<String> arguments, Options options)
+	{
+		List<ObjectNode> matches = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		for (String id : options.operands())
+		{
+			FakeConfig config = state.configs.get(id);
+			if (config == null)
+				errors.add("Error response from daemon: config " + id + " not found");
+			else
+				matches.add(config.toInspect(state.jsonMapper));
+		}
+		return state.result(arguments, state.toJsonArray(matches), errors);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,405 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.docker.fake.FakeContainer.HostPort;
+import io.github.cowwoc.canister.docker.resource.Container.Status;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Executes {@code docker container} commands.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class ContainerCommands
+{
+	/**
+	 * The exit code of a container whose process was terminated by {@code SIGTERM}.
+	 */
+	private static final int TERMINATED = 143;
+	private static final Set<String> CREATE_OPTIONS = Set.of("--entrypoint", "--env", "--label", "--mount",
+		"--name", "--platform", "--publish", "--restart", "--workdir");
+	private final DaemonState state;
+	private final ImageCommands images;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param state  the resources of the daemon
+	 * @param images executes {@code docker image} commands
+	 */
+	ContainerCommands(DaemonState state, ImageCommands images)
+	{
+		assert state != null;
+		assert images != null;
+		this.state = state;
+		this.images = images;
+	}
+
+	/**
+	 * @param arguments the command-line arguments, starting with {@code container}
+	 * @return {@code true} if the command is supported
+	 */
+	static boolean supports(List<String> arguments)
+	{
+		return switch (arguments.get(1))
+		{
+			case "ls", "inspect", "create", "stop", "rm", "rename", "wait" -> true;
+			// "container start --attach" streams the container's output
+			case "start" -> !arguments.contains("--attach") && !arguments.contains("--interactive");
+			default -> false;
+		};
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code container}
+	 * @return the result of the command
+	 * @throws InterruptedException if the thread is interrupted while waiting for a container to stop
+	 */
+	CommandResult run(List<String> arguments) throws InterruptedException
+	{
+		List<String> parameters = arguments.subList(2, arguments.size());
+		return switch (arguments.get(1))
+		{
+			case "ls" -> list(arguments, Options.parse(parameters, Set.of("--filter", "--format"), true));
+			case "inspect" -> inspect(arguments, Options.parse(parameters, Set.of("--format"), true));
+			case "create" -> create(arguments, Options.parse(parameters, CREATE_OPTIONS, false));
+			case "start" -> start(arguments, Options.parse(parameters, Set.of(), true));
+			case "stop" -> stop(arguments, Options.parse(parameters, Set.of("--signal", "--timeout"), true));
+			case "rm" -> remove(arguments, Options.parse(parameters, Set.of(), true));
+			case "rename" -> rename(arguments, Options.parse(parameters, Set.of(), true));
+			case "wait" -> waitUntilStopped(arguments, Options.parse(parameters, Set.of(), true));
+			default -> throw new IllegalArgumentException("Unsupported command: " + arguments);
+		};
+	}
+
+	/**
+	 * @param id the ID or name of a container
+	 * @return the error that the daemon returns if the container does not exist
+	 */
+	private static String notFound(String id)
+	{
+		return "Error response from daemon: No such container: " + id;
+	}
+
+	private CommandResult list(List<String> arguments, Options options)
+	{
+		boolean all = options.has("--all");
+		List<ObjectNode> rows = new ArrayList<>();
+		for (FakeContainer container : state.containers.values())
+		{
+			if (all || container.status() == Status.RUNNING || container.status() == Status.PAUSED)
+				rows.add(container.toRow(state.jsonMapper));
+		}
+		return state.success(arguments, state.toJsonLines(rows));
+	}
+
+	private CommandResult inspect(List<String> arguments, Options options)
+	{
+		List<ObjectNode> matches = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		for (String id : options.operands())
+		{
+			FakeContainer container = state.containers.get(id);
+			if (container == null)
+				errors.add(notFound(id));
+			else
+				matches.add(container.toInspect(state.jsonMapper));
+		}
+		return state.result(arguments, state.toJsonArray(matches), errors);
+	}
+
+	private CommandResult create(List<String> arguments, Options options)
+	{
+		if (options.operands().isEmpty())
+			return state.failure(arguments, "\"docker container create\" requires at least 1 argument.");
+		String reference = options.operands().getFirst();
+		Map<String, List<HostPort>> ports = new HashMap<>();
+		for (String publish : options.getAll("--publish"))
+		{
+			// [ip:]hostPort:containerPort[/protocol]
+			String protocol = "tcp";
+			int slash = publish.lastIndexOf('/');
+			if (slash != -1)
+			{
+				protocol = publish.substring(slash + 1);
+				publish = publish.substring(0, slash);
+			}
+			int containerPortSeparator = publish.lastIndexOf(':');
+			String containerPort = publish.substring(containerPortSeparator + 1);
+			String host = publish.substring(0, Math.max(containerPortSeparator, 0));
+			int hostPortSeparator = host.lastIndexOf(':');
+			String hostIp = host.substring(0, Math.max(hostPortSeparator, 0));
+			String hostPort = host.substring(hostPortSeparator + 1);
+			ports.computeIfAbsent(containerPort + "/" + protocol, _ -> new ArrayList<>()).
+				add(new HostPort(hostIp, hostPort));
+		}
+		synchronized (state)
+		{
+			String name = options.get("--name");
+			if (name != null)
+			{
+				FakeContainer conflict = state.containers.get(name);
+				if (conflict != null && conflict.name().equals(name))
+				{
+					return state.failure(arguments, "Error response from daemon: Conflict. The container name \"/" +
+						name + "\" is already in use by container \"" + conflict.id() + "\". You have to remove (or " +
+						"rename) that container to be able to reuse that name.");
+				}
+			}
+			FakeImage image = state.getImage(reference);
+			if (image == null)
+			{
+				image = images.pull(reference);
+				if (image == null)
+				{
+					return state.failure(arguments, "Unable to find image '" + reference + "' locally\n" +
+						"Error response from daemon: pull access denied for " + reference + ", repository does not " +
+						"exist or may require 'docker login'");
+				}
+			}
+			FakeContainer container = create(name, image, reference, options.has("--rm"), ports,
+				options.getPairs("--label"));
+			return state.success(arguments, container.id());
+		}
+	}
+
+	/**
+	 * Creates a container. The caller must synchronize on the daemon state.
+	 *
+	 * @param name         the name of the container, or {@code null} to generate a name
+	 * @param image        the container's image
+	 * @param reference    the image reference that the container was created from
+	 * @param removeOnExit {@code true} if the container is removed once it stops
+	 * @param ports        maps each container port to the host addresses that it is published on
+	 * @param labels       the container's labels
+	 * @return the container
+	 */
+	FakeContainer create(String name, FakeImage image, String reference, boolean removeOnExit,
+		Map<String, List<HostPort>> ports, Map<String, String> labels)
+	{
+		assert Thread.holdsLock(state);
+		String id = DaemonState.newHexId();
+		if (name == null)
+			name = "fake_" + id.substring(0, 12);
+		FakeContainer container = new FakeContainer(id, name, image.id(), reference, Status.CREATED, 0,
+			removeOnExit, Map.copyOf(ports), Map.copyOf(labels), Instant.now(), null, null);
+		state.containers.put(container);
+		state.events.publish("container", "create", id, container.getEventAttributes());
+		return container;
+	}
+
+	private CommandResult start(List<String> arguments, Options options)
+	{
+		StringJoiner stdout = new StringJoiner("\n");
+		List<String> errors = new ArrayList<>();
+		synchronized (state)
+		{
+			for (String id : options.operands())
+			{
+				FakeContainer container = state.containers.get(id);
+				if (container == null)
+				{
+					errors.add(notFound(id));
+					continue;
+				}
+				start(container);
+				stdout.add(id);
+			}
+		}
+		return state.result(arguments, stdout.toString(), errors);
+	}
+
+	/**
+	 * Starts a container. If the container is already running, this method has no effect. The caller must
+	 * synchronize on the daemon state.
+	 *
+	 * @param container the container
+	 */
+	void start(FakeContainer container)
+	{
+		assert Thread.holdsLock(state);
+		if (container.status() == Status.RUNNING)
+			return;
+		container = container.withStatus(Status.RUNNING, 0, Instant.now());
+		state.containers.put(container);
+		state.events.publish("container", "start", container.id(), container.getEventAttributes());
+		state.notifyAll();
+	}
+
+	private CommandResult stop(List<String> arguments, Options options)
+	{
+		StringJoiner stdout = new StringJoiner("\n");
+		List<String> errors = new ArrayList<>();
+		synchronized (state)
+		{
+			for (String id : options.operands())
+			{
+				FakeContainer container = state.containers.get(id);
+				if (container == null)
+				{
+					errors.add(notFound(id));
+					continue;
+				}
+				if (container.status() == Status.RUNNING || container.status() == Status.PAUSED)
+				{
+					state.events.publish("container", "kill", container.id(), container.getEventAttributes());
+					exit(container, TERMINATED);
+					state.events.publish("container", "stop", container.id(), container.getEventAttributes());
+				}
+				stdout.add(id);
+			}
+		}
+		return state.result(arguments, stdout.toString(), errors);
+	}
+
+	/**
+	 * Transitions a running container to {@code EXITED}, removing it if it was created with {@code --rm}. The
+	 * caller must synchronize on the daemon state.
+	 *
+	 * @param container the container
+	 * @param exitCode  the exit code of the container's process
+	 */
+	void exit(FakeContainer container, int exitCode)
+	{
+		assert Thread.holdsLock(state);
+		container = container.withStatus(Status.EXITED, exitCode, Instant.now());
+		state.containers.put(container);
+		Map<String, String> attributes = new HashMap<>(container.getEventAttributes());
+		attributes.put("exitCode", String.valueOf(exitCode));
+		state.events.publish("container", "die", container.id(), attributes);
+		if (container.removeOnExit())
+			destroy(container);
+		state.notifyAll();
+	}
+
+	private CommandResult remove(List<String> arguments, Options options)
+	{
+		boolean force = options.has("--force");
+		StringJoiner stdout = new StringJoiner("\n");
+		List<String> errors = new ArrayList<>();
+		synchronized (state)
+		{
+			for (String id : options.operands())
+			{
+				FakeContainer container = state.containers.get(id);
+				if (container == null)
+				{
+					errors.add(notFound(id));
+					continue;
+				}
+				if (container.status() == Status.RUNNING || container.status() == Status.PAUSED)
+				{
+					if (!force)
+					{
+						errors.add("Error response from daemon: cannot remove container \"/" + container.name() +
+							"\": container is running: stop the container before removing or force remove");
+						continue;
+					}
+					state.events.publish("container", "kill", container.id(), container.getEventAttributes());
+					container = container.withStatus(Status.EXITED, 137, Instant.now());
+					state.events.publish("container", "die", container.id(), container.getEventAttributes());
+				}
+				destroy(container);
+				stdout.add(id);
+			}
+			state.notifyAll();
+		}
+		return state.result(arguments, stdout.toString(), errors);
+	}
+
+	/**
+	 * Removes a container. The caller must synchronize on the daemon state.
+	 *
+	 * @param container the container
+	 */
+	private void destroy(FakeContainer container)
+	{
+		assert Thread.holdsLock(state);
+		state.containers.remove(container.id());
+		state.containerRemoved(container);
+		state.events.publish("container", "destroy", container.id(), container.getEventAttributes());
+	}
+
+	private CommandResult rename(List<String> arguments, Options options)
+	{
+		List<String> operands = options.operands();
+		if (operands.size() != 2)
+			return state.failure(arguments, "\"docker container rename\" requires exactly 2 arguments.");
+		String id = operands.get(0);
+		String newName = operands.get(1);
+		synchronized (state)
+		{
+			FakeContainer container = state.containers.get(id);
+			if (container == null)
+				return state.failure(arguments, notFound(id));
+			FakeContainer conflict = state.containers.get(newName);
+			if (conflict != null && conflict.name().equals(newName))
+			{
+				if (conflict.id().equals(container.id()))
+				{
+					return state.failure(arguments, "Error response from daemon: Renaming a container with the " +
+						"same name as its current name");
+				}
+				return state.failure(arguments, "Error response from daemon: Conflict. The container name \"/" +
+					newName + "\" is already in use by container \"" + conflict.id() + "\". You have to remove (or " +
+					"rename) that container to be able to reuse that name.");
+			}
+			String oldName = container.name();
+			container = container.withName(newName);
+			state.containers.put(container);
+			Map<String, String> attributes = new HashMap<>(container.getEventAttributes());
+			attributes.put("oldName", "/" + oldName);
+			state.events.publish("container", "rename", container.id(), attributes);
+		}
+		return state.success(arguments, "");
+	}
+
+	private CommandResult waitUntilStopped(List<String> arguments, Options options) throws InterruptedException
+	{
+		StringJoiner stdout = new StringJoiner("\n");
+		List<String> errors = new ArrayList<>();
+		for (String id : options.operands())
+		{
+			synchronized (state)
+			{
+				FakeContainer container = state.containers.get(id);
+				if (container == null)
+				{
+					errors.add(notFound(id));
+					continue;
+				}
+				String actualId = container.id();
+				while (container != null &&
+					(container.status() == Status.RUNNING || container.status() == Status.PAUSED ||
+						container.status() == Status.RESTARTING))
+				{
+					state.wait();
+					container = state.containers.get(actualId);
+				}
+				int exitCode;
+				if (container != null)
+					exitCode = container.exitCode();
+				else
+				{
+					Integer exitCodeOfRemoved = state.getExitCodeOfRemovedContainer(actualId);
+					if (exitCodeOfRemoved == null)
+						exitCode = 0;
+					else
+						exitCode = exitCodeOfRemoved;
+				}
+				stdout.add(String.valueOf(exitCode));
+			}
+		}
+		return state.result(arguments, stdout.toString(), errors);
+	}
+}
\ No newline at end of file
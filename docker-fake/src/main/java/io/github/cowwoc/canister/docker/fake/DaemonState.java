@@ -0,0 +1,305 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The resources of a fake daemon.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe. Lookups do not block, while modifications synchronize
+ * on this object. Threads that wait for a resource to change {@link Object#wait() wait} on this object, so
+ * modifications must {@link Object#notifyAll() notify} them.
+ */
+final class DaemonState
+{
+	/**
+	 * The maximum number of removed containers whose exit code is retained for {@code docker container wait}.
+	 */
+	private static final int MAX_REMOVED_EXIT_CODES = 1000;
+	private static final String SWARM_ID_CHARACTERS = "abcdefghijklmnopqrstuvwxyz0123456789";
+	final JsonMapper jsonMapper;
+	final EventLog events;
+	final ResourceTable<FakeContainer> containers = new ResourceTable<>(FakeContainer::id,
+		FakeContainer::name);
+	final ResourceTable<FakeNetwork> networks = new ResourceTable<>(FakeNetwork::id, FakeNetwork::name);
+	final ResourceTable<FakeConfig> configs = new ResourceTable<>(FakeConfig::id, FakeConfig::name);
+	final ResourceTable<FakeService> services = new ResourceTable<>(FakeService::id, FakeService::name);
+	final ResourceTable<FakeNode> nodes = new ResourceTable<>(FakeNode::id, FakeNode::hostname);
+	final Map<String, FakeTask> tasks = new ConcurrentHashMap<>();
+	/**
+	 * The ID of the node that the client is connected to.
+	 */
+	final String currentNodeId;
+	private final Map<String, FakeImage> images = new ConcurrentHashMap<>();
+	/**
+	 * Maps {@code repository:tag} and {@code repository@digest} references to the ID of an image.
+	 */
+	private final Map<String, String> referenceToImageId = new ConcurrentHashMap<>();
+	// Guarded by "this"
+	private final Map<String, Integer> removedContainerToExitCode = new LinkedHashMap<>()
+	{
+		@Override
+		protected boolean removeEldestEntry(Entry<String, Integer> eldest)
+		{
+			return size() > MAX_REMOVED_EXIT_CODES;
+		}
+	};
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * Creates a new state.
+	 *
+	 * @param jsonMapper    the JSON configuration
+	 * @param currentNodeId the ID of the node that the client is connected to
+	 */
+	DaemonState(JsonMapper jsonMapper, String currentNodeId)
+	{
+		assert jsonMapper != null;
+		assert currentNodeId != null;
+		this.jsonMapper = jsonMapper;
+		this.events = new EventLog(jsonMapper);
+		this.currentNodeId = currentNodeId;
+	}
+
+	/**
+	 * @return a new ID for a container, image or network
+	 */
+	static String newHexId()
+	{
+		byte[] bytes = new byte[32];
+		ThreadLocalRandom.current().nextBytes(bytes);
+		return HexFormat.of().formatHex(bytes);
+	}
+
+	/**
+	 * @return a new ID for a swarm object (config, node, service or task)
+	 */
+	static String newSwarmId()
+	{
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		StringBuilder id = new StringBuilder(25);
+		for (int i = 0; i < 25; ++i)
+			id.append(SWARM_ID_CHARACTERS.charAt(random.nextInt(SWARM_ID_CHARACTERS.length())));
+		return id.toString();
+	}
+
+	/**
+	 * @return the next version of the swarm objects
+	 */
+	long nextVersion()
+	{
+		return version.incrementAndGet();
+	}
+
+	/**
+	 * Looks up an image.
+	 *
+	 * @param reference the ID of the image, or a {@code repository[:tag]} or {@code repository@digest}
+	 *                  reference
+	 * @return {@code null} if no match is found
+	 */
+	FakeImage getImage(String reference)
+	{
+		FakeImage image = images.get(reference);
+		if (image != null)
+			return image;
+		if (reference.length() == 64 && reference.chars().allMatch(c -> Character.digit(c, 16) != -1))
+			return images.get("sha256:" + reference);
+		String id = referenceToImageId.get(normalize(reference));
+		if (id == null)
+			return null;
+		return images.get(id);
+	}
+
+	/**
+	 * @return the images
+	 */
+	Collection<FakeImage> getImages()
+	{
+		return images.values();
+	}
+
+	/**
+	 * Adds or replaces an image. The caller must synchronize on this object.
+	 *
+	 * @param image the image
+	 */
+	void putImage(FakeImage image)
+	{
+		assert Thread.holdsLock(this);
+		FakeImage oldImage = images.put(image.id(), image);
+		if (oldImage != null)
+			removeReferences(oldImage);
+		for (String reference : image.getTaggedReferences())
+			referenceToImageId.put(reference, image.id());
+		for (Entry<String, String> entry : image.repositoryToDigest().entrySet())
+			referenceToImageId.put(entry.getKey() + "@" + entry.getValue(), image.id());
+	}
+
+	/**
+	 * Removes an image. The caller must synchronize on this object.
+	 *
+	 * @param id the ID of the image
+	 */
+	void removeImage(String id)
+	{
+		assert Thread.holdsLock(this);
+		FakeImage image = images.remove(id);
+		if (image != null)
+			removeReferences(image);
+	}
+
+	/**
+	 * Removes the references to an image from the index.
+	 *
+	 * @param image the image
+	 */
+	private void removeReferences(FakeImage image)
+	{
+		for (String reference : image.getTaggedReferences())
+			referenceToImageId.remove(reference, image.id());
+		for (Entry<String, String> entry : image.repositoryToDigest().entrySet())
+			referenceToImageId.remove(entry.getKey() + "@" + entry.getValue(), image.id());
+	}
+
+	/**
+	 * Normalizes an image reference so that equivalent references map to the same key.
+	 *
+	 * @param reference a {@code repository[:tag]} or {@code repository@digest} reference
+	 * @return the reference with the default registry removed and the default tag added
+	 */
+	static String normalize(String reference)
+	{
+		if (reference.startsWith("docker.io/library/"))
+			reference = reference.substring("docker.io/library/".length());
+		else if (reference.startsWith("docker.io/"))
+			reference = reference.substring("docker.io/".length());
+		if (reference.contains("@"))
+			return reference;
+		// The port of a registry (e.g. "localhost:5000/image") is not a tag
+		if (reference.lastIndexOf(':') <= reference.lastIndexOf('/'))
+			return reference + ":latest";
+		return reference;
+	}
+
+	/**
+	 * Records the exit code of a container that was removed, for threads that are waiting for it to stop. The
+	 * caller must synchronize on this object.
+	 *
+	 * @param container the container
+	 */
+	void containerRemoved(FakeContainer container)
+	{
+		assert Thread.holdsLock(this);
+		removedContainerToExitCode.put(container.id(), container.exitCode());
+	}
+
+	/**
+	 * Returns the exit code of a container that was removed. The caller must synchronize on this object.
+	 *
+	 * @param id the ID of the container
+	 * @return {@code null} if the container's exit code is not known
+	 */
+	Integer getExitCodeOfRemovedContainer(String id)
+	{
+		assert Thread.holdsLock(this);
+		return removedContainerToExitCode.get(id);
+	}
+
+	/**
+	 * @param arguments the command-line arguments
+	 * @param stdout    the standard output of the command
+	 * @return the result of a command that succeeded
+	 */
+	CommandResult success(List<String> arguments, String stdout)
+	{
+		return result(arguments, stdout, List.of());
+	}
+
+	/**
+	 * @param arguments the command-line arguments
+	 * @param error     the error message
+	 * @return the result of a command that failed
+	 */
+	CommandResult failure(List<String> arguments, String error)
+	{
+		return result(arguments, "", List.of(error));
+	}
+
+	/**
+	 * @param arguments the command-line arguments
+	 * @param stdout    the standard output of the command
+	 * @param errors    the error messages, or an empty list if the command succeeded
+	 * @return the result of the command
+	 */
+	CommandResult result(List<String> arguments, String stdout, List<String> errors)
+	{
+		List<String> command = new ArrayList<>(arguments.size() + 1);
+		command.add("docker");
+		command.addAll(arguments);
+		StringJoiner stderr = new StringJoiner("\n");
+		for (String error : errors)
+			stderr.add(error);
+		int exitCode;
+		if (errors.isEmpty())
+			exitCode = 0;
+		else
+			exitCode = 1;
+		return new CommandResult(command, null, stdout, stderr.toString(), exitCode);
+	}
+
+	/**
+	 * @param rows the rows of a listing
+	 * @return the rows as JSON lines, the format of {@code --format json}
+	 */
+	String toJsonLines(Collection<? extends JsonNode> rows)
+	{
+		StringJoiner lines = new StringJoiner("\n");
+		for (JsonNode row : rows)
+			lines.add(toJson(row));
+		return lines.toString();
+	}
+
+	/**
+	 * @param objects the objects of an inspection
+	 * @return the objects as a JSON array, the format of {@code docker inspect}
+	 */
+	String toJsonArray(Collection<ObjectNode> objects)
+	{
+		ArrayNode array = jsonMapper.createArrayNode();
+		array.addAll(objects);
+		return toJson(array);
+	}
+
+	/**
+	 * @param json a JSON node
+	 * @return the String representation of the node
+	 */
+	String toJson(JsonNode json)
+	{
+		try
+		{
+			return jsonMapper.writeValueAsString(json);
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new AssertionError(e);
+		}
+	}
+}
\ No newline at end of file
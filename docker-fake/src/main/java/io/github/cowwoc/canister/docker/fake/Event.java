@@ -0,0 +1,19 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import java.util.Map;
+
+/**
+ * An event that was published by the daemon.
+ *
+ * @param type       the type of object that emitted the event (e.g. {@code container})
+ * @param action     the action that took place (e.g. {@code start})
+ * @param actorId    the ID of the object that emitted the event
+ * @param attributes additional information about the object (e.g. {@code name})
+ * @param timeNano   the time that the event took place, in nanoseconds since the epoch
+ * @param line       the line that {@code docker system events --format json} outputs for the event,
+ *                   including its line terminator
+ */
+record Event(String type, String action, String actorId, Map<String, String> attributes, long timeNano,
+             byte[] line)
+{
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * The {@code --filter} values of {@code docker system events}. Values of the same key match if any of them
+ * match, while different keys must all match.
+ *
+ * @param keyToValues maps each filter key to its accepted values
+ */
+record EventFilter(Map<String, Set<String>> keyToValues)
+{
+	/**
+	 * Parses filters.
+	 *
+	 * @param filters {@code key=value} pairs
+	 * @return the filter
+	 * @throws IllegalArgumentException if a filter is not a {@code key=value} pair
+	 */
+	static EventFilter parse(List<String> filters)
+	{
+		Map<String, Set<String>> keyToValues = new HashMap<>();
+		for (String filter : filters)
+		{
+			int separator = filter.indexOf('=');
+			if (separator == -1)
+				throw new IllegalArgumentException("Bad format of filter (expected name=value): " + filter);
+			keyToValues.computeIfAbsent(filter.substring(0, separator), _ -> new HashSet<>()).
+				add(filter.substring(separator + 1));
+		}
+		return new EventFilter(keyToValues);
+	}
+
+	/**
+	 * @param event an event
+	 * @return {@code true} if the event should be delivered
+	 */
+	boolean matches(Event event)
+	{
+		for (Entry<String, Set<String>> entry : keyToValues.entrySet())
+		{
+			String key = entry.getKey();
+			Set<String> values = entry.getValue();
+			boolean matches = switch (key)
+			{
+				case "type" -> values.contains(event.type());
+				case "event" -> values.contains(event.action());
+				case "container", "image", "network", "config", "service", "node" -> key.equals(event.type()) &&
+					(values.contains(event.actorId()) || values.contains(event.attributes().get("name")));
+				// Labels and scopes are not modeled
+				default -> false;
+			};
+			if (!matches)
+				return false;
+		}
+		return true;
+	}
+}
\ No newline at end of file
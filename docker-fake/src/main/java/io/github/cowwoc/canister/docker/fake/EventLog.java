@@ -0,0 +1,166 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The events that the daemon published, and the {@code docker system events} streams that deliver them.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class EventLog
+{
+	/**
+	 * The maximum number of events to retain for streams that ask for past events using {@code --since}.
+	 */
+	private static final int MAX_HISTORY = 10_000;
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+	private final JsonMapper jsonMapper;
+	private final List<EventProcess> streams = new CopyOnWriteArrayList<>();
+	// The following fields are guarded by "this"
+	private final Deque<Event> history = new ArrayDeque<>();
+	private long lastTimeNano;
+	private boolean closed;
+
+	/**
+	 * Creates a new log.
+	 *
+	 * @param jsonMapper the JSON configuration
+	 */
+	EventLog(JsonMapper jsonMapper)
+	{
+		assert jsonMapper != null;
+		this.jsonMapper = jsonMapper;
+	}
+
+	/**
+	 * Publishes an event.
+	 *
+	 * @param type       the type of object that emitted the event (e.g. {@code container})
+	 * @param action     the action that took place (e.g. {@code start})
+	 * @param actorId    the ID of the object that emitted the event
+	 * @param attributes additional information about the object (e.g. {@code name})
+	 */
+	synchronized void publish(String type, String action, String actorId, Map<String, String> attributes)
+	{
+		if (closed)
+			return;
+		// Streams that are restarted skip events that are older than the last event they delivered, so the
+		// timestamps must be unique
+		Instant now = Instant.now();
+		long timeNano = Math.max(now.getEpochSecond() * NANOS_PER_SECOND + now.getNano(), lastTimeNano + 1);
+		lastTimeNano = timeNano;
+
+		// {"status":"start","id":"9d18...","from":"busybox","Type":"container","Action":"start",
+		//  "Actor":{"ID":"9d18...","Attributes":{"image":"busybox","name":"jolly_cray"}},"scope":"local",
+		//  "time":1719305423,"timeNano":1719305423123456789}
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("status", action);
+		json.put("id", actorId);
+		String image = attributes.get("image");
+		if (image != null)
+			json.put("from", image);
+		json.put("Type", type);
+		json.put("Action", action);
+		ObjectNode actor = json.putObject("Actor");
+		actor.put("ID", actorId);
+		ObjectNode attributesNode = actor.putObject("Attributes");
+		for (Entry<String, String> entry : attributes.entrySet())
+			attributesNode.put(entry.getKey(), entry.getValue());
+		json.put("scope", switch (type)
+		{
+			case "config", "node", "service" -> "swarm";
+			default -> "local";
+		});
+		json.put("time", timeNano / NANOS_PER_SECOND);
+		json.put("timeNano", timeNano);
+		byte[] line;
+		try
+		{
+			line = (jsonMapper.writeValueAsString(json) + "\n").getBytes(UTF_8);
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new AssertionError(e);
+		}
+		Event event = new Event(type, action, actorId, Map.copyOf(attributes), timeNano, line);
+
+		history.addLast(event);
+		if (history.size() > MAX_HISTORY)
+			history.removeFirst();
+		for (EventProcess stream : streams)
+		{
+			if (stream.getFilter().matches(event))
+				stream.write(line);
+		}
+	}
+
+	/**
+	 * Starts a {@code docker system events} stream.
+	 *
+	 * @param options the options of the command
+	 * @return the process that outputs the events
+	 * @throws IllegalArgumentException if the options are invalid
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	synchronized EventProcess subscribe(Options options)
+	{
+		if (closed)
+			throw new IllegalStateException("The daemon is closed");
+		EventFilter filter = EventFilter.parse(options.getAll("--filter"));
+		EventProcess stream = new EventProcess(filter, streams::remove);
+		String since = options.get("--since");
+		if (since != null)
+		{
+			// "seconds.nanoseconds" since the epoch
+			long sinceNano = new BigDecimal(since).movePointRight(9).longValueExact();
+			for (Event event : history)
+			{
+				if (event.timeNano() >= sinceNano && filter.matches(event))
+					stream.write(event.line());
+			}
+		}
+		streams.add(stream);
+		return stream;
+	}
+
+	/**
+	 * @return the number of streams that are running
+	 */
+	int getStreamCount()
+	{
+		return streams.size();
+	}
+
+	/**
+	 * Ends all the streams.
+	 */
+	void close()
+	{
+		List<EventProcess> toClose;
+		synchronized (this)
+		{
+			if (closed)
+				return;
+			closed = true;
+			history.clear();
+			toClose = new ArrayList<>(streams);
+		}
+		// Streams end without an error, as they do when the daemon shuts down
+		for (EventProcess stream : toClose)
+			stream.exit(0);
+	}
+}
\ No newline at end of file
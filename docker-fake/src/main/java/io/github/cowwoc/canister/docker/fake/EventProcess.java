@@ -0,0 +1,206 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Stands in for a {@code docker system events} process, writing the events that the daemon publishes to its
+ * standard output.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class EventProcess extends Process
+{
+	/**
+	 * The exit code of a process that was terminated by {@code SIGTERM}.
+	 */
+	private static final int TERMINATED = 143;
+	/**
+	 * Marks the end of the output.
+	 */
+	private static final byte[] END_OF_STREAM = new byte[0];
+	private final EventFilter filter;
+	private final Consumer<EventProcess> onExit;
+	private final BlockingQueue<byte[]> lines = new LinkedBlockingQueue<>();
+	private final CountDownLatch exited = new CountDownLatch(1);
+	private final InputStream stdout = new LineInputStream();
+	private volatile int exitCode = -1;
+
+	/**
+	 * Creates a new process.
+	 *
+	 * @param filter the events to deliver
+	 * @param onExit a callback that is invoked once the process exits
+	 */
+	EventProcess(EventFilter filter, Consumer<EventProcess> onExit)
+	{
+		assert filter != null;
+		assert onExit != null;
+		this.filter = filter;
+		this.onExit = onExit;
+	}
+
+	/**
+	 * @return the events to deliver
+	 */
+	EventFilter getFilter()
+	{
+		return filter;
+	}
+
+	/**
+	 * Writes a line to the standard output stream. If the process exited, this method has no effect.
+	 *
+	 * @param line the line, including its line terminator
+	 */
+	void write(byte[] line)
+	{
+		if (exitCode == -1)
+			lines.add(line);
+	}
+
+	/**
+	 * Ends the standard output stream and exits the process.
+	 *
+	 * @param exitCode the exit code of the process
+	 */
+	void exit(int exitCode)
+	{
+		synchronized (this)
+		{
+			if (this.exitCode != -1)
+				return;
+			this.exitCode = exitCode;
+		}
+		lines.add(END_OF_STREAM);
+		exited.countDown();
+		onExit.accept(this);
+	}
+
+	@Override
+	public OutputStream getOutputStream()
+	{
+		return OutputStream.nullOutputStream();
+	}
+
+	@Override
+	public InputStream getInputStream()
+	{
+		return stdout;
+	}
+
+	@Override
+	public InputStream getErrorStream()
+	{
+		return InputStream.nullInputStream();
+	}
+
+	@Override
+	public int waitFor() throws InterruptedException
+	{
+		exited.await();
+		return exitCode;
+	}
+
+	@Override
+	public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		return exited.await(timeout, unit);
+	}
+
+	@Override
+	public int exitValue()
+	{
+		int value = exitCode;
+		if (value == -1)
+			throw new IllegalThreadStateException("process hasn't exited");
+		return value;
+	}
+
+	@Override
+	public boolean isAlive()
+	{
+		return exitCode == -1;
+	}
+
+	@Override
+	public void destroy()
+	{
+		exit(TERMINATED);
+	}
+
+	@Override
+	public Stream<ProcessHandle> descendants()
+	{
+		// The process does not run in the operating system, so it has no children
+		return Stream.empty();
+	}
+
+	/**
+	 * Reads the lines that were written to the standard output stream, blocking until one is available.
+	 */
+	private final class LineInputStream extends InputStream
+	{
+		private byte[] line = new byte[0];
+		private int position;
+
+		/**
+		 * Waits for the next line if the current one was consumed.
+		 *
+		 * @return {@code false} if the end of the stream was reached
+		 * @throws InterruptedIOException if the thread is interrupted while waiting
+		 */
+		private boolean fill() throws InterruptedIOException
+		{
+			if (line == END_OF_STREAM)
+				return false;
+			if (position < line.length)
+				return true;
+			try
+			{
+				line = lines.take();
+			}
+			catch (InterruptedException _)
+			{
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+			position = 0;
+			return line != END_OF_STREAM;
+		}
+
+		@Override
+		public synchronized int read() throws InterruptedIOException
+		{
+			if (!fill())
+				return -1;
+			return line[position++] & 0xFF;
+		}
+
+		@Override
+		public synchronized int read(byte[] buffer, int offset, int length) throws InterruptedIOException
+		{
+			if (length == 0)
+				return 0;
+			if (!fill())
+				return -1;
+			int count = Math.min(length, line.length - position);
+			System.arraycopy(line, position, buffer, offset, count);
+			position += count;
+			return count;
+		}
+
+		@Override
+		public synchronized int available()
+		{
+			return line.length - position;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.StringJoiner;
+
+/**
+ * The state of a swarm config.
+ *
+ * @param id      the ID of the config
+ * @param name    the name of the config
+ * @param data    the Base64 encoding of the config's value
+ * @param labels  the config's labels
+ * @param version the version of the swarm object
+ * @param created the time that the config was created
+ */
+record FakeConfig(String id, String name, String data, Map<String, String> labels, long version,
+                  Instant created)
+{
+	/**
+	 * Creates a new config.
+	 *
+	 * @param id      the ID of the config
+	 * @param name    the name of the config
+	 * @param data    the Base64 encoding of the config's value
+	 * @param labels  the config's labels
+	 * @param version the version of the swarm object
+	 * @param created the time that the config was created
+	 */
+	FakeConfig
+	{
+		labels = Map.copyOf(labels);
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the row that {@code docker config ls --format json} outputs for this config
+	 */
+	ObjectNode toRow(JsonMapper jsonMapper)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("CreatedAt", created.toString());
+		row.put("ID", id);
+		StringJoiner joiner = new StringJoiner(",");
+		for (Entry<String, String> entry : labels.entrySet())
+			joiner.add(entry.getKey() + "=" + entry.getValue());
+		row.put("Labels", joiner.toString());
+		row.put("Name", name);
+		row.put("UpdatedAt", created.toString());
+		return row;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the object that {@code docker config inspect} outputs for this config
+	 */
+	ObjectNode toInspect(JsonMapper jsonMapper)
+	{
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("ID", id);
+		json.putObject("Version").put("Index", version);
+		json.put("CreatedAt", created.toString());
+		json.put("UpdatedAt", created.toString());
+		ObjectNode spec = json.putObject("Spec");
+		spec.put("Name", name);
+		ObjectNode labelsNode = spec.putObject("Labels");
+		for (Entry<String, String> entry : labels.entrySet())
+			labelsNode.put(entry.getKey(), entry.getValue());
+		spec.put("Data", data);
+		return json;
+	}
+}
\ No newline at end of file
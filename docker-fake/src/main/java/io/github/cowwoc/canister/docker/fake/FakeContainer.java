@@ -0,0 +1,177 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.docker.resource.Container.Status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.StringJoiner;
+
+/**
+ * The state of a container.
+ *
+ * @param id           the ID of the container
+ * @param name         the name of the container
+ * @param imageId      the ID of the container's image
+ * @param image        the image reference that the container was created from
+ * @param status       the status of the container
+ * @param exitCode     the exit code of the container's last run, or {@code 0} if it never ran
+ * @param removeOnExit {@code true} if the container is removed once it stops
+ * @param ports        maps each container port (e.g. {@code 80/tcp}) to the host addresses that it is
+ *                     published on
+ * @param labels       the container's labels
+ * @param created      the time that the container was created
+ * @param started      the time that the container last started, or {@code null} if it never started
+ * @param finished     the time that the container last stopped, or {@code null} if it never stopped
+ */
+record FakeContainer(String id, String name, String imageId, String image, Status status, int exitCode,
+                     boolean removeOnExit, Map<String, List<HostPort>> ports, Map<String, String> labels,
+                     Instant created, Instant started, Instant finished)
+{
+	/**
+	 * A host address that a container port is published on.
+	 *
+	 * @param ip   the IP address of the host, or an empty string to bind to all addresses
+	 * @param port the port number on the host
+	 */
+	record HostPort(String ip, String port)
+	{
+	}
+
+	/**
+	 * @param status   the new status
+	 * @param exitCode the new exit code
+	 * @param time     the time of the transition
+	 * @return a copy of this container with a different status
+	 */
+	FakeContainer withStatus(Status status, int exitCode, Instant time)
+	{
+		Instant started = this.started;
+		Instant finished = this.finished;
+		if (status == Status.RUNNING)
+			started = time;
+		else if (this.status == Status.RUNNING)
+			finished = time;
+		return new FakeContainer(id, name, imageId, image, status, exitCode, removeOnExit, ports, labels,
+			created, started, finished);
+	}
+
+	/**
+	 * @param name the new name
+	 * @return a copy of this container with a different name
+	 */
+	FakeContainer withName(String name)
+	{
+		return new FakeContainer(id, name, imageId, image, status, exitCode, removeOnExit, ports, labels,
+			created, started, finished);
+	}
+
+	/**
+	 * @return the attributes of the container's events
+	 */
+	Map<String, String> getEventAttributes()
+	{
+		return Map.of("image", image, "name", name);
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the row that {@code docker container ls --format json} outputs for this container
+	 */
+	ObjectNode toRow(JsonMapper jsonMapper)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("Command", "");
+		row.put("CreatedAt", created.toString());
+		row.put("ID", id);
+		row.put("Image", image);
+		StringJoiner joiner = new StringJoiner(",");
+		for (Entry<String, String> entry : labels.entrySet())
+			joiner.add(entry.getKey() + "=" + entry.getValue());
+		row.put("Labels", joiner.toString());
+		row.put("Names", name);
+		row.put("State", status.name().toLowerCase(Locale.ROOT));
+		row.put("Status", switch (status)
+		{
+			case CREATED -> "Created";
+			case RUNNING -> "Up";
+			case PAUSED -> "Up (Paused)";
+			case RESTARTING -> "Restarting (" + exitCode + ")";
+			case EXITED -> "Exited (" + exitCode + ")";
+			case REMOVING -> "Removal In Progress";
+			case DEAD -> "Dead";
+		});
+		return row;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the object that {@code docker container inspect} outputs for this container
+	 */
+	ObjectNode toInspect(JsonMapper jsonMapper)
+	{
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("Id", id);
+		json.put("Created", created.toString());
+		ObjectNode state = json.putObject("State");
+		state.put("Status", status.name().toLowerCase(Locale.ROOT));
+		state.put("Running", status == Status.RUNNING || status == Status.PAUSED);
+		state.put("Paused", status == Status.PAUSED);
+		state.put("Restarting", status == Status.RESTARTING);
+		state.put("Dead", status == Status.DEAD);
+		state.put("ExitCode", exitCode);
+		state.put("StartedAt", toTimestamp(started));
+		state.put("FinishedAt", toTimestamp(finished));
+		json.put("Image", imageId);
+		json.put("Name", "/" + name);
+		ObjectNode hostConfig = json.putObject("HostConfig");
+		putPorts(hostConfig.putObject("PortBindings"));
+		hostConfig.put("AutoRemove", removeOnExit);
+		ObjectNode config = json.putObject("Config");
+		config.put("Image", image);
+		ObjectNode labelsNode = config.putObject("Labels");
+		for (Entry<String, String> entry : labels.entrySet())
+			labelsNode.put(entry.getKey(), entry.getValue());
+		ObjectNode networkSettings = json.putObject("NetworkSettings");
+		ObjectNode networkPorts = networkSettings.putObject("Ports");
+		// Ports are only bound while the container is running
+		if (status == Status.RUNNING || status == Status.PAUSED)
+			putPorts(networkPorts);
+		return json;
+	}
+
+	/**
+	 * Adds the container's published ports to a JSON object.
+	 *
+	 * @param json the JSON object
+	 */
+	private void putPorts(ObjectNode json)
+	{
+		for (Entry<String, List<HostPort>> entry : ports.entrySet())
+		{
+			ArrayNode addresses = json.putArray(entry.getKey());
+			for (HostPort hostPort : entry.getValue())
+			{
+				ObjectNode address = addresses.addObject();
+				address.put("HostIp", hostPort.ip());
+				address.put("HostPort", hostPort.port());
+			}
+		}
+	}
+
+	/**
+	 * @param time a time, or {@code null} if the event never took place
+	 * @return the representation that the daemon uses for the time
+	 */
+	private static String toTimestamp(Instant time)
+	{
+		if (time == null)
+			return "0001-01-01T00:00:00Z";
+		return time.toString();
+	}
+}
\ No newline at end of file
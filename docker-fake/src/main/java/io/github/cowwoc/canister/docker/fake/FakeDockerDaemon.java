@@ -0,0 +1,563 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.cowwoc.canister.core.internal.client.CommandTransport;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.Node.Availability;
+import io.github.cowwoc.canister.docker.resource.Node.Role;
+import io.github.cowwoc.canister.docker.resource.Node.Status;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * An in-memory Docker daemon for load and performance testing.
+ * <p>
+ * {@link #newClient()} returns a {@code DockerClient} whose commands are answered from memory, in the same
+ * format as the {@code docker} executable. Client code and response parsers therefore run unmodified, while
+ * the cost of forking processes and contacting a real daemon is removed or replaced by a configurable
+ * {@link #latency(Duration) latency}.
+ * <p>
+ * The daemon models containers, images, networks, configs, services, nodes and tasks. Resources move through
+ * the same states as they would on a real daemon, and {@code docker system events} delivers an event for
+ * each transition. The daemon is a manager of a swarm that initially contains a single node. Lookups
+ * accept full IDs and names, but not ID prefixes.
+ * <p>
+ * Commands that stream their output or read from the standard input stream, such as
+ * {@code docker container logs} or {@code docker config create}, are not modeled and fail. Use the
+ * {@code add} methods to seed the daemon with resources instead.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe. Lookups do not block, so a daemon holding 100,000
+ * resources can serve many concurrent clients.
+ */
+public final class FakeDockerDaemon implements AutoCloseable
+{
+	private static final List<String> GET_CURRENT_NODE_ID = List.of("system", "info", "--format",
+		"{{json .Swarm.NodeID}}");
+	private final DaemonState state;
+	private final ImageCommands images;
+	private final ContainerCommands containers;
+	private final NetworkCommands networks;
+	private final ConfigCommands configs;
+	private final ServiceCommands services;
+	private final NodeCommands nodes;
+	private final Path executable;
+	private final AtomicInteger nextSubnet = new AtomicInteger();
+	private volatile Duration latency = Duration.ZERO;
+	private volatile boolean closed;
+
+	/**
+	 * Creates a daemon that contains the predefined {@code bridge}, {@code host} and {@code none} networks, and
+	 * a swarm that consists of the daemon's node.
+	 *
+	 * @throws IOException if an I/O error occurs while creating the placeholder executable of the clients
+	 */
+	public FakeDockerDaemon() throws IOException
+	{
+		this.state = new DaemonState(JsonMapper.builder().build(), DaemonState.newSwarmId());
+		this.images = new ImageCommands(state);
+		this.containers = new ContainerCommands(state, images);
+		this.networks = new NetworkCommands(state);
+		this.configs = new ConfigCommands(state);
+		this.services = new ServiceCommands(state);
+		this.nodes = new NodeCommands(state, services);
+
+		Instant now = Instant.now();
+		state.networks.put(new FakeNetwork(DaemonState.newHexId(), "bridge", "bridge", "172.17.0.0/16",
+			"172.17.0.1", now));
+		state.networks.put(new FakeNetwork(DaemonState.newHexId(), "host", "host", null, null, now));
+		state.networks.put(new FakeNetwork(DaemonState.newHexId(), "none", "null", null, null, now));
+		state.nodes.put(new FakeNode(state.currentNodeId, "fake-manager", Role.MANAGER, true, Availability.ACTIVE,
+			Status.READY, "10.0.0.1", state.nextVersion(), now));
+		this.executable = createExecutable();
+	}
+
+	/**
+	 * Creates the executable that clients require. Commands that the daemon does not model are rejected by
+	 * the transport, so the executable only runs for commands that bypass the transport, such as those that
+	 * read from the standard input stream. On platforms without POSIX file permissions, such as Windows, the
+	 * executable cannot run and these commands fail to start.
+	 *
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable() throws IOException
+	{
+		Path executable = Files.createTempFile("canister-fake-docker", ".sh");
+		Files.writeString(executable, """
+			#!/bin/sh
+			echo "The fake Docker daemon does not support this command: $*" >&2
+			exit 1
+			""");
+		if (Files.getFileStore(executable).supportsFileAttributeView(PosixFileAttributeView.class))
+			Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	/**
+	 * Returns the amount of time that each command takes to run.
+	 *
+	 * @return the latency
+	 */
+	public Duration getLatency()
+	{
+		return latency;
+	}
+
+	/**
+	 * Sets the amount of time that each command takes to run, in addition to the time that it takes to update
+	 * the daemon's state. The default is {@code Duration.ZERO}.
+	 *
+	 * @param latency the latency
+	 * @return this
+	 * @throws NullPointerException     if {@code latency} is null
+	 * @throws IllegalArgumentException if {@code latency} is negative
+	 */
+	public FakeDockerDaemon latency(Duration latency)
+	{
+		requireThat(latency, "latency").isGreaterThanOrEqualTo(Duration.ZERO);
+		this.latency = latency;
+		return this;
+	}
+
+	/**
+	 * Returns a new client that sends its commands to this daemon. Closing the client does not close the
+	 * daemon.
+	 *
+	 * @return the client
+	 * @throws IOException           if an I/O error occurs while creating the client
+	 * @throws IllegalStateException if the daemon is closed
+	 */
+	public DockerClient newClient() throws IOException
+	{
+		ensureOpen();
+		DefaultDockerClient client = new DefaultDockerClient(executable);
+		client.setTransport(new DaemonTransport());
+		return client;
+	}
+
+	/**
+	 * Adds an image, as if it had been pulled.
+	 *
+	 * @param reference a {@code repository[:tag]} or {@code repository@digest} reference
+	 * @return the ID of the image
+	 * @throws NullPointerException     if {@code reference} is null
+	 * @throws IllegalArgumentException if {@code reference} contains whitespace, or is the ID of an image
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public String addImage(String reference)
+	{
+		requireThat(reference, "reference").doesNotContainWhitespace().isNotEmpty();
+		ensureOpen();
+		synchronized (state)
+		{
+			FakeImage image = images.pull(reference);
+			if (image == null)
+				throw new IllegalArgumentException("reference may not be the ID of an image: " + reference);
+			return image.id();
+		}
+	}
+
+	/**
+	 * Adds a container. The container's image is pulled if it is not present.
+	 *
+	 * @param name      the name of the container
+	 * @param reference the image reference that the container is created from
+	 * @param running   {@code true} to start the container
+	 * @return the ID of the container
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if any of the arguments contain whitespace or are empty, if
+	 *                                  {@code reference} refers to an image ID that does not exist, or if the
+	 *                                  name is in use by another container
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public String addContainer(String name, String reference, boolean running)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		requireThat(reference, "reference").doesNotContainWhitespace().isNotEmpty();
+		ensureOpen();
+		synchronized (state)
+		{
+			FakeContainer conflict = state.containers.get(name);
+			if (conflict != null && conflict.name().equals(name))
+				throw new IllegalArgumentException("name is in use by container " + conflict.id());
+			FakeImage image = state.getImage(reference);
+			if (image == null)
+			{
+				image = images.pull(reference);
+				if (image == null)
+					throw new IllegalArgumentException("Image not found: " + reference);
+			}
+			FakeContainer container = containers.create(name, image, reference, false, Map.of(), Map.of());
+			if (running)
+				containers.start(container);
+			return container.id();
+		}
+	}
+
+	/**
+	 * Simulates the exit of a running container's process.
+	 *
+	 * @param id       the ID or name of the container
+	 * @param exitCode the exit code of the container's process
+	 * @throws NullPointerException     if {@code id} is null
+	 * @throws IllegalArgumentException if the container does not exist or is not running
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public void exitContainer(String id, int exitCode)
+	{
+		requireThat(id, "id").isNotNull();
+		ensureOpen();
+		synchronized (state)
+		{
+			FakeContainer container = state.containers.get(id);
+			if (container == null)
+				throw new IllegalArgumentException("Container not found: " + id);
+			if (container.status() != Container.Status.RUNNING)
+				throw new IllegalArgumentException("Container is not running: " + id);
+			containers.exit(container, exitCode);
+		}
+	}
+
+	/**
+	 * Adds a bridge network.
+	 *
+	 * @param name the name of the network
+	 * @return the ID of the network
+	 * @throws NullPointerException     if {@code name} is null
+	 * @throws IllegalArgumentException if {@code name} contains whitespace, is empty or is in use by another
+	 *                                  network
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public String addNetwork(String name)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		ensureOpen();
+		// 10.0.0.0/8 holds 65,536 /24 subnets; the node addresses use 10.0.0.0/24
+		int subnet = nextSubnet.incrementAndGet();
+		String prefix = "10." + ((subnet >> 8) & 0xFF) + "." + (subnet & 0xFF) + ".";
+		synchronized (state)
+		{
+			if (state.networks.get(name) != null)
+				throw new IllegalArgumentException("name is in use by another network: " + name);
+			FakeNetwork network = new FakeNetwork(DaemonState.newHexId(), name, "bridge", prefix + "0/24",
+				prefix + "1", Instant.now());
+			state.networks.put(network);
+			state.events.publish("network", "create", network.id(), network.getEventAttributes());
+			return network.id();
+		}
+	}
+
+	/**
+	 * Adds a config.
+	 *
+	 * @param name  the name of the config
+	 * @param value the value of the config
+	 * @return the ID of the config
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code name} contains whitespace, is empty or is in use by another
+	 *                                  config
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public String addConfig(String name, byte[] value)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		requireThat(value, "value").isNotNull();
+		ensureOpen();
+		synchronized (state)
+		{
+			if (state.configs.get(name) != null)
+				throw new IllegalArgumentException("name is in use by another config: " + name);
+			FakeConfig config = new FakeConfig(DaemonState.newSwarmId(), name,
+				Base64.getEncoder().encodeToString(value), Map.of(), state.nextVersion(), Instant.now());
+			state.configs.put(config);
+			state.events.publish("config", "create", config.id(), Map.of("name", name));
+			return config.id();
+		}
+	}
+
+	/**
+	 * Adds a replicated service, and assigns its tasks to the nodes whose availability is {@code ACTIVE} and
+	 * whose status is {@code READY}.
+	 *
+	 * @param name      the name of the service
+	 * @param reference the image reference that the service's tasks run
+	 * @param replicas  the number of tasks that the service runs
+	 * @return the ID of the service
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code name} or {@code reference} contain whitespace or are empty,
+	 *                                  if {@code replicas} is negative, or if the name is in use by another
+	 *                                  service
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public String addService(String name, String reference, int replicas)
+	{
+		requireThat(name, "name").doesNotContainWhitespace().isNotEmpty();
+		requireThat(reference, "reference").doesNotContainWhitespace().isNotEmpty();
+		requireThat(replicas, "replicas").isNotNegative();
+		ensureOpen();
+		synchronized (state)
+		{
+			if (state.services.get(name) != null)
+				throw new IllegalArgumentException("name is in use by another service: " + name);
+			return services.create(name, reference, replicas, Map.of()).id();
+		}
+	}
+
+	/**
+	 * Adds a node to the swarm. The node's availability is {@code ACTIVE} and its status is {@code READY}.
+	 *
+	 * @param hostname the hostname of the node
+	 * @param role     the role of the node
+	 * @return the ID of the node
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code hostname} contains whitespace, is empty or is in use by
+	 *                                  another node
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public String addNode(String hostname, Role role)
+	{
+		requireThat(hostname, "hostname").doesNotContainWhitespace().isNotEmpty();
+		requireThat(role, "role").isNotNull();
+		ensureOpen();
+		synchronized (state)
+		{
+			if (state.nodes.get(hostname) != null)
+				throw new IllegalArgumentException("hostname is in use by another node: " + hostname);
+			int index = state.nodes.size() + 1;
+			String address = "10.0." + ((index >> 8) & 0xFF) + "." + (index & 0xFF);
+			FakeNode node = new FakeNode(DaemonState.newSwarmId(), hostname, role, false, Availability.ACTIVE,
+				Status.READY, address, state.nextVersion(), Instant.now());
+			state.nodes.put(node);
+			state.events.publish("node", "create", node.id(), node.getEventAttributes());
+			return node.id();
+		}
+	}
+
+	/**
+	 * Simulates a change in the status of a node, such as a node that becomes unreachable. The tasks of a node
+	 * that goes {@code DOWN} are assigned to the remaining nodes.
+	 *
+	 * @param id     the ID or hostname of the node
+	 * @param status the new status
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if the node does not exist
+	 * @throws IllegalStateException    if the daemon is closed
+	 */
+	public void setNodeStatus(String id, Status status)
+	{
+		requireThat(id, "id").isNotNull();
+		requireThat(status, "status").isNotNull();
+		ensureOpen();
+		synchronized (state)
+		{
+			FakeNode node = state.nodes.get(id);
+			if (node == null)
+				throw new IllegalArgumentException("Node not found: " + id);
+			node = node.withStatus(status, state.nextVersion());
+			state.nodes.put(node);
+			if (status == Status.DOWN)
+				services.evacuate(node.id());
+			state.events.publish("node", "update", node.id(), node.getEventAttributes());
+		}
+	}
+
+	/**
+	 * Returns the number of {@code docker system events} streams that clients are consuming.
+	 *
+	 * @return the number of streams
+	 */
+	public int getEventStreamCount()
+	{
+		return state.events.getStreamCount();
+	}
+
+	/**
+	 * Indicates if a command is modeled by the daemon.
+	 *
+	 * @param arguments the command-line arguments that would have been passed to the executable
+	 * @return {@code true} if the daemon can run the command
+	 */
+	private static boolean supports(List<String> arguments)
+	{
+		if (arguments.size() < 2)
+			return false;
+		return switch (arguments.getFirst())
+		{
+			case "container" -> ContainerCommands.supports(arguments);
+			case "image" -> ImageCommands.supports(arguments);
+			case "network" -> NetworkCommands.supports(arguments);
+			case "config" -> ConfigCommands.supports(arguments);
+			case "service" -> ServiceCommands.supports(arguments);
+			case "node" -> NodeCommands.supports(arguments);
+			case "system" -> arguments.equals(GET_CURRENT_NODE_ID);
+			case "inspect" -> arguments.size() > 3 && arguments.get(1).equals("--type") &&
+				arguments.get(2).equals("task");
+			default -> false;
+		};
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param arguments the command-line arguments that would have been passed to the executable
+	 * @param deadline  the time by which the command must complete, or {@code null} if it is unbounded
+	 * @return the output of the command
+	 * @throws IllegalArgumentException if the daemon does not support the command
+	 * @throws IllegalStateException    if the daemon is closed
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes
+	 * @throws TimeoutException         if the latency of the daemon exceeds the time left until the deadline
+	 */
+	private CommandResult run(List<String> arguments, Instant deadline)
+		throws InterruptedException, TimeoutException
+	{
+		if (!supports(arguments))
+			throw new IllegalArgumentException("Unsupported command: " + arguments);
+		ensureOpen();
+		Duration latency = this.latency;
+		if (deadline != null)
+		{
+			Duration timeLeft = Duration.between(Instant.now(), deadline);
+			if (latency.compareTo(timeLeft) > 0)
+			{
+				if (timeLeft.isPositive())
+					Thread.sleep(timeLeft);
+				throw new TimeoutException("The daemon did not respond before " + deadline + ": " +
+					String.join(" ", arguments));
+			}
+		}
+		if (latency.isPositive())
+			Thread.sleep(latency);
+		return switch (arguments.getFirst())
+		{
+			case "container" -> containers.run(arguments);
+			case "image" -> images.run(arguments);
+			case "network" -> networks.run(arguments);
+			case "config" -> configs.run(arguments);
+			case "service" -> services.run(arguments);
+			case "node" -> nodes.run(arguments);
+			case "system" -> nodes.getCurrentNodeId(arguments);
+			case "inspect" -> services.inspectTask(arguments);
+			default -> throw new AssertionError(arguments);
+		};
+	}
+
+	/**
+	 * Starts a command whose output is consumed while it runs.
+	 *
+	 * @param arguments the command-line arguments that would have been passed to the executable
+	 * @return the process that produces the output of the command, or {@code null} if the daemon does not
+	 * 	support the command
+	 * @throws IllegalStateException if the daemon is closed
+	 */
+	private Process start(List<String> arguments)
+	{
+		if (arguments.size() < 2 || !arguments.get(0).equals("system") || !arguments.get(1).equals("events"))
+			return null;
+		ensureOpen();
+		Options options = Options.parse(arguments.subList(2, arguments.size()),
+			Set.of("--filter", "--format", "--since"), true);
+		return state.events.subscribe(options);
+	}
+
+	/**
+	 * @throws IllegalStateException if the daemon is closed
+	 */
+	private void ensureOpen()
+	{
+		if (closed)
+			throw new IllegalStateException("The daemon is closed");
+	}
+
+	/**
+	 * Ends the event streams and releases the daemon's resources. Clients that were created by the daemon
+	 * must not be used afterward.
+	 */
+	@Override
+	public void close()
+	{
+		if (closed)
+			return;
+		closed = true;
+		state.events.close();
+		try
+		{
+			Files.deleteIfExists(executable);
+		}
+		catch (IOException _)
+		{
+			// The file is in the temporary directory, so it will eventually be cleaned up
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(FakeDockerDaemon.class).
+			add("containers", state.containers.size()).
+			add("images", state.getImages().size()).
+			add("networks", state.networks.size()).
+			add("configs", state.configs.size()).
+			add("services", state.services.size()).
+			add("nodes", state.nodes.size()).
+			add("tasks", state.tasks.size()).
+			add("latency", latency).
+			toString();
+	}
+
+	/**
+	 * Relays a client's commands to the daemon. Each client owns a separate transport, so that closing a
+	 * client does not close the daemon.
+	 * <p>
+	 * The transport accepts every command, and fails the ones that the daemon does not model, so that clients
+	 * never fall back to the executable.
+	 */
+	private final class DaemonTransport implements CommandTransport
+	{
+		@Override
+		public boolean supports(List<String> arguments)
+		{
+			return true;
+		}
+
+		@Override
+		public CommandResult run(List<String> arguments, Instant deadline)
+			throws InterruptedException, TimeoutException
+		{
+			if (!FakeDockerDaemon.supports(arguments))
+			{
+				return state.failure(arguments, "The fake Docker daemon does not support this command: " +
+					String.join(" ", arguments));
+			}
+			return FakeDockerDaemon.this.run(arguments, deadline);
+		}
+
+		@Override
+		public Process start(List<String> arguments)
+		{
+			return FakeDockerDaemon.this.start(arguments);
+		}
+
+		@Override
+		public void close()
+		{
+		}
+	}
+}
\ No newline at end of file
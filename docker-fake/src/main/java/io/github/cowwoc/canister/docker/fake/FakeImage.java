@@ -0,0 +1,152 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * The state of an image.
+ *
+ * @param id                 the ID of the image
+ * @param repositoryToTags   maps each repository that the image is tagged in to its tags
+ * @param repositoryToDigest maps each repository that the image was pulled from to the digest of its
+ *                           manifest
+ * @param created            the time that the image was created
+ */
+record FakeImage(String id, Map<String, Set<String>> repositoryToTags, Map<String, String> repositoryToDigest,
+                 Instant created)
+{
+	/**
+	 * Creates a new image.
+	 *
+	 * @param id                 the ID of the image
+	 * @param repositoryToTags   maps each repository that the image is tagged in to its tags
+	 * @param repositoryToDigest maps each repository that the image was pulled from to the digest of its
+	 *                           manifest
+	 * @param created            the time that the image was created
+	 */
+	FakeImage
+	{
+		Map<String, Set<String>> copyOfTags = HashMap.newHashMap(repositoryToTags.size());
+		for (Entry<String, Set<String>> entry : repositoryToTags.entrySet())
+		{
+			if (!entry.getValue().isEmpty())
+				copyOfTags.put(entry.getKey(), Set.copyOf(entry.getValue()));
+		}
+		repositoryToTags = Map.copyOf(copyOfTags);
+		repositoryToDigest = Map.copyOf(repositoryToDigest);
+	}
+
+	/**
+	 * @param repository a repository
+	 * @param tag        a tag
+	 * @return a copy of this image with an additional tag
+	 */
+	FakeImage withTag(String repository, String tag)
+	{
+		Map<String, Set<String>> newTags = new HashMap<>(repositoryToTags);
+		Set<String> tags = new LinkedHashSet<>(newTags.getOrDefault(repository, Set.of()));
+		tags.add(tag);
+		newTags.put(repository, tags);
+		return new FakeImage(id, newTags, repositoryToDigest, created);
+	}
+
+	/**
+	 * @param repository a repository
+	 * @param tag        a tag
+	 * @return a copy of this image without the tag
+	 */
+	FakeImage withoutTag(String repository, String tag)
+	{
+		Map<String, Set<String>> newTags = new HashMap<>(repositoryToTags);
+		Set<String> tags = new LinkedHashSet<>(newTags.getOrDefault(repository, Set.of()));
+		tags.remove(tag);
+		newTags.put(repository, tags);
+		Map<String, String> newDigests = repositoryToDigest;
+		if (tags.isEmpty() && repositoryToDigest.containsKey(repository))
+		{
+			newDigests = new HashMap<>(repositoryToDigest);
+			newDigests.remove(repository);
+		}
+		return new FakeImage(id, newTags, newDigests, created);
+	}
+
+	/**
+	 * @return the {@code repository:tag} references of the image
+	 */
+	List<String> getTaggedReferences()
+	{
+		List<String> references = new ArrayList<>();
+		for (Entry<String, Set<String>> entry : repositoryToTags.entrySet())
+		{
+			for (String tag : entry.getValue())
+				references.add(entry.getKey() + ":" + tag);
+		}
+		return references;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the rows that {@code docker image ls --format json} outputs for this image, one per tag
+	 */
+	List<ObjectNode> toRows(JsonMapper jsonMapper)
+	{
+		List<ObjectNode> rows = new ArrayList<>();
+		for (Entry<String, Set<String>> entry : repositoryToTags.entrySet())
+		{
+			String repository = entry.getKey();
+			String digest = repositoryToDigest.getOrDefault(repository, "<none>");
+			for (String tag : entry.getValue())
+				rows.add(toRow(jsonMapper, repository, tag, digest));
+		}
+		if (rows.isEmpty())
+			rows.add(toRow(jsonMapper, "<none>", "<none>", "<none>"));
+		return rows;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @param repository the repository
+	 * @param tag        the tag
+	 * @param digest     the digest of the repository's manifest
+	 * @return a row of {@code docker image ls --format json}
+	 */
+	private ObjectNode toRow(JsonMapper jsonMapper, String repository, String tag, String digest)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("Containers", "N/A");
+		row.put("CreatedAt", created.toString());
+		row.put("Digest", digest);
+		row.put("ID", id);
+		row.put("Repository", repository);
+		row.put("Tag", tag);
+		return row;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the object that {@code docker image inspect} outputs for this image
+	 */
+	ObjectNode toInspect(JsonMapper jsonMapper)
+	{
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("Id", id);
+		ArrayNode repoTags = json.putArray("RepoTags");
+		for (String reference : getTaggedReferences())
+			repoTags.add(reference);
+		ArrayNode repoDigests = json.putArray("RepoDigests");
+		for (Entry<String, String> entry : repositoryToDigest.entrySet())
+			repoDigests.add(entry.getKey() + "@" + entry.getValue());
+		json.put("Created", created.toString());
+		return json;
+	}
+}
\ No newline at end of file
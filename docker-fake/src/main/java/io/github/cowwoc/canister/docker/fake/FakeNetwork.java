@@ -0,0 +1,81 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The state of a network.
+ *
+ * @param id      the ID of the network
+ * @param name    the name of the network
+ * @param driver  the network driver (e.g. {@code bridge})
+ * @param subnet  the subnet of the network in CIDR notation, or {@code null} if the network does not have
+ *                one
+ * @param gateway the IP address of the network's gateway, or {@code null} if the network does not have one
+ * @param created the time that the network was created
+ */
+record FakeNetwork(String id, String name, String driver, String subnet, String gateway, Instant created)
+{
+	/**
+	 * @return the scope of the network
+	 */
+	String getScope()
+	{
+		if (driver.equals("overlay"))
+			return "swarm";
+		return "local";
+	}
+
+	/**
+	 * @return the attributes of the network's events
+	 */
+	Map<String, String> getEventAttributes()
+	{
+		return Map.of("name", name, "type", driver);
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the row that {@code docker network ls --format json} outputs for this network
+	 */
+	ObjectNode toRow(JsonMapper jsonMapper)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("CreatedAt", created.toString());
+		row.put("Driver", driver);
+		row.put("ID", id);
+		row.put("Labels", "");
+		row.put("Name", name);
+		row.put("Scope", getScope());
+		return row;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the object that {@code docker network inspect} outputs for this network
+	 */
+	ObjectNode toInspect(JsonMapper jsonMapper)
+	{
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("Name", name);
+		json.put("Id", id);
+		json.put("Created", created.toString());
+		json.put("Scope", getScope());
+		json.put("Driver", driver);
+		ObjectNode ipam = json.putObject("IPAM");
+		ipam.put("Driver", "default");
+		ArrayNode config = ipam.putArray("Config");
+		if (subnet != null)
+		{
+			ObjectNode entry = config.addObject();
+			entry.put("Subnet", subnet);
+			entry.put("Gateway", gateway);
+		}
+		json.putObject("Labels");
+		return json;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.docker.resource.Node.Availability;
+import io.github.cowwoc.canister.docker.resource.Node.Role;
+import io.github.cowwoc.canister.docker.resource.Node.Status;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The state of a swarm node.
+ *
+ * @param id           the ID of the node
+ * @param hostname     the hostname of the node
+ * @param role         the role of the node
+ * @param leader       {@code true} if the node is the leader of the swarm's managers
+ * @param availability the availability of the node
+ * @param status       the status of the node
+ * @param address      the IP address of the node
+ * @param version      the version of the swarm object
+ * @param created      the time that the node joined the swarm
+ */
+record FakeNode(String id, String hostname, Role role, boolean leader, Availability availability,
+                Status status, String address, long version, Instant created)
+{
+	/**
+	 * The version of the Docker engine that the nodes report.
+	 */
+	static final String ENGINE_VERSION = "28.3.2";
+
+	/**
+	 * @param role    the new role
+	 * @param version the new version of the swarm object
+	 * @return a copy of this node with a different role
+	 */
+	FakeNode withRole(Role role, long version)
+	{
+		return new FakeNode(id, hostname, role, leader && role == Role.MANAGER, availability, status, address,
+			version, created);
+	}
+
+	/**
+	 * @param availability the new availability
+	 * @param version      the new version of the swarm object
+	 * @return a copy of this node with a different availability
+	 */
+	FakeNode withAvailability(Availability availability, long version)
+	{
+		return new FakeNode(id, hostname, role, leader, availability, status, address, version, created);
+	}
+
+	/**
+	 * @param status  the new status
+	 * @param version the new version of the swarm object
+	 * @return a copy of this node with a different status
+	 */
+	FakeNode withStatus(Status status, long version)
+	{
+		return new FakeNode(id, hostname, role, leader, availability, status, address, version, created);
+	}
+
+	/**
+	 * @return the attributes of the node's events
+	 */
+	Map<String, String> getEventAttributes()
+	{
+		return Map.of("name", hostname);
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the row that {@code docker node ls --format json} outputs for this node
+	 */
+	ObjectNode toRow(JsonMapper jsonMapper)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("Availability", capitalize(availability.name()));
+		row.put("EngineVersion", ENGINE_VERSION);
+		row.put("Hostname", hostname);
+		row.put("ID", id);
+		// Workers do not have a manager status
+		if (role == Role.MANAGER)
+		{
+			if (leader)
+				row.put("ManagerStatus", "Leader");
+			else
+				row.put("ManagerStatus", "Reachable");
+		}
+		row.put("Self", false);
+		row.put("Status", capitalize(status.name()));
+		row.put("TLSStatus", "Ready");
+		return row;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the object that {@code docker node inspect} outputs for this node
+	 */
+	ObjectNode toInspect(JsonMapper jsonMapper)
+	{
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("ID", id);
+		json.putObject("Version").put("Index", version);
+		json.put("CreatedAt", created.toString());
+		ObjectNode spec = json.putObject("Spec");
+		spec.putObject("Labels");
+		spec.put("Role", role.name().toLowerCase(Locale.ROOT));
+		spec.put("Availability", availability.name().toLowerCase(Locale.ROOT));
+		ObjectNode description = json.putObject("Description");
+		description.put("Hostname", hostname);
+		description.putObject("Engine").put("EngineVersion", ENGINE_VERSION);
+		ObjectNode statusNode = json.putObject("Status");
+		statusNode.put("State", status.name().toLowerCase(Locale.ROOT));
+		statusNode.put("Addr", address);
+		if (role == Role.MANAGER)
+		{
+			ObjectNode managerStatus = json.putObject("ManagerStatus");
+			managerStatus.put("Leader", leader);
+			managerStatus.put("Reachability", "reachable");
+			managerStatus.put("Addr", address + ":2377");
+		}
+		return json;
+	}
+
+	/**
+	 * @param value an enum name
+	 * @return the name in title case (e.g. {@code Active})
+	 */
+	private static String capitalize(String value)
+	{
+		return value.charAt(0) + value.substring(1).toLowerCase(Locale.ROOT);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,69 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The state of a swarm service.
+ *
+ * @param id       the ID of the service
+ * @param name     the name of the service
+ * @param image    the image reference that the service's tasks run
+ * @param replicas the number of tasks that the service runs
+ * @param labels   the service's labels
+ * @param version  the version of the swarm object
+ * @param created  the time that the service was created
+ */
+record FakeService(String id, String name, String image, int replicas, Map<String, String> labels,
+                   long version, Instant created)
+{
+	/**
+	 * @return the attributes of the service's events
+	 */
+	Map<String, String> getEventAttributes()
+	{
+		return Map.of("name", name);
+	}
+
+	/**
+	 * @param jsonMapper      the JSON configuration
+	 * @param runningReplicas the number of tasks that are running
+	 * @return the row that {@code docker service ls --format json} outputs for this service
+	 */
+	ObjectNode toRow(JsonMapper jsonMapper, int runningReplicas)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("ID", id);
+		row.put("Image", image);
+		row.put("Mode", "replicated");
+		row.put("Name", name);
+		row.put("Ports", "");
+		row.put("Replicas", runningReplicas + "/" + replicas);
+		return row;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the object that {@code docker service inspect} outputs for this service
+	 */
+	ObjectNode toInspect(JsonMapper jsonMapper)
+	{
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("ID", id);
+		json.putObject("Version").put("Index", version);
+		json.put("CreatedAt", created.toString());
+		json.put("UpdatedAt", created.toString());
+		ObjectNode spec = json.putObject("Spec");
+		spec.put("Name", name);
+		ObjectNode labelsNode = spec.putObject("Labels");
+		for (Entry<String, String> entry : labels.entrySet())
+			labelsNode.put(entry.getKey(), entry.getValue());
+		spec.putObject("TaskTemplate").putObject("ContainerSpec").put("Image", image);
+		spec.putObject("Mode").putObject("Replicated").put("Replicas", replicas);
+		return json;
+	}
+}
\ No newline at end of file
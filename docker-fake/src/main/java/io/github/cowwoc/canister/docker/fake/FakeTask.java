@@ -0,0 +1,93 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.docker.resource.Task.State;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * The state of a swarm task.
+ *
+ * @param id           the ID of the task
+ * @param serviceId    the ID of the service that the task belongs to
+ * @param name         the name of the task (e.g. {@code web.1})
+ * @param image        the image reference that the task runs
+ * @param nodeId       the ID of the node that the task is assigned to, or an empty string if the task is not
+ *                     assigned to a node
+ * @param state        the state of the task
+ * @param desiredState the state that the orchestrator is driving the task towards
+ * @param timestamp    the time that the task entered its current state
+ */
+record FakeTask(String id, String serviceId, String name, String image, String nodeId, State state,
+                State desiredState, Instant timestamp)
+{
+	/**
+	 * @param state        the new state
+	 * @param desiredState the new desired state
+	 * @param time         the time of the transition
+	 * @return a copy of this task with a different state
+	 */
+	FakeTask withState(State state, State desiredState, Instant time)
+	{
+		return new FakeTask(id, serviceId, name, image, nodeId, state, desiredState, time);
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @param hostname   the hostname of the node that the task is assigned to, or an empty string if the task
+	 *                   is not assigned to a node
+	 * @param now        the current time
+	 * @return the row that {@code docker node ps} and {@code docker service ps} output for this task
+	 */
+	ObjectNode toRow(JsonMapper jsonMapper, String hostname, Instant now)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		long seconds = Duration.between(timestamp, now).toSeconds();
+		String unit;
+		if (seconds == 1)
+			unit = " second ago";
+		else
+			unit = " seconds ago";
+		row.put("CurrentState", toTitleCase(state) + " " + seconds + unit);
+		row.put("DesiredState", toTitleCase(desiredState));
+		row.put("Error", "");
+		row.put("ID", id);
+		row.put("Image", image);
+		row.put("Name", name);
+		row.put("Node", hostname);
+		row.put("Ports", "");
+		return row;
+	}
+
+	/**
+	 * @param jsonMapper the JSON configuration
+	 * @return the object that {@code docker inspect --type task} outputs for this task
+	 */
+	ObjectNode toInspect(JsonMapper jsonMapper)
+	{
+		ObjectNode json = jsonMapper.createObjectNode();
+		json.put("ID", id);
+		json.put("Name", name);
+		json.put("ServiceID", serviceId);
+		json.put("NodeID", nodeId);
+		ObjectNode status = json.putObject("Status");
+		status.put("Timestamp", timestamp.toString());
+		status.put("State", state.name().toLowerCase(Locale.ROOT));
+		json.put("State", state.name().toLowerCase(Locale.ROOT));
+		json.put("DesiredState", desiredState.name().toLowerCase(Locale.ROOT));
+		return json;
+	}
+
+	/**
+	 * @param state a state
+	 * @return the state in title case (e.g. {@code Running})
+	 */
+	private static String toTitleCase(State state)
+	{
+		String name = state.name();
+		return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+	}
+}
\ No newline at end of file
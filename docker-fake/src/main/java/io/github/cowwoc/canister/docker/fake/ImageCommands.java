@@ -0,0 +1,343 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.docker.resource.Container.Status;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Executes {@code docker image} commands.
+ * <p>
+ * Every {@code repository[:tag]} reference can be pulled. The digest of the image is derived from the
+ * reference, so pulling the same reference twice yields the same image. Like the containerd image store, the
+ * ID of a pulled image is the digest of its manifest.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class ImageCommands
+{
+	private final DaemonState state;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param state the resources of the daemon
+	 */
+	ImageCommands(DaemonState state)
+	{
+		assert state != null;
+		this.state = state;
+	}
+
+	/**
+	 * @param arguments the command-line arguments, starting with {@code image}
+	 * @return {@code true} if the command is supported
+	 */
+	static boolean supports(List<String> arguments)
+	{
+		return switch (arguments.get(1))
+		{
+			case "ls", "inspect", "pull", "tag", "rm" -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code image}
+	 * @return the result of the command
+	 */
+	CommandResult run(List<String> arguments)
+	{
+		List<String> parameters = arguments.subList(2, arguments.size());
+		return switch (arguments.get(1))
+		{
+			case "ls" -> list(arguments);
+			case "inspect" -> inspect(arguments, Options.parse(parameters, Set.of("--format"), true));
+			case "pull" -> pull(arguments, Options.parse(parameters, Set.of("--platform"), true));
+			case "tag" -> tag(arguments, Options.parse(parameters, Set.of(), true));
+			case "rm" -> remove(arguments, Options.parse(parameters, Set.of(), true));
+			default -> throw new IllegalArgumentException("Unsupported command: " + arguments);
+		};
+	}
+
+	/**
+	 * @param reference a reference to an image
+	 * @return the error that the daemon returns if the image does not exist
+	 */
+	private static String notFound(String reference)
+	{
+		return "Error response from daemon: No such image: " + reference;
+	}
+
+	/**
+	 * @param id the ID of an image or container
+	 * @return the ID in the abbreviated form that error messages use
+	 */
+	private static String getShortId(String id)
+	{
+		if (id.startsWith("sha256:"))
+			id = id.substring("sha256:".length());
+		return id.substring(0, Math.min(12, id.length()));
+	}
+
+	private CommandResult list(List<String> arguments)
+	{
+		List<ObjectNode> rows = new ArrayList<>();
+		for (FakeImage image : state.getImages())
+			rows.addAll(image.toRows(state.jsonMapper));
+		return state.success(arguments, state.toJsonLines(rows));
+	}
+
+	private CommandResult inspect(List<String> arguments, Options options)
+	{
+		List<ObjectNode> matches = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		for (String reference : options.operands())
+		{
+			FakeImage image = state.getImage(reference);
+			if (image == null)
+				errors.add(notFound(reference));
+			else
+				matches.add(image.toInspect(state.jsonMapper));
+		}
+		return state.result(arguments, state.toJsonArray(matches), errors);
+	}
+
+	private CommandResult pull(List<String> arguments, Options options)
+	{
+		if (options.operands().isEmpty())
+			return state.failure(arguments, "\"docker image pull\" requires exactly 1 argument.");
+		// The reference is the last operand
+		String reference = options.operands().getLast();
+		FakeImage image;
+		boolean upToDate;
+		synchronized (state)
+		{
+			upToDate = state.getImage(reference) != null;
+			image = pull(reference);
+		}
+		if (image == null)
+		{
+			return state.failure(arguments, "Error response from daemon: pull access denied for " + reference +
+				", repository does not exist or may require 'docker login'");
+		}
+		String normalized = DaemonState.normalize(reference);
+		String repository = getRepository(normalized);
+		String version = normalized.substring(repository.length() + 1);
+		String status;
+		if (upToDate)
+			status = "Status: Image is up to date for " + normalized;
+		else
+			status = "Status: Downloaded newer image for " + normalized;
+		String stdout = version + ": Pulling from " + repository + "\n" +
+			"Digest: " + image.repositoryToDigest().get(repository) + "\n" +
+			status + "\n" +
+			normalized;
+		return state.success(arguments, stdout);
+	}
+
+	/**
+	 * Pulls an image. If the image is already present, its existing state is returned. The caller must
+	 * synchronize on the daemon state.
+	 *
+	 * @param reference a {@code repository[:tag]} or {@code repository@digest} reference
+	 * @return {@code null} if the reference cannot be pulled because it is the ID of an image
+	 */
+	FakeImage pull(String reference)
+	{
+		assert Thread.holdsLock(state);
+		if (reference.startsWith("sha256:") ||
+			(reference.length() == 64 && reference.chars().allMatch(c -> Character.digit(c, 16) != -1)))
+		{
+			// IDs are local to the daemon
+			return null;
+		}
+		String normalized = DaemonState.normalize(reference);
+		String repository = getRepository(normalized);
+		String digest;
+		String tag;
+		int atSign = normalized.indexOf('@');
+		if (atSign != -1)
+		{
+			digest = normalized.substring(atSign + 1);
+			tag = null;
+		}
+		else
+		{
+			digest = "sha256:" + sha256(normalized);
+			tag = normalized.substring(repository.length() + 1);
+		}
+
+		FakeImage image = state.getImage(digest);
+		if (image == null)
+			image = new FakeImage(digest, Map.of(), Map.of(repository, digest), Instant.now());
+		else if (!image.repositoryToDigest().containsKey(repository))
+		{
+			Map<String, String> repositoryToDigest = new HashMap<>(image.repositoryToDigest());
+			repositoryToDigest.put(repository, digest);
+			image = new FakeImage(image.id(), image.repositoryToTags(), repositoryToDigest, image.created());
+		}
+		if (tag != null)
+		{
+			// Move the tag from the image that it previously referenced
+			FakeImage previous = state.getImage(normalized);
+			if (previous != null && !previous.id().equals(image.id()))
+				state.putImage(previous.withoutTag(repository, tag));
+			image = image.withTag(repository, tag);
+		}
+		state.putImage(image);
+		state.events.publish("image", "pull", normalized, Map.of("name", repository));
+		return image;
+	}
+
+	private CommandResult tag(List<String> arguments, Options options)
+	{
+		List<String> operands = options.operands();
+		if (operands.size() != 2)
+			return state.failure(arguments, "\"docker image tag\" requires exactly 2 arguments.");
+		String source = operands.get(0);
+		String target = DaemonState.normalize(operands.get(1));
+		if (target.contains("@"))
+		{
+			return state.failure(arguments, "refusing to create a tag with a digest reference: " +
+				operands.get(1));
+		}
+		String repository = getRepository(target);
+		String tag = target.substring(repository.length() + 1);
+		synchronized (state)
+		{
+			FakeImage image = state.getImage(source);
+			if (image == null)
+				return state.failure(arguments, notFound(source));
+			FakeImage previous = state.getImage(target);
+			if (previous != null && !previous.id().equals(image.id()))
+				state.putImage(previous.withoutTag(repository, tag));
+			state.putImage(image.withTag(repository, tag));
+			state.events.publish("image", "tag", image.id(), Map.of("name", target));
+		}
+		return state.success(arguments, "");
+	}
+
+	private CommandResult remove(List<String> arguments, Options options)
+	{
+		boolean force = options.has("--force");
+		StringJoiner stdout = new StringJoiner("\n");
+		List<String> errors = new ArrayList<>();
+		synchronized (state)
+		{
+			for (String reference : options.operands())
+			{
+				FakeImage image = state.getImage(reference);
+				if (image == null)
+				{
+					errors.add(notFound(reference));
+					continue;
+				}
+				List<String> taggedReferences = image.getTaggedReferences();
+				boolean byId = reference.equals(image.id()) || ("sha256:" + reference).equals(image.id());
+				String normalized = DaemonState.normalize(reference);
+				if (!byId && !normalized.contains("@") && taggedReferences.size() > 1)
+				{
+					// Untag the image without deleting it
+					String repository = getRepository(normalized);
+					state.putImage(image.withoutTag(repository, normalized.substring(repository.length() + 1)));
+					stdout.add("Untagged: " + normalized);
+					state.events.publish("image", "untag", image.id(), Map.of("name", normalized));
+					continue;
+				}
+				String error = getRemoveConflict(image, byId && taggedReferences.size() > 1, force);
+				if (error != null)
+				{
+					errors.add(error);
+					continue;
+				}
+				for (String taggedReference : taggedReferences)
+				{
+					stdout.add("Untagged: " + taggedReference);
+					state.events.publish("image", "untag", image.id(), Map.of("name", taggedReference));
+				}
+				state.removeImage(image.id());
+				stdout.add("Deleted: " + image.id());
+				state.events.publish("image", "delete", image.id(), Map.of("name", image.id()));
+			}
+		}
+		return state.result(arguments, stdout.toString(), errors);
+	}
+
+	/**
+	 * Returns the reason that an image may not be deleted.
+	 *
+	 * @param image                the image
+	 * @param multipleRepositories {@code true} if the image was referenced by ID and has multiple tags
+	 * @param force                {@code true} if {@code --force} was specified
+	 * @return {@code null} if the image may be deleted
+	 */
+	private String getRemoveConflict(FakeImage image, boolean multipleRepositories, boolean force)
+	{
+		String shortId = getShortId(image.id());
+		for (FakeContainer container : state.containers.values())
+		{
+			if (!container.imageId().equals(image.id()))
+				continue;
+			if (container.status() == Status.RUNNING || container.status() == Status.PAUSED)
+			{
+				return "Error response from daemon: conflict: unable to delete " + shortId + " (cannot be forced) " +
+					"- image is being used by running container " + getShortId(container.id());
+			}
+			if (!force)
+			{
+				return "Error response from daemon: conflict: unable to delete " + shortId + " (must be forced) - " +
+					"image is being used by stopped container " + getShortId(container.id());
+			}
+		}
+		if (multipleRepositories && !force)
+		{
+			return "Error response from daemon: conflict: unable to delete " + shortId + " (must be forced) - " +
+				"image is referenced in multiple repositories";
+		}
+		return null;
+	}
+
+	/**
+	 * @param reference a normalized {@code repository:tag} or {@code repository@digest} reference
+	 * @return the repository of the reference
+	 */
+	private static String getRepository(String reference)
+	{
+		int atSign = reference.indexOf('@');
+		if (atSign != -1)
+			return reference.substring(0, atSign);
+		return reference.substring(0, reference.lastIndexOf(':'));
+	}
+
+	/**
+	 * @param value a value
+	 * @return the SHA-256 hash of the value, in hexadecimal
+	 */
+	private static String sha256(String value)
+	{
+		try
+		{
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(value.getBytes(UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			throw new AssertionError(e);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Executes {@code docker network} commands.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class NetworkCommands
+{
+	private final DaemonState state;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param state the resources of the daemon
+	 */
+	NetworkCommands(DaemonState state)
+	{
+		assert state != null;
+		this.state = state;
+	}
+
+	/**
+	 * @param arguments the command-line arguments, starting with {@code network}
+	 * @return {@code true} if the command is supported
+	 */
+	static boolean supports(List<String> arguments)
+	{
+		return switch (arguments.get(1))
+		{
+			case "ls", "inspect" -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code network}
+	 * @return the result of the command
+	 */
+	CommandResult run(List<String> arguments)
+	{
+		List<String> parameters = arguments.subList(2, arguments.size());
+		return switch (arguments.get(1))
+		{
+			case "ls" -> list(arguments);
+			case "inspect" -> inspect(arguments, Options.parse(parameters, Set.of("--format"), true));
+			default -> throw new IllegalArgumentException("Unsupported command: " + arguments);
+		};
+	}
+
+	private CommandResult list(List<String> arguments)
+	{
+		List<ObjectNode> rows = new ArrayList<>();
+		for (FakeNetwork network : state.networks.values())
+			rows.add(network.toRow(state.jsonMapper));
+		return state.success(arguments, state.toJsonLines(rows));
+	}
+
+	private CommandResult inspect(List<String> arguments, Options options)
+	{
+		List<ObjectNode> matches = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		for (String id : options.operands())
+		{
+			FakeNetwork network = state.networks.get(id);
+			if (network == null)
+				errors.add("Error response from daemon: network " + id + " not found");
+			else
+				matches.add(network.toInspect(state.jsonMapper));
+		}
+		return state.result(arguments, state.toJsonArray(matches), errors);
+	}
+}
\ No newline at end of file
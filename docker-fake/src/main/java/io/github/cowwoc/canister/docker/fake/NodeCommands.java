@@ -0,0 +1,237 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.docker.resource.Node.Availability;
+import io.github.cowwoc.canister.docker.resource.Node.Role;
+import io.github.cowwoc.canister.docker.resource.Node.Status;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Executes {@code docker node} commands and {@code docker system info}.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class NodeCommands
+{
+	private final DaemonState state;
+	private final ServiceCommands services;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param state    the resources of the daemon
+	 * @param services executes {@code docker service} commands
+	 */
+	NodeCommands(DaemonState state, ServiceCommands services)
+	{
+		assert state != null;
+		assert services != null;
+		this.state = state;
+		this.services = services;
+	}
+
+	/**
+	 * @param arguments the command-line arguments, starting with {@code node}
+	 * @return {@code true} if the command is supported
+	 */
+	static boolean supports(List<String> arguments)
+	{
+		return switch (arguments.get(1))
+		{
+			case "ls", "inspect", "update", "rm", "ps" -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code node}
+	 * @return the result of the command
+	 */
+	CommandResult run(List<String> arguments)
+	{
+		List<String> parameters = arguments.subList(2, arguments.size());
+		return switch (arguments.get(1))
+		{
+			case "ls" -> list(arguments, Options.parse(parameters, Set.of("--filter", "--format"), true));
+			case "inspect" -> inspect(arguments, Options.parse(parameters, Set.of("--format"), true));
+			case "update" -> update(arguments, Options.parse(parameters, Set.of("--availability", "--role"),
+				true));
+			case "rm" -> remove(arguments, Options.parse(parameters, Set.of(), true));
+			case "ps" -> listTasks(arguments, Options.parse(parameters, Set.of("--filter", "--format"), true));
+			default -> throw new IllegalArgumentException("Unsupported command: " + arguments);
+		};
+	}
+
+	/**
+	 * @param id the ID or hostname of a node
+	 * @return the error that the daemon returns if the node does not exist
+	 */
+	private static String notFound(String id)
+	{
+		return "Error response from daemon: node " + id + " not found";
+	}
+
+	/**
+	 * Runs {@code docker system info --format {{json .Swarm.NodeID}}}.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code system}
+	 * @return the result of the command
+	 */
+	CommandResult getCurrentNodeId(List<String> arguments)
+	{
+		return state.success(arguments, "\"" + state.currentNodeId + "\"");
+	}
+
+	private CommandResult list(List<String> arguments, Options options)
+	{
+		Set<Role> roles = Set.of(Role.values());
+		for (String filter : options.getAll("--filter"))
+		{
+			if (!filter.startsWith("role="))
+				return state.failure(arguments, "Error response from daemon: invalid filter '" + filter + "'");
+			roles = Set.of(Role.valueOf(filter.substring("role=".length()).toUpperCase(Locale.ROOT)));
+		}
+		List<ObjectNode> rows = new ArrayList<>();
+		for (FakeNode node : state.nodes.values())
+		{
+			if (roles.contains(node.role()))
+				rows.add(node.toRow(state.jsonMapper));
+		}
+		return state.success(arguments, state.toJsonLines(rows));
+	}
+
+	private CommandResult inspect(List<String> arguments, Options options)
+	{
+		List<ObjectNode> matches = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		for (String id : options.operands())
+		{
+			FakeNode node = state.nodes.get(id);
+			if (node == null)
+				errors.add(notFound(id));
+			else
+				matches.add(node.toInspect(state.jsonMapper));
+		}
+		return state.result(arguments, state.toJsonArray(matches), errors);
+	}
+
+	private CommandResult update(List<String> arguments, Options options)
+	{
+		if (options.operands().size() != 1)
+			return state.failure(arguments, "\"docker node update\" requires exactly 1 argument.");
+		String id = options.operands().getFirst();
+		String role = options.get("--role");
+		String availability = options.get("--availability");
+		synchronized (state)
+		{
+			FakeNode node = state.nodes.get(id);
+			if (node == null)
+				return state.failure(arguments, notFound(id));
+			if (role != null)
+			{
+				Role newRole = Role.valueOf(role.toUpperCase(Locale.ROOT));
+				if (newRole == Role.WORKER && node.role() == Role.MANAGER && getManagerCount() == 1)
+				{
+					return state.failure(arguments, "Error response from daemon: rpc error: code = " +
+						"FailedPrecondition desc = attempting to demote the last manager of the swarm");
+				}
+				node = node.withRole(newRole, state.nextVersion());
+			}
+			if (availability != null)
+			{
+				node = node.withAvailability(Availability.valueOf(availability.toUpperCase(Locale.ROOT)),
+					state.nextVersion());
+			}
+			state.nodes.put(node);
+			if (node.availability() == Availability.DRAIN)
+				services.evacuate(node.id());
+			state.events.publish("node", "update", node.id(), node.getEventAttributes());
+			return state.success(arguments, node.id());
+		}
+	}
+
+	/**
+	 * @return the number of manager nodes in the swarm
+	 */
+	private int getManagerCount()
+	{
+		int count = 0;
+		for (FakeNode node : state.nodes.values())
+		{
+			if (node.role() == Role.MANAGER)
+				++count;
+		}
+		return count;
+	}
+
+	private CommandResult remove(List<String> arguments, Options options)
+	{
+		boolean force = options.has("--force");
+		StringJoiner stdout = new StringJoiner("\n");
+		List<String> errors = new ArrayList<>();
+		synchronized (state)
+		{
+			for (String id : options.operands())
+			{
+				FakeNode node = state.nodes.get(id);
+				if (node == null)
+				{
+					errors.add(notFound(id));
+					continue;
+				}
+				if (node.role() == Role.MANAGER)
+				{
+					errors.add("Error response from daemon: rpc error: code = FailedPrecondition desc = node " +
+						node.id() + " is a cluster manager and is a member of the raft cluster. It must be demoted to " +
+						"worker before removal");
+					continue;
+				}
+				if (node.status() != Status.DOWN && !force)
+				{
+					errors.add("Error response from daemon: rpc error: code = FailedPrecondition desc = node " +
+						node.id() + " is not down and can't be removed");
+					continue;
+				}
+				services.evacuate(node.id());
+				state.nodes.remove(node.id());
+				state.events.publish("node", "remove", node.id(), node.getEventAttributes());
+				stdout.add(id);
+			}
+		}
+		return state.result(arguments, stdout.toString(), errors);
+	}
+
+	private CommandResult listTasks(List<String> arguments, Options options)
+	{
+		List<String> ids = options.operands();
+		if (ids.isEmpty())
+			ids = List.of(state.currentNodeId);
+		List<ObjectNode> rows = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		Instant now = Instant.now();
+		for (String id : ids)
+		{
+			FakeNode node = state.nodes.get(id);
+			if (node == null)
+			{
+				errors.add(notFound(id));
+				continue;
+			}
+			for (FakeTask task : state.tasks.values())
+			{
+				if (task.nodeId().equals(node.id()))
+					rows.add(task.toRow(state.jsonMapper, node.hostname(), now));
+			}
+		}
+		return state.result(arguments, state.toJsonLines(rows), errors);
+	}
+}
\ No newline at end of file
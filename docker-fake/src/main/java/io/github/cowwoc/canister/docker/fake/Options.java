@@ -0,0 +1,117 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The options and operands of a command.
+ *
+ * @param nameToValues maps the name of each option to its values, in the order that they were specified.
+ *                     Options that do not take a value map to an empty string.
+ * @param operands     the arguments that are not options
+ */
+record Options(Map<String, List<String>> nameToValues, List<String> operands)
+{
+	/**
+	 * Separates the options of a command from its operands. Options may be specified as {@code --name value}
+	 * or {@code --name=value}.
+	 *
+	 * @param arguments     the arguments that follow the subcommand
+	 * @param withValues    the options that take a value
+	 * @param interspersed  {@code true} if options may follow operands, {@code false} if the first operand
+	 *                      ends the options (e.g. {@code container create}, whose trailing arguments belong to
+	 *                      the container's command)
+	 * @return the options and operands
+	 */
+	static Options parse(List<String> arguments, Set<String> withValues, boolean interspersed)
+	{
+		Map<String, List<String>> nameToValues = new HashMap<>();
+		List<String> operands = new ArrayList<>();
+		int i = 0;
+		while (i < arguments.size())
+		{
+			String argument = arguments.get(i);
+			++i;
+			if (!argument.startsWith("-") || argument.equals("-"))
+			{
+				operands.add(argument);
+				if (interspersed)
+					continue;
+				operands.addAll(arguments.subList(i, arguments.size()));
+				break;
+			}
+			String name;
+			String value;
+			int separator = argument.indexOf('=');
+			if (separator != -1)
+			{
+				name = argument.substring(0, separator);
+				value = argument.substring(separator + 1);
+			}
+			else if (withValues.contains(argument) && i < arguments.size())
+			{
+				name = argument;
+				value = arguments.get(i);
+				++i;
+			}
+			else
+			{
+				name = argument;
+				value = "";
+			}
+			nameToValues.computeIfAbsent(name, _ -> new ArrayList<>()).add(value);
+		}
+		return new Options(nameToValues, operands);
+	}
+
+	/**
+	 * @param name the name of an option
+	 * @return {@code true} if the option was specified
+	 */
+	boolean has(String name)
+	{
+		return nameToValues.containsKey(name);
+	}
+
+	/**
+	 * @param name the name of an option
+	 * @return the last value of the option, or {@code null} if the option was not specified
+	 */
+	String get(String name)
+	{
+		List<String> values = nameToValues.get(name);
+		if (values == null)
+			return null;
+		return values.getLast();
+	}
+
+	/**
+	 * @param name the name of an option
+	 * @return the values of the option, or an empty list if the option was not specified
+	 */
+	List<String> getAll(String name)
+	{
+		return nameToValues.getOrDefault(name, List.of());
+	}
+
+	/**
+	 * @param name the name of an option whose values are {@code key=value} pairs (e.g. {@code --label})
+	 * @return maps each key to its value, or an empty map if the option was not specified
+	 */
+	Map<String, String> getPairs(String name)
+	{
+		Map<String, String> pairs = new HashMap<>();
+		for (String value : getAll(name))
+		{
+			int separator = value.indexOf('=');
+			if (separator == -1)
+				pairs.put(value, "");
+			else
+				pairs.put(value.substring(0, separator), value.substring(separator + 1));
+		}
+		return pairs;
+	}
+}
\ No newline at end of file
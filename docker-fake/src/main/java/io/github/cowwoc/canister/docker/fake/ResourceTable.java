@@ -0,0 +1,96 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resources of a single type, indexed by ID and by name.
+ * <p>
+ * <b>Thread-safety</b>: Lookups are thread-safe and do not block. Callers must serialize modifications.
+ *
+ * @param <T> the type of the resources
+ */
+final class ResourceTable<T>
+{
+	private final Function<T, String> toId;
+	private final Function<T, String> toName;
+	private final Map<String, T> idToResource = new ConcurrentHashMap<>();
+	private final Map<String, String> nameToId = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a new table.
+	 *
+	 * @param toId   returns the ID of a resource
+	 * @param toName returns the name of a resource
+	 */
+	ResourceTable(Function<T, String> toId, Function<T, String> toName)
+	{
+		assert toId != null;
+		assert toName != null;
+		this.toId = toId;
+		this.toName = toName;
+	}
+
+	/**
+	 * Looks up a resource.
+	 *
+	 * @param idOrName the ID or name of the resource
+	 * @return {@code null} if no match is found
+	 */
+	T get(String idOrName)
+	{
+		T resource = idToResource.get(idOrName);
+		if (resource != null)
+			return resource;
+		String id = nameToId.get(idOrName);
+		if (id == null)
+			return null;
+		return idToResource.get(id);
+	}
+
+	/**
+	 * Adds or replaces a resource.
+	 *
+	 * @param resource the resource
+	 */
+	void put(T resource)
+	{
+		String id = toId.apply(resource);
+		T oldResource = idToResource.put(id, resource);
+		if (oldResource != null)
+			nameToId.remove(toName.apply(oldResource), id);
+		nameToId.put(toName.apply(resource), id);
+	}
+
+	/**
+	 * Removes a resource.
+	 *
+	 * @param id the ID of the resource
+	 * @return the resource that was removed, or {@code null} if no match is found
+	 */
+	T remove(String id)
+	{
+		T resource = idToResource.remove(id);
+		if (resource != null)
+			nameToId.remove(toName.apply(resource), id);
+		return resource;
+	}
+
+	/**
+	 * @return the resources
+	 */
+	Collection<T> values()
+	{
+		return idToResource.values();
+	}
+
+	/**
+	 * @return the number of resources
+	 */
+	int size()
+	{
+		return idToResource.size();
+	}
+}
\ No newline at end of file
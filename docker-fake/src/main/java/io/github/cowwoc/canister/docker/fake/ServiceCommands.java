@@ -0,0 +1,294 @@
+package io.github.cowwoc.canister.docker.fake;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.docker.resource.Node.Availability;
+import io.github.cowwoc.canister.docker.resource.Node.Status;
+import io.github.cowwoc.canister.docker.resource.Task.State;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes {@code docker service} commands and schedules the tasks of services onto nodes.
+ * <p>
+ * Tasks start running as soon as they are assigned to a node. Tasks whose node is drained or removed are
+ * shut down and replaced by tasks on the remaining nodes.
+ * <p>
+ * <b>Thread-safety</b>: This class is thread-safe.
+ */
+final class ServiceCommands
+{
+	private static final Set<String> CREATE_OPTIONS = Set.of("--entrypoint", "--env", "--label", "--mode",
+		"--mount", "--name", "--publish", "--replicas", "--restart-condition", "--restart-delay",
+		"--restart-max-attempts", "--restart-window", "--update-monitor", "--workdir");
+	private final DaemonState state;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param state the resources of the daemon
+	 */
+	ServiceCommands(DaemonState state)
+	{
+		assert state != null;
+		this.state = state;
+	}
+
+	/**
+	 * @param arguments the command-line arguments, starting with {@code service}
+	 * @return {@code true} if the command is supported
+	 */
+	static boolean supports(List<String> arguments)
+	{
+		return switch (arguments.get(1))
+		{
+			case "ls", "inspect", "create", "ps" -> true;
+			default -> false;
+		};
+	}
+
+	/**
+	 * Runs a command.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code service}
+	 * @return the result of the command
+	 */
+	CommandResult run(List<String> arguments)
+	{
+		List<String> parameters = arguments.subList(2, arguments.size());
+		return switch (arguments.get(1))
+		{
+			case "ls" -> list(arguments);
+			case "inspect" -> inspect(arguments, Options.parse(parameters, Set.of("--format"), true));
+			case "create" -> create(arguments, Options.parse(parameters, CREATE_OPTIONS, false));
+			case "ps" -> listTasks(arguments, Options.parse(parameters, Set.of("--filter", "--format"), true));
+			default -> throw new IllegalArgumentException("Unsupported command: " + arguments);
+		};
+	}
+
+	/**
+	 * @param id the ID or name of a service
+	 * @return the error that the daemon returns if the service does not exist
+	 */
+	private static String notFound(String id)
+	{
+		return "no such service: " + id;
+	}
+
+	private CommandResult list(List<String> arguments)
+	{
+		List<ObjectNode> rows = new ArrayList<>();
+		for (FakeService service : state.services.values())
+			rows.add(service.toRow(state.jsonMapper, getRunningTaskCount(service)));
+		return state.success(arguments, state.toJsonLines(rows));
+	}
+
+	/**
+	 * @param service a service
+	 * @return the number of tasks of the service that are running
+	 */
+	private int getRunningTaskCount(FakeService service)
+	{
+		int count = 0;
+		for (FakeTask task : state.tasks.values())
+		{
+			if (task.serviceId().equals(service.id()) && task.state() == State.RUNNING)
+				++count;
+		}
+		return count;
+	}
+
+	private CommandResult inspect(List<String> arguments, Options options)
+	{
+		List<ObjectNode> matches = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		for (String id : options.operands())
+		{
+			FakeService service = state.services.get(id);
+			if (service == null)
+				errors.add(notFound(id));
+			else
+				matches.add(service.toInspect(state.jsonMapper));
+		}
+		return state.result(arguments, state.toJsonArray(matches), errors);
+	}
+
+	private CommandResult create(List<String> arguments, Options options)
+	{
+		if (options.operands().isEmpty())
+			return state.failure(arguments, "\"docker service create\" requires at least 1 argument.");
+		String image = options.operands().getFirst();
+		int replicas;
+		String replicasOption = options.get("--replicas");
+		if (replicasOption == null)
+			replicas = 1;
+		else
+			replicas = Integer.parseInt(replicasOption);
+		String name = options.get("--name");
+		FakeService service;
+		synchronized (state)
+		{
+			if (name != null && state.services.get(name) != null)
+			{
+				return state.failure(arguments, "Error response from daemon: rpc error: code = AlreadyExists " +
+					"desc = name conflicts with an existing object: service " + name + " already exists");
+			}
+			service = create(name, image, replicas, options.getPairs("--label"));
+		}
+		String stdout = service.id() + "\n" +
+			"overall progress: " + replicas + " out of " + replicas + " tasks\n" +
+			"verify: Service " + service.id() + " converged";
+		return state.success(arguments, stdout);
+	}
+
+	/**
+	 * Creates a service and schedules its tasks. The caller must synchronize on the daemon state.
+	 *
+	 * @param name     the name of the service, or {@code null} to generate a name
+	 * @param image    the image reference that the service's tasks run
+	 * @param replicas the number of tasks that the service runs
+	 * @param labels   the service's labels
+	 * @return the service
+	 */
+	FakeService create(String name, String image, int replicas, Map<String, String> labels)
+	{
+		assert Thread.holdsLock(state);
+		String id = DaemonState.newSwarmId();
+		if (name == null)
+			name = "fake_" + id.substring(0, 12);
+		FakeService service = new FakeService(id, name, image, replicas, Map.copyOf(labels),
+			state.nextVersion(), Instant.now());
+		state.services.put(service);
+		state.events.publish("service", "create", id, service.getEventAttributes());
+
+		List<FakeNode> nodes = getEligibleNodes();
+		for (int slot = 1; slot <= replicas; ++slot)
+			schedule(service.id(), service.name() + "." + slot, image, nodes, slot);
+		return service;
+	}
+
+	/**
+	 * @return the nodes that new tasks may be assigned to
+	 */
+	private List<FakeNode> getEligibleNodes()
+	{
+		List<FakeNode> nodes = new ArrayList<>();
+		for (FakeNode node : state.nodes.values())
+		{
+			if (node.availability() == Availability.ACTIVE && node.status() == Status.READY)
+				nodes.add(node);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Creates a task. The caller must synchronize on the daemon state.
+	 *
+	 * @param serviceId the ID of the service that the task belongs to
+	 * @param name      the name of the task
+	 * @param image     the image reference that the task runs
+	 * @param nodes     the nodes that the task may be assigned to
+	 * @param slot      the slot of the task within its service, used to spread tasks across nodes
+	 */
+	private void schedule(String serviceId, String name, String image, List<FakeNode> nodes, int slot)
+	{
+		FakeTask task;
+		String id = DaemonState.newSwarmId();
+		Instant now = Instant.now();
+		if (nodes.isEmpty())
+			task = new FakeTask(id, serviceId, name, image, "", State.PENDING, State.RUNNING, now);
+		else
+		{
+			FakeNode node = nodes.get(slot % nodes.size());
+			task = new FakeTask(id, serviceId, name, image, node.id(), State.RUNNING, State.RUNNING, now);
+		}
+		state.tasks.put(task.id(), task);
+	}
+
+	/**
+	 * Shuts down the tasks that run on a node and replaces them with tasks on other nodes. The caller must
+	 * synchronize on the daemon state.
+	 *
+	 * @param nodeId the ID of the node
+	 */
+	void evacuate(String nodeId)
+	{
+		assert Thread.holdsLock(state);
+		List<FakeNode> nodes = getEligibleNodes();
+		nodes.removeIf(node -> node.id().equals(nodeId));
+		Instant now = Instant.now();
+		int slot = 0;
+		for (FakeTask task : List.copyOf(state.tasks.values()))
+		{
+			if (!task.nodeId().equals(nodeId) || task.desiredState() != State.RUNNING)
+				continue;
+			state.tasks.put(task.id(), task.withState(State.SHUTDOWN, State.SHUTDOWN, now));
+			schedule(task.serviceId(), task.name(), task.image(), nodes, slot);
+			++slot;
+		}
+	}
+
+	private CommandResult listTasks(List<String> arguments, Options options)
+	{
+		List<ObjectNode> rows = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		Instant now = Instant.now();
+		for (String id : options.operands())
+		{
+			FakeService service = state.services.get(id);
+			if (service == null)
+			{
+				errors.add(notFound(id));
+				continue;
+			}
+			for (FakeTask task : state.tasks.values())
+			{
+				if (task.serviceId().equals(service.id()))
+					rows.add(task.toRow(state.jsonMapper, getHostname(task), now));
+			}
+		}
+		return state.result(arguments, state.toJsonLines(rows), errors);
+	}
+
+	/**
+	 * @param task a task
+	 * @return the hostname of the node that the task is assigned to, or an empty string if the task is not
+	 * 	assigned to a node
+	 */
+	String getHostname(FakeTask task)
+	{
+		if (task.nodeId().isEmpty())
+			return "";
+		FakeNode node = state.nodes.get(task.nodeId());
+		if (node == null)
+			return "";
+		return node.hostname();
+	}
+
+	/**
+	 * Runs {@code docker inspect --type task}.
+	 *
+	 * @param arguments the command-line arguments, starting with {@code inspect}
+	 * @return the result of the command
+	 */
+	CommandResult inspectTask(List<String> arguments)
+	{
+		Options options = Options.parse(arguments.subList(1, arguments.size()), Set.of("--format", "--type"),
+			true);
+		List<ObjectNode> matches = new ArrayList<>();
+		List<String> errors = new ArrayList<>();
+		for (String id : options.operands())
+		{
+			FakeTask task = state.tasks.get(id);
+			if (task == null)
+				errors.add("Error: No such task: " + id);
+			else
+				matches.add(task.toInspect(state.jsonMapper));
+		}
+		return state.result(arguments, state.toJsonArray(matches), errors);
+	}
+}
\ No newline at end of file
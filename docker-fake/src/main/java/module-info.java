@@ -0,0 +1,14 @@
+/**
+ * An in-memory Docker daemon for load and performance testing without a real daemon.
+ */
+module io.github.cowwoc.canister.docker.fake
+{
+	requires transitive io.github.cowwoc.canister.docker.api;
+	requires io.github.cowwoc.canister.core.internal;
+	requires io.github.cowwoc.canister.docker.main;
+	requires io.github.cowwoc.requirements12.java;
+	requires com.fasterxml.jackson.databind;
+	requires org.slf4j;
+
+	exports io.github.cowwoc.canister.docker.fake;
+}
\ No newline at end of file
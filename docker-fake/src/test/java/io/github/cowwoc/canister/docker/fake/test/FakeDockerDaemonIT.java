@@ -0,0 +1,124 @@
+package io.github.cowwoc.canister.docker.fake.test;
+
+import io.github.cowwoc.canister.core.exception.ResourceInUseException;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.fake.FakeDockerDaemon;
+import io.github.cowwoc.canister.docker.id.ContainerId;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.Container.Status;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Node.Role;
+import io.github.cowwoc.canister.docker.resource.Task;
+import io.github.cowwoc.canister.docker.resource.Task.State;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class FakeDockerDaemonIT
+{
+	@Test
+	public void containerLifecycle() throws IOException, InterruptedException, TimeoutException
+	{
+		try (FakeDockerDaemon daemon = new FakeDockerDaemon();
+		     DockerClient client = daemon.newClient())
+		{
+			DockerImage image = client.pullImage("busybox").apply();
+			Container container = image.createContainer().name("lifecycle").apply();
+			requireThat(container.getStatus(), "status").isEqualTo(Status.CREATED);
+
+			container = container.start().apply();
+			requireThat(container.getStatus(), "status").isEqualTo(Status.RUNNING);
+			try
+			{
+				container.remove().apply();
+				throw new AssertionError("A running container was removed");
+			}
+			catch (ResourceInUseException _)
+			{
+				// expected
+			}
+
+			container = container.stop().apply();
+			requireThat(container.getStatus(), "status").isEqualTo(Status.EXITED);
+			container.remove().apply();
+			requireThat(client.getContainers(), "containers").isEmpty();
+		}
+	}
+
+	@Test
+	public void waitUntilStatusReceivesEvents() throws Exception
+	{
+		try (FakeDockerDaemon daemon = new FakeDockerDaemon();
+		     DockerClient client = daemon.newClient();
+		     ExecutorService executor = Executors.newSingleThreadExecutor())
+		{
+			String id = daemon.addContainer("waiter", "busybox", true);
+			Future<Container> stopped = executor.submit(() -> client.waitUntilContainerStatus(Status.EXITED,
+				ContainerId.of(id)));
+			while (daemon.getEventStreamCount() == 0)
+				Thread.sleep(10);
+			daemon.exitContainer(id, 3);
+
+			Container container = stopped.get();
+			requireThat(container.getStatus(), "status").isEqualTo(Status.EXITED);
+			requireThat(client.waitUntilContainerStops(id), "exitCode").isEqualTo(3);
+		}
+	}
+
+	@Test
+	public void listManyResources() throws IOException, InterruptedException
+	{
+		int count = 10_000;
+		try (FakeDockerDaemon daemon = new FakeDockerDaemon();
+		     DockerClient client = daemon.newClient())
+		{
+			for (int i = 0; i < count; ++i)
+				daemon.addContainer("container-" + i, "busybox", i % 2 == 0);
+			List<Container> containers = client.getContainers();
+			requireThat(containers, "containers").size().isEqualTo(count);
+			long running = containers.stream().filter(container -> container.getStatus() == Status.RUNNING).
+				count();
+			requireThat(running, "running").isEqualTo((long) count / 2);
+		}
+	}
+
+	@Test
+	public void latency() throws IOException, InterruptedException
+	{
+		Duration latency = Duration.ofMillis(100);
+		try (FakeDockerDaemon daemon = new FakeDockerDaemon().latency(latency);
+		     DockerClient client = daemon.newClient())
+		{
+			long start = System.nanoTime();
+			client.getNetwork("bridge");
+			Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+			requireThat(elapsed, "elapsed").isGreaterThanOrEqualTo(latency);
+		}
+	}
+
+	@Test
+	public void drainReschedulesTasks() throws IOException, InterruptedException
+	{
+		try (FakeDockerDaemon daemon = new FakeDockerDaemon();
+		     DockerClient client = daemon.newClient())
+		{
+			String workerId = daemon.addNode("worker", Role.WORKER);
+			String serviceId = daemon.addService("web", "nginx", 4);
+
+			client.drainNode(workerId);
+			for (Task task : client.getTasksByNode(workerId))
+				requireThat(task.getState(), "task.getState()").isEqualTo(State.SHUTDOWN);
+			long running = client.getTasksByService(serviceId).stream().
+				filter(task -> task.getState() == State.RUNNING).count();
+			requireThat(running, "running").isEqualTo(4L);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+module io.github.cowwoc.canister.docker.fake.test
+{
+	requires io.github.cowwoc.canister.docker.fake;
+	requires io.github.cowwoc.canister.core.internal.test;
+	requires io.github.cowwoc.requirements12.java;
+	requires org.slf4j;
+	requires ch.qos.logback.core;
+	requires ch.qos.logback.classic;
+	requires org.testng;
+
+	exports io.github.cowwoc.canister.docker.fake.test to org.testng;
+}
\ No newline at end of file
@@ -0,0 +1,288 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.docker.api.client.AsyncDockerClient;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.id.ConfigId;
+import io.github.cowwoc.canister.docker.id.ContainerId;
+import io.github.cowwoc.canister.docker.id.NetworkId;
+import io.github.cowwoc.canister.docker.id.NodeId;
+import io.github.cowwoc.canister.docker.id.ServiceId;
+import io.github.cowwoc.canister.docker.id.TaskId;
+import io.github.cowwoc.canister.docker.resource.Config;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Network;
+import io.github.cowwoc.canister.docker.resource.Node;
+import io.github.cowwoc.canister.docker.resource.Service;
+import io.github.cowwoc.canister.docker.resource.Task;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The default implementation of {@code AsyncDockerClient}.
+ */
+public final class DefaultAsyncDockerClient implements AsyncDockerClient
+{
+	private final DockerClient client;
+	private final Executor executor;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param client   the client to run operations on
+	 * @param executor the executor that runs the operations
+	 */
+	public DefaultAsyncDockerClient(DockerClient client, Executor executor)
+	{
+		assert client != null;
+		assert executor != null;
+		this.client = client;
+		this.executor = executor;
+	}
+
+	@Override
+	public DockerClient getClient()
+	{
+		return client;
+	}
+
+	@Override
+	public Executor getExecutor()
+	{
+		return executor;
+	}
+
+	@Override
+	public <V> CompletableFuture<V> submit(DockerOperation<V> operation)
+	{
+		requireThat(operation, "operation").isNotNull();
+		InterruptibleFuture<V> future = new InterruptibleFuture<>(executor);
+		try
+		{
+			executor.execute(() -> future.run(operation, client));
+		}
+		catch (RejectedExecutionException e)
+		{
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<List<Config>> getConfigs()
+	{
+		return submit(DockerClient::getConfigs);
+	}
+
+	@Override
+	public CompletableFuture<Config> getConfig(ConfigId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getConfig(id));
+	}
+
+	@Override
+	public CompletableFuture<List<Container>> getContainers()
+	{
+		return submit(DockerClient::getContainers);
+	}
+
+	@Override
+	public CompletableFuture<Container> getContainer(ContainerId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getContainer(id));
+	}
+
+	@Override
+	public CompletableFuture<Integer> waitUntilContainerStops(ContainerId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.waitUntilContainerStops(id));
+	}
+
+	@Override
+	public CompletableFuture<List<DockerImage>> getImages()
+	{
+		return submit(DockerClient::getImages);
+	}
+
+	@Override
+	public CompletableFuture<DockerImage> getImage(ImageId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getImage(id));
+	}
+
+	@Override
+	public CompletableFuture<DockerImage> pullImage(String reference)
+	{
+		requireThat(reference, "reference").isNotNull();
+		return submit(client -> client.pullImage(reference).apply());
+	}
+
+	@Override
+	public CompletableFuture<List<Network>> getNetworks()
+	{
+		return submit(DockerClient::getNetworks);
+	}
+
+	@Override
+	public CompletableFuture<Network> getNetwork(NetworkId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getNetwork(id));
+	}
+
+	@Override
+	public CompletableFuture<List<Node>> getNodes()
+	{
+		return submit(DockerClient::getNodes);
+	}
+
+	@Override
+	public CompletableFuture<Node> getNode(NodeId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getNode(id));
+	}
+
+	@Override
+	public CompletableFuture<List<Service>> getServices()
+	{
+		return submit(DockerClient::getServices);
+	}
+
+	@Override
+	public CompletableFuture<Service> getService(ServiceId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getService(id));
+	}
+
+	@Override
+	public CompletableFuture<List<Task>> getTasksByService(ServiceId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getTasksByService(id));
+	}
+
+	@Override
+	public CompletableFuture<Task> getTask(TaskId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return submit(client -> client.getTask(id));
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(DefaultAsyncDockerClient.class).
+			add("client", client).
+			add("executor", executor).
+			toString();
+	}
+
+	/**
+	 * A future that interrupts the thread that is computing its value when it is cancelled with
+	 * {@code mayInterruptIfRunning} set to {@code true}.
+	 *
+	 * @param <V> the type of value returned by the operation
+	 */
+	private static final class InterruptibleFuture<V> extends CompletableFuture<V>
+	{
+		private final Executor executor;
+		// The following fields are guarded by "this"
+		/**
+		 * The thread that is computing the value, or {@code null} if the computation has not started or has
+		 * ended.
+		 */
+		private Thread thread;
+		/**
+		 * {@code true} if {@link #cancel(boolean)} interrupted {@link #thread}.
+		 */
+		private boolean interrupted;
+
+		/**
+		 * @param executor the executor that runs the operation
+		 */
+		InterruptibleFuture(Executor executor)
+		{
+			assert executor != null;
+			this.executor = executor;
+		}
+
+		/**
+		 * Computes the future's value on the current thread.
+		 *
+		 * @param operation the operation that computes the value
+		 * @param client    the client to run the operation on
+		 */
+		void run(DockerOperation<V> operation, DockerClient client)
+		{
+			synchronized (this)
+			{
+				if (isDone())
+					return;
+				thread = Thread.currentThread();
+			}
+			try
+			{
+				complete(operation.apply(client));
+			}
+			catch (Exception | Error e)
+			{
+				completeExceptionally(e);
+			}
+			finally
+			{
+				boolean clearInterrupt;
+				synchronized (this)
+				{
+					thread = null;
+					clearInterrupt = interrupted;
+				}
+				// Do not leak the interrupt of a cancelled operation into the executor's next task
+				if (clearInterrupt)
+					Thread.interrupted();
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning)
+		{
+			boolean cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled && mayInterruptIfRunning)
+			{
+				synchronized (this)
+				{
+					if (thread != null)
+					{
+						interrupted = true;
+						thread.interrupt();
+					}
+				}
+			}
+			return cancelled;
+		}
+
+		@Override
+		public Executor defaultExecutor()
+		{
+			return executor;
+		}
+
+		@Override
+		public <U> CompletableFuture<U> newIncompleteFuture()
+		{
+			return new InterruptibleFuture<>(executor);
+		}
+	}
+}
@@ -1,16 +1,23 @@
 package io.github.cowwoc.canister.docker.main.client;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.github.cowwoc.canister.buildx.internal.client.AbstractBuildXClient;
+import io.github.cowwoc.canister.core.client.RetryPolicy;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
 import io.github.cowwoc.canister.core.id.ImageId;
-import io.github.cowwoc.canister.core.internal.client.CommandRunner;
+import io.github.cowwoc.canister.core.internal.client.CommandTransport;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.internal.util.Lists;
 import io.github.cowwoc.canister.core.internal.util.Paths;
+import io.github.cowwoc.canister.core.internal.util.RetryDelay;
+import io.github.cowwoc.canister.core.metrics.ClientMetrics;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.core.spi.util.ParameterValidator;
+import io.github.cowwoc.canister.docker.api.client.AsyncDockerClient;
+import io.github.cowwoc.canister.docker.api.client.CacheStatistics;
 import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.api.client.Filter;
+import io.github.cowwoc.canister.docker.api.client.FleetClient;
+import io.github.cowwoc.canister.docker.api.client.StateMirror;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
 import io.github.cowwoc.canister.docker.id.ConfigId;
 import io.github.cowwoc.canister.docker.id.ContainerId;
@@ -22,12 +29,15 @@
 import io.github.cowwoc.canister.docker.main.parser.ConfigParser;
 import io.github.cowwoc.canister.docker.main.parser.ContainerParser;
 import io.github.cowwoc.canister.docker.main.parser.ContextParser;
+import io.github.cowwoc.canister.docker.main.parser.EventParser;
 import io.github.cowwoc.canister.docker.main.parser.ImageParser;
 import io.github.cowwoc.canister.docker.main.parser.NetworkParser;
 import io.github.cowwoc.canister.docker.main.parser.NodeParser;
 import io.github.cowwoc.canister.docker.main.parser.ServiceParser;
 import io.github.cowwoc.canister.docker.main.parser.SwarmParser;
+import io.github.cowwoc.canister.docker.main.resource.DefaultConfig;
 import io.github.cowwoc.canister.docker.main.resource.DefaultConfigCreator;
+import io.github.cowwoc.canister.docker.main.resource.DefaultContainer;
 import io.github.cowwoc.canister.docker.main.resource.DefaultContainerCreator;
 import io.github.cowwoc.canister.docker.main.resource.DefaultContainerLogs;
 import io.github.cowwoc.canister.docker.main.resource.DefaultContainerRemover;
@@ -36,6 +46,7 @@
 import io.github.cowwoc.canister.docker.main.resource.DefaultContextCreator;
 import io.github.cowwoc.canister.docker.main.resource.DefaultContextRemover;
 import io.github.cowwoc.canister.docker.main.resource.DefaultDockerImageBuilder;
+import io.github.cowwoc.canister.docker.main.resource.DefaultEventSubscriber;
 import io.github.cowwoc.canister.docker.main.resource.DefaultImagePuller;
 import io.github.cowwoc.canister.docker.main.resource.DefaultImagePusher;
 import io.github.cowwoc.canister.docker.main.resource.DefaultImageRemover;
@@ -59,9 +70,12 @@
 import io.github.cowwoc.canister.docker.resource.ContextElement;
 import io.github.cowwoc.canister.docker.resource.ContextEndpoint;
 import io.github.cowwoc.canister.docker.resource.ContextRemover;
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
 import io.github.cowwoc.canister.docker.resource.DockerImage;
 import io.github.cowwoc.canister.docker.resource.DockerImageBuilder;
 import io.github.cowwoc.canister.docker.resource.DockerImageElement;
+import io.github.cowwoc.canister.docker.resource.EventSubscriber;
+import io.github.cowwoc.canister.docker.resource.EventSubscription;
 import io.github.cowwoc.canister.docker.resource.ImagePuller;
 import io.github.cowwoc.canister.docker.resource.ImagePusher;
 import io.github.cowwoc.canister.docker.resource.ImageRemover;
@@ -89,16 +103,27 @@
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.StructuredTaskScope.ShutdownOnFailure;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -132,26 +157,70 @@ private static Path getExecutableFromPath() throws IOException
 	}
 
 	/**
-	 * The exit code returned by Docker in response to SIGTERM.
+	 * The maximum number of characters to pass on a single command line. Windows limits command lines to
+	 * 32,767 characters, and other platforms allow at least as many. The remainder is left for quoting.
+	 */
+	private static final int MAX_COMMAND_LINE_LENGTH = 30_000;
+	/**
+	 * The maximum number of resources that streams inspect at a time.
+	 */
+	private static final int MAX_STREAM_BATCH_SIZE = 64;
+	/**
+	 * How long to wait for an event before looking up the resource directly, in case the event stream stopped
+	 * delivering events.
+	 */
+	private static final Duration EVENT_POLL_INTERVAL = Duration.ofSeconds(5);
+	/**
+	 * The client that this client is a view of, or {@code this} if this client is not a view.
+	 */
+	private final DefaultDockerClient parent;
+	private volatile ContextId clientContext;
+	private final ConfigParser configParser;
+	private final ContainerParser containerParser;
+	private final ImageParser imageParser;
+	private final ContextParser contextParser;
+	private final NetworkParser networkParser;
+	private final NodeParser nodeParser;
+	private final ServiceParser serviceParser;
+	private final SwarmParser swarmParser;
+	private final EventParser eventParser;
+	/**
+	 * The events of the client's context.
 	 */
-	private static final int SIGTERM = 143;
-	private ContextId clientContext;
-	@SuppressWarnings("this-escape")
-	private final ConfigParser configParser = new ConfigParser(this);
-	@SuppressWarnings("this-escape")
-	private final ContainerParser containerParser = new ContainerParser(this);
-	@SuppressWarnings("this-escape")
-	private final ImageParser imageParser = new ImageParser(this);
-	@SuppressWarnings("this-escape")
-	private final ContextParser contextParser = new ContextParser(this);
-	@SuppressWarnings("this-escape")
-	private final NetworkParser networkParser = new NetworkParser(this);
-	@SuppressWarnings("this-escape")
-	private final NodeParser nodeParser = new NodeParser(this);
-	@SuppressWarnings("this-escape")
-	private final ServiceParser serviceParser = new ServiceParser(this);
 	@SuppressWarnings("this-escape")
-	private final SwarmParser swarmParser = new SwarmParser(this);
+	private final EventBus eventBus = new EventBus(this, THREAD_FACTORY);
+	/**
+	 * The resources of the client's context, or {@code null} if caching is disabled.
+	 */
+	private volatile ResourceCache cache;
+	/**
+	 * The maximum number of resources to cache per context, or {@code 0} if caching is disabled. Guarded by
+	 * {@code contextToView}.
+	 */
+	private int maxCachedResources;
+	/**
+	 * Maps each context to the view of this client that targets it, or {@code null} if this client is a view.
+	 */
+	private final Map<ContextId, DefaultDockerClient> contextToView;
+	/**
+	 * The maximum number of commands that list methods run in parallel, or {@code 0} if this client is a view.
+	 * Read by other threads, and updated together with {@link #commandPermits}. A reader that observes one
+	 * field updated before the other only sizes its batches for the previous limit.
+	 */
+	private volatile int maxConcurrentCommands;
+	/**
+	 * Limits the number of commands that list methods run in parallel, across all threads, or {@code null} if
+	 * this client is a view. The commands are also subject to the bulkhead that limits the number of commands
+	 * that the client runs at once.
+	 */
+	private volatile Semaphore commandPermits;
+	/**
+	 * The transports that relay commands over {@code docker system dial-stdio}, keyed by the command that
+	 * starts the relay, or {@code null} if {@code dial-stdio} is disabled. {@link #dialStdio(boolean)}
+	 * replaces the map before closing the transports of the old one, so {@link #getTransport()} rechecks the
+	 * field after adding a transport.
+	 */
+	private volatile Map<List<String>, EngineApiTransport> dialStdioTransports;
 
 	/**
 	 * Returns a client.
@@ -162,9 +231,54 @@ private static Path getExecutableFromPath() throws IOException
 	 *                                  file
 	 * @throws IOException              if an I/O error occurs while reading {@code executable}'s attributes
 	 */
+	@SuppressWarnings("this-escape")
 	public DefaultDockerClient(Path executable) throws IOException
 	{
 		super(executable);
+		this.parent = this;
+		this.configParser = new ConfigParser(this);
+		this.containerParser = new ContainerParser(this);
+		this.imageParser = new ImageParser(this);
+		this.contextParser = new ContextParser(this);
+		this.networkParser = new NetworkParser(this);
+		this.nodeParser = new NodeParser(this);
+		this.serviceParser = new ServiceParser(this);
+		this.swarmParser = new SwarmParser(this);
+		this.eventParser = new EventParser(this);
+		this.contextToView = new ConcurrentHashMap<>();
+		this.maxConcurrentCommands = 8;
+		this.commandPermits = new Semaphore(maxConcurrentCommands);
+	}
+
+	/**
+	 * Creates a view of a client that targets a different context.
+	 *
+	 * @param parent  the client to share
+	 * @param context the context to target
+	 */
+	@SuppressWarnings("this-escape")
+	private DefaultDockerClient(DefaultDockerClient parent, ContextId context)
+	{
+		super(parent);
+		assert context != null;
+		assert !parent.isView();
+		this.parent = parent;
+		this.clientContext = context;
+		// The parsers only use the client to look up the JSON mapper, which views share
+		this.configParser = parent.configParser;
+		this.containerParser = parent.containerParser;
+		this.imageParser = parent.imageParser;
+		this.contextParser = parent.contextParser;
+		this.networkParser = parent.networkParser;
+		this.nodeParser = parent.nodeParser;
+		this.serviceParser = parent.serviceParser;
+		this.swarmParser = parent.swarmParser;
+		this.eventParser = parent.eventParser;
+		this.contextToView = null;
+		// Each daemon has different resources, so they cannot share a cache
+		int maxCachedResources = parent.maxCachedResources;
+		if (maxCachedResources > 0)
+			this.cache = new ResourceCache(this, maxCachedResources);
 	}
 
 	@Override
@@ -173,11 +287,273 @@ public DockerClient retryTimeout(Duration duration)
 		return (DockerClient) super.retryTimeout(duration);
 	}
 
+	@Override
+	public DockerClient retryPolicy(RetryPolicy policy)
+	{
+		return (DockerClient) super.retryPolicy(policy);
+	}
+
+	@Override
+	public DockerClient metrics(ClientMetrics metrics)
+	{
+		return (DockerClient) super.metrics(metrics);
+	}
+
+	@Override
+	public DockerClient maxRunningCommands(int maximum)
+	{
+		return (DockerClient) super.maxRunningCommands(maximum);
+	}
+
+	@Override
+	public DockerClient coalesceReads(Duration ttl)
+	{
+		return (DockerClient) super.coalesceReads(ttl);
+	}
+
+	@Override
+	public AsyncDockerClient async()
+	{
+		return new DefaultAsyncDockerClient(this, runnable -> THREAD_FACTORY.newThread(runnable).start());
+	}
+
+	@Override
+	public AsyncDockerClient async(Executor executor)
+	{
+		requireThat(executor, "executor").isNotNull();
+		return new DefaultAsyncDockerClient(this, executor);
+	}
+
+	@Override
+	public FleetClient fleet(Collection<ContextId> contexts)
+	{
+		requireThat(contexts, "contexts").isNotNull().isNotEmpty();
+		for (ContextId context : contexts)
+			requireThat(context, "context").isNotNull();
+		ensureOpen();
+		Map<ContextId, DockerClient> contextToClient = LinkedHashMap.newLinkedHashMap(contexts.size());
+		for (ContextId context : contexts)
+			contextToClient.put(context, withContext(context));
+		return new DefaultFleetClient(contextToClient);
+	}
+
+	@Override
+	public StateMirror mirror(Duration resyncInterval) throws IOException, InterruptedException
+	{
+		requireThat(resyncInterval, "resyncInterval").isGreaterThan(Duration.ZERO);
+		ensureOpen();
+		DefaultStateMirror mirror = new DefaultStateMirror(this, resyncInterval, THREAD_FACTORY);
+		try
+		{
+			mirror.start();
+		}
+		catch (IOException | InterruptedException | RuntimeException e)
+		{
+			mirror.close();
+			throw e;
+		}
+		return mirror;
+	}
+
+	@Override
+	public DockerClient cacheResources(int maximumSize)
+	{
+		requireThat(maximumSize, "maximumSize").isNotNegative();
+		ensureMutable();
+		// Prevent views from being created with the old maximum size
+		synchronized (contextToView)
+		{
+			maxCachedResources = maximumSize;
+			replaceCache(maximumSize);
+			for (DefaultDockerClient view : contextToView.values())
+				view.replaceCache(maximumSize);
+		}
+		return this;
+	}
+
+	/**
+	 * Replaces the resource cache of this client.
+	 *
+	 * @param maximumSize the maximum number of resources to cache, or {@code 0} to disable caching
+	 */
+	private void replaceCache(int maximumSize)
+	{
+		ResourceCache oldCache = cache;
+		if (maximumSize == 0)
+			cache = null;
+		else
+			cache = new ResourceCache(this, maximumSize);
+		if (oldCache != null)
+			oldCache.close();
+	}
+
+	@Override
+	public DockerClient maxConcurrentCommands(int maximum)
+	{
+		requireThat(maximum, "maximum").isPositive();
+		ensureMutable();
+		commandPermits = new Semaphore(maximum);
+		maxConcurrentCommands = maximum;
+		return this;
+	}
+
+	@Override
+	public DockerClient dialStdio(boolean enabled)
+	{
+		ensureMutable();
+		Map<List<String>, EngineApiTransport> oldTransports = dialStdioTransports;
+		if (enabled)
+		{
+			if (oldTransports == null)
+				dialStdioTransports = new ConcurrentHashMap<>();
+			return this;
+		}
+		dialStdioTransports = null;
+		if (oldTransports != null)
+			oldTransports.values().forEach(EngineApiTransport::close);
+		return this;
+	}
+
+	@Override
+	public CacheStatistics getCacheStatistics()
+	{
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return new CacheStatistics(0, 0, 0, 0, 0);
+		return cache.getStatistics();
+	}
+
+	/**
+	 * Returns the references that invalidate a cached resource when a command refers to them.
+	 *
+	 * @param id    the ID of the resource
+	 * @param names the names of the resource
+	 * @return the ID and names
+	 */
+	private static Set<String> getCacheReferences(String id, Collection<String> names)
+	{
+		Set<String> references = new HashSet<>(names);
+		references.add(id);
+		return references;
+	}
+
+	/**
+	 * @param image an image
+	 * @return the names that commands may refer to the image by, with and without each of its tags
+	 */
+	private static List<String> getImageNames(DockerImage image)
+	{
+		List<String> names = new ArrayList<>();
+		for (Entry<String, Set<String>> entry : image.referenceToTags().entrySet())
+		{
+			String name = entry.getKey();
+			names.add(name);
+			for (String tag : entry.getValue())
+				names.add(name + ":" + tag);
+		}
+		return names;
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments) throws IOException, InterruptedException
+	{
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return super.run(arguments);
+		cache.invalidateFor(arguments);
+		try
+		{
+			return super.run(arguments);
+		}
+		finally
+		{
+			cache.invalidateFor(arguments);
+		}
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, ByteBuffer stdin) throws IOException, InterruptedException
+	{
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return super.run(arguments, stdin);
+		cache.invalidateFor(arguments);
+		try
+		{
+			return super.run(arguments, stdin);
+		}
+		finally
+		{
+			cache.invalidateFor(arguments);
+		}
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, Consumer<String> stdout)
+		throws IOException, InterruptedException
+	{
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return super.run(arguments, stdout);
+		cache.invalidateFor(arguments);
+		try
+		{
+			return super.run(arguments, stdout);
+		}
+		finally
+		{
+			cache.invalidateFor(arguments);
+		}
+	}
+
+	/**
+	 * Runs a command, parsing its output as it is read instead of buffering it.
+	 *
+	 * @param <T>       the type of value that is built
+	 * @param arguments the command-line arguments to pass to the executable
+	 * @param collector parses the command's output. A new collector must be used for every attempt.
+	 * @param onFailure throws an exception if the command fails
+	 * @return the value that was built from the command's output
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private <T> T runAndCollect(List<String> arguments, LineCollector<T> collector,
+		Consumer<CommandResult> onFailure) throws IOException, InterruptedException
+	{
+		ClientMetrics metrics = getMetrics();
+		if (metrics == ClientMetrics.disabled())
+		{
+			CommandResult result = run(arguments, collector);
+			if (result.exitCode() != 0)
+				onFailure.accept(result);
+			return collector.finish();
+		}
+
+		// The collector is only invoked by the thread that reads stdout, and run() waits for that thread to exit
+		long[] parseTime = new long[1];
+		CommandResult result = run(arguments, line ->
+		{
+			long startTime = System.nanoTime();
+			collector.accept(line);
+			parseTime[0] += System.nanoTime() - startTime;
+		});
+		if (result.exitCode() != 0)
+			onFailure.accept(result);
+		long startTime = System.nanoTime();
+		T value = collector.finish();
+		parseTime[0] += System.nanoTime() - startTime;
+		metrics.onParse(getSubcommand(arguments), Duration.ofNanos(parseTime[0]));
+		return value;
+	}
+
 	@Override
 	public ProcessBuilder getProcessBuilder(List<String> arguments)
 	{
 		List<String> command = new ArrayList<>(arguments.size() + 3);
 		command.add(executable.toString());
+		ContextId clientContext = this.clientContext;
 		if (clientContext != null)
 		{
 			command.add("--context");
@@ -187,6 +563,30 @@ public ProcessBuilder getProcessBuilder(List<String> arguments)
 		return new ProcessBuilder(command);
 	}
 
+	@Override
+	public CommandTransport getTransport()
+	{
+		CommandTransport transport = super.getTransport();
+		// The transport is bound to the daemon of the default context
+		if (transport != null && clientContext == null)
+			return transport;
+		Map<List<String>, EngineApiTransport> dialStdioTransports = parent.dialStdioTransports;
+		if (dialStdioTransports == null)
+			return null;
+		// The command includes the client's context, if any
+		List<String> command = getProcessBuilder(List.of("system", "dial-stdio")).command();
+		EngineApiTransport dialStdioTransport = dialStdioTransports.computeIfAbsent(command,
+			_ -> EngineApiTransport.overDialStdio(getJsonMapper(), command));
+		if (parent.dialStdioTransports != dialStdioTransports)
+		{
+			// dialStdio() replaced the map and might have closed its transports before this one was added
+			dialStdioTransports.remove(command, dialStdioTransport);
+			dialStdioTransport.close();
+			return null;
+		}
+		return dialStdioTransport;
+	}
+
 	@Override
 	public DockerImageBuilder buildImage()
 	{
@@ -241,6 +641,18 @@ public SwarmParser getSwarmParser()
 		return swarmParser;
 	}
 
+	@Override
+	public EventParser getEventParser()
+	{
+		return eventParser;
+	}
+
+	@Override
+	public EventBus getEventBus()
+	{
+		return eventBus;
+	}
+
 	@Override
 	public DockerClient login(String username, String password)
 		throws IOException, InterruptedException
@@ -273,14 +685,76 @@ public List<Config> getConfigs() throws IOException, InterruptedException
 
 	@Override
 	public List<Config> getConfigs(Predicate<ConfigElement> predicate) throws IOException, InterruptedException
+	{
+		requireThat(predicate, "predicate").isNotNull();
+		return getConfigs(Filter.empty(), predicate);
+	}
+
+	@Override
+	public List<Config> getConfigs(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		return getConfigs(filter, _ -> true);
+	}
+
+	/**
+	 * Returns the configs that match a filter and a predicate.
+	 *
+	 * @param filter    the filter that the daemon evaluates
+	 * @param predicate the predicate that is evaluated after the daemon returns the configs
+	 * @return an empty list if no match is found
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<Config> getConfigs(Filter filter, Predicate<ConfigElement> predicate)
+		throws IOException, InterruptedException
+	{
+		List<String> ids = listConfigs(filter).stream().filter(predicate).
+			map(match -> match.id().getValue()).toList();
+
+		// https://docs.docker.com/reference/cli/docker/config/inspect/
+		return inspectInBatches(List.of("config", "inspect"), ids, getConfigParser()::configsFromServer);
+	}
+
+	/**
+	 * Lists the configs that match a filter.
+	 *
+	 * @param filter the filter that the daemon evaluates
+	 * @return the matching configs
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<ConfigElement> listConfigs(Filter filter) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/config/ls/
-		List<String> arguments = List.of("config", "ls", "--format", "json");
-		CommandResult result = retry(_ -> run(arguments));
-		List<Config> configs = new ArrayList<>();
-		for (ConfigElement match : getConfigParser().list(result).stream().filter(predicate).toList())
-			configs.add(getConfig(match.id()));
-		return configs;
+		List<String> arguments = withFilter(List.of("config", "ls", "--format", "json"), filter);
+		ConfigParser parser = getConfigParser();
+		return retry(_ -> runAndCollect(arguments, parser.listCollector(),
+			rejectInvalidFilter(parser::listFailed)));
+	}
+
+	@Override
+	public Stream<Config> streamConfigs() throws IOException, InterruptedException
+	{
+		return streamConfigs(Filter.empty());
+	}
+
+	@Override
+	public Stream<Config> streamConfigs(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		List<String> ids = listConfigs(filter).stream().map(match -> match.id().getValue()).toList();
+
+		// https://docs.docker.com/reference/cli/docker/config/inspect/
+		return streamInBatches(List.of("config", "inspect"), ids, getConfigParser()::configsFromServer);
 	}
 
 	@Override
@@ -291,11 +765,34 @@ public Config getConfig(String id) throws IOException, InterruptedException
 
 	@Override
 	public Config getConfig(ConfigId id) throws IOException, InterruptedException
+	{
+		requireThat(id, "id").isNotNull();
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return inspectConfig(id);
+		return cache.get(Config.class, id.getValue(), () -> inspectConfig(id),
+			resource -> getCacheReferences(resource.getId().getValue(), List.of(resource.getName())));
+	}
+
+	/**
+	 * Looks up a config without consulting the cache.
+	 *
+	 * @param id the ID or name of the config
+	 * @return {@code null} if no match is found
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private Config inspectConfig(ConfigId id) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/config/inspect/
 		List<String> arguments = List.of("config", "inspect", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
-		return getConfigParser().configFromServer(result);
+		List<DefaultConfig> configs = getConfigParser().configsFromServer(result);
+		if (configs.isEmpty())
+			return null;
+		return configs.getFirst();
 	}
 
 	@Override
@@ -313,14 +810,77 @@ public List<Container> getContainers() throws IOException, InterruptedException
 	@Override
 	public List<Container> getContainers(Predicate<ContainerElement> predicate)
 		throws IOException, InterruptedException
+	{
+		requireThat(predicate, "predicate").isNotNull();
+		return getContainers(Filter.empty(), predicate);
+	}
+
+	@Override
+	public List<Container> getContainers(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		return getContainers(filter, _ -> true);
+	}
+
+	/**
+	 * Returns the containers that match a filter and a predicate.
+	 *
+	 * @param filter    the filter that the daemon evaluates
+	 * @param predicate the predicate that is evaluated after the daemon returns the containers
+	 * @return an empty list if no match is found
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<Container> getContainers(Filter filter, Predicate<ContainerElement> predicate)
+		throws IOException, InterruptedException
+	{
+		List<String> ids = listContainers(filter).stream().filter(predicate).
+			map(match -> match.id().getValue()).toList();
+
+		// https://docs.docker.com/reference/cli/docker/container/inspect/
+		return inspectInBatches(List.of("container", "inspect"), ids,
+			getContainerParser()::containersFromServer);
+	}
+
+	/**
+	 * Lists the containers that match a filter.
+	 *
+	 * @param filter the filter that the daemon evaluates
+	 * @return the matching containers
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<ContainerElement> listContainers(Filter filter) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/container/ls/
-		List<String> arguments = List.of("container", "ls", "--format", "json", "--all", "--no-trunc");
-		CommandResult result = retry(_ -> run(arguments));
-		List<Container> containers = new ArrayList<>();
-		for (ContainerElement match : getContainerParser().list(result).stream().filter(predicate).toList())
-			containers.add(getContainer(match.id()));
-		return containers;
+		List<String> arguments = withFilter(List.of("container", "ls", "--format", "json", "--all",
+			"--no-trunc"), filter);
+		ContainerParser parser = getContainerParser();
+		return retry(_ -> runAndCollect(arguments, parser.listCollector(),
+			rejectInvalidFilter(parser::listFailed)));
+	}
+
+	@Override
+	public Stream<Container> streamContainers() throws IOException, InterruptedException
+	{
+		return streamContainers(Filter.empty());
+	}
+
+	@Override
+	public Stream<Container> streamContainers(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		List<String> ids = listContainers(filter).stream().map(match -> match.id().getValue()).toList();
+
+		// https://docs.docker.com/reference/cli/docker/container/inspect/
+		return streamInBatches(List.of("container", "inspect"), ids,
+			getContainerParser()::containersFromServer);
 	}
 
 	@Override
@@ -333,11 +893,32 @@ public Container getContainer(String id) throws IOException, InterruptedExceptio
 	public Container getContainer(ContainerId id) throws IOException, InterruptedException
 	{
 		requireThat(id, "id").isNotNull();
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return inspectContainer(id);
+		return cache.get(Container.class, id.getValue(), () -> inspectContainer(id),
+			resource -> getCacheReferences(resource.getId().getValue(), List.of(resource.getName())));
+	}
 
+	/**
+	 * Looks up a container without consulting the cache.
+	 *
+	 * @param id the ID or name of the container
+	 * @return {@code null} if no match is found
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	Container inspectContainer(ContainerId id) throws IOException, InterruptedException
+	{
 		// https://docs.docker.com/reference/cli/docker/container/inspect/
 		List<String> arguments = List.of("container", "inspect", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
-		return getContainerParser().configFromServer(result);
+		List<DefaultContainer> containers = getContainerParser().containersFromServer(result);
+		if (containers.isEmpty())
+			return null;
+		return containers.getFirst();
 	}
 
 	@Override
@@ -420,12 +1001,53 @@ public int waitUntilContainerStops(ContainerId id) throws IOException, Interrupt
 	{
 		requireThat(id, "id").isNotNull();
 
+		// Bypass the cache, which might not have processed the latest events yet
+		Container container = inspectContainer(id);
+		if (container == null)
+			throw new ResourceNotFoundException("Container " + id);
+		EventQueue events = new EventQueue();
+		try (EventSubscription _ = getEventBus().subscribe(List.of("type=container", "event=die"),
+			container.getId().getValue(), events))
+		{
+			// Close the race between the initial lookup and the subscription
+			container = inspectContainer(container.getId());
+			if (container == null)
+				throw new ResourceNotFoundException("Container " + id);
+			while (isRunning(container))
+			{
+				DockerEvent event = events.poll(EVENT_POLL_INTERVAL);
+				if (event != null)
+				{
+					String exitCode = event.attributes().get("exitCode");
+					if (exitCode != null)
+						return Integer.parseInt(exitCode);
+					break;
+				}
+				container = inspectContainer(container.getId());
+				if (container == null)
+					throw new ResourceNotFoundException("Container " + id);
+			}
+		}
+		// The container is not running, so this command returns immediately
 		// https://docs.docker.com/reference/cli/docker/container/wait/
 		List<String> arguments = List.of("container", "wait", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
 		return getContainerParser().waitUntilStopped(result);
 	}
 
+	/**
+	 * @param container a container
+	 * @return {@code true} if the container has not stopped yet
+	 */
+	private static boolean isRunning(Container container)
+	{
+		return switch (container.getStatus())
+		{
+			case RUNNING, PAUSED, RESTARTING -> true;
+			default -> false;
+		};
+	}
+
 	@Override
 	public void waitUntilContainerStatus(Container.Status status, String id)
 		throws IOException, InterruptedException
@@ -440,127 +1062,84 @@ public Container waitUntilContainerStatus(Container.Status status, ContainerId i
 		requireThat(status, "status").isNotNull();
 		requireThat(id, "id").isNotNull();
 
-		Container container = getContainer(id);
+		Container container = inspectContainer(id);
 		if (container == null)
 			throw new ResourceNotFoundException("Container " + id);
 		if (container.getStatus().equals(status))
 			return container;
-		switch (status)
+		List<String> pending = switch (status)
 		{
-			case CREATED -> waitUntilContainerEvent(container, status, "create");
-			case RUNNING -> waitUntilContainerEvent(container, status, "start");
-			case PAUSED -> waitUntilContainerEvent(container, status, "pause");
-			case RESTARTING -> waitUntilContainerEvents(Set.of("die", "start"), new Predicate<>()
-			{
-				private final List<String> pending = new ArrayList<>(List.of("die", "start"));
-
-				@Override
-				public boolean test(String line)
-				{
-					try
-					{
-						JsonNode json = getJsonMapper().readTree(line);
-						String id = json.get("id").textValue();
-						if (!container.getId().getValue().equals(id))
-							return false;
-						String event = json.get("status").textValue();
-						if (event.equals(pending.getFirst()))
-							pending.removeFirst();
-						return pending.isEmpty() || container.reload().getStatus().equals(status);
-					}
-					catch (IOException | InterruptedException e)
-					{
-						throw WrappedCheckedException.wrap(e);
-					}
-				}
-			});
-			case EXITED -> waitUntilContainerEvent(container, status, "die");
-			case REMOVING -> waitUntilContainerEvent(container, status, "destroy");
-			case DEAD -> waitUntilContainerEvents(container, status, Set.of("die", "oom"));
+			case CREATED -> List.of("create");
+			case RUNNING -> List.of("start|unpause|restart");
+			case PAUSED -> List.of("pause");
+			case RESTARTING -> List.of("die", "start");
+			case EXITED -> List.of("die");
+			case REMOVING -> List.of("destroy");
+			case DEAD -> List.of("die|oom");
+		};
+		EventQueue events = new EventQueue();
+		try (EventSubscription _ = getEventBus().subscribe(List.of("type=container"),
+			container.getId().getValue(), events))
+		{
+			// Close the race between the initial lookup and the subscription
+			container = inspectContainer(container.getId());
+			if (container == null)
+				throw new ResourceNotFoundException("Container " + id);
+			if (container.getStatus().equals(status))
+				return container;
+			waitForActions(events, pending, container.getId(), status);
 		}
-		return container.reload();
-	}
-
-	/**
-	 * Waits for container events.
-	 *
-	 * @param container the container to monitor
-	 * @param status    the status to wait for
-	 * @param event     the event to wait for
-	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
-	 *                              the request may resolve the issue.
-	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
-	 *                              due to shutdown signals.
-	 */
-	private void waitUntilContainerEvent(Container container, Container.Status status, String event)
-		throws IOException, InterruptedException
-	{
-		waitUntilContainerEvents(container, status, Set.of(event));
+		return inspectContainer(container.getId());
 	}
 
 	/**
-	 * Waits for container events.
+	 * Waits for a sequence of container events, or until the container reaches a status. If no event arrives
+	 * for {@link #EVENT_POLL_INTERVAL}, the container's status is looked up directly in case the event stream
+	 * stopped delivering events.
 	 *
-	 * @param container the container to monitor
-	 * @param status    the status to wait for
-	 * @param events    the events to wait for
-	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
-	 *                              the request may resolve the issue.
-	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
-	 *                              due to shutdown signals.
+	 * @param events  the container's events
+	 * @param actions the actions to wait for, in order. Each element may contain multiple alternatives
+	 *                separated by {@code |}.
+	 * @param id      the ID of the container
+	 * @param status  the status that the actions lead to
+	 * @throws ResourceNotFoundException if the container was removed
+	 * @throws IOException               if an I/O error occurs. These errors are typically transient, and
+	 *                                   retrying the request may resolve the issue.
+	 * @throws InterruptedException      if the thread is interrupted before the operation completes. This can
+	 *                                   happen due to shutdown signals.
 	 */
-	private void waitUntilContainerEvents(Container container, Container.Status status, Set<String> events)
-		throws IOException, InterruptedException
+	private void waitForActions(EventQueue events, List<String> actions, ContainerId id,
+		Container.Status status) throws IOException, InterruptedException
 	{
-		JsonMapper jsonMapper = getJsonMapper();
-		waitUntilContainerEvents(events, line ->
+		int next = 0;
+		while (next < actions.size())
 		{
-			try
+			DockerEvent event = events.poll(EVENT_POLL_INTERVAL);
+			if (event == null)
 			{
-				JsonNode json = jsonMapper.readTree(line);
-				String id = json.get("id").textValue();
-				if (!container.getId().getValue().equals(id))
-					return false;
-				String event = json.get("status").textValue();
-				return events.contains(event) || container.reload().getStatus().equals(status);
+				Container container = inspectContainer(id);
+				if (container == null)
+					throw new ResourceNotFoundException("Container " + id);
+				if (container.getStatus().equals(status))
+					return;
+				continue;
 			}
-			catch (IOException | InterruptedException e)
+			String action = event.action();
+			for (String alternative : actions.get(next).split("\\|"))
 			{
-				throw WrappedCheckedException.wrap(e);
+				if (action.equals(alternative))
+				{
+					++next;
+					break;
+				}
 			}
-		});
+		}
 	}
 
-	/**
-	 * Waits for container events.
-	 *
-	 * @param events            the events to wait for
-	 * @param terminateOnStdout a function that consumes stdout lines and returns {@code true} if the process
-	 *                          should be terminated
-	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
-	 *                              the request may resolve the issue.
-	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
-	 *                              due to shutdown signals.
-	 */
-	private void waitUntilContainerEvents(Set<String> events, Predicate<String> terminateOnStdout)
-		throws IOException, InterruptedException
+	@Override
+	public EventSubscriber events()
 	{
-		// https://docs.docker.com/reference/cli/docker/system/events/
-		List<String> arguments = new ArrayList<>(5 + events.size());
-		Collections.addAll(arguments, "system", "events", "--filter");
-		for (String event : events)
-			arguments.add("event=" + event);
-		Collections.addAll(arguments, "--format", "json");
-
-		CommandRunner commandRunner = new CommandRunner(getProcessBuilder(arguments)).
-			terminateOnStdout(terminateOnStdout).
-			failureHandler(result ->
-			{
-				if (result.exitCode() == SIGTERM)
-					return;
-				commandFailed(result);
-			});
-		retry(_ -> commandRunner.apply());
+		return new DefaultEventSubscriber(this);
 	}
 
 	@Override
@@ -587,23 +1166,19 @@ public List<Context> getContexts(Predicate<ContextElement> predicate)
 	{
 		// https://docs.docker.com/reference/cli/docker/context/ls/
 		List<String> arguments = List.of("context", "ls", "--format", "json");
+		ContextParser parser = getContextParser();
 		return retry(_ ->
 		{
-			CommandResult result = run(arguments);
 			try
 			{
-				List<Context> contexts = new ArrayList<>();
-				for (ContextElement match : getContextParser().list(result).stream().filter(predicate).toList())
-				{
-					Context context = getContext(match.id());
-					if (context == null)
-					{
-						// The context is not fully initialized, skip it.
-						continue;
-					}
-					contexts.add(context);
-				}
-				return contexts;
+				List<String> ids = runAndCollect(arguments, parser.listCollector(), parser::listFailed).stream().
+					filter(predicate).
+					map(match -> match.id().getValue()).toList();
+
+				// https://docs.docker.com/reference/cli/docker/context/inspect/
+				// Contexts that are not fully initialized are omitted
+				return inspectInBatches(List.of("context", "inspect"), ids,
+					getContextParser()::contextsFromServer);
 			}
 			catch (IllegalArgumentException e)
 			{
@@ -628,7 +1203,10 @@ public Context getContext(ContextId id) throws IOException, InterruptedException
 		// https://docs.docker.com/reference/cli/docker/context/inspect/
 		List<String> arguments = List.of("context", "inspect", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
-		return getContextParser().getContext(result);
+		List<Context> contexts = getContextParser().contextsFromServer(result);
+		if (contexts.isEmpty())
+			return null;
+		return contexts.getFirst();
 	}
 
 	@Override
@@ -669,10 +1247,33 @@ public DockerClient setClientContext(String id)
 	@Override
 	public DockerClient setClientContext(ContextId id)
 	{
+		ensureMutable();
 		this.clientContext = id;
 		return this;
 	}
 
+	@Override
+	public DockerClient withContext(String id)
+	{
+		return withContext(ContextId.of(id));
+	}
+
+	@Override
+	public DockerClient withContext(ContextId id)
+	{
+		requireThat(id, "id").isNotNull();
+		ensureOpen();
+		Map<ContextId, DefaultDockerClient> contextToView = parent.contextToView;
+		DefaultDockerClient view = contextToView.get(id);
+		if (view != null)
+			return view;
+		// Prevent cacheResources() from missing the new view
+		synchronized (contextToView)
+		{
+			return contextToView.computeIfAbsent(id, _ -> new DefaultDockerClient(parent, id));
+		}
+	}
+
 	@Override
 	public ContextId getUserContext() throws IOException, InterruptedException
 	{
@@ -709,12 +1310,41 @@ public List<ImageId> getImageIds() throws IOException, InterruptedException
 	@Override
 	public List<ImageId> getImageIds(Predicate<DockerImageElement> predicate)
 		throws IOException, InterruptedException
+	{
+		requireThat(predicate, "predicate").isNotNull();
+		return getImageIds(Filter.empty(), predicate);
+	}
+
+	@Override
+	public List<ImageId> getImageIds(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		return getImageIds(filter, _ -> true);
+	}
+
+	/**
+	 * Returns the IDs of the images that match a filter and a predicate.
+	 *
+	 * @param filter    the filter that the daemon evaluates
+	 * @param predicate the predicate that is evaluated after the daemon returns the images
+	 * @return an empty list if no match is found
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<ImageId> getImageIds(Filter filter, Predicate<DockerImageElement> predicate)
+		throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/image/ls/
-		List<String> arguments = List.of("image", "ls", "--format", "json", "--all", "--digests", "--no-trunc");
-		CommandResult result = retry(_ -> run(arguments));
+		List<String> arguments = withFilter(List.of("image", "ls", "--format", "json", "--all", "--digests",
+			"--no-trunc"), filter);
+		ImageParser parser = getImageParser();
+		List<DockerImageElement> elements = retry(_ -> runAndCollect(arguments, parser.listCollector(),
+			rejectInvalidFilter(parser::listFailed)));
 		List<ImageId> ids = new ArrayList<>();
-		for (DockerImageElement match : getImageParser().list(result).stream().filter(predicate).toList())
+		for (DockerImageElement match : elements.stream().filter(predicate).toList())
 			ids.add(match.id());
 		return ids;
 	}
@@ -729,10 +1359,54 @@ public List<DockerImage> getImages() throws IOException, InterruptedException
 	public List<DockerImage> getImages(Predicate<DockerImageElement> predicate)
 		throws IOException, InterruptedException
 	{
-		List<DockerImage> images = new ArrayList<>();
-		for (ImageId id : getImageIds())
-			images.add(getImage(id));
-		return images;
+		requireThat(predicate, "predicate").isNotNull();
+		return getImages(Filter.empty(), predicate);
+	}
+
+	@Override
+	public List<DockerImage> getImages(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		return getImages(filter, _ -> true);
+	}
+
+	@Override
+	public Stream<DockerImage> streamImages() throws IOException, InterruptedException
+	{
+		return streamImages(Filter.empty());
+	}
+
+	@Override
+	public Stream<DockerImage> streamImages(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		List<String> ids = getImageIds(filter, _ -> true).stream().map(ImageId::getValue).toList();
+
+		// https://docs.docker.com/reference/cli/docker/image/inspect/
+		return streamInBatches(List.of("image", "inspect", "--format", "json"), ids,
+			getImageParser()::imagesFromServer);
+	}
+
+	/**
+	 * Returns the images that match a filter and a predicate.
+	 *
+	 * @param filter    the filter that the daemon evaluates
+	 * @param predicate the predicate that is evaluated after the daemon returns the images
+	 * @return an empty list if no match is found
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<DockerImage> getImages(Filter filter, Predicate<DockerImageElement> predicate)
+		throws IOException, InterruptedException
+	{
+		List<String> ids = getImageIds(filter, predicate).stream().map(ImageId::getValue).toList();
+
+		// https://docs.docker.com/reference/cli/docker/image/inspect/
+		return inspectInBatches(List.of("image", "inspect", "--format", "json"), ids,
+			getImageParser()::imagesFromServer);
 	}
 
 	@Override
@@ -745,11 +1419,32 @@ public DockerImage getImage(String id) throws IOException, InterruptedException
 	public DockerImage getImage(ImageId id) throws IOException, InterruptedException
 	{
 		requireThat(id, "id").isNotNull();
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return inspectImage(id);
+		return cache.get(DockerImage.class, id.getValue(), () -> inspectImage(id),
+			resource -> getCacheReferences(resource.getId().getValue(), getImageNames(resource)));
+	}
 
+	/**
+	 * Looks up a image without consulting the cache.
+	 *
+	 * @param id the ID or name of the image
+	 * @return {@code null} if no match is found
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	DockerImage inspectImage(ImageId id) throws IOException, InterruptedException
+	{
 		// https://docs.docker.com/reference/cli/docker/image/inspect/
 		List<String> arguments = List.of("image", "inspect", "--format", "json", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
-		return getImageParser().imageFromServer(result);
+		List<DockerImage> images = getImageParser().imagesFromServer(result);
+		if (images.isEmpty())
+			return null;
+		return images.getFirst();
 	}
 
 	@Override
@@ -785,149 +1480,266 @@ public ImagePusher pushImage(String reference)
 	@Override
 	public ImageRemover removeImageTag(String reference)
 	{
-		return new DefaultImageRemover(this, ImageId.of(reference));
+		return new DefaultImageRemover(this, ImageId.of(reference));
+	}
+
+	@Override
+	public ImageRemover removeImage(String id)
+	{
+		return removeImage(ImageId.of(id));
+	}
+
+	@Override
+	public ImageRemover removeImage(ImageId id)
+	{
+		return new DefaultImageRemover(this, id);
+	}
+
+	@Override
+	public SwarmCreator createSwarm()
+	{
+		return new DefaultSwarmCreator(this);
+	}
+
+	@Override
+	public SwarmJoiner joinSwarm()
+	{
+		return new DefaultSwarmJoiner(this);
+	}
+
+	@Override
+	public SwarmLeaver leaveSwarm()
+	{
+		return new DefaultSwarmLeaver(this);
+	}
+
+	@Override
+	public JoinToken getManagerJoinToken() throws IOException, InterruptedException
+	{
+		// https://docs.docker.com/reference/cli/docker/swarm/join-token/
+		List<String> arguments = List.of("swarm", "join-token", "manager");
+		CommandResult result = retry(_ -> run(arguments));
+		return getSwarmParser().getJoinToken(result, Role.MANAGER);
+	}
+
+	@Override
+	public JoinToken getWorkerJoinToken() throws IOException, InterruptedException
+	{
+		// https://docs.docker.com/reference/cli/docker/swarm/join-token/
+		List<String> arguments = List.of("swarm", "join-token", "worker");
+		CommandResult result = retry(_ -> run(arguments));
+		return getSwarmParser().getJoinToken(result, Role.WORKER);
+	}
+
+	@Override
+	public List<Network> getNetworks() throws IOException, InterruptedException
+	{
+		return getNetworks(_ -> true);
+	}
+
+	@Override
+	public List<Network> getNetworks(Predicate<NetworkElement> predicate)
+		throws IOException, InterruptedException
+	{
+		requireThat(predicate, "predicate").isNotNull();
+		return getNetworks(Filter.empty(), predicate);
+	}
+
+	@Override
+	public List<Network> getNetworks(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		return getNetworks(filter, _ -> true);
+	}
+
+	/**
+	 * Returns the networks that match a filter and a predicate.
+	 *
+	 * @param filter    the filter that the daemon evaluates
+	 * @param predicate the predicate that is evaluated after the daemon returns the networks
+	 * @return an empty list if no match is found
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<Network> getNetworks(Filter filter, Predicate<NetworkElement> predicate)
+		throws IOException, InterruptedException
+	{
+		List<String> ids = listNetworks(filter).stream().filter(predicate).
+			map(match -> match.id().getValue()).toList();
+
+		// https://docs.docker.com/reference/cli/docker/network/inspect/
+		return inspectInBatches(List.of("network", "inspect"), ids, getNetworkParser()::networksFromServer);
+	}
+
+	/**
+	 * Lists the networks that match a filter.
+	 *
+	 * @param filter the filter that the daemon evaluates
+	 * @return the matching networks
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<NetworkElement> listNetworks(Filter filter) throws IOException, InterruptedException
+	{
+		// https://docs.docker.com/reference/cli/docker/network/ls/
+		List<String> arguments = withFilter(List.of("network", "ls", "--format", "json", "--no-trunc"), filter);
+		NetworkParser parser = getNetworkParser();
+		return retry(_ -> runAndCollect(arguments, parser.listCollector(),
+			rejectInvalidFilter(parser::listFailed)));
 	}
 
 	@Override
-	public ImageRemover removeImage(String id)
+	public Stream<Network> streamNetworks() throws IOException, InterruptedException
 	{
-		return removeImage(ImageId.of(id));
+		return streamNetworks(Filter.empty());
 	}
 
 	@Override
-	public ImageRemover removeImage(ImageId id)
+	public Stream<Network> streamNetworks(Filter filter) throws IOException, InterruptedException
 	{
-		return new DefaultImageRemover(this, id);
-	}
+		requireThat(filter, "filter").isNotNull();
+		List<String> ids = listNetworks(filter).stream().map(match -> match.id().getValue()).toList();
 
-	@Override
-	public SwarmCreator createSwarm()
-	{
-		return new DefaultSwarmCreator(this);
+		// https://docs.docker.com/reference/cli/docker/network/inspect/
+		return streamInBatches(List.of("network", "inspect"), ids, getNetworkParser()::networksFromServer);
 	}
 
 	@Override
-	public SwarmJoiner joinSwarm()
+	public Network getNetwork(String id) throws IOException, InterruptedException
 	{
-		return new DefaultSwarmJoiner(this);
+		return getNetwork(NetworkId.of(id));
 	}
 
 	@Override
-	public SwarmLeaver leaveSwarm()
+	public Network getNetwork(NetworkId id) throws IOException, InterruptedException
 	{
-		return new DefaultSwarmLeaver(this);
+		requireThat(id, "id").isNotNull();
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return inspectNetwork(id);
+		return cache.get(Network.class, id.getValue(), () -> inspectNetwork(id),
+			resource -> getCacheReferences(resource.getId().getValue(), List.of(resource.getName())));
 	}
 
-	@Override
-	public JoinToken getManagerJoinToken() throws IOException, InterruptedException
+	/**
+	 * Looks up a network without consulting the cache.
+	 *
+	 * @param id the ID or name of the network
+	 * @return {@code null} if no match is found
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	Network inspectNetwork(NetworkId id) throws IOException, InterruptedException
 	{
-		// https://docs.docker.com/reference/cli/docker/swarm/join-token/
-		List<String> arguments = List.of("swarm", "join-token", "manager");
+		// https://docs.docker.com/reference/cli/docker/network/inspect/
+		List<String> arguments = List.of("network", "inspect", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
-		return getSwarmParser().getJoinToken(result, Role.MANAGER);
+		List<Network> networks = getNetworkParser().networksFromServer(result);
+		if (networks.isEmpty())
+			return null;
+		return networks.getFirst();
 	}
 
 	@Override
-	public JoinToken getWorkerJoinToken() throws IOException, InterruptedException
+	public List<Node> getNodes() throws IOException, InterruptedException
 	{
-		// https://docs.docker.com/reference/cli/docker/swarm/join-token/
-		List<String> arguments = List.of("swarm", "join-token", "worker");
-		CommandResult result = retry(_ -> run(arguments));
-		return getSwarmParser().getJoinToken(result, Role.WORKER);
+		return getNodes(_ -> true);
 	}
 
 	@Override
-	public List<Network> getNetworks() throws IOException, InterruptedException
+	public List<Node> getNodes(Predicate<NodeElement> predicate) throws IOException, InterruptedException
 	{
-		return getNetworks(_ -> true);
+		requireThat(predicate, "predicate").isNotNull();
+		return getNodes(Filter.empty(), predicate);
 	}
 
 	@Override
-	public List<Network> getNetworks(Predicate<NetworkElement> predicate)
-		throws IOException, InterruptedException
+	public List<Node> getNodes(Filter filter) throws IOException, InterruptedException
 	{
-		// https://docs.docker.com/reference/cli/docker/network/ls/
-		List<String> arguments = List.of("network", "ls", "--format", "json", "--no-trunc");
-		CommandResult result = retry(_ -> run(arguments));
-		List<Network> networks = new ArrayList<>();
-		for (NetworkElement match : getNetworkParser().list(result).stream().filter(predicate).toList())
-			networks.add(getNetwork(match.id()));
-		return networks;
+		requireThat(filter, "filter").isNotNull();
+		return getNodes(filter, _ -> true);
 	}
 
 	@Override
-	public Network getNetwork(String id) throws IOException, InterruptedException
+	public Stream<Node> streamNodes() throws IOException, InterruptedException
 	{
-		return getNetwork(NetworkId.of(id));
+		return streamNodes(Filter.empty());
 	}
 
 	@Override
-	public Network getNetwork(NetworkId id) throws IOException, InterruptedException
+	public Stream<Node> streamNodes(Filter filter) throws IOException, InterruptedException
 	{
-		requireThat(id, "id").isNotNull();
+		requireThat(filter, "filter").isNotNull();
+		List<String> ids = listNodes(filter).stream().map(match -> match.id().getValue()).toList();
 
-		// https://docs.docker.com/reference/cli/docker/network/inspect/
-		List<String> arguments = List.of("network", "inspect", id.getValue());
-		CommandResult result = retry(_ -> run(arguments));
-		return getNetworkParser().networkFromServer(result);
+		// https://docs.docker.com/reference/cli/docker/node/inspect/
+		return streamInBatches(List.of("node", "inspect"), ids, getNodeParser()::nodesFromServer);
 	}
 
-	@Override
-	public List<Node> getNodes() throws IOException, InterruptedException
+	/**
+	 * Returns the nodes that match a filter and a predicate.
+	 *
+	 * @param filter    the filter that the daemon evaluates
+	 * @param predicate the predicate that is evaluated after the daemon returns the nodes
+	 * @return an empty list if no match is found
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<Node> getNodes(Filter filter, Predicate<NodeElement> predicate)
+		throws IOException, InterruptedException
 	{
-		return getNodes(_ -> true);
-	}
+		List<String> ids = listNodes(filter).stream().filter(predicate).
+			map(match -> match.id().getValue()).toList();
 
-	@Override
-	public List<Node> getNodes(Predicate<NodeElement> predicate) throws IOException, InterruptedException
-	{
-		List<Node> nodes = new ArrayList<>();
-		for (NodeElement match : getNodes(List.of()).stream().filter(predicate).toList())
-			nodes.add(getNode(match.id()));
-		return nodes;
+		// https://docs.docker.com/reference/cli/docker/node/inspect/
+		return inspectInBatches(List.of("node", "inspect"), ids, getNodeParser()::nodesFromServer);
 	}
 
 	/**
-	 * Returns nodes that match the specified filters.
+	 * Lists the nodes that match a filter.
 	 *
-	 * @param filters the filters to apply to the list
+	 * @param filter the filter that the daemon evaluates
 	 * @return the matching nodes
-	 * @throws NullPointerException     if {@code filters} is null
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
 	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
 	 *                                  retrying the request may resolve the issue.
 	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
 	 *                                  happen due to shutdown signals.
 	 */
-	private List<NodeElement> getNodes(List<String> filters) throws IOException, InterruptedException
+	private List<NodeElement> listNodes(Filter filter) throws IOException, InterruptedException
 	{
-		assert filters != null;
+		assert filter != null;
 
 		// https://docs.docker.com/reference/cli/docker/node/ls/
-		List<String> arguments = new ArrayList<>(4 + filters.size() * 2);
-		arguments.add("node");
-		arguments.add("ls");
-		arguments.add("--format");
-		arguments.add("json");
-		for (String filter : filters)
-		{
-			arguments.add("--filter");
-			arguments.add(filter);
-		}
-		CommandResult result = retry(_ -> run(arguments));
-		return getNodeParser().listNodes(result);
+		List<String> arguments = withFilter(List.of("node", "ls", "--format", "json"), filter);
+		NodeParser parser = getNodeParser();
+		return retry(_ -> runAndCollect(arguments, parser.listNodesCollector(),
+			rejectInvalidFilter(parser::listNodesFailed)));
 	}
 
 	@Override
 	public List<NodeElement> listManagerNodes() throws IOException, InterruptedException
 	{
-		return getNodes(List.of("role=manager"));
+		return listNodes(Filter.empty().role(Role.MANAGER));
 	}
 
 	@Override
 	public List<NodeElement> listWorkerNodes() throws IOException, InterruptedException
 	{
-		return getNodes(List.of("role=worker"));
+		return listNodes(Filter.empty().role(Role.WORKER));
 	}
 
 	@Override
@@ -959,11 +1771,53 @@ public Node getNode(String id) throws IOException, InterruptedException
 	public Node getNode(NodeId id) throws IOException, InterruptedException
 	{
 		requireThat(id, "id").isNotNull();
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return inspectNode(id);
+		return cache.get(Node.class, id.getValue(), () -> inspectNode(id),
+			resource -> getCacheReferences(resource.getId().getValue(), List.of(resource.getHostname())));
+	}
+
+	/**
+	 * Looks up a node without consulting the cache.
+	 *
+	 * @param id the ID or name of the node
+	 * @return the node
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	Node inspectNode(NodeId id) throws IOException, InterruptedException
+	{
+		Node node = findNode(id);
+		if (node == null)
+		{
+			// getNode() does not return null for missing nodes
+			throw new AssertionError("Node not found: " + id);
+		}
+		return node;
+	}
 
+	/**
+	 * Looks up a node without consulting the cache.
+	 *
+	 * @param id the ID or name of the node
+	 * @return {@code null} if no match is found
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	Node findNode(NodeId id) throws IOException, InterruptedException
+	{
 		// https://docs.docker.com/reference/cli/docker/node/inspect/
 		List<String> arguments = List.of("node", "inspect", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
-		return getNodeParser().getNode(result);
+		List<Node> nodes = getNodeParser().nodesFromServer(result);
+		if (nodes.isEmpty())
+			return null;
+		return nodes.getFirst();
 	}
 
 	@Override
@@ -976,8 +1830,8 @@ public List<Task> getTasksByNode() throws IOException, InterruptedException
 		arguments.add("--format");
 		arguments.add("json");
 		arguments.add("--no-trunc");
-		CommandResult result = retry(_ -> run(arguments));
-		return getNodeParser().listTasksByNode(result);
+		NodeParser parser = getNodeParser();
+		return retry(_ -> runAndCollect(arguments, parser.listTasksCollector(), parser::listTasksFailed));
 	}
 
 	@Override
@@ -999,8 +1853,8 @@ public List<Task> getTasksByNode(NodeId id) throws IOException, InterruptedExcep
 		arguments.add("json");
 		arguments.add("--no-trunc");
 		arguments.add(id.getValue());
-		CommandResult result = retry(_ -> run(arguments));
-		return getNodeParser().listTasksByNode(result);
+		NodeParser parser = getNodeParser();
+		return retry(_ -> runAndCollect(arguments, parser.listTasksCollector(), parser::listTasksFailed));
 	}
 
 	@Override
@@ -1028,14 +1882,15 @@ public NodeId setNodeRole(NodeId id, Role role, Instant deadline)
 		// https://docs.docker.com/reference/cli/docker/node/update/
 		List<String> arguments = List.of("node", "update", "--role=" + role.name().toLowerCase(Locale.ROOT),
 			id.getValue());
-		CommandResult result = retry(_ -> run(arguments));
+		CommandResult result = retry(_ -> run(arguments), deadline);
 		NodeId newId = getNodeParser().setRole(result);
 		retry(deadline2 ->
 		{
+			RetryDelay delay = newRetryDelay();
 			Node node = getNode(newId);
 			while (node.getRole() != role)
 			{
-				if (!sleepBeforeRetry(deadline2))
+				if (!sleepBeforeRetry(delay, deadline2))
 					throw new TimeoutException();
 				node = getNode(newId);
 			}
@@ -1082,14 +1937,78 @@ public List<Service> getServices() throws IOException, InterruptedException
 	@Override
 	public List<Service> getServices(Predicate<ServiceElement> predicate)
 		throws IOException, InterruptedException
+	{
+		requireThat(predicate, "predicate").isNotNull();
+		return getServices(Filter.empty(), predicate);
+	}
+
+	@Override
+	public List<Service> getServices(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		return getServices(filter, _ -> true);
+	}
+
+	/**
+	 * Returns the services that match a filter and a predicate.
+	 *
+	 * @param filter    the filter that the daemon evaluates
+	 * @param predicate the predicate that is evaluated after the daemon returns the services
+	 * @return an empty list if no match is found
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<Service> getServices(Filter filter, Predicate<ServiceElement> predicate)
+		throws IOException, InterruptedException
+	{
+		List<String> ids = listServices(filter).stream().filter(predicate).
+			map(match -> match.id().getValue()).toList();
+
+		// https://docs.docker.com/reference/cli/docker/service/inspect/
+		return inspectInBatches(List.of("service", "inspect", "--format", "json"), ids,
+			getServiceParser()::servicesFromServer);
+	}
+
+	/**
+	 * Lists the services that match a filter.
+	 *
+	 * @param filter the filter that the daemon evaluates
+	 * @return the matching services
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws IllegalArgumentException if the daemon does not support one of the filter's keys
+	 * @throws IOException              if an I/O error occurs. These errors are typically transient, and
+	 *                                  retrying the request may resolve the issue.
+	 * @throws InterruptedException     if the thread is interrupted before the operation completes. This can
+	 *                                  happen due to shutdown signals.
+	 */
+	private List<ServiceElement> listServices(Filter filter) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/service/ls/
-		List<String> arguments = List.of("service", "ls", "--format", "json", "--no-trunc");
-		CommandResult result = retry(_ -> run(arguments));
-		List<Service> services = new ArrayList<>();
-		for (ServiceElement match : getServiceParser().listServices(result).stream().filter(predicate).toList())
-			services.add(getService(match.id()));
-		return services;
+		List<String> arguments = withFilter(List.of("service", "ls", "--format", "json", "--no-trunc"), filter);
+		ServiceParser parser = getServiceParser();
+		return retry(_ -> runAndCollect(arguments, parser.listServicesCollector(),
+			rejectInvalidFilter(parser::listServicesFailed)));
+	}
+
+	@Override
+	public Stream<Service> streamServices() throws IOException, InterruptedException
+	{
+		return streamServices(Filter.empty());
+	}
+
+	@Override
+	public Stream<Service> streamServices(Filter filter) throws IOException, InterruptedException
+	{
+		requireThat(filter, "filter").isNotNull();
+		List<String> ids = listServices(filter).stream().map(match -> match.id().getValue()).toList();
+
+		// https://docs.docker.com/reference/cli/docker/service/inspect/
+		return streamInBatches(List.of("service", "inspect", "--format", "json"), ids,
+			getServiceParser()::servicesFromServer);
 	}
 
 	@Override
@@ -1100,11 +2019,34 @@ public Service getService(String id) throws IOException, InterruptedException
 
 	@Override
 	public Service getService(ServiceId id) throws IOException, InterruptedException
+	{
+		requireThat(id, "id").isNotNull();
+		ResourceCache cache = this.cache;
+		if (cache == null)
+			return inspectService(id);
+		return cache.get(Service.class, id.getValue(), () -> inspectService(id),
+			resource -> getCacheReferences(resource.getId().getValue(), List.of(resource.getName())));
+	}
+
+	/**
+	 * Looks up a service without consulting the cache.
+	 *
+	 * @param id the ID or name of the service
+	 * @return {@code null} if no match is found
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	Service inspectService(ServiceId id) throws IOException, InterruptedException
 	{
 		// https://docs.docker.com/reference/cli/docker/service/inspect/
 		List<String> arguments = List.of("service", "inspect", "--format", "json", id.getValue());
 		CommandResult result = retry(_ -> run(arguments));
-		return getServiceParser().getService(result);
+		List<Service> services = getServiceParser().servicesFromServer(result);
+		if (services.isEmpty())
+			return null;
+		return services.getFirst();
 	}
 
 	@Override
@@ -1137,8 +2079,8 @@ public List<Task> getTasksByService(ServiceId id) throws IOException, Interrupte
 		arguments.add("--format");
 		arguments.add("json");
 		arguments.add(id.getValue());
-		CommandResult result = retry(_ -> run(arguments));
-		return getNodeParser().listTasksByService(result);
+		NodeParser parser = getNodeParser();
+		return retry(_ -> runAndCollect(arguments, parser.listTasksCollector(), parser::listTasksFailed));
 	}
 
 	@Override
@@ -1215,30 +2157,261 @@ public List<Object> getAll(Predicate<? super Class<?>> typeFilter, Predicate<Obj
 			else
 				services = List::of;
 
-			try
-			{
-				scope.join().throwIfFailed();
-			}
-			catch (ExecutionException e)
-			{
-				if (e.getCause() instanceof IOException ioe)
-					throw ioe;
-				throw WrappedCheckedException.wrap(e);
-			}
+			awaitCompletion(scope);
 
 			List<Service> servicesAsList = services.get();
 			List<Task> tasks = new ArrayList<>();
 			if (types.contains(Task.class))
+			{
+				List<Callable<List<Task>>> taskLookups = new ArrayList<>(servicesAsList.size());
 				for (Service service : servicesAsList)
-					tasks.addAll(getTasksByService(service.getId()));
+					taskLookups.add(() -> getTasksByService(service.getId()));
+				for (List<Task> tasksOfService : runConcurrently("docker.getAll().tasks", taskLookups))
+					tasks.addAll(tasksOfService);
+			}
 
 			return Lists.combine(configs.get(), containers.get(), contexts.get(), images.get(), networks.get(),
 				nodes.get(), servicesAsList, tasks);
 		}
 	}
 
+	/**
+	 * Waits for all the threads of a scope to complete.
+	 *
+	 * @param scope the scope
+	 * @throws IOException          if a thread threw an {@code IOException}
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private static void awaitCompletion(ShutdownOnFailure scope) throws IOException, InterruptedException
+	{
+		try
+		{
+			scope.join().throwIfFailed();
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof IOException ioe)
+				throw ioe;
+			throw WrappedCheckedException.wrap(e);
+		}
+	}
+
+	/**
+	 * Runs operations in parallel, running at most {@link #maxConcurrentCommands(int) maxConcurrentCommands}
+	 * operations across all threads at a time.
+	 * <p>
+	 * The operations may not invoke this method, or they could deadlock waiting for permits that are held by
+	 * their callers.
+	 *
+	 * @param <V>        the type of value returned by the operations
+	 * @param name       the name of the scope that runs the operations
+	 * @param operations the operations to run
+	 * @return the value returned by each operation, in the order that the operations were specified
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private <V> List<V> runConcurrently(String name, List<Callable<V>> operations)
+		throws IOException, InterruptedException
+	{
+		if (operations.isEmpty())
+			return List.of();
+		Semaphore permits = parent.commandPermits;
+		try (ShutdownOnFailure scope = new ShutdownOnFailure(name, THREAD_FACTORY))
+		{
+			List<Supplier<V>> results = new ArrayList<>(operations.size());
+			for (Callable<V> operation : operations)
+			{
+				results.add(scope.fork(() ->
+				{
+					permits.acquire();
+					try
+					{
+						return operation.call();
+					}
+					finally
+					{
+						permits.release();
+					}
+				}));
+			}
+			awaitCompletion(scope);
+
+			List<V> values = new ArrayList<>(results.size());
+			for (Supplier<V> result : results)
+				values.add(result.get());
+			return values;
+		}
+	}
+
+	/**
+	 * Appends a filter to the arguments of an {@code ls} command.
+	 *
+	 * @param arguments the command-line arguments of the command
+	 * @param filter    the filter
+	 * @return the command-line arguments, followed by one {@code --filter} option per condition
+	 */
+	private static List<String> withFilter(List<String> arguments, Filter filter)
+	{
+		if (filter.isEmpty())
+			return arguments;
+		List<String> conditions = filter.getConditions();
+		List<String> result = new ArrayList<>(arguments.size() + conditions.size() * 2);
+		result.addAll(arguments);
+		for (String condition : conditions)
+		{
+			result.add("--filter");
+			result.add(condition);
+		}
+		return result;
+	}
+
+	/**
+	 * Throws an {@code IllegalArgumentException} if an {@code ls} command failed because the daemon rejected
+	 * its filter.
+	 *
+	 * @param onFailure throws the exception that corresponds to any other failure
+	 * @return a function that throws the exception that corresponds to the failure
+	 */
+	private static Consumer<CommandResult> rejectInvalidFilter(Consumer<CommandResult> onFailure)
+	{
+		return result ->
+		{
+			// Example: "Error response from daemon: invalid filter 'colour'"
+			if (result.stderr().toLowerCase(Locale.ROOT).contains("invalid filter"))
+				throw new IllegalArgumentException(result.stderr().strip());
+			onFailure.accept(result);
+		};
+	}
+
+	/**
+	 * Inspects multiple resources as they are consumed.
+	 *
+	 * @param <T>       the type of the resources
+	 * @param arguments the command-line arguments that precede the IDs
+	 * @param ids       the IDs of the resources
+	 * @param parser    converts the output of a batch into resources
+	 * @return the resources, in the order that the IDs were specified
+	 * @see InspectingSpliterator
+	 */
+	private <T> Stream<T> streamInBatches(List<String> arguments, List<String> ids, BatchParser<T> parser)
+	{
+		InspectingSpliterator<T> spliterator = new InspectingSpliterator<>(ids,
+			batch -> inspectInBatches(arguments, batch, parser), MAX_STREAM_BATCH_SIZE);
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	/**
+	 * Inspects multiple resources. The IDs are split into batches that run in parallel, without exceeding the
+	 * maximum command-line length.
+	 *
+	 * @param <T>       the type of the resources
+	 * @param arguments the command-line arguments that precede the IDs
+	 * @param ids       the IDs of the resources
+	 * @param parser    converts the output of a batch into resources
+	 * @return the resources, in the order that the IDs were specified
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 * @see #maxConcurrentCommands(int)
+	 */
+	private <T> List<T> inspectInBatches(List<String> arguments, List<String> ids, BatchParser<T> parser)
+		throws IOException, InterruptedException
+	{
+		if (ids.isEmpty())
+			return List.of();
+		int argumentsLength = 0;
+		for (String argument : getProcessBuilder(arguments).command())
+			argumentsLength += argument.length() + 1;
+		// Spread the IDs evenly across the commands that may run in parallel
+		int maxIdsPerBatch = Math.ceilDiv(ids.size(), parent.maxConcurrentCommands);
+
+		List<Callable<List<? extends T>>> batches = new ArrayList<>();
+		List<String> batch = new ArrayList<>(arguments);
+		int length = argumentsLength;
+		for (String id : ids)
+		{
+			int idLength = id.length() + 1;
+			int batchSize = batch.size() - arguments.size();
+			if (batchSize > 0 && (batchSize == maxIdsPerBatch || length + idLength > MAX_COMMAND_LINE_LENGTH))
+			{
+				batches.add(inspectBatch(List.copyOf(batch), parser));
+				batch = new ArrayList<>(arguments);
+				length = argumentsLength;
+			}
+			batch.add(id);
+			length += idLength;
+		}
+		batches.add(inspectBatch(List.copyOf(batch), parser));
+
+		List<T> resources = new ArrayList<>(ids.size());
+		for (List<? extends T> resourcesOfBatch : runConcurrently("docker.inspectInBatches()", batches))
+			resources.addAll(resourcesOfBatch);
+		return resources;
+	}
+
+	/**
+	 * Returns an operation that inspects a batch of resources.
+	 *
+	 * @param <T>       the type of the resources
+	 * @param arguments the command-line arguments, including the IDs of the resources
+	 * @param parser    converts the output of the command into resources
+	 * @return the operation
+	 */
+	private <T> Callable<List<? extends T>> inspectBatch(List<String> arguments, BatchParser<T> parser)
+	{
+		return () ->
+		{
+			CommandResult result = retry(_ -> run(arguments));
+			long startTime = System.nanoTime();
+			List<? extends T> resources = parser.parse(result);
+			getMetrics().onParse(getSubcommand(arguments), Duration.ofNanos(System.nanoTime() - startTime));
+			return resources;
+		};
+	}
+
+	/**
+	 * Converts the output of a command that inspected a batch of resources.
+	 *
+	 * @param <T> the type of the resources
+	 */
+	@FunctionalInterface
+	private interface BatchParser<T>
+	{
+		/**
+		 * Parses the output of a command.
+		 *
+		 * @param result the result of executing the command
+		 * @return the resources that were found
+		 * @throws IOException if the output indicates a failure that might be resolved by retrying
+		 */
+		List<? extends T> parse(CommandResult result) throws IOException;
+	}
+
+	/**
+	 * Stops caching resources and delivering events.
+	 */
+	private void closeCacheAndEvents()
+	{
+		ResourceCache cache = this.cache;
+		if (cache != null)
+			cache.close();
+		eventBus.close();
+	}
+
 	@Override
 	public void close()
 	{
+		// Views are closed along with the client that they were created from
+		if (isView() || isClosed())
+			return;
+		closeCacheAndEvents();
+		for (DefaultDockerClient view : contextToView.values())
+			view.closeCacheAndEvents();
+		dialStdio(false);
+		super.close();
 	}
 }
\ No newline at end of file
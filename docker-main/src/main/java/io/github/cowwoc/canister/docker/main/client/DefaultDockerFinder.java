@@ -43,4 +43,12 @@ public DockerClient fromPath() throws IOException
 	{
 		return new DefaultDockerClient(getExecutableFromPath());
 	}
+
+	@Override
+	public DockerClient fromSocket(Path socket) throws IOException
+	{
+		DefaultDockerClient client = new DefaultDockerClient(getExecutableFromPath());
+		client.setTransport(EngineApiTransport.overUnixSocket(client.getJsonMapper(), socket));
+		return client;
+	}
 }
\ No newline at end of file
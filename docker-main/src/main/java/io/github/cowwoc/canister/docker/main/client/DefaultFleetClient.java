@@ -0,0 +1,190 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.docker.api.client.AsyncDockerClient.DockerOperation;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.api.client.FleetClient;
+import io.github.cowwoc.canister.docker.api.client.FleetResult;
+import io.github.cowwoc.canister.docker.api.client.FleetResult.Sourced;
+import io.github.cowwoc.canister.docker.id.ContextId;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Network;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The default implementation of {@code FleetClient}.
+ */
+public final class DefaultFleetClient implements FleetClient
+{
+	private final Map<ContextId, DockerClient> contextToClient;
+	private final List<ContextId> contexts;
+	private volatile Duration timeout = Duration.ofMinutes(1);
+	private volatile boolean closed;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param contextToClient maps each context to the client that queries it
+	 */
+	public DefaultFleetClient(Map<ContextId, DockerClient> contextToClient)
+	{
+		assert contextToClient != null;
+		assert !contextToClient.isEmpty();
+		// Retain the order of the contexts
+		this.contextToClient = new LinkedHashMap<>(contextToClient);
+		this.contexts = List.copyOf(contextToClient.keySet());
+	}
+
+	@Override
+	public List<ContextId> getContexts()
+	{
+		return contexts;
+	}
+
+	@Override
+	public DockerClient getClient(ContextId context)
+	{
+		requireThat(context, "context").isNotNull();
+		DockerClient client = contextToClient.get(context);
+		if (client == null)
+			throw new IllegalArgumentException("The fleet does not contain the context: " + context);
+		return client;
+	}
+
+	@Override
+	public FleetClient timeout(Duration timeout)
+	{
+		requireThat(timeout, "timeout").isGreaterThan(Duration.ZERO);
+		this.timeout = timeout;
+		return this;
+	}
+
+	@Override
+	public <V> FleetResult<V> query(DockerOperation<V> operation) throws InterruptedException
+	{
+		requireThat(operation, "operation").isNotNull();
+		ensureOpen();
+		Duration timeout = this.timeout;
+		// All the contexts are queried at the same time, so they share a deadline
+		Instant deadline = Instant.now().plus(timeout);
+		Map<ContextId, CompletableFuture<V>> contextToFuture = LinkedHashMap.newLinkedHashMap(
+			contextToClient.size());
+		for (Entry<ContextId, DockerClient> entry : contextToClient.entrySet())
+			contextToFuture.put(entry.getKey(), entry.getValue().async().submit(operation));
+
+		List<Sourced<V>> values = new ArrayList<>(contextToFuture.size());
+		Map<ContextId, Throwable> failures = new LinkedHashMap<>();
+		try
+		{
+			for (Entry<ContextId, CompletableFuture<V>> entry : contextToFuture.entrySet())
+			{
+				ContextId context = entry.getKey();
+				CompletableFuture<V> future = entry.getValue();
+				Duration timeLeft = Duration.between(Instant.now(), deadline);
+				try
+				{
+					V value = future.get(Math.max(0, timeLeft.toNanos()), TimeUnit.NANOSECONDS);
+					values.add(new Sourced<>(context, value));
+				}
+				catch (ExecutionException e)
+				{
+					failures.put(context, e.getCause());
+				}
+				catch (TimeoutException _)
+				{
+					// Cancelling the future terminates the commands that the operation started
+					future.cancel(true);
+					failures.put(context, new TimeoutException("The context " + context.getValue() +
+						" did not respond within " + timeout));
+				}
+			}
+		}
+		catch (InterruptedException e)
+		{
+			for (CompletableFuture<V> future : contextToFuture.values())
+				future.cancel(true);
+			throw e;
+		}
+		return new FleetResult<>(values, failures);
+	}
+
+	@Override
+	public <E> FleetResult<E> queryAll(DockerOperation<? extends Collection<? extends E>> operation)
+		throws InterruptedException
+	{
+		FleetResult<? extends Collection<? extends E>> result = query(operation);
+		List<Sourced<E>> elements = new ArrayList<>();
+		for (Sourced<? extends Collection<? extends E>> value : result.values())
+		{
+			for (E element : value.value())
+				elements.add(new Sourced<>(value.context(), element));
+		}
+		return new FleetResult<>(elements, result.failures());
+	}
+
+	@Override
+	public FleetResult<Container> getContainers() throws InterruptedException
+	{
+		return queryAll(DockerClient::getContainers);
+	}
+
+	@Override
+	public FleetResult<DockerImage> getImages() throws InterruptedException
+	{
+		return queryAll(DockerClient::getImages);
+	}
+
+	@Override
+	public FleetResult<Network> getNetworks() throws InterruptedException
+	{
+		return queryAll(DockerClient::getNetworks);
+	}
+
+	/**
+	 * Ensures that the client is open.
+	 *
+	 * @throws IllegalStateException if the client is closed
+	 */
+	private void ensureOpen()
+	{
+		if (closed)
+			throw new IllegalStateException("client was closed");
+	}
+
+	@Override
+	public boolean isClosed()
+	{
+		return closed;
+	}
+
+	@Override
+	public void close()
+	{
+		// The clients are views that are closed along with the client that created them
+		closed = true;
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(DefaultFleetClient.class).
+			add("contexts", contexts).
+			add("timeout", timeout).
+			toString();
+	}
+}
\ No newline at end of file
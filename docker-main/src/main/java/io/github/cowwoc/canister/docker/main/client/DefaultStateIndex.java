@@ -0,0 +1,244 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.docker.api.client.StateIndex;
+import io.github.cowwoc.canister.docker.api.client.StateSnapshot;
+import io.github.cowwoc.canister.docker.id.ServiceId;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.Node;
+import io.github.cowwoc.canister.docker.resource.Service;
+import io.github.cowwoc.canister.docker.resource.Task;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The default implementation of {@code StateIndex}.
+ * <p>
+ * The index is updated by the thread that updates the mirror, and only reindexes resources whose instance
+ * differs between consecutive snapshots.
+ */
+final class DefaultStateIndex implements StateIndex
+{
+	private final ResourceIndex<Container> containers = new ResourceIndex<>(
+		container -> container.getId().getValue(), Container::getName,
+		container -> List.of(container.getStatus()), _ -> List.of());
+	private final ResourceIndex<DockerImage> images = new ResourceIndex<>(
+		image -> image.getId().getValue(), _ -> null, _ -> List.of(), DefaultStateIndex::getReferences);
+	private final ResourceIndex<Node> nodes = new ResourceIndex<>(
+		node -> node.getId().getValue(), Node::getHostname,
+		node -> List.of(node.getRole(), node.getStatus()), Node::getLabels);
+	private final ResourceIndex<Service> services = new ResourceIndex<>(
+		service -> service.getId().getValue(), Service::getName, _ -> List.of(), _ -> List.of());
+	private final ResourceIndex<Task> tasks = new ResourceIndex<>(
+		task -> task.getId().getValue(), _ -> null, task -> List.of(task.getState()), _ -> List.of());
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Returns the references that an image can be looked up by.
+	 *
+	 * @param image the image
+	 * @return the references
+	 */
+	static Collection<String> getReferences(DockerImage image)
+	{
+		List<String> references = new ArrayList<>();
+		for (Entry<String, Set<String>> entry : image.referenceToTags().entrySet())
+		{
+			String name = entry.getKey();
+			references.add(name);
+			for (String tag : entry.getValue())
+				references.add(name + ":" + tag);
+		}
+		for (Entry<String, String> entry : image.referenceToDigest().entrySet())
+		{
+			String name = entry.getKey();
+			references.add(name);
+			references.add(name + "@" + entry.getValue());
+		}
+		return references;
+	}
+
+	/**
+	 * Applies the differences between two snapshots. Invoked by the thread that updates the mirror.
+	 *
+	 * @param previous the previous snapshot
+	 * @param current  the current snapshot
+	 */
+	void update(StateSnapshot previous, StateSnapshot current)
+	{
+		assert previous != null;
+		assert current != null;
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try
+		{
+			containers.update(previous.containers(), current.containers());
+			images.update(previous.images(), current.images());
+			nodes.update(previous.nodes(), current.nodes());
+			services.update(previous.services(), current.services());
+			// Tasks are replaced as a list whenever any of a service's tasks change
+			for (Entry<ServiceId, List<Task>> entry : previous.tasks().entrySet())
+			{
+				if (current.tasks().get(entry.getKey()) != entry.getValue())
+				{
+					for (Task task : entry.getValue())
+						tasks.remove(task);
+				}
+			}
+			for (Entry<ServiceId, List<Task>> entry : current.tasks().entrySet())
+			{
+				if (previous.tasks().get(entry.getKey()) != entry.getValue())
+				{
+					for (Task task : entry.getValue())
+						tasks.add(task);
+				}
+			}
+		}
+		finally
+		{
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Runs a lookup while holding the read lock.
+	 *
+	 * @param <T>    the type of value that the lookup returns
+	 * @param lookup the lookup
+	 * @return the value returned by {@code lookup}
+	 */
+	private <T> T read(Supplier<T> lookup)
+	{
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try
+		{
+			return lookup.get();
+		}
+		finally
+		{
+			readLock.unlock();
+		}
+	}
+
+	@Override
+	public Container getContainerByName(String name)
+	{
+		requireThat(name, "name").isNotNull();
+		return read(() -> containers.getByName(name));
+	}
+
+	@Override
+	public List<Container> getContainersByIdPrefix(String prefix)
+	{
+		requireThat(prefix, "prefix").isNotEmpty();
+		return read(() -> containers.getByIdPrefix(prefix));
+	}
+
+	@Override
+	public List<Container> getContainers(Container.Status status)
+	{
+		requireThat(status, "status").isNotNull();
+		return read(() -> containers.getByAttribute(status));
+	}
+
+	@Override
+	public List<DockerImage> getImagesByIdPrefix(String prefix)
+	{
+		requireThat(prefix, "prefix").isNotEmpty();
+		return read(() -> images.getByIdPrefix(prefix));
+	}
+
+	@Override
+	public List<DockerImage> getImagesByReference(String reference)
+	{
+		requireThat(reference, "reference").isNotNull();
+		return read(() -> images.getByTerm(reference));
+	}
+
+	@Override
+	public Node getNodeByHostname(String hostname)
+	{
+		requireThat(hostname, "hostname").isNotNull();
+		return read(() -> nodes.getByName(hostname));
+	}
+
+	@Override
+	public List<Node> getNodesByIdPrefix(String prefix)
+	{
+		requireThat(prefix, "prefix").isNotEmpty();
+		return read(() -> nodes.getByIdPrefix(prefix));
+	}
+
+	@Override
+	public List<Node> getNodes(Node.Role role)
+	{
+		requireThat(role, "role").isNotNull();
+		return read(() -> nodes.getByAttribute(role));
+	}
+
+	@Override
+	public List<Node> getNodes(Node.Status status)
+	{
+		requireThat(status, "status").isNotNull();
+		return read(() -> nodes.getByAttribute(status));
+	}
+
+	@Override
+	public List<Node> getNodesByLabel(String label)
+	{
+		requireThat(label, "label").isNotNull();
+		return read(() -> nodes.getByTerm(label));
+	}
+
+	@Override
+	public Service getServiceByName(String name)
+	{
+		requireThat(name, "name").isNotNull();
+		return read(() -> services.getByName(name));
+	}
+
+	@Override
+	public List<Service> getServicesByIdPrefix(String prefix)
+	{
+		requireThat(prefix, "prefix").isNotEmpty();
+		return read(() -> services.getByIdPrefix(prefix));
+	}
+
+	@Override
+	public List<Task> getTasksByIdPrefix(String prefix)
+	{
+		requireThat(prefix, "prefix").isNotEmpty();
+		return read(() -> tasks.getByIdPrefix(prefix));
+	}
+
+	@Override
+	public List<Task> getTasks(Task.State state)
+	{
+		requireThat(state, "state").isNotNull();
+		return read(() -> tasks.getByAttribute(state));
+	}
+
+	@Override
+	public String toString()
+	{
+		return read(() -> new ToStringBuilder(DefaultStateIndex.class).
+			add("containers", containers.size()).
+			add("images", images.size()).
+			add("nodes", nodes.size()).
+			add("services", services.size()).
+			add("tasks", tasks.size()).
+			toString());
+	}
+}
\ No newline at end of file
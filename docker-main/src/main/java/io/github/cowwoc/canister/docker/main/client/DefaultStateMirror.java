@@ -0,0 +1,580 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.docker.api.client.StateIndex;
+import io.github.cowwoc.canister.docker.api.client.StateMirror;
+import io.github.cowwoc.canister.docker.api.client.StateSnapshot;
+import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
+import io.github.cowwoc.canister.docker.id.ContainerId;
+import io.github.cowwoc.canister.docker.id.NetworkId;
+import io.github.cowwoc.canister.docker.id.NodeId;
+import io.github.cowwoc.canister.docker.id.ServiceId;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.EventListener;
+import io.github.cowwoc.canister.docker.resource.EventSubscriber;
+import io.github.cowwoc.canister.docker.resource.EventSubscription;
+import io.github.cowwoc.canister.docker.resource.Network;
+import io.github.cowwoc.canister.docker.resource.Node;
+import io.github.cowwoc.canister.docker.resource.Service;
+import io.github.cowwoc.canister.docker.resource.Task;
+import io.github.cowwoc.pouch.core.WrappedCheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * The default implementation of {@code StateMirror}.
+ * <p>
+ * All updates run on a single thread, so they never race with each other. Events only record which resources
+ * changed; the resources are inspected by the update thread. Bursts of events for the same resource are
+ * therefore coalesced into a single inspection, and the snapshot is replaced once per burst.
+ */
+public final class DefaultStateMirror implements StateMirror
+{
+	/**
+	 * The types of objects whose events update the mirror.
+	 */
+	private static final List<String> EVENT_TYPES = List.of("container", "image", "network", "node",
+		"service");
+	/**
+	 * The container label that contains the ID of the swarm service that the container runs a task of.
+	 */
+	private static final String SERVICE_LABEL = "com.docker.swarm.service.id";
+	private final DefaultDockerClient client;
+	private final Duration resyncInterval;
+	private final ScheduledExecutorService updater;
+	/**
+	 * The resources that changed since the last update.
+	 */
+	private final Set<Change> pendingChanges = ConcurrentHashMap.newKeySet();
+	/**
+	 * {@code true} if an update is scheduled to apply {@link #pendingChanges}.
+	 */
+	private final AtomicBoolean updateScheduled = new AtomicBoolean();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private final Logger log = LoggerFactory.getLogger(DefaultStateMirror.class);
+	private volatile StateSnapshot snapshot = new StateSnapshot(Map.of(), Map.of(), Map.of(), Map.of(),
+		Map.of(), Map.of(), Instant.EPOCH);
+	private final DefaultStateIndex index = new DefaultStateIndex();
+	/**
+	 * The subscription to the daemon's events, or {@code null} if the mirror is not subscribed.
+	 */
+	private volatile EventSubscription subscription;
+	/**
+	 * {@code true} if the daemon was a swarm manager during the last resync. Only accessed by the update
+	 * thread.
+	 */
+	private boolean swarmManager;
+	private volatile boolean closed;
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param client         the client configuration
+	 * @param resyncInterval the amount of time to wait between listing every resource
+	 * @param threadFactory  creates the thread that updates the mirror
+	 */
+	public DefaultStateMirror(DefaultDockerClient client, Duration resyncInterval, ThreadFactory threadFactory)
+	{
+		assert client != null;
+		assert resyncInterval != null;
+		assert threadFactory != null;
+		this.client = client;
+		this.resyncInterval = resyncInterval;
+		this.updater = Executors.newSingleThreadScheduledExecutor(threadFactory);
+	}
+
+	/**
+	 * Lists every resource and starts applying events.
+	 *
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	public void start() throws IOException, InterruptedException
+	{
+		resync();
+		long interval = resyncInterval.toNanos();
+		updater.scheduleWithFixedDelay(this::resyncInBackground, interval, interval, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public StateSnapshot getSnapshot()
+	{
+		return snapshot;
+	}
+
+	@Override
+	public StateIndex getIndex()
+	{
+		return index;
+	}
+
+	@Override
+	public void addListener(Listener listener)
+	{
+		requireThat(listener, "listener").isNotNull();
+		ensureOpen();
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeListener(Listener listener)
+	{
+		requireThat(listener, "listener").isNotNull();
+		listeners.remove(listener);
+	}
+
+	@Override
+	public void resync() throws IOException, InterruptedException
+	{
+		ensureOpen();
+		Callable<Void> task = () ->
+		{
+			sync();
+			return null;
+		};
+		try
+		{
+			updater.submit(task).get();
+		}
+		catch (RejectedExecutionException _)
+		{
+			throw new IllegalStateException("mirror was closed");
+		}
+		catch (ExecutionException e)
+		{
+			switch (e.getCause())
+			{
+				case IOException ioe -> throw ioe;
+				case InterruptedException _ -> throw new IllegalStateException("mirror was closed");
+				case RuntimeException re -> throw re;
+				default -> throw WrappedCheckedException.wrap(e);
+			}
+		}
+	}
+
+	/**
+	 * Lists every resource, logging any failures instead of throwing them.
+	 */
+	private void resyncInBackground()
+	{
+		try
+		{
+			sync();
+		}
+		catch (InterruptedException _)
+		{
+			// The mirror was closed
+		}
+		catch (IOException | RuntimeException e)
+		{
+			log.warn("Failed to resync the mirror. Retrying in {}.", resyncInterval, e);
+		}
+	}
+
+	/**
+	 * Lists every resource and replaces the snapshot. Invoked by the update thread.
+	 *
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private void sync() throws IOException, InterruptedException
+	{
+		// Subscribe before listing the resources so that subsequent changes are applied on top of the listing
+		if (subscription == null)
+		{
+			EventSubscriber subscriber = client.events();
+			for (String type : EVENT_TYPES)
+				subscriber.type(type);
+			EventSubscription subscription = subscriber.subscribe(new ChangeRecorder());
+			this.subscription = subscription;
+			// close() might have run before the subscription was recorded
+			if (closed)
+				subscription.close();
+		}
+		SnapshotBuilder builder = new SnapshotBuilder();
+		for (Container container : client.getContainers())
+			builder.containers.put(container.getId(), container);
+		for (DockerImage image : client.getImages())
+			builder.images.put(image.getId(), image);
+		for (Network network : client.getNetworks())
+			builder.networks.put(network.getId(), network);
+		try
+		{
+			for (Node node : client.getNodes())
+				builder.nodes.put(node.getId(), node);
+			for (Service service : client.getServices())
+			{
+				builder.services.put(service.getId(), service);
+				builder.tasks.put(service.getId(), client.getTasksByService(service.getId()));
+			}
+			swarmManager = true;
+		}
+		catch (NotSwarmManagerException _)
+		{
+			builder.nodes.clear();
+			builder.services.clear();
+			builder.tasks.clear();
+			swarmManager = false;
+		}
+		publish(builder.build());
+	}
+
+	/**
+	 * Records that a resource changed, and schedules an update if one is not already scheduled.
+	 *
+	 * @param change the change
+	 */
+	private void recordChange(Change change)
+	{
+		pendingChanges.add(change);
+		if (updateScheduled.compareAndSet(false, true))
+		{
+			try
+			{
+				updater.execute(this::applyChanges);
+			}
+			catch (RejectedExecutionException _)
+			{
+				// The mirror was closed
+			}
+		}
+	}
+
+	/**
+	 * Inspects the resources that changed and replaces the snapshot. Invoked by the update thread.
+	 */
+	private void applyChanges()
+	{
+		updateScheduled.set(false);
+		List<Change> changes = new ArrayList<>();
+		for (Iterator<Change> i = pendingChanges.iterator(); i.hasNext(); )
+		{
+			changes.add(i.next());
+			i.remove();
+		}
+		if (changes.isEmpty())
+			return;
+		SnapshotBuilder builder = new SnapshotBuilder(snapshot);
+		for (Change change : changes)
+		{
+			try
+			{
+				apply(builder, change);
+			}
+			catch (InterruptedException _)
+			{
+				// The mirror was closed
+				return;
+			}
+			catch (IOException | RuntimeException e)
+			{
+				log.warn("Failed to update the mirror. The next resync will repair it.\n" +
+					"Change: {}", change, e);
+			}
+		}
+		publish(builder.build());
+	}
+
+	/**
+	 * Updates a snapshot to reflect the current state of a resource.
+	 *
+	 * @param builder the snapshot
+	 * @param change  the resource that changed
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	private void apply(SnapshotBuilder builder, Change change) throws IOException, InterruptedException
+	{
+		// The cache is bypassed because its events might be delivered after the mirror's
+		switch (change.type())
+		{
+			case "container" ->
+			{
+				ContainerId id = ContainerId.of(change.id());
+				Container container = client.inspectContainer(id);
+				if (container == null)
+					builder.containers.remove(id);
+				else
+					builder.containers.put(container.getId(), container);
+			}
+			case "image" ->
+			{
+				ImageId id = ImageId.of(change.id());
+				DockerImage image = client.inspectImage(id);
+				if (image != null)
+				{
+					builder.images.put(image.getId(), image);
+					return;
+				}
+				if (builder.images.remove(id) != null)
+					return;
+				// Events such as "pull" identify the image by its reference instead of its ID. The reference no
+				// longer exists, so refresh the images that it used to refer to.
+				for (DockerImage previous : List.copyOf(builder.images.values()))
+				{
+					if (!DefaultStateIndex.getReferences(previous).contains(change.id()))
+						continue;
+					DockerImage current = client.inspectImage(previous.getId());
+					if (current == null)
+						builder.images.remove(previous.getId());
+					else
+						builder.images.put(current.getId(), current);
+				}
+			}
+			case "network" ->
+			{
+				NetworkId id = NetworkId.of(change.id());
+				Network network = client.inspectNetwork(id);
+				if (network == null)
+					builder.networks.remove(id);
+				else
+					builder.networks.put(network.getId(), network);
+			}
+			case "node" ->
+			{
+				if (!swarmManager)
+					return;
+				NodeId id = NodeId.of(change.id());
+				Node node = client.findNode(id);
+				if (node == null)
+					builder.nodes.remove(id);
+				else
+					builder.nodes.put(node.getId(), node);
+			}
+			case "service" ->
+			{
+				if (!swarmManager)
+					return;
+				ServiceId id = ServiceId.of(change.id());
+				Service service = client.inspectService(id);
+				if (service == null)
+				{
+					builder.services.remove(id);
+					builder.tasks.remove(id);
+				}
+				else
+				{
+					builder.services.put(service.getId(), service);
+					builder.tasks.put(service.getId(), client.getTasksByService(service.getId()));
+				}
+			}
+			case "tasks" ->
+			{
+				if (!swarmManager)
+					return;
+				ServiceId id = ServiceId.of(change.id());
+				if (builder.services.containsKey(id))
+					builder.tasks.put(id, client.getTasksByService(id));
+			}
+			default -> throw new AssertionError("Unexpected type: " + change.type());
+		}
+	}
+
+	/**
+	 * Replaces the snapshot, updates the index and notifies the listeners.
+	 *
+	 * @param newSnapshot the new snapshot
+	 */
+	private void publish(StateSnapshot newSnapshot)
+	{
+		StateSnapshot oldSnapshot = snapshot;
+		index.update(oldSnapshot, newSnapshot);
+		snapshot = newSnapshot;
+		for (Listener listener : listeners)
+		{
+			try
+			{
+				listener.onChange(oldSnapshot, newSnapshot);
+			}
+			catch (RuntimeException e)
+			{
+				log.warn("Listener threw an exception", e);
+			}
+		}
+	}
+
+	/**
+	 * Ensures that the mirror is open.
+	 *
+	 * @throws IllegalStateException if the mirror is closed
+	 */
+	private void ensureOpen()
+	{
+		if (closed)
+			throw new IllegalStateException("mirror was closed");
+	}
+
+	@Override
+	public boolean isClosed()
+	{
+		return closed;
+	}
+
+	@Override
+	public void close()
+	{
+		if (closed)
+			return;
+		closed = true;
+		EventSubscription subscription = this.subscription;
+		if (subscription != null)
+			subscription.close();
+		// Interrupting the update thread terminates the commands that it is running
+		updater.shutdownNow();
+		listeners.clear();
+	}
+
+	@Override
+	public String toString()
+	{
+		StateSnapshot snapshot = this.snapshot;
+		return new ToStringBuilder(DefaultStateMirror.class).
+			add("resyncInterval", resyncInterval).
+			add("containers", snapshot.containers().size()).
+			add("images", snapshot.images().size()).
+			add("networks", snapshot.networks().size()).
+			add("nodes", snapshot.nodes().size()).
+			add("services", snapshot.services().size()).
+			add("time", snapshot.time()).
+			toString();
+	}
+
+	/**
+	 * Records the resources that events report as changed.
+	 */
+	private final class ChangeRecorder implements EventListener
+	{
+		@Override
+		public void onEvent(DockerEvent event)
+		{
+			recordChange(new Change(event.type(), event.actorId()));
+			switch (event.type())
+			{
+				case "container" ->
+				{
+					// The container runs a task of a swarm service
+					String serviceId = event.attributes().get(SERVICE_LABEL);
+					if (serviceId != null)
+						recordChange(new Change("tasks", serviceId));
+				}
+				case "network" ->
+				{
+					// A container was connected to or disconnected from the network
+					String containerId = event.attributes().get("container");
+					if (containerId != null)
+						recordChange(new Change("container", containerId));
+				}
+				default ->
+				{
+				}
+			}
+		}
+
+		@Override
+		public void onFailure(Throwable cause)
+		{
+			log.warn("The event stream failed. Resubscribing.", cause);
+			subscription = null;
+			try
+			{
+				// Changes that took place while the mirror was not subscribed were lost
+				updater.execute(DefaultStateMirror.this::resyncInBackground);
+			}
+			catch (RejectedExecutionException _)
+			{
+				// The mirror was closed
+			}
+		}
+	}
+
+	/**
+	 * A resource that changed.
+	 *
+	 * @param type the type of the resource ({@code container}, {@code image}, {@code network}, {@code node},
+	 *             {@code service}, or {@code tasks} for the tasks of a service)
+	 * @param id   the ID of the resource
+	 */
+	private record Change(String type, String id)
+	{
+	}
+
+	/**
+	 * Builds a snapshot.
+	 */
+	private static final class SnapshotBuilder
+	{
+		private final Map<ContainerId, Container> containers;
+		private final Map<ImageId, DockerImage> images;
+		private final Map<NetworkId, Network> networks;
+		private final Map<NodeId, Node> nodes;
+		private final Map<ServiceId, Service> services;
+		private final Map<ServiceId, List<Task>> tasks;
+
+		/**
+		 * Creates an empty builder.
+		 */
+		SnapshotBuilder()
+		{
+			this.containers = new HashMap<>();
+			this.images = new HashMap<>();
+			this.networks = new HashMap<>();
+			this.nodes = new HashMap<>();
+			this.services = new HashMap<>();
+			this.tasks = new HashMap<>();
+		}
+
+		/**
+		 * Creates a builder that starts with the contents of a snapshot.
+		 *
+		 * @param snapshot the snapshot
+		 */
+		SnapshotBuilder(StateSnapshot snapshot)
+		{
+			this.containers = new HashMap<>(snapshot.containers());
+			this.images = new HashMap<>(snapshot.images());
+			this.networks = new HashMap<>(snapshot.networks());
+			this.nodes = new HashMap<>(snapshot.nodes());
+			this.services = new HashMap<>(snapshot.services());
+			this.tasks = new HashMap<>(snapshot.tasks());
+		}
+
+		/**
+		 * @return the snapshot
+		 */
+		StateSnapshot build()
+		{
+			return new StateSnapshot(containers, images, networks, nodes, services, tasks, Instant.now());
+		}
+	}
+}
\ No newline at end of file
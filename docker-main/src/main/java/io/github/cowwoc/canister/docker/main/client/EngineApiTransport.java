@@ -0,0 +1,459 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.cowwoc.canister.core.internal.client.CommandTransport;
+import io.github.cowwoc.canister.core.internal.http.HttpConnectionPool;
+import io.github.cowwoc.canister.core.internal.http.HttpResponse;
+import io.github.cowwoc.canister.core.internal.http.ProcessConnectionFactory;
+import io.github.cowwoc.canister.core.internal.http.UnixSocketConnectionFactory;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Executes read-only {@code docker} commands by talking to the
+ * <a href="https://docs.docker.com/reference/api/engine/">Docker Engine API</a> directly, instead of forking
+ * the {@code docker} executable.
+ * <p>
+ * Responses are converted into the same output that the corresponding command would have produced, so the
+ * existing parsers consume them unchanged. Errors returned by the daemon are reported on stderr using the
+ * {@code Error response from daemon: } prefix that the CLI uses.
+ */
+public final class EngineApiTransport implements CommandTransport
+{
+	/**
+	 * The maximum number of idle connections to keep open.
+	 */
+	private static final int MAX_IDLE_CONNECTIONS = 8;
+	private static final List<String> FORMAT_JSON = List.of("--format", "json");
+	private static final String ERROR_PREFIX = "Error response from daemon: ";
+	private final JsonMapper jsonMapper;
+	private final HttpConnectionPool pool;
+
+	/**
+	 * Creates a transport that connects to a Unix domain socket.
+	 *
+	 * @param jsonMapper the JSON configuration
+	 * @param socket     the path of the daemon's socket
+	 * @return the transport
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	public static EngineApiTransport overUnixSocket(JsonMapper jsonMapper, Path socket)
+	{
+		return new EngineApiTransport(jsonMapper, new HttpConnectionPool(new UnixSocketConnectionFactory(socket),
+			MAX_IDLE_CONNECTIONS));
+	}
+
+	/**
+	 * Creates a transport that relays requests over the standard input and output of
+	 * {@code docker system dial-stdio}. This avoids the cost of starting the executable, and of establishing a
+	 * new SSH or TLS session, for every command that runs against a remote context.
+	 *
+	 * @param jsonMapper the JSON configuration
+	 * @param command    the command that starts {@code docker system dial-stdio}
+	 * @return the transport
+	 * @throws NullPointerException     if any of the arguments are null
+	 * @throws IllegalArgumentException if {@code command} is empty
+	 */
+	public static EngineApiTransport overDialStdio(JsonMapper jsonMapper, List<String> command)
+	{
+		return new EngineApiTransport(jsonMapper, new HttpConnectionPool(new ProcessConnectionFactory(command),
+			MAX_IDLE_CONNECTIONS));
+	}
+
+	/**
+	 * Creates a new transport.
+	 *
+	 * @param jsonMapper the JSON configuration
+	 * @param pool       the connections to the daemon. The transport takes ownership of the pool, closing it
+	 *                   when the transport is closed.
+	 * @throws NullPointerException if any of the arguments are null
+	 */
+	public EngineApiTransport(JsonMapper jsonMapper, HttpConnectionPool pool)
+	{
+		requireThat(jsonMapper, "jsonMapper").isNotNull();
+		requireThat(pool, "pool").isNotNull();
+		this.jsonMapper = jsonMapper;
+		this.pool = pool;
+	}
+
+	@Override
+	public boolean supports(List<String> arguments)
+	{
+		return toRequest(arguments) != null;
+	}
+
+	@Override
+	public CommandResult run(List<String> arguments, Instant deadline)
+		throws IOException, InterruptedException, TimeoutException
+	{
+		Request request = toRequest(arguments);
+		requireThat(request, "request").withContext(arguments, "arguments").isNotNull();
+		List<String> command = new ArrayList<>(arguments.size() + 1);
+		command.add("docker");
+		command.addAll(arguments);
+
+		List<HttpResponse> responses = new ArrayList<>(request.targets().size());
+		for (String target : request.targets())
+			responses.add(pool.send("GET", target, null, deadline));
+
+		StringJoiner stderr = new StringJoiner("\n");
+		List<HttpResponse> successes = new ArrayList<>(responses.size());
+		for (HttpResponse response : responses)
+		{
+			if (response.isError())
+				stderr.add(ERROR_PREFIX + getErrorMessage(response));
+			else
+				successes.add(response);
+		}
+		// A truncated or malformed response is an I/O failure that retrying may resolve
+		String stdout = request.converter().apply(successes);
+		int exitCode;
+		if (successes.size() == responses.size())
+			exitCode = 0;
+		else
+			exitCode = 1;
+		return new CommandResult(command, null, stdout, stderr.toString(), exitCode);
+	}
+
+	/**
+	 * Returns the message of an error response.
+	 *
+	 * @param response the response
+	 * @return the message
+	 */
+	private String getErrorMessage(HttpResponse response)
+	{
+		// {"message":"No such container: foo"}
+		try
+		{
+			JsonNode json = jsonMapper.readTree(response.body());
+			JsonNode message = json.get("message");
+			if (message != null)
+				return message.textValue();
+		}
+		catch (JsonProcessingException _)
+		{
+			// Fall back to the raw body
+		}
+		return response.body().strip();
+	}
+
+	/**
+	 * Maps command-line arguments to Engine API requests.
+	 *
+	 * @param arguments the command-line arguments that would have been passed to {@code docker}
+	 * @return {@code null} if the command is not supported
+	 */
+	private Request toRequest(List<String> arguments)
+	{
+		if (arguments.size() < 2)
+			return null;
+		String type = arguments.get(0);
+		List<String> options = arguments.subList(2, arguments.size());
+		return switch (arguments.get(1))
+		{
+			case "inspect" -> toInspectRequest(type, options);
+			case "ls" -> toListRequest(type, options);
+			default -> null;
+		};
+	}
+
+	/**
+	 * Maps an {@code inspect} command to Engine API requests.
+	 *
+	 * @param type    the type of resource
+	 * @param options the arguments that follow {@code inspect}
+	 * @return {@code null} if the command is not supported
+	 */
+	private Request toInspectRequest(String type, List<String> options)
+	{
+		// The default output format of "inspect" is already a JSON array
+		if (options.size() > 2 && options.subList(0, 2).equals(FORMAT_JSON))
+			options = options.subList(2, options.size());
+		if (options.isEmpty())
+			return null;
+		String prefix = switch (type)
+		{
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Container/operation/ContainerInspect
+			case "container" -> "/containers/";
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Image/operation/ImageInspect
+			case "image" -> "/images/";
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Network/operation/NetworkInspect
+			case "network" -> "/networks/";
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Config/operation/ConfigInspect
+			case "config" -> "/configs/";
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Node/operation/NodeInspect
+			case "node" -> "/nodes/";
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Service/operation/ServiceInspect
+			case "service" -> "/services/";
+			default -> null;
+		};
+		if (prefix == null)
+			return null;
+		String suffix;
+		if (type.equals("container") || type.equals("image"))
+			suffix = "/json";
+		else
+			suffix = "";
+		List<String> targets = new ArrayList<>(options.size());
+		for (String id : options)
+		{
+			if (id.isEmpty() || id.startsWith("-"))
+				return null;
+			targets.add(prefix + encodePath(id) + suffix);
+		}
+		return new Request(targets, this::toArray);
+	}
+
+	/**
+	 * Maps an {@code ls} command to an Engine API request.
+	 *
+	 * @param type    the type of resource
+	 * @param options the arguments that follow {@code ls}
+	 * @return {@code null} if the command is not supported
+	 */
+	private Request toListRequest(String type, List<String> options)
+	{
+		return switch (type)
+		{
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Container/operation/ContainerList
+			case "container" -> toListRequest(options, List.of("--format", "json", "--all", "--no-trunc"),
+				"/containers/json?all=1", this::toContainerRow);
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Network/operation/NetworkList
+			case "network" -> toListRequest(options, List.of("--format", "json", "--no-trunc"), "/networks",
+				this::toNetworkRow);
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Config/operation/ConfigList
+			case "config" -> toListRequest(options, FORMAT_JSON, "/configs", this::toConfigRow);
+			// https://docs.docker.com/reference/api/engine/version/v1.47/#tag/Service/operation/ServiceList
+			case "service" -> toListRequest(options, List.of("--format", "json", "--no-trunc"), "/services",
+				this::toServiceRow);
+			default -> null;
+		};
+	}
+
+	/**
+	 * Maps an {@code ls} command to an Engine API request.
+	 *
+	 * @param options         the arguments that follow {@code ls}
+	 * @param expectedOptions the only arguments that the request can emulate
+	 * @param target          the request target
+	 * @param toRow           converts each element of the response into a row
+	 * @return {@code null} if {@code options} differs from {@code expectedOptions}
+	 */
+	private Request toListRequest(List<String> options, List<String> expectedOptions, String target,
+		RowConverter toRow)
+	{
+		if (!options.equals(expectedOptions))
+			return null;
+		return new Request(List.of(target), responses -> toLines(responses, toRow));
+	}
+
+	/**
+	 * Combines the bodies of inspect responses into a single JSON array, mirroring the output of
+	 * {@code docker <type> inspect}.
+	 *
+	 * @param responses the successful responses
+	 * @return the JSON array
+	 * @throws JsonProcessingException if a response is not valid JSON
+	 */
+	private String toArray(List<HttpResponse> responses) throws JsonProcessingException
+	{
+		ArrayNode array = jsonMapper.createArrayNode();
+		for (HttpResponse response : responses)
+			array.add(jsonMapper.readTree(response.body()));
+		return jsonMapper.writeValueAsString(array);
+	}
+
+	/**
+	 * Converts the body of a list response into one JSON object per line, mirroring the output of
+	 * {@code docker <type> ls --format json}.
+	 *
+	 * @param responses the successful responses
+	 * @param toRow     converts each element of the response into a row
+	 * @return the rows
+	 * @throws JsonProcessingException if a response is not valid JSON
+	 */
+	private String toLines(List<HttpResponse> responses, RowConverter toRow) throws JsonProcessingException
+	{
+		StringJoiner lines = new StringJoiner("\n");
+		for (HttpResponse response : responses)
+		{
+			for (JsonNode element : jsonMapper.readTree(response.body()))
+				lines.add(jsonMapper.writeValueAsString(toRow.apply(element)));
+		}
+		return lines.toString();
+	}
+
+	/**
+	 * @param container an element returned by {@code GET /containers/json}
+	 * @return the row that {@code docker container ls --format json} would have returned
+	 */
+	private ObjectNode toContainerRow(JsonNode container)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("ID", container.path("Id").textValue());
+		StringJoiner names = new StringJoiner(",");
+		for (JsonNode name : container.path("Names"))
+		{
+			String value = name.textValue();
+			if (value.startsWith("/"))
+				value = value.substring(1);
+			names.add(value);
+		}
+		row.put("Names", names.toString());
+		row.put("Image", container.path("Image").textValue());
+		row.put("State", container.path("State").textValue());
+		row.put("Status", container.path("Status").textValue());
+		row.put("Labels", toLabels(container.path("Labels")));
+		return row;
+	}
+
+	/**
+	 * @param network an element returned by {@code GET /networks}
+	 * @return the row that {@code docker network ls --format json} would have returned
+	 */
+	private ObjectNode toNetworkRow(JsonNode network)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("ID", network.path("Id").textValue());
+		row.put("Name", network.path("Name").textValue());
+		row.put("Driver", network.path("Driver").textValue());
+		row.put("Scope", network.path("Scope").textValue());
+		row.put("Labels", toLabels(network.path("Labels")));
+		return row;
+	}
+
+	/**
+	 * @param config an element returned by {@code GET /configs}
+	 * @return the row that {@code docker config ls --format json} would have returned
+	 */
+	private ObjectNode toConfigRow(JsonNode config)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("ID", config.path("ID").textValue());
+		JsonNode spec = config.path("Spec");
+		row.put("Name", spec.path("Name").textValue());
+		row.put("CreatedAt", config.path("CreatedAt").textValue());
+		row.put("UpdatedAt", config.path("UpdatedAt").textValue());
+		row.put("Labels", toLabels(spec.path("Labels")));
+		return row;
+	}
+
+	/**
+	 * @param service an element returned by {@code GET /services}
+	 * @return the row that {@code docker service ls --format json} would have returned
+	 */
+	private ObjectNode toServiceRow(JsonNode service)
+	{
+		ObjectNode row = jsonMapper.createObjectNode();
+		row.put("ID", service.path("ID").textValue());
+		JsonNode spec = service.path("Spec");
+		row.put("Name", spec.path("Name").textValue());
+		row.put("Image", spec.path("TaskTemplate").path("ContainerSpec").path("Image").textValue());
+		return row;
+	}
+
+	/**
+	 * @param labels a JSON object that maps label names to values
+	 * @return the comma-separated {@code key=value} representation used by the CLI
+	 */
+	private static String toLabels(JsonNode labels)
+	{
+		StringJoiner joiner = new StringJoiner(",");
+		for (Entry<String, JsonNode> entry : labels.properties())
+			joiner.add(entry.getKey() + "=" + entry.getValue().textValue());
+		return joiner.toString();
+	}
+
+	/**
+	 * Percent-encodes characters that may not appear in a URI path. Slashes and colons are preserved because
+	 * image references use them, and the daemon's router matches them as part of the name.
+	 *
+	 * @param value a resource ID or name
+	 * @return the encoded value
+	 */
+	private static String encodePath(String value)
+	{
+		StringBuilder result = new StringBuilder(value.length());
+		for (byte b : value.getBytes(UTF_8))
+		{
+			char c = (char) (b & 0xFF);
+			if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') ||
+				"-._~/:@".indexOf(c) != -1)
+			{
+				result.append(c);
+			}
+			else
+				result.append('%').append(Character.toUpperCase(Character.forDigit((c >> 4) & 0xF, 16))).
+					append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+		}
+		return result.toString();
+	}
+
+	@Override
+	public void close()
+	{
+		pool.close();
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(EngineApiTransport.class).
+			add("pool", pool).
+			toString();
+	}
+
+	/**
+	 * Converts successful Engine API responses into the output of a command.
+	 */
+	@FunctionalInterface
+	private interface ResponseConverter
+	{
+		/**
+		 * @param responses the successful responses
+		 * @return the stdout of the command
+		 * @throws JsonProcessingException if a response is not valid JSON
+		 */
+		String apply(List<HttpResponse> responses) throws JsonProcessingException;
+	}
+
+	/**
+	 * Converts an element of an Engine API list into a row of CLI output.
+	 */
+	@FunctionalInterface
+	private interface RowConverter
+	{
+		/**
+		 * @param element the element
+		 * @return the row
+		 */
+		ObjectNode apply(JsonNode element);
+	}
+
+	/**
+	 * The Engine API requests that implement a command.
+	 *
+	 * @param targets   the request targets, sent in order
+	 * @param converter converts the responses into the output of the command
+	 */
+	private record Request(List<String> targets, ResponseConverter converter)
+	{
+	}
+}
@@ -0,0 +1,559 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.canister.core.internal.client.CommandTransport;
+import io.github.cowwoc.canister.core.internal.util.RetryDelay;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.core.spi.util.Processes;
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
+import io.github.cowwoc.canister.docker.resource.EventListener;
+import io.github.cowwoc.canister.docker.resource.EventSubscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Shares {@code docker system events} streams between listeners.
+ * <p>
+ * Each distinct set of filters is backed by a single process that is started when the first listener
+ * subscribes, and stopped when the last listener unsubscribes. Stopped streams are discarded, so that filters
+ * that are only used once, such as those of a single container, do not accumulate. Every line of output is
+ * parsed once and then dispatched to all interested listeners. Listeners that are only interested in a single
+ * object are indexed by the object's ID, so that dispatching an event does not visit unrelated listeners.
+ * <p>
+ * If the stream is interrupted by a transient failure, it is restarted from the time of the last event that
+ * it delivered.
+ */
+public final class EventBus implements AutoCloseable
+{
+	private final InternalDockerClient client;
+	private final ThreadFactory threadFactory;
+	private final ConcurrentMap<List<String>, EventStream> streams = new ConcurrentHashMap<>();
+	private volatile boolean closed;
+	private final Logger log = LoggerFactory.getLogger(EventBus.class);
+
+	/**
+	 * Creates a new event bus.
+	 *
+	 * @param client        the client configuration
+	 * @param threadFactory creates the threads that read the event streams
+	 */
+	public EventBus(InternalDockerClient client, ThreadFactory threadFactory)
+	{
+		assert client != null;
+		assert threadFactory != null;
+		this.client = client;
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * Starts delivering events to a listener.
+	 *
+	 * @param filters  the {@code key=value} filters that the daemon should apply to the stream
+	 * @param actorId  the ID of the only object whose events should be delivered to the listener, or
+	 *                 {@code null} to deliver the events of all objects
+	 * @param listener the listener
+	 * @return the subscription
+	 * @throws NullPointerException  if {@code filters} or {@code listener} are null
+	 * @throws IllegalStateException if the event bus is closed
+	 * @throws IOException           if an I/O error occurs while starting the event stream
+	 */
+	public EventSubscription subscribe(List<String> filters, String actorId, EventListener listener)
+		throws IOException
+	{
+		requireThat(filters, "filters").isNotNull();
+		requireThat(listener, "listener").isNotNull();
+		if (closed)
+			throw new IllegalStateException("The event bus is closed");
+		// Filters are order-independent, so normalize them to share streams
+		List<String> key = filters.stream().sorted().distinct().toList();
+		while (true)
+		{
+			EventStream stream = streams.computeIfAbsent(key, EventStream::new);
+			EventSubscription subscription = stream.add(actorId, listener);
+			if (subscription != null)
+				return subscription;
+			// The last listener unsubscribed before the listener could be added. Replace the stream.
+		}
+	}
+
+	/**
+	 * Stops all streams. Listeners that are still subscribed are notified that the stream failed, so that
+	 * threads that wait for events do not wait until they time out.
+	 */
+	@Override
+	public void close()
+	{
+		closed = true;
+		IllegalStateException cause = new IllegalStateException("The event bus is closed");
+		for (EventStream stream : streams.values())
+			stream.close(cause);
+	}
+
+	/**
+	 * A {@code docker system events} process and the listeners that consume its output.
+	 */
+	private final class EventStream
+	{
+		private final List<String> filters;
+		/**
+		 * Listeners that are interested in all events. Iteration does not acquire any locks.
+		 */
+		private final List<Registration> listeners = new CopyOnWriteArrayList<>();
+		/**
+		 * Listeners that are interested in the events of a single object, indexed by the object's ID.
+		 */
+		private final ConcurrentMap<String, List<Registration>> listenersByActor = new ConcurrentHashMap<>();
+		// The following fields are guarded by "this"
+		private int subscriberCount;
+		/**
+		 * {@code true} if the stream was removed from {@link #streams}. New listeners must subscribe to a new
+		 * stream.
+		 */
+		private boolean retired;
+		private Process process;
+		/**
+		 * Incremented every time that a process is started or stopped. Allows reader threads to detect that their
+		 * process was replaced.
+		 */
+		private long generation;
+		/**
+		 * The delays between consecutive restarts of a process that fails without delivering any events.
+		 */
+		private RetryDelay restartDelay;
+
+		/**
+		 * Creates a new stream.
+		 *
+		 * @param filters the {@code key=value} filters that the daemon should apply to the stream
+		 */
+		EventStream(List<String> filters)
+		{
+			this.filters = filters;
+		}
+
+		/**
+		 * Adds a listener, starting the process if necessary.
+		 *
+		 * @param actorId  the ID of the only object whose events should be delivered to the listener, or
+		 *                 {@code null} to deliver the events of all objects
+		 * @param listener the listener
+		 * @return the subscription, or {@code null} if the stream was retired
+		 * @throws IOException if an I/O error occurs while starting the process
+		 */
+		synchronized EventSubscription add(String actorId, EventListener listener) throws IOException
+		{
+			if (retired)
+				return null;
+			Registration registration = new Registration(this, actorId, listener);
+			if (actorId == null)
+				listeners.add(registration);
+			else
+				listenersByActor.computeIfAbsent(actorId, _ -> new CopyOnWriteArrayList<>()).add(registration);
+			++subscriberCount;
+			if (process == null)
+			{
+				try
+				{
+					start(Instant.now(), null);
+				}
+				catch (IOException | RuntimeException e)
+				{
+					remove(registration);
+					throw e;
+				}
+			}
+			return registration;
+		}
+
+		/**
+		 * Removes a listener, retiring the stream if no listeners remain.
+		 *
+		 * @param registration the listener's registration
+		 */
+		synchronized void remove(Registration registration)
+		{
+			boolean removed;
+			String actorId = registration.actorId;
+			if (actorId == null)
+				removed = listeners.remove(registration);
+			else
+			{
+				List<Registration> actorListeners = listenersByActor.get(actorId);
+				removed = actorListeners != null && actorListeners.remove(registration);
+				if (removed && actorListeners.isEmpty())
+					listenersByActor.remove(actorId, actorListeners);
+			}
+			if (!removed)
+				return;
+			--subscriberCount;
+			if (subscriberCount == 0)
+				retire();
+		}
+
+		/**
+		 * Removes all listeners, stops the process and removes the stream from {@link #streams}.
+		 *
+		 * @return the listeners that were removed
+		 */
+		private List<Registration> retire()
+		{
+			assert Thread.holdsLock(this);
+			List<Registration> removed = new ArrayList<>(listeners);
+			for (List<Registration> actorListeners : listenersByActor.values())
+				removed.addAll(actorListeners);
+			listeners.clear();
+			listenersByActor.clear();
+			subscriberCount = 0;
+			stop();
+			retired = true;
+			streams.remove(filters, this);
+			return removed;
+		}
+
+		/**
+		 * Starts the process.
+		 *
+		 * @param since     the time of the oldest event to deliver
+		 * @param lastEvent the time of the last event that was delivered, or {@code null} if no events were
+		 *                  delivered yet
+		 * @throws IOException if an I/O error occurs while starting the process
+		 */
+		private void start(Instant since, Instant lastEvent) throws IOException
+		{
+			assert Thread.holdsLock(this);
+			if (closed)
+				throw new IllegalStateException("The event bus is closed");
+			// https://docs.docker.com/reference/cli/docker/system/events/
+			List<String> arguments = new ArrayList<>(6 + filters.size() * 2);
+			arguments.add("system");
+			arguments.add("events");
+			arguments.add("--format");
+			arguments.add("json");
+			// Replay any events that took place while the process was starting
+			arguments.add("--since");
+			arguments.add(since.getEpochSecond() + "." + String.format("%09d", since.getNano()));
+			for (String filter : filters)
+			{
+				arguments.add("--filter");
+				arguments.add(filter);
+			}
+			ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
+			Process newProcess = startProcess(arguments, processBuilder);
+			process = newProcess;
+			long newGeneration = ++generation;
+			threadFactory.newThread(() -> read(processBuilder, newProcess, newGeneration, since, lastEvent)).
+				start();
+		}
+
+		/**
+		 * Starts the process that streams the events, preferring the client's transport over the executable.
+		 *
+		 * @param arguments      the command-line arguments to pass to the executable
+		 * @param processBuilder the {@code ProcessBuilder} that runs the executable
+		 * @return the process
+		 * @throws IOException if an I/O error occurs while starting the process
+		 */
+		private Process startProcess(List<String> arguments, ProcessBuilder processBuilder) throws IOException
+		{
+			CommandTransport transport = client.getTransport();
+			if (transport != null)
+			{
+				Process transportProcess = transport.start(arguments);
+				if (transportProcess != null)
+					return transportProcess;
+			}
+			log.debug("Running: {}", processBuilder.command());
+			return processBuilder.start();
+		}
+
+		/**
+		 * Stops the process.
+		 */
+		private void stop()
+		{
+			assert Thread.holdsLock(this);
+			++generation;
+			if (process != null)
+			{
+				process.destroy();
+				process = null;
+			}
+		}
+
+		/**
+		 * Reads events until the process exits.
+		 *
+		 * @param processBuilder the {@code ProcessBuilder} that started the process
+		 * @param process        the process
+		 * @param generation     the value of {@link #generation} when the process was started
+		 * @param since          the time of the oldest event that the process was asked to deliver
+		 * @param lastEvent      the time of the last event that was delivered, or {@code null} if no events were
+		 *                       delivered yet
+		 */
+		private void read(ProcessBuilder processBuilder, Process process, long generation, Instant since,
+			Instant lastEvent)
+		{
+			StringJoiner stderr = new StringJoiner("\n");
+			Queue<Throwable> exceptions = new ConcurrentLinkedQueue<>();
+			Thread stderrThread = threadFactory.newThread(() ->
+				Processes.consume(process.errorReader(), exceptions, stderr::add));
+			stderrThread.start();
+			Instant lastEventBeforeStart = lastEvent;
+			try (BufferedReader reader = process.inputReader())
+			{
+				while (true)
+				{
+					String line = reader.readLine();
+					if (line == null)
+						break;
+					if (line.isBlank())
+						continue;
+					DockerEvent event = client.getEventParser().eventFromServer(line);
+					// Restarted streams replay events that were already delivered, including the last one
+					if (lastEventBeforeStart != null && !event.time().isAfter(lastEventBeforeStart))
+						continue;
+					lastEvent = event.time();
+					dispatch(event);
+				}
+			}
+			catch (IOException e)
+			{
+				exceptions.add(e);
+			}
+			catch (RuntimeException | Error e)
+			{
+				// The output could not be parsed, so restarting the stream would fail the same way. Without this,
+				// the thread would die and the listeners would wait for events that never arrive.
+				log.warn("Failed to process the event stream", e);
+				fail(e, generation);
+				return;
+			}
+			int exitCode;
+			try
+			{
+				exitCode = process.waitFor();
+				stderrThread.join();
+			}
+			catch (InterruptedException _)
+			{
+				process.destroy();
+				return;
+			}
+			CommandResult result = new CommandResult(processBuilder.command(),
+				Processes.getWorkingDirectory(processBuilder), "", stderr.toString(), exitCode);
+			onExit(result, generation, since, lastEvent, lastEvent != lastEventBeforeStart);
+		}
+
+		/**
+		 * Restarts the process after it exits, or notifies the listeners if the failure is permanent.
+		 *
+		 * @param result     the result of the process
+		 * @param generation the value of {@link #generation} when the process was started
+		 * @param since      the time of the oldest event that the process was asked to deliver
+		 * @param lastEvent  the time of the last event that was delivered, or {@code null} if no events were
+		 *                   delivered
+		 * @param delivered  {@code true} if the process delivered any events
+		 */
+		private void onExit(CommandResult result, long generation, Instant since, Instant lastEvent,
+			boolean delivered)
+		{
+			RetryDelay delay;
+			synchronized (this)
+			{
+				if (generation != this.generation)
+				{
+					// The process was stopped on purpose
+					return;
+				}
+				process = null;
+				// Back off if the process keeps failing before it delivers any events
+				if (delivered || restartDelay == null)
+					restartDelay = client.newRetryDelay();
+				delay = restartDelay;
+			}
+			boolean isTransient = true;
+			if (result.exitCode() != 0)
+			{
+				try
+				{
+					client.commandFailed(result);
+					isTransient = false;
+				}
+				catch (IOException e)
+				{
+					log.debug("Event stream failed", e);
+				}
+			}
+			if (!isTransient)
+			{
+				fail(result.unexpectedResponse(), generation);
+				return;
+			}
+			try
+			{
+				Duration slept = delay.sleep();
+				client.getMetrics().onBackoff(slept);
+			}
+			catch (InterruptedException _)
+			{
+				return;
+			}
+			Exception failure;
+			long currentGeneration;
+			synchronized (this)
+			{
+				if (generation != this.generation || subscriberCount == 0)
+					return;
+				try
+				{
+					if (lastEvent == null)
+						start(since, null);
+					else
+						start(lastEvent, lastEvent);
+					return;
+				}
+				catch (IOException | RuntimeException e)
+				{
+					failure = e;
+					currentGeneration = this.generation;
+				}
+			}
+			fail(failure, currentGeneration);
+		}
+
+		/**
+		 * Removes all listeners and notifies them that the stream failed.
+		 *
+		 * @param cause      the reason for the failure
+		 * @param generation the value of {@link #generation} when the failed process was started
+		 */
+		private void fail(Throwable cause, long generation)
+		{
+			List<Registration> failed;
+			synchronized (this)
+			{
+				if (generation != this.generation)
+					return;
+				failed = retire();
+			}
+			notifyFailure(failed, cause);
+		}
+
+		/**
+		 * Removes all listeners and notifies them that the event bus was closed.
+		 *
+		 * @param cause the reason for the failure
+		 */
+		void close(Throwable cause)
+		{
+			List<Registration> removed;
+			synchronized (this)
+			{
+				removed = retire();
+			}
+			notifyFailure(removed, cause);
+		}
+
+		/**
+		 * Notifies listeners that the stream failed.
+		 *
+		 * @param registrations the registrations of the listeners
+		 * @param cause         the reason for the failure
+		 */
+		private void notifyFailure(List<Registration> registrations, Throwable cause)
+		{
+			for (Registration registration : registrations)
+			{
+				try
+				{
+					registration.listener.onFailure(cause);
+				}
+				catch (RuntimeException e)
+				{
+					log.warn("Listener threw an exception", e);
+				}
+			}
+		}
+
+		/**
+		 * Delivers an event to all interested listeners.
+		 *
+		 * @param event the event
+		 */
+		private void dispatch(DockerEvent event)
+		{
+			for (Registration registration : listeners)
+				deliver(registration, event);
+			List<Registration> actorListeners = listenersByActor.get(event.actorId());
+			if (actorListeners != null)
+			{
+				for (Registration registration : actorListeners)
+					deliver(registration, event);
+			}
+		}
+
+		/**
+		 * Delivers an event to a listener.
+		 *
+		 * @param registration the listener's registration
+		 * @param event        the event
+		 */
+		private void deliver(Registration registration, DockerEvent event)
+		{
+			try
+			{
+				registration.listener.onEvent(event);
+			}
+			catch (RuntimeException e)
+			{
+				log.warn("Listener threw an exception", e);
+			}
+		}
+	}
+
+	/**
+	 * A listener's registration with an {@code EventStream}.
+	 */
+	private static final class Registration implements EventSubscription
+	{
+		private final EventStream stream;
+		private final String actorId;
+		private final EventListener listener;
+
+		/**
+		 * Creates a new registration.
+		 *
+		 * @param stream   the stream that the listener is registered with
+		 * @param actorId  the ID of the only object whose events should be delivered to the listener, or
+		 *                 {@code null} to deliver the events of all objects
+		 * @param listener the listener
+		 */
+		Registration(EventStream stream, String actorId, EventListener listener)
+		{
+			this.stream = stream;
+			this.actorId = actorId;
+			this.listener = listener;
+		}
+
+		@Override
+		public void close()
+		{
+			stream.remove(this);
+		}
+	}
+}
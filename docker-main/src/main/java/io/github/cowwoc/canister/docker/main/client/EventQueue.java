@@ -0,0 +1,56 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
+import io.github.cowwoc.canister.docker.resource.EventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers events until a thread is ready to consume them.
+ */
+final class EventQueue implements EventListener
+{
+	/**
+	 * Contains {@code DockerEvent}s, or the {@code Throwable} that terminated the stream.
+	 */
+	private final BlockingQueue<Object> elements = new LinkedBlockingQueue<>();
+
+	@Override
+	public void onEvent(DockerEvent event)
+	{
+		elements.add(event);
+	}
+
+	@Override
+	public void onFailure(Throwable cause)
+	{
+		elements.add(cause);
+	}
+
+	/**
+	 * Waits for the next event, up to a timeout.
+	 *
+	 * @param timeout the maximum amount of time to wait
+	 * @return {@code null} if no event was received before the timeout
+	 * @throws IOException          if the event stream failed due to an I/O error
+	 * @throws InterruptedException if the thread is interrupted before an event is available
+	 */
+	public DockerEvent poll(Duration timeout) throws IOException, InterruptedException
+	{
+		Object element = elements.poll(timeout.toNanos(), TimeUnit.NANOSECONDS);
+		return switch (element)
+		{
+			case null -> null;
+			case DockerEvent event -> event;
+			case IOException e -> throw new IOException(e);
+			case RuntimeException e -> throw e;
+			case Error e -> throw e;
+			case Throwable t -> throw new AssertionError(t);
+			default -> throw new AssertionError("Unexpected element: " + element);
+		};
+	}
+}
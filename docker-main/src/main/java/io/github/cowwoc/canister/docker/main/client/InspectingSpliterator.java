@@ -0,0 +1,130 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.pouch.core.WrappedCheckedException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Inspects resources as they are consumed.
+ * <p>
+ * Resources are inspected in batches that start with a single resource and double in size, up to a maximum,
+ * every time a batch is consumed. Consumers that stop after the first few resources only pay for the
+ * resources that they consumed, while consumers that read everything only run a handful of commands.
+ *
+ * @param <T> the type of the resources
+ */
+final class InspectingSpliterator<T> implements Spliterator<T>
+{
+	private final List<String> ids;
+	private final Inspector<T> inspector;
+	private final int maxBatchSize;
+	/**
+	 * The index of the first ID that was not inspected.
+	 */
+	private int nextId;
+	private int batchSize = 1;
+	/**
+	 * The resources that were inspected but not consumed.
+	 */
+	private final Queue<T> inspected = new ArrayDeque<>();
+
+	/**
+	 * Creates a new instance.
+	 *
+	 * @param ids          the IDs of the resources
+	 * @param inspector    inspects a batch of resources
+	 * @param maxBatchSize the maximum number of resources to inspect at a time
+	 */
+	InspectingSpliterator(List<String> ids, Inspector<T> inspector, int maxBatchSize)
+	{
+		assert ids != null;
+		assert inspector != null;
+		assert maxBatchSize > 0;
+		this.ids = ids;
+		this.inspector = inspector;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * @throws UncheckedIOException    if an I/O error occurs while inspecting the resources
+	 * @throws WrappedCheckedException if the thread is interrupted while inspecting the resources. The
+	 *                                 thread's interrupted status is restored.
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action)
+	{
+		// Resources that were removed after they were listed are omitted by the inspector
+		while (inspected.isEmpty())
+		{
+			if (nextId == ids.size())
+				return false;
+			int end = Math.min(ids.size(), nextId + batchSize);
+			List<String> batch = ids.subList(nextId, end);
+			try
+			{
+				inspected.addAll(inspector.inspect(batch));
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw WrappedCheckedException.wrap(e);
+			}
+			nextId = end;
+			batchSize = Math.min(batchSize * 2, maxBatchSize);
+		}
+		action.accept(inspected.remove());
+		return true;
+	}
+
+	@Override
+	public Spliterator<T> trySplit()
+	{
+		// Batches already run in parallel
+		return null;
+	}
+
+	@Override
+	public long estimateSize()
+	{
+		return inspected.size() + ids.size() - nextId;
+	}
+
+	@Override
+	public int characteristics()
+	{
+		return ORDERED | NONNULL;
+	}
+
+	/**
+	 * Inspects a batch of resources.
+	 *
+	 * @param <T> the type of the resources
+	 */
+	@FunctionalInterface
+	interface Inspector<T>
+	{
+		/**
+		 * Inspects resources.
+		 *
+		 * @param ids the IDs of the resources
+		 * @return the resources, in the order that the IDs were specified. Resources that do not exist are
+		 * 	omitted.
+		 * @throws IOException          if an I/O error occurs. These errors are typically transient, and
+		 *                              retrying the request may resolve the issue.
+		 * @throws InterruptedException if the thread is interrupted before the operation completes
+		 */
+		List<T> inspect(List<String> ids) throws IOException, InterruptedException;
+	}
+}
\ No newline at end of file
@@ -5,6 +5,7 @@
 import io.github.cowwoc.canister.docker.main.parser.ConfigParser;
 import io.github.cowwoc.canister.docker.main.parser.ContainerParser;
 import io.github.cowwoc.canister.docker.main.parser.ContextParser;
+import io.github.cowwoc.canister.docker.main.parser.EventParser;
 import io.github.cowwoc.canister.docker.main.parser.ImageParser;
 import io.github.cowwoc.canister.docker.main.parser.NetworkParser;
 import io.github.cowwoc.canister.docker.main.parser.NodeParser;
@@ -55,4 +56,14 @@ public interface InternalDockerClient extends InternalBuildXClient, DockerClient
 	 * @return a {@code SwarmParser}
 	 */
 	SwarmParser getSwarmParser();
+
+	/**
+	 * @return an {@code EventParser}
+	 */
+	EventParser getEventParser();
+
+	/**
+	 * @return the event bus that shares {@code docker system events} streams between listeners
+	 */
+	EventBus getEventBus();
 }
\ No newline at end of file
@@ -0,0 +1,444 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import io.github.cowwoc.canister.docker.api.client.CacheStatistics;
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
+import io.github.cowwoc.canister.docker.resource.EventListener;
+import io.github.cowwoc.canister.docker.resource.EventSubscription;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A bounded, least-recently-used cache of resource snapshots.
+ * <p>
+ * Resources are cached under the ID or name that they were looked up by. Entries are invalidated when the
+ * daemon reports an event for the resource, or when the client runs a command that refers to the resource by
+ * its ID or one of its names. Changes to other resources are left to the daemon's events. Lookups that do not
+ * find a resource are not cached.
+ */
+public final class ResourceCache implements AutoCloseable
+{
+	/**
+	 * The types of objects whose events invalidate cache entries.
+	 */
+	private static final List<String> EVENT_FILTERS = List.of("type=container", "type=image", "type=network",
+		"type=service", "type=node", "type=config");
+	/**
+	 * The event attributes that reference other objects, or alternate names of the actor.
+	 */
+	private static final List<String> REFERENCE_ATTRIBUTES = List.of("name", "container");
+	/**
+	 * The subcommands that do not modify any resources.
+	 */
+	private static final Set<String> READ_ONLY_SUBCOMMANDS = Set.of("inspect", "ls", "logs", "wait", "events",
+		"version", "info");
+	/**
+	 * The commands that might modify resources without referring to them in their arguments.
+	 */
+	private static final Set<String> UNNAMED_MODIFICATIONS = Set.of("prune", "swarm", "system", "stack",
+		"compose", "context");
+	private final InternalDockerClient client;
+	private final int maximumSize;
+	// The following fields are guarded by "this"
+	private final LinkedHashMap<Key, CachedValue> entries;
+	/**
+	 * Maps the ID and names of each cached resource to the keys that it is cached under.
+	 */
+	private final Map<String, Set<Key>> keysByReference = new HashMap<>();
+	/**
+	 * The types of resources that were cached.
+	 */
+	private final Set<Class<?>> types = new HashSet<>();
+	/**
+	 * The lookups that are in progress. Prevents lookups that race with an invalidation from caching stale
+	 * values.
+	 */
+	private final List<PendingLookup> pendingLookups = new ArrayList<>();
+	private EventSubscription subscription;
+	private boolean closed;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	/**
+	 * Creates a new cache.
+	 *
+	 * @param client      the client configuration
+	 * @param maximumSize the maximum number of resources to cache
+	 */
+	public ResourceCache(InternalDockerClient client, int maximumSize)
+	{
+		assert client != null;
+		assert maximumSize > 0 : maximumSize;
+		this.client = client;
+		this.maximumSize = maximumSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	/**
+	 * Returns a resource, loading it from the daemon if it is not cached.
+	 *
+	 * @param <T>          the type of the resource
+	 * @param type         the type of the resource
+	 * @param key          the ID or name that the resource is being looked up by
+	 * @param loader       loads the resource from the daemon
+	 * @param referencesOf returns the ID and names of a resource
+	 * @return {@code null} if no match is found
+	 * @throws IOException          if an I/O error occurs. These errors are typically transient, and retrying
+	 *                              the request may resolve the issue.
+	 * @throws InterruptedException if the thread is interrupted before the operation completes. This can happen
+	 *                              due to shutdown signals.
+	 */
+	public <T> T get(Class<T> type, String key, Loader<T> loader, Function<T, Set<String>> referencesOf)
+		throws IOException, InterruptedException
+	{
+		Key entryKey = new Key(type, key);
+		PendingLookup lookup = new PendingLookup();
+		synchronized (this)
+		{
+			CachedValue cached = entries.get(entryKey);
+			if (cached != null)
+			{
+				hits.increment();
+				return type.cast(cached.value());
+			}
+			pendingLookups.add(lookup);
+		}
+		misses.increment();
+		T value;
+		try
+		{
+			// Subscribe before loading the value so that any subsequent changes invalidate it
+			ensureSubscribed();
+			value = loader.load();
+		}
+		finally
+		{
+			synchronized (this)
+			{
+				pendingLookups.remove(lookup);
+			}
+		}
+		if (value == null)
+			return value;
+		Set<String> references = referencesOf.apply(value);
+		synchronized (this)
+		{
+			if (closed || lookup.isStale(key, references))
+				return value;
+			CachedValue oldValue = entries.put(entryKey, new CachedValue(value, references));
+			if (oldValue != null)
+				removeFromIndex(entryKey, oldValue.references());
+			for (String reference : references)
+				keysByReference.computeIfAbsent(reference, _ -> new HashSet<>()).add(entryKey);
+			types.add(type);
+			evictExcessEntries();
+		}
+		return value;
+	}
+
+	/**
+	 * Subscribes to the daemon's events if the cache is not already subscribed.
+	 *
+	 * @throws IOException if an I/O error occurs while starting the event stream
+	 */
+	private synchronized void ensureSubscribed() throws IOException
+	{
+		if (!closed && subscription == null)
+			subscription = client.getEventBus().subscribe(EVENT_FILTERS, null, new Invalidator());
+	}
+
+	/**
+	 * Removes the least-recently-used entries until the cache is within its maximum size.
+	 */
+	private void evictExcessEntries()
+	{
+		assert Thread.holdsLock(this);
+		var iterator = entries.entrySet().iterator();
+		while (entries.size() > maximumSize)
+		{
+			Entry<Key, CachedValue> eldest = iterator.next();
+			iterator.remove();
+			removeFromIndex(eldest.getKey(), eldest.getValue().references());
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Removes an entry from {@link #keysByReference}.
+	 *
+	 * @param key        the entry's key
+	 * @param references the ID and names of the resource that the entry holds
+	 */
+	private void removeFromIndex(Key key, Set<String> references)
+	{
+		assert Thread.holdsLock(this);
+		for (String reference : references)
+		{
+			Set<Key> keys = keysByReference.get(reference);
+			if (keys == null)
+				continue;
+			keys.remove(key);
+			if (keys.isEmpty())
+				keysByReference.remove(reference);
+		}
+	}
+
+	/**
+	 * Invalidates all entries that reference a resource.
+	 *
+	 * @param idOrName the ID or name of the resource
+	 */
+	private void invalidate(String idOrName)
+	{
+		assert Thread.holdsLock(this);
+		for (PendingLookup lookup : pendingLookups)
+			lookup.invalidatedIds.add(idOrName);
+		Set<Key> keys = keysByReference.remove(idOrName);
+		if (keys != null)
+		{
+			for (Key key : keys)
+			{
+				CachedValue value = entries.remove(key);
+				if (value != null)
+				{
+					// Remove the entry from the index of the resource's other references
+					removeFromIndex(key, value.references());
+					invalidations.increment();
+				}
+			}
+		}
+		// Entries that were looked up by an ID prefix
+		for (Class<?> type : types)
+		{
+			Key key = new Key(type, idOrName);
+			CachedValue value = entries.remove(key);
+			if (value != null)
+			{
+				removeFromIndex(key, value.references());
+				invalidations.increment();
+			}
+		}
+	}
+
+	/**
+	 * Invalidates the entries that might be modified by a command. This method is invoked before and after the
+	 * command runs, so that lookups that race with the command do not leave stale values behind.
+	 * <p>
+	 * Only the resources that the command refers to by ID or name are invalidated. Commands have side effects
+	 * on other resources, such as the containers of a service that is updated, but the daemon reports events
+	 * for them. Commands that modify resources without referring to them, such as {@code prune}, invalidate
+	 * all entries.
+	 *
+	 * @param arguments the command-line arguments that are passed to the executable
+	 */
+	public void invalidateFor(List<String> arguments)
+	{
+		if (isReadOnly(arguments))
+			return;
+		if (modifiesUnnamedResources(arguments))
+		{
+			clear();
+			return;
+		}
+		synchronized (this)
+		{
+			for (String argument : arguments)
+			{
+				invalidate(argument);
+				// --network=<name>, service scale <name>=<replicas>
+				int separator = argument.indexOf('=');
+				if (separator != -1)
+				{
+					invalidate(argument.substring(0, separator));
+					invalidate(argument.substring(separator + 1));
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param arguments the command-line arguments that are passed to the executable
+	 * @return {@code true} if the command might modify resources without referring to them in its arguments
+	 */
+	private static boolean modifiesUnnamedResources(List<String> arguments)
+	{
+		// docker container prune, docker swarm leave, docker system prune
+		for (int i = 0; i < Math.min(2, arguments.size()); ++i)
+		{
+			if (UNNAMED_MODIFICATIONS.contains(arguments.get(i)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @param arguments the command-line arguments that are passed to the executable
+	 * @return {@code true} if the command does not modify any resources
+	 */
+	private static boolean isReadOnly(List<String> arguments)
+	{
+		// docker container inspect <id>, docker system events, docker version
+		for (int i = 0; i < Math.min(2, arguments.size()); ++i)
+		{
+			if (READ_ONLY_SUBCOMMANDS.contains(arguments.get(i)))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	private synchronized void clear()
+	{
+		for (PendingLookup lookup : pendingLookups)
+			lookup.cleared = true;
+		invalidations.add(entries.size());
+		entries.clear();
+		keysByReference.clear();
+	}
+
+	/**
+	 * Returns statistics about the cache.
+	 *
+	 * @return the statistics
+	 */
+	public synchronized CacheStatistics getStatistics()
+	{
+		return new CacheStatistics(entries.size(), hits.sum(), misses.sum(), evictions.sum(),
+			invalidations.sum());
+	}
+
+	@Override
+	public void close()
+	{
+		EventSubscription subscription;
+		synchronized (this)
+		{
+			if (closed)
+				return;
+			closed = true;
+			subscription = this.subscription;
+			this.subscription = null;
+			entries.clear();
+			keysByReference.clear();
+		}
+		if (subscription != null)
+			subscription.close();
+	}
+
+	/**
+	 * Loads a resource from the daemon.
+	 *
+	 * @param <T> the type of the resource
+	 */
+	@FunctionalInterface
+	public interface Loader<T>
+	{
+		/**
+		 * Loads the resource.
+		 *
+		 * @return {@code null} if no match is found
+		 * @throws IOException          if an I/O error occurs. These errors are typically transient, and
+		 *                              retrying the request may resolve the issue.
+		 * @throws InterruptedException if the thread is interrupted before the operation completes. This can
+		 *                              happen due to shutdown signals.
+		 */
+		T load() throws IOException, InterruptedException;
+	}
+
+	/**
+	 * Invalidates entries in response to daemon events.
+	 */
+	private final class Invalidator implements EventListener
+	{
+		@Override
+		public void onEvent(DockerEvent event)
+		{
+			synchronized (ResourceCache.this)
+			{
+				invalidate(event.actorId());
+				for (String attribute : REFERENCE_ATTRIBUTES)
+				{
+					String value = event.attributes().get(attribute);
+					if (value != null)
+						invalidate(value);
+				}
+			}
+		}
+
+		@Override
+		public void onFailure(Throwable cause)
+		{
+			// Without events, the entries can no longer be trusted. Resubscribe on the next lookup.
+			synchronized (ResourceCache.this)
+			{
+				subscription = null;
+			}
+			clear();
+		}
+	}
+
+	/**
+	 * A lookup that is in progress.
+	 */
+	private static final class PendingLookup
+	{
+		/**
+		 * The IDs and names of the resources that were invalidated during the lookup.
+		 */
+		private final Set<String> invalidatedIds = new HashSet<>();
+		/**
+		 * {@code true} if all entries were invalidated during the lookup.
+		 */
+		private boolean cleared;
+
+		/**
+		 * @param key        the ID or name that the resource was looked up by
+		 * @param references the ID and names of the resource that was found
+		 * @return {@code true} if the resource was invalidated during the lookup
+		 */
+		public boolean isStale(String key, Set<String> references)
+		{
+			if (cleared || invalidatedIds.contains(key))
+				return true;
+			for (String reference : references)
+			{
+				if (invalidatedIds.contains(reference))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Identifies a cache entry.
+	 *
+	 * @param type  the type of the resource
+	 * @param value the ID or name that the resource was looked up by
+	 */
+	private record Key(Class<?> type, String value)
+	{
+	}
+
+	/**
+	 * A cached resource.
+	 *
+	 * @param value      the resource
+	 * @param references the ID and names of the resource
+	 */
+	private record CachedValue(Object value, Set<String> references)
+	{
+	}
+}
@@ -0,0 +1,252 @@
+package io.github.cowwoc.canister.docker.main.client;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Looks up resources of a single type by ID prefix, name, attribute or term.
+ * <p>
+ * Each resource is assigned a slot, and attributes and terms map to the set of slots that contain them.
+ * Adding or removing a resource only updates the entries of that resource. Freed slots are reused, so the
+ * bitsets stay as dense as the number of resources.
+ * <p>
+ * <b>Thread-safety</b>: This class is not thread-safe.
+ *
+ * @param <T> the type of the resources
+ */
+final class ResourceIndex<T>
+{
+	private final Function<T, String> getId;
+	private final Function<T, String> getName;
+	private final Function<T, Collection<?>> getAttributes;
+	private final Function<T, Collection<String>> getTerms;
+	/**
+	 * The resource in each slot, or {@code null} if the slot is free.
+	 */
+	private final List<T> slotToResource = new ArrayList<>();
+	private final BitSet freeSlots = new BitSet();
+	/**
+	 * Sorted so that all the IDs that start with a prefix are adjacent.
+	 */
+	private final NavigableMap<String, Integer> idToSlot = new TreeMap<>();
+	private final Map<String, Integer> nameToSlot = new HashMap<>();
+	private final Map<Object, BitSet> attributeToSlots = new HashMap<>();
+	private final Map<String, BitSet> termToSlots = new HashMap<>();
+
+	/**
+	 * Creates a new index.
+	 *
+	 * @param getId         returns the ID of a resource
+	 * @param getName       returns the unique name of a resource, or {@code null} if it does not have one
+	 * @param getAttributes returns the values of a resource's enumerated properties, such as its status
+	 * @param getTerms      returns the strings that a resource can be looked up by, such as its labels
+	 */
+	ResourceIndex(Function<T, String> getId, Function<T, String> getName,
+		Function<T, Collection<?>> getAttributes, Function<T, Collection<String>> getTerms)
+	{
+		assert getId != null;
+		assert getName != null;
+		assert getAttributes != null;
+		assert getTerms != null;
+		this.getId = getId;
+		this.getName = getName;
+		this.getAttributes = getAttributes;
+		this.getTerms = getTerms;
+	}
+
+	/**
+	 * Applies the differences between two versions of the resources.
+	 *
+	 * @param <K>      the type of the resources' keys
+	 * @param previous the previous version of the resources
+	 * @param current  the current version of the resources
+	 */
+	<K> void update(Map<K, T> previous, Map<K, T> current)
+	{
+		// Snapshots share the instances of resources that did not change. Resources are compared by identity
+		// because equals() might ignore properties that are indexed, such as a container's status.
+		for (Entry<K, T> entry : previous.entrySet())
+		{
+			if (current.get(entry.getKey()) != entry.getValue())
+				remove(entry.getValue());
+		}
+		for (Entry<K, T> entry : current.entrySet())
+		{
+			if (previous.get(entry.getKey()) != entry.getValue())
+				add(entry.getValue());
+		}
+	}
+
+	/**
+	 * Adds a resource, replacing any resource with the same ID.
+	 *
+	 * @param resource the resource
+	 */
+	void add(T resource)
+	{
+		String id = getId.apply(resource);
+		Integer existingSlot = idToSlot.get(id);
+		if (existingSlot != null)
+			removeSlot(id, existingSlot);
+
+		int slot = freeSlots.nextSetBit(0);
+		if (slot == -1)
+		{
+			slot = slotToResource.size();
+			slotToResource.add(resource);
+		}
+		else
+		{
+			freeSlots.clear(slot);
+			slotToResource.set(slot, resource);
+		}
+		idToSlot.put(id, slot);
+		String name = getName.apply(resource);
+		if (name != null)
+			nameToSlot.put(name, slot);
+		for (Object attribute : getAttributes.apply(resource))
+			attributeToSlots.computeIfAbsent(attribute, _ -> new BitSet()).set(slot);
+		for (String term : getTerms.apply(resource))
+			termToSlots.computeIfAbsent(term, _ -> new BitSet()).set(slot);
+	}
+
+	/**
+	 * Removes a resource. Has no effect if the resource is not indexed.
+	 *
+	 * @param resource the resource
+	 */
+	void remove(T resource)
+	{
+		String id = getId.apply(resource);
+		Integer slot = idToSlot.get(id);
+		if (slot != null)
+			removeSlot(id, slot);
+	}
+
+	/**
+	 * Removes the resource in a slot.
+	 *
+	 * @param id   the ID of the resource
+	 * @param slot the slot
+	 */
+	private void removeSlot(String id, int slot)
+	{
+		T resource = slotToResource.get(slot);
+		idToSlot.remove(id);
+		String name = getName.apply(resource);
+		if (name != null)
+			nameToSlot.remove(name, slot);
+		for (Object attribute : getAttributes.apply(resource))
+			clear(attributeToSlots, attribute, slot);
+		for (String term : getTerms.apply(resource))
+			clear(termToSlots, term, slot);
+		slotToResource.set(slot, null);
+		freeSlots.set(slot);
+	}
+
+	/**
+	 * Removes a slot from the slots of a key, dropping the key once no slots remain.
+	 *
+	 * @param <K>        the type of the key
+	 * @param keyToSlots maps each key to the slots that contain it
+	 * @param key        the key
+	 * @param slot       the slot
+	 */
+	private static <K> void clear(Map<K, BitSet> keyToSlots, K key, int slot)
+	{
+		BitSet slots = keyToSlots.get(key);
+		if (slots == null)
+			return;
+		slots.clear(slot);
+		if (slots.isEmpty())
+			keyToSlots.remove(key);
+	}
+
+	/**
+	 * Returns the resource with a name.
+	 *
+	 * @param name the name
+	 * @return null if no match is found
+	 */
+	T getByName(String name)
+	{
+		Integer slot = nameToSlot.get(name);
+		if (slot == null)
+			return null;
+		return slotToResource.get(slot);
+	}
+
+	/**
+	 * Returns the resources whose ID starts with a prefix.
+	 *
+	 * @param prefix the prefix
+	 * @return an empty list if no match is found
+	 */
+	List<T> getByIdPrefix(String prefix)
+	{
+		List<T> resources = new ArrayList<>();
+		for (Entry<String, Integer> entry : idToSlot.tailMap(prefix, true).entrySet())
+		{
+			if (!entry.getKey().startsWith(prefix))
+				break;
+			resources.add(slotToResource.get(entry.getValue()));
+		}
+		return resources;
+	}
+
+	/**
+	 * Returns the resources that have an attribute.
+	 *
+	 * @param attribute the value of the attribute
+	 * @return an empty list if no match is found
+	 */
+	List<T> getByAttribute(Object attribute)
+	{
+		return getBySlots(attributeToSlots.get(attribute));
+	}
+
+	/**
+	 * Returns the resources that have a term.
+	 *
+	 * @param term the term
+	 * @return an empty list if no match is found
+	 */
+	List<T> getByTerm(String term)
+	{
+		return getBySlots(termToSlots.get(term));
+	}
+
+	/**
+	 * Returns the resources in a set of slots.
+	 *
+	 * @param slots the slots, or {@code null} if there are none
+	 * @return the resources
+	 */
+	private List<T> getBySlots(BitSet slots)
+	{
+		if (slots == null)
+			return List.of();
+		List<T> resources = new ArrayList<>(slots.cardinality());
+		for (int slot = slots.nextSetBit(0); slot != -1; slot = slots.nextSetBit(slot + 1))
+			resources.add(slotToResource.get(slot));
+		return resources;
+	}
+
+	/**
+	 * Returns the number of resources.
+	 *
+	 * @return the number of resources
+	 */
+	int size()
+	{
+		return idToSlot.size();
+	}
+}
\ No newline at end of file
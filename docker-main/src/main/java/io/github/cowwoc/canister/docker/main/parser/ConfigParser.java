@@ -4,6 +4,9 @@
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonLinesCollector;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
 import io.github.cowwoc.canister.docker.id.ConfigId;
@@ -56,64 +59,98 @@ protected InternalDockerClient getClient()
 	public List<ConfigElement> list(CommandResult result)
 	{
 		if (result.exitCode() != 0)
+			listFailed(result);
+		return collect(result.stdout(), listCollector());
+	}
+
+	/**
+	 * Returns a collector that parses the configs one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<ConfigElement>> listCollector()
+	{
+		JsonFieldReader reader = new JsonFieldReader(getClient().getJsonMapper(), "ID", "Name");
+		return new JsonLinesCollector<>(reader, fields ->
 		{
-			if (result.stderr().startsWith(NOT_SWARM_MANAGER))
-				throw new NotSwarmManagerException();
-			throw result.unexpectedResponse();
-		}
-		JsonMapper jm = getClient().getJsonMapper();
-		try
-		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<ConfigElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				ConfigId id = ConfigId.of(json.get("ID").textValue());
-				String name = json.get("Name").textValue();
-				elements.add(new ConfigElement(id, name));
-			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
-		}
+			ConfigId id = ConfigId.of(fields.getString("ID"));
+			String name = fields.getString("Name");
+			return new ConfigElement(id, name);
+		});
 	}
 
 	/**
-	 * Looks up a config by its ID or name.
+	 * Throws the exception that corresponds to a failure to list the configs.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public void listFailed(CommandResult result)
+	{
+		if (result.stderr().startsWith(NOT_SWARM_MANAGER))
+			throw new NotSwarmManagerException();
+		throw result.unexpectedResponse();
+	}
+
+	/**
+	 * Looks up configs by their IDs or names.
 	 *
 	 * @param result the result of executing a command
-	 * @return null if no match is found
+	 * @return the configs that were found, in the order that they were requested. Configs that do not exist
+	 * 	are omitted.
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public List<DefaultConfig> configsFromServer(CommandResult result)
+	{
+		JsonNode json = inspectOutputFromServer(result);
+		List<DefaultConfig> configs = new ArrayList<>(json.size());
+		for (JsonNode config : json)
+			configs.add(configFromServer(config));
+		return configs;
+	}
+
+	/**
+	 * Looks up the first config that was returned by an {@code inspect} command, along with the value of one
+	 * of its labels.
+	 *
+	 * @param result the result of executing the command
+	 * @param label  the name of the label
+	 * @return {@code null} if no config was found
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public Labeled<DefaultConfig> labeledConfigFromServer(CommandResult result, String label)
+	{
+		JsonNode json = inspectOutputFromServer(result);
+		if (json.isEmpty())
+			return null;
+		JsonNode config = json.get(0);
+		return new Labeled<>(configFromServer(config), getLabel(config.get("Spec").get("Labels"), label));
+	}
+
+	/**
+	 * Parses the output of an {@code inspect} command.
+	 *
+	 * @param result the result of executing the command
+	 * @return the JSON representation of the configs that were found
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 */
-	public DefaultConfig configFromServer(CommandResult result)
+	private JsonNode inspectOutputFromServer(CommandResult result)
 	{
 		if (result.exitCode() != 0)
 		{
 			String stderr = result.stderr();
 			if (stderr.startsWith(NOT_SWARM_MANAGER))
 				throw new NotSwarmManagerException();
-			if (NOT_FOUND.matcher(stderr).matches())
-				return null;
-			throw result.unexpectedResponse();
+			if (!everyLineMatches(stderr, List.of(NOT_FOUND)))
+				throw result.unexpectedResponse();
 		}
 		JsonMapper jm = getClient().getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
-			assert json.size() == 1 : json;
-
-			JsonNode config = json.get(0);
-			ConfigId actualId = ConfigId.of(config.get("ID").textValue());
-			JsonNode spec = config.get("Spec");
-			String name = spec.get("Name").textValue();
-			String data = spec.get("Data").textValue();
-			ByteBuffer decodedData = ByteBuffer.wrap(Base64.getUrlDecoder().decode(data));
-			return new DefaultConfig(getClient(), actualId, name, decodedData);
+			String stdout = result.stdout();
+			if (stdout.isBlank())
+				return jm.createArrayNode();
+			return jm.readTree(stdout);
 		}
 		catch (JsonProcessingException e)
 		{
@@ -121,6 +158,20 @@ public DefaultConfig configFromServer(CommandResult result)
 		}
 	}
 
+	/**
+	 * @param config the JSON representation of a config
+	 * @return the config
+	 */
+	private DefaultConfig configFromServer(JsonNode config)
+	{
+		ConfigId actualId = ConfigId.of(config.get("ID").textValue());
+		JsonNode spec = config.get("Spec");
+		String name = spec.get("Name").textValue();
+		String data = spec.get("Data").textValue();
+		ByteBuffer decodedData = ByteBuffer.wrap(Base64.getUrlDecoder().decode(data));
+		return new DefaultConfig(getClient(), actualId, name, decodedData);
+	}
+
 	/**
 	 * Creates a config.
 	 *
@@ -5,6 +5,9 @@
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonLinesCollector;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.docker.id.ContainerId;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
@@ -63,7 +66,7 @@ protected InternalDockerClient getClient()
 	}
 
 	/**
-	 * Lists all the configs.
+	 * Lists all the containers.
 	 *
 	 * @param result the result of executing a command
 	 * @return an empty list if no match is found
@@ -71,64 +74,89 @@ protected InternalDockerClient getClient()
 	public List<ContainerElement> list(CommandResult result)
 	{
 		if (result.exitCode() != 0)
-			throw result.unexpectedResponse();
-		JsonMapper jm = getClient().getJsonMapper();
-		try
-		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<ContainerElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				ContainerId id = ContainerId.of(json.get("ID").textValue());
-				String name = json.get("Names").textValue();
-				assert that(name, "name").doesNotContain(",").
-					elseThrow();
-				elements.add(new ContainerElement(id, name));
-			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
+			listFailed(result);
+		return collect(result.stdout(), listCollector());
+	}
+
+	/**
+	 * Returns a collector that parses the containers one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<ContainerElement>> listCollector()
+	{
+		JsonFieldReader reader = new JsonFieldReader(getClient().getJsonMapper(), "ID", "Names");
+		return new JsonLinesCollector<>(reader, fields ->
 		{
-			throw new AssertionError(e);
-		}
+			ContainerId id = ContainerId.of(fields.getString("ID"));
+			String name = fields.getString("Names");
+			assert that(name, "name").doesNotContain(",").
+				elseThrow();
+			return new ContainerElement(id, name);
+		});
 	}
 
 	/**
-	 * Looks up a container by its ID or name.
+	 * Throws the exception that corresponds to a failure to list the containers.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 */
+	public void listFailed(CommandResult result)
+	{
+		throw result.unexpectedResponse();
+	}
+
+	/**
+	 * Looks up containers by their IDs or names.
 	 *
 	 * @param result the result of executing a command
-	 * @return null if no match is found
+	 * @return the containers that were found, in the order that they were requested. Containers that do not
+	 * 	exist are omitted.
 	 */
-	public DefaultContainer configFromServer(CommandResult result)
+	public List<DefaultContainer> containersFromServer(CommandResult result)
 	{
-		if (result.exitCode() != 0)
-		{
-			if (CONTAINER_NOT_FOUND.matcher(result.stderr()).matches())
-				return null;
+		JsonNode json = inspectOutputFromServer(result);
+		List<DefaultContainer> containers = new ArrayList<>(json.size());
+		for (JsonNode container : json)
+			containers.add(containerFromServer(container));
+		return containers;
+	}
+
+	/**
+	 * Looks up the first container that was returned by an {@code inspect} command, along with the value of
+	 * one of its labels.
+	 *
+	 * @param result the result of executing the command
+	 * @param label  the name of the label
+	 * @return {@code null} if no container was found
+	 */
+	public Labeled<DefaultContainer> labeledContainerFromServer(CommandResult result, String label)
+	{
+		JsonNode json = inspectOutputFromServer(result);
+		if (json.isEmpty())
+			return null;
+		JsonNode container = json.get(0);
+		return new Labeled<>(containerFromServer(container),
+			getLabel(container.get("Config").get("Labels"), label));
+	}
+
+	/**
+	 * Parses the output of an {@code inspect} command.
+	 *
+	 * @param result the result of executing the command
+	 * @return the JSON representation of the containers that were found
+	 */
+	private JsonNode inspectOutputFromServer(CommandResult result)
+	{
+		if (result.exitCode() != 0 && !everyLineMatches(result.stderr(), List.of(CONTAINER_NOT_FOUND)))
 			throw result.unexpectedResponse();
-		}
+		JsonMapper jm = getClient().getJsonMapper();
 		try
 		{
-			JsonNode json = getClient().getJsonMapper().readTree(result.stdout());
-			assert json.size() == 1 : json;
-			JsonNode container = json.get(0);
-
-			ContainerId actualId = ContainerId.of(container.get("Id").textValue());
-			String name = container.get("Name").textValue();
-			// The internal representation of container names starts with a slash for historical reasons. Strip it
-			// away.
-			assert that(name, "name").startsWith("/").elseThrow();
-			name = name.substring(1);
-
-			HostConfiguration hostConfiguration = getHostConfiguration(container.get("HostConfig"));
-			NetworkConfiguration networkConfiguration = getNetworkConfiguration(container.get("NetworkSettings"));
-			JsonNode stateNode = container.get("State");
-			Status status = getStatus(stateNode.get("Status"));
-			return new DefaultContainer(getClient(), actualId, name, hostConfiguration, networkConfiguration,
-				status);
+			String stdout = result.stdout();
+			if (stdout.isBlank())
+				return jm.createArrayNode();
+			return jm.readTree(stdout);
 		}
 		catch (JsonProcessingException e)
 		{
@@ -136,6 +164,27 @@ public DefaultContainer configFromServer(CommandResult result)
 		}
 	}
 
+	/**
+	 * @param container the JSON representation of a container
+	 * @return the container
+	 */
+	private DefaultContainer containerFromServer(JsonNode container)
+	{
+		ContainerId actualId = ContainerId.of(container.get("Id").textValue());
+		String name = container.get("Name").textValue();
+		// The internal representation of container names starts with a slash for historical reasons. Strip it
+		// away.
+		assert that(name, "name").startsWith("/").elseThrow();
+		name = name.substring(1);
+
+		HostConfiguration hostConfiguration = getHostConfiguration(container.get("HostConfig"));
+		NetworkConfiguration networkConfiguration = getNetworkConfiguration(container.get("NetworkSettings"));
+		JsonNode stateNode = container.get("State");
+		Status status = getStatus(stateNode.get("Status"));
+		return new DefaultContainer(getClient(), actualId, name, hostConfiguration, networkConfiguration,
+			status);
+	}
+
 	/**
 	 * @param json the JSON representation of a Status
 	 * @return the enum value
@@ -5,6 +5,9 @@
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonLinesCollector;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.docker.id.ContextId;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
@@ -72,84 +75,89 @@ protected InternalDockerClient getClient()
 	public List<ContextElement> list(CommandResult result)
 	{
 		if (result.exitCode() != 0)
-			throw result.unexpectedResponse();
-		JsonMapper jm = getClient().getJsonMapper();
-		try
+			listFailed(result);
+		return collect(result.stdout(), listCollector());
+	}
+
+	/**
+	 * Returns a collector that parses the contexts one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<ContextElement>> listCollector()
+	{
+		JsonFieldReader reader = new JsonFieldReader(getClient().getJsonMapper(),
+			"Current", "Description", "DockerEndpoint", "Error", "Name");
+		return new JsonLinesCollector<>(reader, fields ->
 		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<ContextElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				boolean current = json.get("Current").booleanValue();
-				String description = json.get("Description").textValue();
-				String endpoint = json.get("DockerEndpoint").textValue();
-				String error = json.get("Error").textValue();
-				String name = json.get("Name").textValue();
-				ContextId id;
-				if (name.isEmpty())
-					id = null;
-				else
-					id = ContextId.of(name);
+			boolean current = fields.getBoolean("Current");
+			String description = fields.getString("Description");
+			String endpoint = fields.getString("DockerEndpoint");
+			String error = fields.getString("Error");
+			String name = fields.getString("Name");
+			ContextId id;
+			if (name.isEmpty())
+				id = null;
+			else
+				id = ContextId.of(name);
 
-				try
-				{
-					elements.add(new ContextElement(id, current, description, endpoint, error));
-				}
-				catch (IllegalArgumentException e)
-				{
-					log.error(json.toString(), e);
-					throw e;
-				}
+			try
+			{
+				return new ContextElement(id, current, description, endpoint, error);
 			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
-		}
+			catch (IllegalArgumentException e)
+			{
+				log.error(fields.toString(), e);
+				throw e;
+			}
+		});
 	}
 
 	/**
-	 * Looks up a context.
+	 * Throws the exception that corresponds to a failure to list the contexts.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 */
+	public void listFailed(CommandResult result)
+	{
+		throw result.unexpectedResponse();
+	}
+
+	/**
+	 * Looks up contexts.
 	 *
 	 * @param result the result of executing a command
-	 * @return null if no match is found
+	 * @return the contexts that were found, in the order that they were requested. Contexts that do not exist
+	 * 	are omitted.
 	 */
-	public Context getContext(CommandResult result)
+	public List<Context> contextsFromServer(CommandResult result)
 	{
-		if (result.exitCode() != 0)
-		{
-			String stderr = result.stderr();
-			for (Pattern pattern : CONTEXT_NOT_FOUND)
-			{
-				Matcher matcher = pattern.matcher(stderr);
-				if (matcher.matches())
-					return null;
-			}
+		if (result.exitCode() != 0 && !everyLineMatches(result.stderr(), CONTEXT_NOT_FOUND))
 			throw result.unexpectedResponse();
-		}
 		JsonMapper jm = getClient().getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
-			assert json.size() == 1 : json;
-			JsonNode context = json.get(0);
-
-			ContextId actualId = ContextId.of(context.get("Name").textValue());
-			JsonNode metadata = context.get("Metadata");
-			JsonNode descriptionNode = metadata.get("Description");
-			String description;
-			if (descriptionNode == null)
-				description = "";
-			else
-				description = descriptionNode.textValue();
-			JsonNode endpoints = context.get("Endpoints");
-			JsonNode dockerEndpoint = endpoints.get("docker");
-			String endpoint = dockerEndpoint.get("Host").textValue();
-			return new DefaultContext(getClient(), actualId, description, endpoint);
+			String stdout = result.stdout();
+			if (stdout.isBlank())
+				return List.of();
+			JsonNode json = jm.readTree(stdout);
+			List<Context> contexts = new ArrayList<>(json.size());
+			for (JsonNode context : json)
+			{
+				ContextId actualId = ContextId.of(context.get("Name").textValue());
+				JsonNode metadata = context.get("Metadata");
+				JsonNode descriptionNode = metadata.get("Description");
+				String description;
+				if (descriptionNode == null)
+					description = "";
+				else
+					description = descriptionNode.textValue();
+				JsonNode endpoints = context.get("Endpoints");
+				JsonNode dockerEndpoint = endpoints.get("docker");
+				String endpoint = dockerEndpoint.get("Host").textValue();
+				contexts.add(new DefaultContext(getClient(), actualId, description, endpoint));
+			}
+			return contexts;
 		}
 		catch (JsonProcessingException e)
 		{
@@ -1,5 +1,6 @@
 package io.github.cowwoc.canister.docker.main.parser;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import io.github.cowwoc.canister.core.client.Client;
 import io.github.cowwoc.canister.core.internal.parser.AbstractParser;
 
@@ -29,4 +30,43 @@ protected DockerParser(Client client)
 	{
 		super(client);
 	}
+
+	/**
+	 * Returns the value of a resource's label.
+	 *
+	 * @param labels the JSON representation of the resource's labels, or {@code null} if the resource does not
+	 *               have any
+	 * @param name   the name of the label
+	 * @return {@code null} if the label is not set
+	 */
+	protected static String getLabel(JsonNode labels, String name)
+	{
+		if (labels == null)
+			return null;
+		JsonNode value = labels.get(name);
+		if (value == null)
+			return null;
+		return value.textValue();
+	}
+
+	/**
+	 * A resource and the value of one of its labels.
+	 *
+	 * @param <T>      the type of the resource
+	 * @param resource the resource
+	 * @param label    the value of the label, or {@code null} if the label is not set
+	 */
+	public record Labeled<T>(T resource, String label)
+	{
+		/**
+		 * Creates a new instance.
+		 *
+		 * @param resource the resource
+		 * @param label    the value of the label, or {@code null} if the label is not set
+		 */
+		public Labeled
+		{
+			assert resource != null;
+		}
+	}
 }
@@ -0,0 +1,73 @@
+package io.github.cowwoc.canister.docker.main.parser;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Parses responses to {@code system events} commands.
+ */
+public final class EventParser extends DockerParser
+{
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	/**
+	 * Creates a parser.
+	 *
+	 * @param client the client configuration
+	 */
+	public EventParser(InternalDockerClient client)
+	{
+		super(client);
+	}
+
+	@Override
+	protected InternalDockerClient getClient()
+	{
+		return (InternalDockerClient) super.getClient();
+	}
+
+	/**
+	 * Parses a line that was returned by {@code docker system events --format json}.
+	 *
+	 * @param line a line of the command's output
+	 * @return the event
+	 */
+	public DockerEvent eventFromServer(String line)
+	{
+		// {"status":"start","id":"9d18...","from":"busybox","Type":"container","Action":"start",
+		//  "Actor":{"ID":"9d18...","Attributes":{"image":"busybox","name":"jolly_cray"}},"scope":"local",
+		//  "time":1719305423,"timeNano":1719305423123456789}
+		try
+		{
+			JsonNode json = getClient().getJsonMapper().readTree(line);
+			String type = json.get("Type").textValue();
+			String action = json.get("Action").textValue();
+			JsonNode actor = json.get("Actor");
+			String actorId = actor.get("ID").textValue();
+			JsonNode attributesNode = actor.get("Attributes");
+			Map<String, String> attributes;
+			if (attributesNode == null || attributesNode.isNull())
+				attributes = Map.of();
+			else
+			{
+				attributes = HashMap.newHashMap(attributesNode.size());
+				for (Entry<String, JsonNode> entry : attributesNode.properties())
+					attributes.put(entry.getKey(), entry.getValue().textValue());
+			}
+			long timeNano = json.get("timeNano").longValue();
+			Instant time = Instant.ofEpochSecond(timeNano / NANOS_PER_SECOND, timeNano % NANOS_PER_SECOND);
+			return new DockerEvent(type, action, actorId, attributes, time);
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -6,6 +6,9 @@
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
 import io.github.cowwoc.canister.core.id.ImageId;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonFields;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.docker.api.client.DockerClient;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
@@ -20,6 +23,7 @@
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -73,70 +77,53 @@ protected InternalDockerClient getClient()
 	public List<DockerImageElement> list(CommandResult result)
 	{
 		if (result.exitCode() != 0)
-			throw result.unexpectedResponse();
-		Map<String, Map<String, Set<String>>> idToRepositoryToTags = new HashMap<>();
-		Map<String, Map<String, String>> idToRepositoryToDigest = new HashMap<>();
-		JsonMapper jm = getClient().getJsonMapper();
-		try
-		{
-			for (String line : SPLIT_LINES.split(result.stdout()))
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				String id = json.get("ID").textValue();
-				Map<String, String> repositoryToDigest = idToRepositoryToDigest.computeIfAbsent(id,
-					_ -> new HashMap<>());
-				Map<String, Set<String>> referenceToTags = idToRepositoryToTags.computeIfAbsent(id,
-					_ -> new HashMap<>());
-
-				String reference = json.get("Repository").textValue();
-				if (reference.equals("<none>"))
-					continue;
+			listFailed(result);
+		return collect(result.stdout(), listCollector());
+	}
 
-				String digest = json.get("Digest").textValue();
-				if (!digest.equals("<none>"))
-					repositoryToDigest.put(reference, digest);
+	/**
+	 * Returns a collector that parses the images one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<DockerImageElement>> listCollector()
+	{
+		return new ImageListCollector(new JsonFieldReader(getClient().getJsonMapper(), "ID", "Repository",
+			"Digest", "Tag"));
+	}
 
-				String tag = json.get("Tag").textValue();
-				if (!tag.equals("<none>"))
-					referenceToTags.computeIfAbsent(reference, _ -> new HashSet<>()).add(tag);
-			}
-			List<DockerImageElement> elements = new ArrayList<>(idToRepositoryToTags.size());
-			for (String id : idToRepositoryToTags.keySet())
-			{
-				Map<String, Set<String>> repositoryToTags = idToRepositoryToTags.get(id);
-				Map<String, String> repositoryToDigest = idToRepositoryToDigest.get(id);
-				elements.add(new DockerImageElement(ImageId.of(id), repositoryToTags, repositoryToDigest));
-			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
-		}
+	/**
+	 * Throws the exception that corresponds to a failure to list the images.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 */
+	public void listFailed(CommandResult result)
+	{
+		throw result.unexpectedResponse();
 	}
 
 	/**
-	 * Looks up an image by its ID or name.
+	 * Looks up images by their IDs or names.
 	 *
 	 * @param result the result of executing a command
-	 * @return null if no match is found
+	 * @return the images that were found, in the order that they were requested. Images that do not exist are
+	 * 	omitted.
 	 */
-	public DockerImage imageFromServer(CommandResult result)
+	public List<DockerImage> imagesFromServer(CommandResult result)
 	{
-		if (result.exitCode() != 0)
-		{
-			if (NOT_FOUND.matcher(result.stderr()).matches())
-				return null;
+		if (result.exitCode() != 0 && !everyLineMatches(result.stderr(), List.of(NOT_FOUND)))
 			throw result.unexpectedResponse();
-		}
 		JsonMapper jm = getClient().getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
-			assert json.size() == 1 : json;
-			return imageFromServer(json.get(0));
+			String stdout = result.stdout();
+			if (stdout.isBlank())
+				return List.of();
+			JsonNode json = jm.readTree(stdout);
+			List<DockerImage> images = new ArrayList<>(json.size());
+			for (JsonNode image : json)
+				images.add(imageFromServer(image));
+			return images;
 		}
 		catch (JsonProcessingException e)
 		{
@@ -276,4 +263,64 @@ public void remove(CommandResult result) throws ResourceInUseException
 			throw result.unexpectedResponse();
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Parses the output of {@code image ls}. The command returns a separate line for each tag of an image, so
+	 * the lines are grouped by image ID.
+	 */
+	private static final class ImageListCollector implements LineCollector<List<DockerImageElement>>
+	{
+		private final JsonFieldReader reader;
+		private final Map<String, Map<String, Set<String>>> idToRepositoryToTags = new HashMap<>();
+		private final Map<String, Map<String, String>> idToRepositoryToDigest = new HashMap<>();
+
+		/**
+		 * Creates a new collector.
+		 *
+		 * @param reader reads the fields of each line
+		 */
+		ImageListCollector(JsonFieldReader reader)
+		{
+			assert reader != null;
+			this.reader = reader;
+		}
+
+		@Override
+		public void accept(String line)
+		{
+			if (line.isBlank())
+				return;
+			JsonFields fields = reader.read(line);
+			String id = fields.getString("ID");
+			Map<String, String> repositoryToDigest = idToRepositoryToDigest.computeIfAbsent(id,
+				_ -> new HashMap<>());
+			Map<String, Set<String>> referenceToTags = idToRepositoryToTags.computeIfAbsent(id,
+				_ -> new HashMap<>());
+
+			String reference = fields.getString("Repository");
+			if (reference.equals("<none>"))
+				return;
+
+			String digest = fields.getString("Digest");
+			if (!digest.equals("<none>"))
+				repositoryToDigest.put(reference, digest);
+
+			String tag = fields.getString("Tag");
+			if (!tag.equals("<none>"))
+				referenceToTags.computeIfAbsent(reference, _ -> new HashSet<>()).add(tag);
+		}
+
+		@Override
+		public List<DockerImageElement> finish()
+		{
+			List<DockerImageElement> elements = new ArrayList<>(idToRepositoryToTags.size());
+			for (Entry<String, Map<String, Set<String>>> entry : idToRepositoryToTags.entrySet())
+			{
+				String id = entry.getKey();
+				Map<String, String> repositoryToDigest = idToRepositoryToDigest.get(id);
+				elements.add(new DockerImageElement(ImageId.of(id), entry.getValue(), repositoryToDigest));
+			}
+			return elements;
+		}
+	}
+}
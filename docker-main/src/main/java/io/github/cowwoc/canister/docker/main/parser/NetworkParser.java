@@ -3,6 +3,9 @@
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonLinesCollector;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.docker.id.NetworkId;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
@@ -13,7 +16,6 @@
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -49,21 +51,58 @@ protected InternalDockerClient getClient()
 	public List<NetworkElement> list(CommandResult result)
 	{
 		if (result.exitCode() != 0)
+			listFailed(result);
+		return collect(result.stdout(), listCollector());
+	}
+
+	/**
+	 * Returns a collector that parses the networks one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<NetworkElement>> listCollector()
+	{
+		JsonFieldReader reader = new JsonFieldReader(getClient().getJsonMapper(), "ID", "Name");
+		return new JsonLinesCollector<>(reader, fields ->
+		{
+			NetworkId id = NetworkId.of(fields.getString("ID"));
+			String name = fields.getString("Name");
+			return new NetworkElement(id, name);
+		});
+	}
+
+	/**
+	 * Throws the exception that corresponds to a failure to list the networks.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 */
+	public void listFailed(CommandResult result)
+	{
+		throw result.unexpectedResponse();
+	}
+
+	/**
+	 * Looks up networks by their IDs or names.
+	 *
+	 * @param result the result of executing a command
+	 * @return the networks that were found, in the order that they were requested. Networks that do not exist
+	 * 	are omitted.
+	 */
+	public List<Network> networksFromServer(CommandResult result)
+	{
+		if (result.exitCode() != 0 && !everyLineMatches(result.stderr(), List.of(NOT_FOUND)))
 			throw result.unexpectedResponse();
 		JsonMapper jm = getClient().getJsonMapper();
-		List<NetworkElement> elements = new ArrayList<>();
 		try
 		{
-			for (String line : SPLIT_LINES.split(result.stdout()))
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				NetworkId id = NetworkId.of(json.get("ID").textValue());
-				String name = json.get("Name").textValue();
-				elements.add(new NetworkElement(id, name));
-			}
-			return elements;
+			String stdout = result.stdout();
+			if (stdout.isBlank())
+				return List.of();
+			JsonNode json = jm.readTree(stdout);
+			List<Network> networks = new ArrayList<>(json.size());
+			for (JsonNode network : json)
+				networks.add(networkFromServer(network));
+			return networks;
 		}
 		catch (JsonProcessingException e)
 		{
@@ -72,45 +111,26 @@ public List<NetworkElement> list(CommandResult result)
 	}
 
 	/**
-	 * @param result the result of executing a command
-	 * @return null if no match is found
+	 * @param network the JSON representation of a network
+	 * @return the network
 	 */
-	public Network networkFromServer(CommandResult result)
+	private Network networkFromServer(JsonNode network)
 	{
-		if (result.exitCode() != 0)
-		{
-			Matcher matcher = NOT_FOUND.matcher(result.stderr());
-			if (matcher.matches())
-				return null;
-			throw result.unexpectedResponse();
-		}
-		JsonMapper jm = getClient().getJsonMapper();
-		try
-		{
-			JsonNode json = jm.readTree(result.stdout());
-			assert json.size() == 1 : json;
-			JsonNode network = json.get(0);
+		String name = network.get("Name").textValue();
+		NetworkId id = NetworkId.of(network.get("Id").textValue());
 
-			String name = network.get("Name").textValue();
-			NetworkId id = NetworkId.of(network.get("Id").textValue());
-
-			JsonNode ipAddressManagement = network.get("IPAM");
-			JsonNode configNode = ipAddressManagement.get("Config");
-			List<Configuration> configurations = new ArrayList<>(configNode.size());
-			if (!configNode.isNull())
+		JsonNode ipAddressManagement = network.get("IPAM");
+		JsonNode configNode = ipAddressManagement.get("Config");
+		List<Configuration> configurations = new ArrayList<>(configNode.size());
+		if (!configNode.isNull())
+		{
+			for (JsonNode entry : configNode)
 			{
-				for (JsonNode entry : configNode)
-				{
-					String subnet = entry.get("Subnet").textValue();
-					String gateway = entry.get("Gateway").textValue();
-					configurations.add(new Configuration(subnet, gateway));
-				}
+				String subnet = entry.get("Subnet").textValue();
+				String gateway = entry.get("Gateway").textValue();
+				configurations.add(new Configuration(subnet, gateway));
 			}
-			return new DefaultNetwork(getClient(), id, name, configurations);
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
 		}
+		return new DefaultNetwork(getClient(), id, name, configurations);
 	}
 }
\ No newline at end of file
@@ -4,6 +4,9 @@
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonLinesCollector;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.docker.api.client.DockerClient;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
@@ -76,103 +79,109 @@ protected InternalDockerClient getClient()
 	 *
 	 * @param result the result of executing a command
 	 * @return the nodes in the swarm
-	 * @throws NullPointerException     if {@code filters} is null
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 */
 	public List<NodeElement> listNodes(CommandResult result)
 	{
 		if (result.exitCode() != 0)
+			listNodesFailed(result);
+		return collect(result.stdout(), listNodesCollector());
+	}
+
+	/**
+	 * Returns a collector that parses the nodes one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<NodeElement>> listNodesCollector()
+	{
+		JsonFieldReader reader = new JsonFieldReader(getClient().getJsonMapper(),
+			"Availability", "EngineVersion", "Hostname", "ID", "ManagerStatus", "Status");
+		return new JsonLinesCollector<>(reader, fields ->
 		{
-			if (result.stderr().startsWith(NOT_SWARM_MANAGER))
-				throw new NotSwarmManagerException();
-			throw result.unexpectedResponse();
-		}
-		JsonMapper jm = getClient().getJsonMapper();
-		try
-		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<NodeElement> elements = new ArrayList<>(lines.length);
-			for (String line : lines)
+			Availability availability = getAvailability(fields.getString("Availability"));
+			String engineVersion = fields.getString("EngineVersion");
+			String hostname = fields.getString("Hostname");
+			NodeId id = NodeId.of(fields.getString("ID"));
+
+			String managerStatus = fields.getString("ManagerStatus");
+			Role role;
+			boolean leader;
+			Reachability reachability;
+			if (managerStatus == null)
 			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				Availability availability = getAvailability(json.get("Availability"));
-				String engineVersion = json.get("EngineVersion").textValue();
-				String hostname = json.get("Hostname").textValue();
-				NodeId id = NodeId.of(json.get("ID").textValue());
-
-				JsonNode managerStatusNode = json.get("ManagerStatus");
-				Role role;
-				boolean leader;
-				Reachability reachability;
-				if (managerStatusNode == null)
-				{
-					role = Role.WORKER;
-					leader = false;
-					reachability = Reachability.UNKNOWN;
-				}
-				else
+				role = Role.WORKER;
+				leader = false;
+				reachability = Reachability.UNKNOWN;
+			}
+			else
+			{
+				role = Role.MANAGER;
+				switch (managerStatus)
 				{
-					role = Role.MANAGER;
-					String status = managerStatusNode.textValue();
-					switch (status)
+					case "Leader" ->
 					{
-						case "Leader" ->
-						{
-							leader = true;
-							reachability = Reachability.REACHABLE;
-						}
-						case "Reachable" ->
-						{
-							leader = false;
-							reachability = Reachability.REACHABLE;
-						}
-						default -> throw new AssertionError("Unexpected value: " + status);
+						leader = true;
+						reachability = Reachability.REACHABLE;
 					}
+					case "Reachable" ->
+					{
+						leader = false;
+						reachability = Reachability.REACHABLE;
+					}
+					default -> throw new AssertionError("Unexpected value: " + managerStatus);
 				}
-				Status status = getStatus(json.get("Status"));
-				elements.add(new NodeElement(id, hostname, role, leader, status, reachability, availability,
-					engineVersion));
 			}
-			return elements;
-		}
-		catch (JsonProcessingException e)
-		{
-			throw new AssertionError(e);
-		}
+			Status status = getStatus(fields.getString("Status"));
+			return new NodeElement(id, hostname, role, leader, status, reachability, availability,
+				engineVersion);
+		});
 	}
 
 	/**
-	 * @param json the JSON representation of the Availability
+	 * Throws the exception that corresponds to a failure to list the nodes.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public void listNodesFailed(CommandResult result)
+	{
+		if (result.stderr().startsWith(NOT_SWARM_MANAGER))
+			throw new NotSwarmManagerException();
+		throw result.unexpectedResponse();
+	}
+
+	/**
+	 * @param value the server representation of the Availability
 	 * @return the enum value
 	 */
-	private static Availability getAvailability(JsonNode json)
+	private static Availability getAvailability(String value)
 	{
-		return Availability.valueOf(json.textValue().toUpperCase(Locale.ROOT));
+		return Availability.valueOf(value.toUpperCase(Locale.ROOT));
 	}
 
 	/**
-	 * @param json the JSON representation of a Status
+	 * @param value the server representation of a Status
 	 * @return the enum value
 	 */
-	private static Status getStatus(JsonNode json)
+	private static Status getStatus(String value)
 	{
-		return Status.valueOf(json.textValue().toUpperCase(Locale.ROOT));
+		return Status.valueOf(value.toUpperCase(Locale.ROOT));
 	}
 
 	/**
-	 * Looks up a node by its ID or name.
+	 * Looks up nodes by their IDs or names.
 	 *
 	 * @param result the result of executing a command
-	 * @return null if no match is found
+	 * @return the nodes that were found, in the order that they were requested. Nodes that do not exist are
+	 * 	omitted.
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 * @throws FileNotFoundException    if the {@link DockerClient#getClientContext() referenced context}
 	 *                                  referenced a unix socket that was not found
 	 * @throws ConnectException         if the {@link DockerClient#getClientContext() referenced context}
 	 *                                  referenced a TCP/IP socket that refused a connection
 	 */
-	public Node getNode(CommandResult result) throws FileNotFoundException, ConnectException
+	public List<Node> nodesFromServer(CommandResult result) throws FileNotFoundException, ConnectException
 	{
 		if (result.exitCode() != 0)
 		{
@@ -181,70 +190,83 @@ public Node getNode(CommandResult result) throws FileNotFoundException, ConnectE
 			Matcher matcher = UNIX_SOCKET_MISSING.matcher(result.stderr());
 			if (matcher.matches())
 				throw new FileNotFoundException("No such file or directory: " + matcher.group(1));
-			throw result.unexpectedResponse();
+			if (!everyLineMatches(result.stderr(), List.of(NOT_FOUND)))
+				throw result.unexpectedResponse();
 		}
 		JsonMapper jm = getClient().getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
-			assert json.size() == 1 : json;
-			JsonNode node = json.get(0);
+			String stdout = result.stdout();
+			if (stdout.isBlank())
+				return List.of();
+			JsonNode json = jm.readTree(stdout);
+			List<Node> nodes = new ArrayList<>(json.size());
+			for (JsonNode node : json)
+				nodes.add(nodeFromServer(node));
+			return nodes;
+		}
+		catch (JsonProcessingException e)
+		{
+			throw new AssertionError(e);
+		}
+	}
 
-			NodeId id = getNodeId(node.get("ID"));
-			JsonNode spec = node.get("Spec");
-			Availability availability = Availability.valueOf(spec.get("Availability").textValue().
-				toUpperCase(Locale.ROOT));
-			Role role = getType(spec.get("Role"));
-			JsonNode labelsNode = spec.get("Labels");
-			List<String> labels = new ArrayList<>(labelsNode.size());
-			for (JsonNode label : labelsNode)
-			{
-				String keyValue = label.textValue();
-				int separator = keyValue.indexOf('=');
-				if (separator == -1)
-					throw new IllegalArgumentException("Labels must follow the format: key=value.\n" +
-						"Actual: " + keyValue);
-				String key = keyValue.substring(0, separator);
-				requireThat(key, "key").matches("^[a-zA-Z0-9.-_]+$");
-				labels.add(keyValue);
-			}
-			// Reminder: spec.labels are used to constrain task scheduling (e.g., zone=us-east, role=worker) while
-			// description.engine.labels are informational (e.g., operation-system, version)
+	/**
+	 * @param node the JSON representation of a node
+	 * @return the node
+	 */
+	private Node nodeFromServer(JsonNode node)
+	{
+		NodeId id = getNodeId(node.get("ID"));
+		JsonNode spec = node.get("Spec");
+		Availability availability = Availability.valueOf(spec.get("Availability").textValue().
+			toUpperCase(Locale.ROOT));
+		Role role = getType(spec.get("Role"));
+		JsonNode labelsNode = spec.get("Labels");
+		List<String> labels = new ArrayList<>(labelsNode.size());
+		for (JsonNode label : labelsNode)
+		{
+			String keyValue = label.textValue();
+			int separator = keyValue.indexOf('=');
+			if (separator == -1)
+				throw new IllegalArgumentException("Labels must follow the format: key=value.\n" +
+					"Actual: " + keyValue);
+			String key = keyValue.substring(0, separator);
+			requireThat(key, "key").matches("^[a-zA-Z0-9.-_]+$");
+			labels.add(keyValue);
+		}
+		// Reminder: spec.labels are used to constrain task scheduling (e.g., zone=us-east, role=worker) while
+		// description.engine.labels are informational (e.g., operation-system, version)
 
-			JsonNode description = node.get("Description");
-			String hostname = description.get("Hostname").textValue();
+		JsonNode description = node.get("Description");
+		String hostname = description.get("Hostname").textValue();
 
-			JsonNode engine = description.get("Engine");
-			String engineVersion = engine.get("EngineVersion").textValue();
+		JsonNode engine = description.get("Engine");
+		String engineVersion = engine.get("EngineVersion").textValue();
 
-			JsonNode statusNode = node.get("Status");
-			Status status = getStatus(statusNode.get("State"));
-			String address = statusNode.get("Addr").textValue();
+		JsonNode statusNode = node.get("Status");
+		Status status = getStatus(statusNode.get("State").textValue());
+		String address = statusNode.get("Addr").textValue();
 
-			JsonNode managerStatusNode = node.get("ManagerStatus");
-			boolean leader;
-			Reachability reachability;
-			String managerAddress;
-			if (managerStatusNode == null)
-			{
-				// Worker
-				leader = false;
-				reachability = Reachability.UNKNOWN;
-				managerAddress = "";
-			}
-			else
-			{
-				leader = getBoolean(managerStatusNode, "Leader");
-				reachability = getReachability(managerStatusNode.get("Reachability"));
-				managerAddress = managerStatusNode.get("Addr").textValue();
-			}
-			return new DefaultNode(getClient(), id, hostname, role, leader, status, reachability, availability,
-				managerAddress, address, labels, engineVersion);
+		JsonNode managerStatusNode = node.get("ManagerStatus");
+		boolean leader;
+		Reachability reachability;
+		String managerAddress;
+		if (managerStatusNode == null)
+		{
+			// Worker
+			leader = false;
+			reachability = Reachability.UNKNOWN;
+			managerAddress = "";
 		}
-		catch (JsonProcessingException e)
+		else
 		{
-			throw new AssertionError(e);
+			leader = getBoolean(managerStatusNode, "Leader");
+			reachability = getReachability(managerStatusNode.get("Reachability"));
+			managerAddress = managerStatusNode.get("Addr").textValue();
 		}
+		return new DefaultNode(getClient(), id, hostname, role, leader, status, reachability, availability,
+			managerAddress, address, labels, engineVersion);
 	}
 
 	/**
@@ -325,42 +347,47 @@ public NodeId setRole(CommandResult result)
 	public List<Task> listTasksByNode(CommandResult result)
 	{
 		if (result.exitCode() != 0)
-		{
-			if (result.stderr().equals(ACCESS_DENIED_TO_WORKER))
-				throw new NotSwarmManagerException();
-			throw result.unexpectedResponse();
-		}
+			listTasksFailed(result);
+		return collect(result.stdout(), listTasksCollector());
+	}
 
-		JsonMapper jm = getClient().getJsonMapper();
-		try
-		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<Task> tasks = new ArrayList<>(lines.length);
-			for (String line : lines)
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				TaskId id = TaskId.of(json.get("ID").textValue());
-				String name = json.get("Name").textValue();
-				State status = getNode(json.get("CurrentState"));
-				tasks.add(new DefaultTask(getClient(), id, name, status));
-			}
-			return tasks;
-		}
-		catch (JsonProcessingException e)
+	/**
+	 * Returns a collector that parses the tasks one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<Task>> listTasksCollector()
+	{
+		JsonFieldReader reader = new JsonFieldReader(getClient().getJsonMapper(),
+			"ID", "Name", "CurrentState");
+		return new JsonLinesCollector<>(reader, fields ->
 		{
-			throw new AssertionError(e);
-		}
+			TaskId id = TaskId.of(fields.getString("ID"));
+			String name = fields.getString("Name");
+			State status = getNode(fields.getString("CurrentState"));
+			return new DefaultTask(getClient(), id, name, status);
+		});
+	}
+
+	/**
+	 * Throws the exception that corresponds to a failure to list tasks.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public void listTasksFailed(CommandResult result)
+	{
+		if (result.stderr().equals(ACCESS_DENIED_TO_WORKER))
+			throw new NotSwarmManagerException();
+		throw result.unexpectedResponse();
 	}
 
 	/**
-	 * @param json the JSON representation of the status
+	 * @param message the server representation of the status
 	 * @return the enum value
 	 */
-	private State getNode(JsonNode json)
+	private State getNode(String message)
 	{
-		String message = json.textValue();
 		int delimiter = message.indexOf(' ');
 		if (delimiter == -1)
 			throw new AssertionError("Invalid status: " + message);
@@ -427,7 +454,7 @@ public DefaultTask getTaskState(CommandResult result)
 
 			TaskId id = TaskId.of(node.get("ID").textValue());
 			String name = node.get("Name").textValue();
-			State status = getNode(json.get("State"));
+			State status = getNode(json.get("State").textValue());
 			return new DefaultTask(getClient(), id, name, status);
 		}
 		catch (JsonProcessingException e)
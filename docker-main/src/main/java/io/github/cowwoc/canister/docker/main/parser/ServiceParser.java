@@ -5,6 +5,9 @@
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
+import io.github.cowwoc.canister.core.internal.parser.JsonFieldReader;
+import io.github.cowwoc.canister.core.internal.parser.JsonLinesCollector;
+import io.github.cowwoc.canister.core.internal.parser.LineCollector;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.docker.api.client.DockerClient;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
@@ -35,6 +38,11 @@ public class ServiceParser extends DockerParser
 	private static final Pattern CONFLICTING_NAME = Pattern.compile("""
 		Error response from daemon: Conflict. The container name "([^"]+)" is already in use by container \
 		"([^"]+)"\\. You have to remove \\(or rename\\) that container to be able to reuse that name\\.""");
+	private static final Pattern SERVICE_NAME_CONFLICT = Pattern.compile("""
+		Error response from daemon: rpc error: code = AlreadyExists desc = name conflicts with an existing \
+		object: service ([^ ]+) already exists""");
+	private static final Pattern NOT_FOUND = Pattern.compile("(?:Status: )?(?:Error: )?no such service: " +
+		"([^,]+)(?:, Code: \\d+)?");
 	private static final String NOT_A_MANAGER = """
 		Error response from daemon: This node is not a swarm manager. Worker nodes can't be used to view or \
 		modify cluster state. Please run this command on a manager node or promote the current node to a \
@@ -82,6 +90,9 @@ public ServiceId create(CommandResult result) throws ResourceNotFoundException,
 					"use by container \"" + matcher.group(2) + "\". You have to remove (or rename) that container " +
 					"to be able to reuse that name.");
 			}
+			matcher = SERVICE_NAME_CONFLICT.matcher(stderr);
+			if (matcher.matches())
+				throw new ResourceInUseException("The service name is already in use: " + matcher.group(1));
 			if (stderr.equals(NOT_A_MANAGER))
 				throw new NotSwarmManagerException();
 			throw result.unexpectedResponse();
@@ -95,17 +106,57 @@ public ServiceId create(CommandResult result) throws ResourceNotFoundException,
 	}
 
 	/**
-	 * Looks up a service by its ID or name.
+	 * Looks up services by their IDs or names.
 	 *
 	 * @param result the result of executing a command
-	 * @return null if no match is found
+	 * @return the services that were found, in the order that they were requested. Services that do not exist
+	 * 	are omitted.
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 * @throws FileNotFoundException    if the {@link DockerClient#getClientContext() referenced context}
 	 *                                  referenced a unix socket that was not found
 	 * @throws ConnectException         if the {@link DockerClient#getClientContext() referenced context}
 	 *                                  referenced a TCP/IP socket that refused a connection
 	 */
-	public Service getService(CommandResult result) throws FileNotFoundException
+	public List<Service> servicesFromServer(CommandResult result) throws FileNotFoundException
+	{
+		JsonNode json = inspectOutputFromServer(result);
+		List<Service> services = new ArrayList<>(json.size());
+		for (JsonNode service : json)
+			services.add(serviceFromServer(service));
+		return services;
+	}
+
+	/**
+	 * Looks up the first service that was returned by an {@code inspect} command, along with the value of one
+	 * of its labels.
+	 *
+	 * @param result the result of executing the command
+	 * @param label  the name of the label
+	 * @return {@code null} if no service was found
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws FileNotFoundException    if the {@link DockerClient#getClientContext() referenced context}
+	 *                                  referenced a unix socket that was not found
+	 */
+	public Labeled<Service> labeledServiceFromServer(CommandResult result, String label)
+		throws FileNotFoundException
+	{
+		JsonNode json = inspectOutputFromServer(result);
+		if (json.isEmpty())
+			return null;
+		JsonNode service = json.get(0);
+		return new Labeled<>(serviceFromServer(service), getLabel(service.get("Spec").get("Labels"), label));
+	}
+
+	/**
+	 * Parses the output of an {@code inspect} command.
+	 *
+	 * @param result the result of executing the command
+	 * @return the JSON representation of the services that were found
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 * @throws FileNotFoundException    if the {@link DockerClient#getClientContext() referenced context}
+	 *                                  referenced a unix socket that was not found
+	 */
+	private JsonNode inspectOutputFromServer(CommandResult result) throws FileNotFoundException
 	{
 		if (result.exitCode() != 0)
 		{
@@ -114,19 +165,16 @@ public Service getService(CommandResult result) throws FileNotFoundException
 			Matcher matcher = UNIX_SOCKET_MISSING.matcher(result.stderr());
 			if (matcher.matches())
 				throw new FileNotFoundException("No such file or directory: " + matcher.group(1));
-			throw result.unexpectedResponse();
+			if (!everyLineMatches(result.stderr(), List.of(NOT_FOUND)))
+				throw result.unexpectedResponse();
 		}
 		JsonMapper jm = getClient().getJsonMapper();
 		try
 		{
-			JsonNode json = jm.readTree(result.stdout());
-			assert json.size() == 1 : json;
-			JsonNode service = json.get(0);
-
-			ServiceId id = serviceIdFromServer(service.get("ID"));
-			JsonNode spec = service.get("Spec");
-			String name = spec.get("Name").textValue();
-			return new DefaultService(getClient(), id, name);
+			String stdout = result.stdout();
+			if (stdout.isBlank())
+				return jm.createArrayNode();
+			return jm.readTree(stdout);
 		}
 		catch (JsonProcessingException e)
 		{
@@ -134,6 +182,18 @@ public Service getService(CommandResult result) throws FileNotFoundException
 		}
 	}
 
+	/**
+	 * @param service the JSON representation of a service
+	 * @return the service
+	 */
+	private Service serviceFromServer(JsonNode service)
+	{
+		ServiceId id = serviceIdFromServer(service.get("ID"));
+		JsonNode spec = service.get("Spec");
+		String name = spec.get("Name").textValue();
+		return new DefaultService(getClient(), id, name);
+	}
+
 	/**
 	 * Converts a Service.Id from its server representation.
 	 *
@@ -149,37 +209,42 @@ private ServiceId serviceIdFromServer(JsonNode json)
 	 * Lists the services that are in a swarm.
 	 *
 	 * @param result the result of executing a command
-	 * @return the tasks
+	 * @return the services
 	 * @throws NotSwarmManagerException if the current node is not a swarm manager
 	 */
 	public List<ServiceElement> listServices(CommandResult result)
 	{
 		if (result.exitCode() != 0)
-		{
-			if (result.stderr().equals(NOT_SWARM_MANAGER))
-				throw new NotSwarmManagerException();
-			throw result.unexpectedResponse();
-		}
+			listServicesFailed(result);
+		return collect(result.stdout(), listServicesCollector());
+	}
 
-		JsonMapper jm = getClient().getJsonMapper();
-		try
-		{
-			String[] lines = SPLIT_LINES.split(result.stdout());
-			List<ServiceElement> services = new ArrayList<>(lines.length);
-			for (String line : lines)
-			{
-				if (line.isBlank())
-					continue;
-				JsonNode json = jm.readTree(line);
-				ServiceId id = ServiceId.of(json.get("ID").textValue());
-				String name = json.get("Name").textValue();
-				services.add(new ServiceElement(id, name));
-			}
-			return services;
-		}
-		catch (JsonProcessingException e)
+	/**
+	 * Returns a collector that parses the services one line at a time.
+	 *
+	 * @return the collector
+	 */
+	public LineCollector<List<ServiceElement>> listServicesCollector()
+	{
+		JsonFieldReader reader = new JsonFieldReader(getClient().getJsonMapper(), "ID", "Name");
+		return new JsonLinesCollector<>(reader, fields ->
 		{
-			throw new AssertionError(e);
-		}
+			ServiceId id = ServiceId.of(fields.getString("ID"));
+			String name = fields.getString("Name");
+			return new ServiceElement(id, name);
+		});
+	}
+
+	/**
+	 * Throws the exception that corresponds to a failure to list the services.
+	 *
+	 * @param result the result of executing a command, whose exit code is non-zero
+	 * @throws NotSwarmManagerException if the current node is not a swarm manager
+	 */
+	public void listServicesFailed(CommandResult result)
+	{
+		if (result.stderr().equals(NOT_SWARM_MANAGER))
+			throw new NotSwarmManagerException();
+		throw result.unexpectedResponse();
 	}
 }
\ No newline at end of file
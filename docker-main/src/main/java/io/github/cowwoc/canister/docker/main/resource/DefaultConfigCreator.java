@@ -1,19 +1,23 @@
 package io.github.cowwoc.canister.docker.main.resource;
 
+import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.core.util.CreateResult;
 import io.github.cowwoc.canister.docker.id.ConfigId;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
+import io.github.cowwoc.canister.docker.main.parser.DockerParser.Labeled;
+import io.github.cowwoc.canister.docker.main.parser.ConfigParser;
 import io.github.cowwoc.canister.docker.resource.Config;
 import io.github.cowwoc.canister.docker.resource.ConfigCreator;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 
 import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
@@ -26,7 +30,9 @@ public final class DefaultConfigCreator implements ConfigCreator
 	 */
 	public static final Pattern NAME_PATTERN = Pattern.compile("[a-zA-Z0-9-_.]{1,64}");
 	private final InternalDockerClient client;
-	private final Map<String, String> labels = new HashMap<>();
+	// Sorted so that the order of the command-line arguments, and therefore the spec hash, does not depend on
+	// the order that the labels were added in
+	private final Map<String, String> labels = new TreeMap<>();
 
 	/**
 	 * Creates a config creator.
@@ -59,7 +65,60 @@ public Config apply(String name, ByteBuffer value) throws IOException, Interrupt
 	{
 		requireThat(name, "name").doesNotContainWhitespace().matches(NAME_PATTERN);
 		requireThat(value.remaining(), "value.remaining()").isLessThanOrEqualTo(MAX_SIZE_IN_BYTES);
+		return create(getArguments(name), value);
+	}
+
+	@Override
+	public CreateResult<Config> applyIfAbsent(String name, String value)
+		throws IOException, InterruptedException
+	{
+		return applyIfAbsent(name, ByteBuffer.wrap(value.getBytes(UTF_8)));
+	}
 
+	@Override
+	public CreateResult<Config> applyIfAbsent(String name, ByteBuffer value)
+		throws IOException, InterruptedException
+	{
+		requireThat(name, "name").doesNotContainWhitespace().matches(NAME_PATTERN);
+		requireThat(value.remaining(), "value.remaining()").isLessThanOrEqualTo(MAX_SIZE_IN_BYTES);
+		List<String> arguments = getArguments(name);
+		String specHash = SpecHash.of(arguments, value);
+		SpecHash.addLabel(arguments, specHash);
+		ConfigParser parser = client.getConfigParser();
+		// https://docs.docker.com/reference/cli/docker/config/inspect/
+		List<String> inspectArguments = List.of("config", "inspect", name);
+		for (int attempt = 1; true; ++attempt)
+		{
+			CommandResult result = client.retry(_ -> client.run(inspectArguments));
+			Labeled<DefaultConfig> match = parser.labeledConfigFromServer(result, SpecHash.LABEL);
+			// If no config has the name, the daemon returns the config whose ID starts with it
+			if (match != null && match.resource().getName().equals(name))
+			{
+				if (specHash.equals(match.label()))
+					return CreateResult.existed(match.resource());
+				return CreateResult.conflictedWith(match.resource());
+			}
+			try
+			{
+				return CreateResult.created(create(arguments, value));
+			}
+			catch (ResourceInUseException e)
+			{
+				// Another client created the config after it was inspected
+				if (attempt == SpecHash.MAX_CREATE_ATTEMPTS)
+					throw e;
+			}
+		}
+	}
+
+	/**
+	 * Returns the command-line arguments that create a config.
+	 *
+	 * @param name the config's name
+	 * @return a mutable list of arguments
+	 */
+	private List<String> getArguments(String name)
+	{
 		// https://docs.docker.com/reference/cli/docker/config/create/
 		List<String> arguments = new ArrayList<>(4 + labels.size() * 2);
 		arguments.add("config");
@@ -71,6 +130,23 @@ public Config apply(String name, ByteBuffer value) throws IOException, Interrupt
 		}
 		arguments.add(name);
 		arguments.add("-");
+		return arguments;
+	}
+
+	/**
+	 * Creates a config.
+	 *
+	 * @param arguments the command-line arguments
+	 * @param value     the config's value
+	 * @return the new config
+	 * @throws ResourceInUseException if the requested name is in use by another config
+	 * @throws IOException            if an I/O error occurs. These errors are typically transient, and retrying
+	 *                                the request may resolve the issue.
+	 * @throws InterruptedException   if the thread is interrupted before the operation completes. This can
+	 *                                happen due to shutdown signals.
+	 */
+	private Config create(List<String> arguments, ByteBuffer value) throws IOException, InterruptedException
+	{
 		CommandResult result = client.retry(_ -> client.run(arguments, value));
 		ConfigId id = ConfigId.of(client.getConfigParser().create(result));
 		return client.getConfig(id);
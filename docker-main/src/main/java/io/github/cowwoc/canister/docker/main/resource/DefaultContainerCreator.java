@@ -1,11 +1,15 @@
 package io.github.cowwoc.canister.docker.main.resource;
 
+import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.id.ImageId;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.core.resource.Image;
 import io.github.cowwoc.canister.core.spi.util.ParameterValidator;
 import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.core.util.CreateResult;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
+import io.github.cowwoc.canister.docker.main.parser.DockerParser.Labeled;
+import io.github.cowwoc.canister.docker.main.parser.ContainerParser;
 import io.github.cowwoc.canister.docker.resource.Container;
 import io.github.cowwoc.canister.docker.resource.ContainerCreator;
 
@@ -15,11 +19,12 @@
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.StringJoiner;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 
 import static io.github.cowwoc.canister.docker.resource.Protocol.TCP;
@@ -39,9 +44,12 @@ public final class DefaultContainerCreator implements ContainerCreator
 	private List<String> entrypoint = List.of();
 	private List<String> arguments = List.of();
 	private String workingDirectory = "";
-	private final Map<String, String> environmentVariables = new HashMap<>();
-	private final Map<Path, BindMount> hostPathToBindMount = new HashMap<>();
-	private final Map<PortAndProtocol, InetSocketAddress> containerToHostPort = new HashMap<>();
+	// Sorted so that the order of the command-line arguments, and therefore the spec hash, does not depend on
+	// the order that the values were added in
+	private final Map<String, String> environmentVariables = new TreeMap<>();
+	private final Map<Path, BindMount> hostPathToBindMount = new TreeMap<>();
+	private final Map<PortAndProtocol, InetSocketAddress> containerToHostPort = new TreeMap<>(
+		Comparator.comparingInt(PortAndProtocol::port).thenComparing(PortAndProtocol::protocol));
 	private boolean removeOnExit;
 	private RestartPolicy restartPolicy = new RestartPolicy(RestartPolicyCondition.NO, 0);
 
@@ -198,6 +206,51 @@ public ContainerCreator privileged()
 
 	@Override
 	public Container apply() throws IOException, InterruptedException
+	{
+		return create(getArguments());
+	}
+
+	@Override
+	public CreateResult<Container> applyIfAbsent() throws IOException, InterruptedException
+	{
+		if (name.isEmpty())
+			throw new IllegalStateException("The container's name must be set");
+		List<String> arguments = getArguments();
+		String specHash = SpecHash.of(arguments);
+		SpecHash.addLabel(arguments, specHash);
+		ContainerParser parser = client.getContainerParser();
+		// https://docs.docker.com/reference/cli/docker/container/inspect/
+		List<String> inspectArguments = List.of("container", "inspect", name);
+		for (int attempt = 1; true; ++attempt)
+		{
+			CommandResult result = client.retry(_ -> client.run(inspectArguments));
+			Labeled<DefaultContainer> match = parser.labeledContainerFromServer(result, SpecHash.LABEL);
+			// If no container has the name, the daemon returns the container whose ID starts with it
+			if (match != null && match.resource().getName().equals(name))
+			{
+				if (specHash.equals(match.label()))
+					return CreateResult.existed(match.resource());
+				return CreateResult.conflictedWith(match.resource());
+			}
+			try
+			{
+				return CreateResult.created(create(arguments));
+			}
+			catch (ResourceInUseException e)
+			{
+				// Another client created the container after it was inspected
+				if (attempt == SpecHash.MAX_CREATE_ATTEMPTS)
+					throw e;
+			}
+		}
+	}
+
+	/**
+	 * Returns the command-line arguments that create the container.
+	 *
+	 * @return a mutable list of arguments
+	 */
+	private List<String> getArguments()
 	{
 		// https://docs.docker.com/reference/cli/docker/container/create/
 		List<String> arguments = new ArrayList<>(4 + environmentVariables.size() * 2 +
@@ -259,6 +312,22 @@ public Container apply() throws IOException, InterruptedException
 			arguments.addAll(entrypoint.subList(1, entrypoint.size()));
 		if (!this.arguments.isEmpty())
 			arguments.addAll(this.arguments);
+		return arguments;
+	}
+
+	/**
+	 * Creates the container.
+	 *
+	 * @param arguments the command-line arguments
+	 * @return the new container
+	 * @throws ResourceInUseException if the requested name is in use by another container
+	 * @throws IOException            if an I/O error occurs. These errors are typically transient, and retrying
+	 *                                the request may resolve the issue.
+	 * @throws InterruptedException   if the thread is interrupted before the operation completes. This can
+	 *                                happen due to shutdown signals.
+	 */
+	private Container create(List<String> arguments) throws IOException, InterruptedException
+	{
 		CommandResult result = client.retry(_ -> client.run(arguments));
 		return client.getContainer(client.getContainerParser().create(result));
 	}
@@ -1,16 +1,20 @@
 package io.github.cowwoc.canister.docker.main.resource;
 
+import io.github.cowwoc.canister.core.internal.client.ProcessRegistry;
+import io.github.cowwoc.canister.core.spi.util.Processes;
 import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
 import io.github.cowwoc.canister.docker.id.ContainerId;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
 import io.github.cowwoc.canister.docker.resource.ContainerLogs;
 import io.github.cowwoc.canister.docker.resource.ProcessListener;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.ref.Cleaner.Cleanable;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,7 +30,6 @@ public final class DefaultContainerLogs implements ContainerLogs
 	private Instant until;
 	private boolean timestamps;
 	private int linesFromEnd = Integer.MAX_VALUE;
-	private final Logger log = LoggerFactory.getLogger(DefaultContainerLogs.class);
 
 	/**
 	 * Creates a DefaultContainerLogs.
@@ -107,9 +110,8 @@ public ProcessListener apply() throws IOException
 			arguments.add("--timestamps");
 		arguments.add(id.getValue());
 		ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
-		log.debug("Running: {}", processBuilder.command());
-		Process process = processBuilder.start();
-		return new DefaultProcessListener(process);
+		Process process = client.startProcess(processBuilder, arguments);
+		return new DefaultProcessListener(client.getProcessRegistry(), process);
 	}
 
 	@Override
@@ -127,44 +129,62 @@ public String toString()
 
 	/**
 	 * A container's stdout and stderr log streams.
+	 * <p>
+	 * The streams reference the listener, so the leak detector does not terminate the process while the
+	 * caller is still reading from a stream after discarding the listener.
 	 */
 	public static final class DefaultProcessListener implements ProcessListener
 	{
 		private final Process process;
+		private final Cleanable leakDetector;
+		private final InputStream outputStream;
+		private final InputStream errorStream;
+		// The following fields are guarded by "this"
+		private BufferedReader outputReader;
+		private BufferedReader errorReader;
 
 		/**
 		 * Creates log streams.
 		 *
-		 * @param process the docker process
+		 * @param processRegistry the processes that the client started
+		 * @param process         the docker process
 		 */
-		private DefaultProcessListener(Process process)
+		private DefaultProcessListener(ProcessRegistry processRegistry, Process process)
 		{
+			assert processRegistry != null;
 			assert process != null;
 			this.process = process;
+			this.leakDetector = processRegistry.detectLeaks(this, process);
+			this.outputStream = new ListenerInputStream(process.getInputStream(), this);
+			this.errorStream = new ListenerInputStream(process.getErrorStream(), this);
 		}
 
 		@Override
 		public InputStream getOutputStream()
 		{
-			return process.getInputStream();
+			return outputStream;
 		}
 
 		@Override
-		public BufferedReader getOutputReader()
+		public synchronized BufferedReader getOutputReader()
 		{
-			return process.inputReader();
+			if (outputReader == null)
+				outputReader = new ListenerReader(process.inputReader(), this);
+			return outputReader;
 		}
 
 		@Override
 		public InputStream getErrorStream()
 		{
-			return process.getErrorStream();
+			return errorStream;
 		}
 
 		@Override
-		public BufferedReader getErrorReader()
+		public synchronized BufferedReader getErrorReader()
 		{
-			return process.errorReader();
+			if (errorReader == null)
+				errorReader = new ListenerReader(process.errorReader(), this);
+			return errorReader;
 		}
 
 		@Override
@@ -172,5 +192,58 @@ public int waitFor() throws InterruptedException
 		{
 			return process.waitFor();
 		}
+
+		@Override
+		@SuppressWarnings("EmptyTryBlock")
+		public void close() throws IOException
+		{
+			leakDetector.clean();
+			Processes.destroyTree(process);
+			try (OutputStream _ = process.getOutputStream();
+			     InputStream _ = process.getInputStream();
+			     InputStream _ = process.getErrorStream())
+			{
+			}
+		}
+	}
+
+	/**
+	 * A stream that keeps its listener reachable.
+	 */
+	private static final class ListenerInputStream extends FilterInputStream
+	{
+		@SuppressWarnings({"unused", "FieldCanBeLocal"})
+		private final DefaultProcessListener listener;
+
+		/**
+		 * @param in       the process stream
+		 * @param listener the listener that owns the process
+		 */
+		ListenerInputStream(InputStream in, DefaultProcessListener listener)
+		{
+			super(in);
+			assert listener != null;
+			this.listener = listener;
+		}
+	}
+
+	/**
+	 * A reader that keeps its listener reachable.
+	 */
+	private static final class ListenerReader extends BufferedReader
+	{
+		@SuppressWarnings({"unused", "FieldCanBeLocal"})
+		private final DefaultProcessListener listener;
+
+		/**
+		 * @param in       the process reader
+		 * @param listener the listener that owns the process
+		 */
+		ListenerReader(Reader in, DefaultProcessListener listener)
+		{
+			super(in);
+			assert listener != null;
+			this.listener = listener;
+		}
 	}
 }
\ No newline at end of file
@@ -6,8 +6,6 @@
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
 import io.github.cowwoc.canister.docker.resource.Container;
 import io.github.cowwoc.canister.docker.resource.ContainerStarter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,7 +19,6 @@ public final class DefaultContainerStarter implements ContainerStarter
 {
 	private final InternalDockerClient client;
 	private final ContainerId id;
-	private final Logger log = LoggerFactory.getLogger(DefaultContainerStarter.class);
 
 	/**
 	 * Creates a container starter.
@@ -63,8 +60,7 @@ public ContainerStreams applyAndAttachStreams(boolean attachInput,
 		arguments.add(id.getValue());
 
 		ProcessBuilder processBuilder = client.getProcessBuilder(arguments);
-		log.debug("Running: {}", processBuilder.command());
-		Process process = processBuilder.start();
+		Process process = client.startProcess(processBuilder, arguments);
 		return new DefaultContainerStreams(process);
 	}
 
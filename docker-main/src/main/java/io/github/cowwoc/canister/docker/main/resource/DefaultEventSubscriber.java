@@ -0,0 +1,82 @@
+package io.github.cowwoc.canister.docker.main.resource;
+
+import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.docker.id.ContainerId;
+import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
+import io.github.cowwoc.canister.docker.resource.EventListener;
+import io.github.cowwoc.canister.docker.resource.EventSubscriber;
+import io.github.cowwoc.canister.docker.resource.EventSubscription;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+/**
+ * Default implementation of {@code EventSubscriber}.
+ */
+public final class DefaultEventSubscriber implements EventSubscriber
+{
+	private final InternalDockerClient client;
+	private final List<String> filters = new ArrayList<>();
+
+	/**
+	 * Creates an event subscriber.
+	 *
+	 * @param client the client configuration
+	 */
+	public DefaultEventSubscriber(InternalDockerClient client)
+	{
+		assert client != null;
+		this.client = client;
+	}
+
+	@Override
+	public EventSubscriber filter(String key, String value)
+	{
+		requireThat(key, "key").doesNotContainWhitespace().isNotEmpty();
+		requireThat(value, "value").doesNotContainWhitespace().isNotEmpty();
+		filters.add(key + "=" + value);
+		return this;
+	}
+
+	@Override
+	public EventSubscriber type(String type)
+	{
+		return filter("type", type);
+	}
+
+	@Override
+	public EventSubscriber action(String action)
+	{
+		return filter("event", action);
+	}
+
+	@Override
+	public EventSubscriber container(ContainerId id)
+	{
+		requireThat(id, "id").isNotNull();
+		return filter("container", id.getValue());
+	}
+
+	@Override
+	public EventSubscriber label(String label)
+	{
+		return filter("label", label);
+	}
+
+	@Override
+	public EventSubscription subscribe(EventListener listener) throws IOException
+	{
+		return client.getEventBus().subscribe(filters, null, listener);
+	}
+
+	@Override
+	public String toString()
+	{
+		return new ToStringBuilder(EventSubscriber.class).
+			add("filters", filters).
+			toString();
+	}
+}
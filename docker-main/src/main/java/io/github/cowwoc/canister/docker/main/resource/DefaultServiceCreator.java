@@ -1,11 +1,15 @@
 package io.github.cowwoc.canister.docker.main.resource;
 
+import io.github.cowwoc.canister.core.exception.ResourceInUseException;
 import io.github.cowwoc.canister.core.id.ImageId;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.core.resource.Image;
 import io.github.cowwoc.canister.core.spi.util.ParameterValidator;
 import io.github.cowwoc.canister.core.spi.util.ToStringBuilder;
+import io.github.cowwoc.canister.core.util.CreateResult;
 import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
+import io.github.cowwoc.canister.docker.main.parser.DockerParser.Labeled;
+import io.github.cowwoc.canister.docker.main.parser.ServiceParser;
 import io.github.cowwoc.canister.docker.resource.ContainerCreator.BindMount;
 import io.github.cowwoc.canister.docker.resource.ContainerCreator.BindMountOptions;
 import io.github.cowwoc.canister.docker.resource.ContainerCreator.PortAndProtocol;
@@ -21,12 +25,13 @@
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.StringJoiner;
+import java.util.TreeMap;
 
 import static io.github.cowwoc.canister.docker.resource.Protocol.TCP;
 import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
@@ -45,9 +50,12 @@ public final class DefaultServiceCreator implements ServiceCreator
 	private List<String> entrypoint = List.of();
 	private List<String> arguments = List.of();
 	private String workingDirectory = "";
-	private final Map<String, String> environmentVariables = new HashMap<>();
-	private final Map<Path, BindMount> hostPathToBindMount = new HashMap<>();
-	private final Map<PortAndProtocol, InetSocketAddress> containerToHostPort = new HashMap<>();
+	// Sorted so that the order of the command-line arguments, and therefore the spec hash, does not depend on
+	// the order that the values were added in
+	private final Map<String, String> environmentVariables = new TreeMap<>();
+	private final Map<Path, BindMount> hostPathToBindMount = new TreeMap<>();
+	private final Map<PortAndProtocol, InetSocketAddress> containerToHostPort = new TreeMap<>(
+		Comparator.comparingInt(PortAndProtocol::port).thenComparing(PortAndProtocol::protocol));
 	private boolean runOncePerNode;
 	private int numberOfReplicas;
 	private RestartPolicy restartPolicy = DEFAULT_RESTART_POLICY;
@@ -181,6 +189,51 @@ public ServiceCreator updateMonitor(Duration updateMonitor)
 
 	@Override
 	public Service apply() throws IOException, InterruptedException
+	{
+		return create(getArguments());
+	}
+
+	@Override
+	public CreateResult<Service> applyIfAbsent() throws IOException, InterruptedException
+	{
+		if (name.isEmpty())
+			throw new IllegalStateException("The service's name must be set");
+		List<String> arguments = getArguments();
+		String specHash = SpecHash.of(arguments);
+		SpecHash.addLabel(arguments, specHash);
+		ServiceParser parser = client.getServiceParser();
+		// https://docs.docker.com/reference/cli/docker/service/inspect/
+		List<String> inspectArguments = List.of("service", "inspect", "--format", "json", name);
+		for (int attempt = 1; true; ++attempt)
+		{
+			CommandResult result = client.retry(_ -> client.run(inspectArguments));
+			Labeled<Service> match = parser.labeledServiceFromServer(result, SpecHash.LABEL);
+			// If no service has the name, the daemon returns the service whose ID starts with it
+			if (match != null && match.resource().getName().equals(name))
+			{
+				if (specHash.equals(match.label()))
+					return CreateResult.existed(match.resource());
+				return CreateResult.conflictedWith(match.resource());
+			}
+			try
+			{
+				return CreateResult.created(create(arguments));
+			}
+			catch (ResourceInUseException e)
+			{
+				// Another client created the service after it was inspected
+				if (attempt == SpecHash.MAX_CREATE_ATTEMPTS)
+					throw e;
+			}
+		}
+	}
+
+	/**
+	 * Returns the command-line arguments that create the service.
+	 *
+	 * @return a mutable list of arguments
+	 */
+	private List<String> getArguments()
 	{
 		// https://docs.docker.com/reference/cli/docker/service/create/
 		List<String> arguments = new ArrayList<>(4 + environmentVariables.size() * 2 +
@@ -253,6 +306,22 @@ public Service apply() throws IOException, InterruptedException
 			arguments.addAll(entrypoint.subList(1, entrypoint.size()));
 		if (!this.arguments.isEmpty())
 			arguments.addAll(this.arguments);
+		return arguments;
+	}
+
+	/**
+	 * Creates the service.
+	 *
+	 * @param arguments the command-line arguments
+	 * @return the new service
+	 * @throws ResourceInUseException if the requested name is in use by another service
+	 * @throws IOException            if an I/O error occurs. These errors are typically transient, and retrying
+	 *                                the request may resolve the issue.
+	 * @throws InterruptedException   if the thread is interrupted before the operation completes. This can
+	 *                                happen due to shutdown signals.
+	 */
+	private Service create(List<String> arguments) throws IOException, InterruptedException
+	{
 		CommandResult result = client.retry(_ -> client.run(arguments));
 		return client.getService(client.getServiceParser().create(result));
 	}
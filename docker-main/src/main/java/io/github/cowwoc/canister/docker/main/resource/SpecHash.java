@@ -0,0 +1,76 @@
+package io.github.cowwoc.canister.docker.main.resource;
+
+import io.github.cowwoc.canister.core.internal.util.Digests;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Identifies the desired state of a resource, so that {@code applyIfAbsent()} can tell whether an existing
+ * resource was created from the same specification.
+ */
+final class SpecHash
+{
+	/**
+	 * The label that contains the hash of the specification that a resource was created from.
+	 */
+	static final String LABEL = "io.github.cowwoc.canister.spec-hash";
+	/**
+	 * The maximum number of times that {@code applyIfAbsent()} tries to create a resource whose name was
+	 * taken by a resource that could not be inspected. Each attempt is only repeated if another client created
+	 * and removed a resource with the same name in the meantime.
+	 */
+	static final int MAX_CREATE_ATTEMPTS = 3;
+
+	/**
+	 * Returns the hash of the command that creates a resource.
+	 *
+	 * @param arguments the command-line arguments
+	 * @return the SHA-256 digest of the command, as a hexadecimal string
+	 */
+	static String of(List<String> arguments)
+	{
+		return of(arguments, ByteBuffer.allocate(0));
+	}
+
+	/**
+	 * Returns the hash of the command that creates a resource.
+	 *
+	 * @param arguments the command-line arguments
+	 * @param stdin     the bytes that are passed into the command's stdin stream. The buffer's position is not
+	 *                  modified.
+	 * @return the SHA-256 digest of the command, as a hexadecimal string
+	 */
+	static String of(List<String> arguments, ByteBuffer stdin)
+	{
+		MessageDigest digest = Digests.newSha256();
+		for (String argument : arguments)
+		{
+			digest.update(argument.getBytes(UTF_8));
+			// Separate the arguments so that ["ab", "c"] and ["a", "bc"] have different hashes
+			digest.update((byte) 0);
+		}
+		digest.update(stdin.duplicate());
+		return Digests.toHex(digest);
+	}
+
+	/**
+	 * Labels the resource that a command creates with the hash of its specification.
+	 *
+	 * @param arguments the command-line arguments, starting with the type of the resource and {@code create}
+	 * @param hash      the hash of the specification
+	 */
+	static void addLabel(List<String> arguments, String hash)
+	{
+		assert arguments.get(1).equals("create") : arguments;
+		arguments.add(2, "--label");
+		arguments.add(3, LABEL + "=" + hash);
+	}
+
+	private SpecHash()
+	{
+	}
+}
\ No newline at end of file
@@ -18,7 +18,8 @@
 	requires io.github.cowwoc.canister.buildx.internal;
 
 	exports io.github.cowwoc.canister.docker.main.util to io.github.cowwoc.canister.docker.test;
-	exports io.github.cowwoc.canister.docker.main.client to io.github.cowwoc.canister.docker.test;
+	exports io.github.cowwoc.canister.docker.main.client to io.github.cowwoc.canister.docker.fake,
+		io.github.cowwoc.canister.docker.test;
 	exports io.github.cowwoc.canister.docker.main.resource to io.github.cowwoc.canister.docker.test;
 	exports io.github.cowwoc.canister.docker.main.parser to io.github.cowwoc.canister.docker.test;
 
@@ -0,0 +1,240 @@
+package io.github.cowwoc.canister.docker.test;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A fake Docker daemon that serves canned Engine API responses over a Unix domain socket.
+ * <p>
+ * Connections are kept alive between requests so that clients can exercise connection pooling.
+ */
+public final class FakeEngineApiServer implements AutoCloseable
+{
+	private final Path directory;
+	private final Path socket;
+	private final ServerSocketChannel server;
+	private final Map<String, Response> responses = new ConcurrentHashMap<>();
+	private final Set<String> stalledRequests = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger connectionCount = new AtomicInteger();
+	private final AtomicInteger requestCount = new AtomicInteger();
+	private final AtomicInteger abandonedCount = new AtomicInteger();
+	private final Thread acceptor;
+	private final Logger log = LoggerFactory.getLogger(FakeEngineApiServer.class);
+
+	/**
+	 * Starts a new server.
+	 *
+	 * @throws IOException if an I/O error occurs while binding to the socket
+	 */
+	public FakeEngineApiServer() throws IOException
+	{
+		this.directory = Files.createTempDirectory("engine-api");
+		this.socket = directory.resolve("docker.sock");
+		this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+		server.bind(UnixDomainSocketAddress.of(socket));
+		this.acceptor = Thread.ofVirtual().name("fake-engine-api").start(this::acceptConnections);
+	}
+
+	/**
+	 * Returns the path of the server's socket.
+	 *
+	 * @return the path
+	 */
+	public Path getSocket()
+	{
+		return socket;
+	}
+
+	/**
+	 * Registers the response to a {@code GET} request.
+	 *
+	 * @param target     the request target
+	 * @param statusCode the status code to respond with
+	 * @param body       the JSON body to respond with
+	 * @return this
+	 */
+	public FakeEngineApiServer respond(String target, int statusCode, String body)
+	{
+		responses.put("GET " + target, new Response(statusCode, body));
+		return this;
+	}
+
+	/**
+	 * Never responds to a {@code GET} request, simulating a daemon that stopped responding.
+	 *
+	 * @param target the request target
+	 * @return this
+	 */
+	public FakeEngineApiServer stall(String target)
+	{
+		stalledRequests.add("GET " + target);
+		return this;
+	}
+
+	/**
+	 * Returns the number of connections that the client closed while waiting for a
+	 * {@link #stall(String) stalled} request.
+	 *
+	 * @return the number of connections
+	 */
+	public int getAbandonedCount()
+	{
+		return abandonedCount.get();
+	}
+
+	/**
+	 * Returns the number of connections that were accepted.
+	 *
+	 * @return the number of connections
+	 */
+	public int getConnectionCount()
+	{
+		return connectionCount.get();
+	}
+
+	/**
+	 * Returns the number of requests that were served.
+	 *
+	 * @return the number of requests
+	 */
+	public int getRequestCount()
+	{
+		return requestCount.get();
+	}
+
+	/**
+	 * Accepts incoming connections until the server is closed.
+	 */
+	private void acceptConnections()
+	{
+		while (server.isOpen())
+		{
+			try
+			{
+				SocketChannel channel = server.accept();
+				connectionCount.incrementAndGet();
+				Thread.ofVirtual().start(() -> serve(channel));
+			}
+			catch (IOException e)
+			{
+				if (server.isOpen())
+					log.warn("Failed to accept connection", e);
+			}
+		}
+	}
+
+	/**
+	 * Serves requests over a connection until the client disconnects.
+	 *
+	 * @param channel the connection
+	 */
+	private void serve(SocketChannel channel)
+	{
+		try (channel)
+		{
+			InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+			OutputStream out = Channels.newOutputStream(channel);
+			while (true)
+			{
+				String requestLine = readLine(in);
+				if (requestLine == null)
+					return;
+				int contentLength = 0;
+				while (true)
+				{
+					String header = readLine(in);
+					if (header == null || header.isEmpty())
+						break;
+					if (header.toLowerCase(Locale.ROOT).startsWith("content-length:"))
+						contentLength = Integer.parseInt(header.substring("content-length:".length()).strip());
+				}
+				in.readNBytes(contentLength);
+				requestCount.incrementAndGet();
+
+				// GET /containers/json HTTP/1.1
+				String[] tokens = requestLine.split(" ");
+				String request = tokens[0] + " " + tokens[1];
+				if (stalledRequests.contains(request))
+				{
+					// Wait for the client to give up and close the connection
+					in.transferTo(OutputStream.nullOutputStream());
+					abandonedCount.incrementAndGet();
+					return;
+				}
+				Response response = responses.getOrDefault(request,
+					new Response(404, "{\"message\":\"page not found\"}"));
+				byte[] body = response.body().getBytes(UTF_8);
+				String head = "HTTP/1.1 " + response.statusCode() + " Fake\r\n" +
+					"Content-Type: application/json\r\n" +
+					"Content-Length: " + body.length + "\r\n" +
+					"\r\n";
+				out.write(head.getBytes(ISO_8859_1));
+				out.write(body);
+				out.flush();
+			}
+		}
+		catch (IOException e)
+		{
+			log.debug("Connection failed", e);
+		}
+	}
+
+	/**
+	 * @param in the stream to read from
+	 * @return the next line without its terminator, or {@code null} if the end of the stream was reached
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static String readLine(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		while (true)
+		{
+			int next = in.read();
+			if (next == -1)
+				return null;
+			if (next == '\n')
+				return line.toString(ISO_8859_1).stripTrailing();
+			line.write(next);
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		server.close();
+		acceptor.interrupt();
+		Files.deleteIfExists(socket);
+		Files.deleteIfExists(directory);
+	}
+
+	/**
+	 * A canned response.
+	 *
+	 * @param statusCode the status code
+	 * @param body       the body
+	 */
+	private record Response(int statusCode, String body)
+	{
+	}
+}
@@ -0,0 +1,216 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.AsyncDockerClient;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.id.ContainerId;
+import io.github.cowwoc.canister.docker.id.NetworkId;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.Network;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class AsyncDockerClientIT
+{
+	private static final String CONTAINER_ID = "%064x".formatted(1);
+
+	/**
+	 * Creates a fake {@code docker} executable. {@code container inspect} returns a container, {@code network ls}
+	 * returns no networks, and {@code network inspect} runs until it is terminated after writing its process ID
+	 * to {@code <directory>/inspect.pid} and the process ID of its child to {@code <directory>/sleep.pid}.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			case "$1 $2" in
+			"container inspect")
+			  printf '[{"Id":"%%s","Name":"/test","HostConfig":{"PortBindings":{}},' "$3"
+			  printf '"NetworkSettings":{"Ports":{}},"State":{"Status":"running"}}]\\n'
+			  ;;
+			"network ls")
+			  ;;
+			"network inspect")
+			  sleep 60 &
+			  echo $! > "$state/sleep.pid.tmp"
+			  mv "$state/sleep.pid.tmp" "$state/sleep.pid"
+			  echo $$ > "$state/inspect.pid"
+			  wait
+			  ;;
+			*)
+			  echo "Unexpected command: $*" >&2
+			  exit 1
+			  ;;
+			esac
+			""".formatted(directory));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	/**
+	 * Waits for a process to write its ID into a file.
+	 *
+	 * @param path the path of the file
+	 * @return the process ID
+	 * @throws IOException          if an I/O error occurs
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	private static long waitForPid(Path path) throws IOException, InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (Files.notExists(path))
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+		return Long.parseLong(Files.readString(path).strip());
+	}
+
+	/**
+	 * Waits for a process to exit.
+	 *
+	 * @param pid the process ID
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	private static void waitForExit(long pid) throws InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false))
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void runsOperationsConcurrently() throws IOException, ExecutionException, InterruptedException
+	{
+		try (DockerClient client = new DefaultDockerClient(createExecutable(Files.createTempDirectory("docker"))))
+		{
+			AsyncDockerClient async = client.async();
+			CompletableFuture<Container> container = async.getContainer(ContainerId.of(CONTAINER_ID));
+			CompletableFuture<List<Network>> networks = async.getNetworks();
+			CompletableFuture.allOf(container, networks).get();
+
+			requireThat(container.get().getId().getValue(), "id").isEqualTo(CONTAINER_ID);
+			requireThat(networks.get(), "networks").isEmpty();
+		}
+	}
+
+	@Test
+	public void failuresCompleteExceptionally() throws IOException, InterruptedException
+	{
+		try (DockerClient client = new DefaultDockerClient(createExecutable(Files.createTempDirectory("docker"))))
+		{
+			CompletableFuture<Void> future = client.async().submit(_ ->
+			{
+				throw new IOException("Expected");
+			});
+			try
+			{
+				future.get();
+				throw new AssertionError("Expected an exception");
+			}
+			catch (ExecutionException e)
+			{
+				requireThat(e.getCause(), "cause").isInstanceOf(IOException.class);
+				requireThat(e.getCause().getMessage(), "message").isEqualTo("Expected");
+			}
+		}
+	}
+
+	@Test
+	public void usesConfiguredExecutor() throws IOException, ExecutionException, InterruptedException
+	{
+		try (DockerClient client = new DefaultDockerClient(createExecutable(Files.createTempDirectory("docker")));
+		     ExecutorService executor = Executors.newSingleThreadExecutor())
+		{
+			AsyncDockerClient async = client.async(executor);
+			requireThat(async.getExecutor(), "executor").isEqualTo(executor);
+			String expected = executor.submit(() -> Thread.currentThread().getName()).get();
+			String actual = async.submit(_ -> Thread.currentThread().getName()).get();
+			requireThat(actual, "threadName").isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void cancellationTerminatesProcess()
+		throws IOException, InterruptedException, ExecutionException, TimeoutException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			CompletableFuture<Network> future = client.async().getNetwork(NetworkId.of("slow"));
+			long inspectPid = waitForPid(directory.resolve("inspect.pid"));
+			long sleepPid = waitForPid(directory.resolve("sleep.pid"));
+
+			requireThat(future.cancel(true), "cancelled").isTrue();
+			try
+			{
+				future.join();
+				throw new AssertionError("Expected the future to be cancelled");
+			}
+			catch (CancellationException _)
+			{
+				// expected
+			}
+			waitForExit(inspectPid);
+			waitForExit(sleepPid);
+			// The client remains usable
+			Container container = client.async().getContainer(ContainerId.of(CONTAINER_ID)).
+				get(10, TimeUnit.SECONDS);
+			requireThat(container.getId().getValue(), "id").isEqualTo(CONTAINER_ID);
+		}
+	}
+
+	@Test
+	public void cancellationWithoutInterruptLetsOperationFinish()
+		throws IOException, InterruptedException, ExecutionException, TimeoutException
+	{
+		try (DockerClient client = new DefaultDockerClient(createExecutable(Files.createTempDirectory("docker"))))
+		{
+			CountDownLatch started = new CountDownLatch(1);
+			CompletableFuture<Boolean> interrupted = new CompletableFuture<>();
+			CompletableFuture<Void> future = client.async().submit(_ ->
+			{
+				started.countDown();
+				try
+				{
+					Thread.sleep(500);
+					interrupted.complete(false);
+				}
+				catch (InterruptedException _)
+				{
+					interrupted.complete(true);
+				}
+				return null;
+			});
+			started.await();
+
+			requireThat(future.cancel(false), "cancelled").isTrue();
+			requireThat(interrupted.get(10, TimeUnit.SECONDS), "interrupted").isFalse();
+		}
+	}
+}
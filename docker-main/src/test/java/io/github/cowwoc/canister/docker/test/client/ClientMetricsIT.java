@@ -0,0 +1,158 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.core.metrics.CommandStatistics;
+import io.github.cowwoc.canister.core.metrics.Histogram;
+import io.github.cowwoc.canister.core.metrics.InMemoryClientMetrics;
+import io.github.cowwoc.canister.core.metrics.JfrClientMetrics;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class ClientMetricsIT
+{
+	/**
+	 * Creates a fake {@code docker} executable that lists two networks. The first invocation of
+	 * {@code network ls} fails with a transient error.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			case "$1 $2" in
+			"network ls")
+			  if [ ! -e "$state/failed" ]; then
+			    touch "$state/failed"
+			    echo 'error during connect: Get "http://localhost/v1.49/networks": EOF' >&2
+			    exit 1
+			  fi
+			  printf '{"ID":"%%064x","Name":"bridge"}\\n' 1
+			  printf '{"ID":"%%064x","Name":"host"}\\n' 2
+			  ;;
+			"network inspect")
+			  shift 2
+			  separator=''
+			  printf '['
+			  for id in "$@"; do
+			    printf '%%s{"Name":"%%s","Id":"%%s","IPAM":{"Config":[]}}' "$separator" "$id" "$id"
+			    separator=','
+			  done
+			  printf ']\\n'
+			  ;;
+			*)
+			  exit 1
+			  ;;
+			esac
+			""".formatted(directory));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	@Test
+	public void aggregatesBySubcommand() throws IOException, InterruptedException
+	{
+		InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+		try (DockerClient client = new DefaultDockerClient(createExecutable(Files.createTempDirectory("docker"))).
+			metrics(metrics))
+		{
+			requireThat(client.getNetworks().size(), "networks.size()").isEqualTo(2);
+		}
+		requireThat(metrics.getSubcommands(), "subcommands").
+			isEqualTo(Set.of("network ls", "network inspect"));
+
+		CommandStatistics list = metrics.getStatistics("network ls");
+		requireThat(list.getCommands(), "commands").isEqualTo(2L);
+		requireThat(list.getRetries(), "retries").isEqualTo(1L);
+		requireThat(list.getFailures(), "failures").isEqualTo(1L);
+		requireThat(list.getStdoutBytes(), "stdoutBytes").isPositive();
+		requireThat(list.getStderrBytes(), "stderrBytes").isPositive();
+		requireThat(list.getWallTime().getCount(), "wallTime.getCount()").isEqualTo(2L);
+		requireThat(list.getParseTime().getCount(), "parseTime.getCount()").isEqualTo(1L);
+
+		// Each network is inspected by a separate command
+		CommandStatistics inspect = metrics.getStatistics("network inspect");
+		requireThat(inspect.getCommands(), "commands").isEqualTo(2L);
+		requireThat(inspect.getRetries(), "retries").isEqualTo(0L);
+		requireThat(inspect.getParseTime().getCount(), "parseTime.getCount()").isEqualTo(2L);
+		requireThat(metrics.getBackoffTime().getCount(), "backoffTime.getCount()").isEqualTo(1L);
+	}
+
+	@Test
+	public void emitsFlightRecorderEvents() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		Path recordingFile = directory.resolve("recording.jfr");
+		try (Recording recording = new Recording())
+		{
+			recording.enable(JfrClientMetrics.COMMAND_EVENT);
+			recording.enable(JfrClientMetrics.BACKOFF_EVENT);
+			recording.enable(JfrClientMetrics.PARSE_EVENT);
+			recording.start();
+			try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+				metrics(new JfrClientMetrics()))
+			{
+				client.getNetworks();
+			}
+			recording.stop();
+			recording.dump(recordingFile);
+		}
+
+		List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+		List<RecordedEvent> commands = events.stream().
+			filter(event -> event.getEventType().getName().equals(JfrClientMetrics.COMMAND_EVENT)).
+			toList();
+		requireThat(commands.size(), "commands.size()").isEqualTo(4);
+		List<RecordedEvent> retries = commands.stream().
+			filter(event -> event.getInt("attempt") > 1).
+			toList();
+		requireThat(retries.size(), "retries.size()").isEqualTo(1);
+		RecordedEvent retry = retries.getFirst();
+		requireThat(retry.getString("subcommand"), "subcommand").isEqualTo("network ls");
+		requireThat(retry.getInt("attempt"), "attempt").isEqualTo(2);
+		requireThat(retry.getInt("exitCode"), "exitCode").isEqualTo(0);
+
+		long backoffs = events.stream().
+			filter(event -> event.getEventType().getName().equals(JfrClientMetrics.BACKOFF_EVENT)).
+			count();
+		requireThat(backoffs, "backoffs").isEqualTo(1L);
+		long parses = events.stream().
+			filter(event -> event.getEventType().getName().equals(JfrClientMetrics.PARSE_EVENT)).
+			count();
+		requireThat(parses, "parses").isEqualTo(3L);
+	}
+
+	@Test
+	public void histogramPercentiles()
+	{
+		Histogram histogram = new Histogram();
+		requireThat(histogram.getPercentile(99), "p99").isEqualTo(Duration.ZERO);
+		for (int i = 1; i <= 100; ++i)
+			histogram.record(Duration.ofMillis(i));
+
+		requireThat(histogram.getCount(), "count").isEqualTo(100L);
+		requireThat(histogram.getTotal(), "total").isEqualTo(Duration.ofMillis(5050));
+		requireThat(histogram.getMaximum(), "maximum").isEqualTo(Duration.ofMillis(100));
+		// Percentiles are accurate to within 12.5%
+		requireThat(histogram.getPercentile(50), "p50").
+			isBetween(Duration.ofMillis(50), true, Duration.ofNanos(56_250_000), true);
+		requireThat(histogram.getPercentile(100), "p100").isEqualTo(Duration.ofMillis(100));
+	}
+}
@@ -0,0 +1,121 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.id.ContextId;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.Network;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.List;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class ClientViewIT
+{
+	private static final ContextId FIRST = ContextId.of("a");
+	private static final ContextId SECOND = ContextId.of("b");
+
+	/**
+	 * Creates a fake {@code docker} executable that lists one network named after the context.
+	 *
+	 * @param directory the directory to write the executable into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			context=c
+			if [ "$1" = "--context" ]; then
+			  context="$2"
+			  shift 2
+			fi
+			id=$(printf '%064d' 0 | tr 0 "$context")
+			case "$1 $2" in
+			"network ls")
+			  echo '{"ID":"'"$id"'","Name":"'"$context"'-network"}'
+			  ;;
+			"network inspect")
+			  echo '[{"Name":"'"$context"'-network","Id":"'"$id"'","IPAM":{"Config":[]}}]'
+			  ;;
+			*)
+			  exit 1
+			  ;;
+			esac
+			""");
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	@Test
+	public void viewTargetsContext() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			DockerClient first = client.withContext(FIRST);
+			DockerClient second = client.withContext(SECOND);
+			requireThat(first.getNetworks().stream().map(Network::getName).toList(), "first").
+				isEqualTo(List.of("a-network"));
+			requireThat(second.getNetworks().stream().map(Network::getName).toList(), "second").
+				isEqualTo(List.of("b-network"));
+			requireThat(client.getNetworks().stream().map(Network::getName).toList(), "client").
+				isEqualTo(List.of("c-network"));
+		}
+	}
+
+	@Test
+	public void viewIsReused() throws IOException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			DockerClient view = client.withContext(FIRST);
+			requireThat(client.withContext(FIRST) == view, "sameView").isTrue();
+			requireThat(view.withContext(FIRST) == view, "sameViewFromView").isTrue();
+		}
+	}
+
+	@Test
+	public void viewSharesConfiguration() throws IOException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			DefaultDockerClient view = (DefaultDockerClient) client.withContext(FIRST);
+			client.retryTimeout(Duration.ofSeconds(5));
+			requireThat(view.getRetryTimeout(), "view.getRetryTimeout()").isEqualTo(Duration.ofSeconds(5));
+		}
+	}
+
+	@Test(expectedExceptions = UnsupportedOperationException.class)
+	public void viewCannotBeReconfigured() throws IOException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			client.withContext(FIRST).retryTimeout(Duration.ZERO);
+		}
+	}
+
+	@Test
+	public void viewIsClosedWithParent() throws IOException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		DockerClient view;
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			view = client.withContext(FIRST);
+			view.close();
+			requireThat(view.isClosed(), "view.isClosed()").isFalse();
+		}
+		requireThat(view.isClosed(), "view.isClosed()").isTrue();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.core.metrics.InMemoryClientMetrics;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class CommandBulkheadIT
+{
+	private static final int CALLERS = 10;
+
+	/**
+	 * Creates a fake {@code docker} executable. Each invocation appends its subcommand to
+	 * {@code <directory>/order}, and the number of commands that are running to {@code <directory>/concurrency}.
+	 * {@code network inspect} takes 1 second, and {@code container inspect} takes 0.2 seconds.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			mkdir "$state/running.$$"
+			ls -d "$state"/running.* | wc -l >> "$state/concurrency"
+			echo "$1 $2" >> "$state/order"
+			case "$1 $2" in
+			"container inspect")
+			  sleep 0.2
+			  printf '[{"Id":"%%s","Name":"/test","HostConfig":{"PortBindings":{}},' "$3"
+			  printf '"NetworkSettings":{"Ports":{}},"State":{"Status":"running"}}]\\n'
+			  ;;
+			"network inspect")
+			  sleep 1
+			  printf '[{"Name":"%%s","Id":"%%s","IPAM":{"Config":[]}}]\\n' "$3" "$3"
+			  ;;
+			"container rename")
+			  ;;
+			*)
+			  rmdir "$state/running.$$"
+			  exit 1
+			  ;;
+			esac
+			rmdir "$state/running.$$"
+			""".formatted(directory));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	@Test
+	public void limitsRunningCommands() throws IOException, InterruptedException, ExecutionException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			metrics(metrics).
+			maxRunningCommands(2);
+		     ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			List<Future<?>> futures = new ArrayList<>(CALLERS);
+			for (int i = 0; i < CALLERS; ++i)
+			{
+				String id = "%064x".formatted(i);
+				futures.add(executor.submit(() -> client.getContainer(id)));
+			}
+			for (Future<?> future : futures)
+				future.get();
+		}
+		List<String> concurrency = Files.readAllLines(directory.resolve("concurrency"));
+		requireThat(concurrency.size(), "commands").isEqualTo(CALLERS);
+		for (String running : concurrency)
+			requireThat(Integer.parseInt(running.strip()), "running").isBetween(1, true, 2, true);
+
+		requireThat(metrics.getMaximumQueueDepth(), "maximumQueueDepth").isPositive();
+		requireThat(metrics.getStatistics("container inspect").getWaitTime().getMaximum().isPositive(),
+			"waitTime.isPositive()").isTrue();
+	}
+
+	@Test
+	public void mutationsOvertakeReads() throws IOException, InterruptedException, ExecutionException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			maxRunningCommands(1);
+		     ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			List<Future<?>> futures = new ArrayList<>();
+			// Occupy the only slot
+			futures.add(executor.submit(() -> client.getNetwork("%064x".formatted(0))));
+			Thread.sleep(200);
+			for (int i = 0; i < CALLERS; ++i)
+			{
+				String id = "%064x".formatted(i);
+				futures.add(executor.submit(() -> client.getContainer(id)));
+			}
+			Thread.sleep(200);
+			futures.add(executor.submit(() -> client.renameContainer("%064x".formatted(0), "renamed")));
+			for (Future<?> future : futures)
+				future.get();
+		}
+		List<String> order = Files.readAllLines(directory.resolve("order"));
+		requireThat(order.size(), "commands").isEqualTo(CALLERS + 2);
+		requireThat(order.get(0), "first").isEqualTo("network inspect");
+		requireThat(order.get(1), "second").isEqualTo("container rename");
+	}
+}
@@ -0,0 +1,165 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.core.metrics.InMemoryClientMetrics;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.Container;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class CommandCoalescingIT
+{
+	private static final String CONTAINER_ID = "%064x".formatted(1);
+	private static final int CALLERS = 20;
+
+	/**
+	 * Creates a fake {@code docker} executable that inspects a single container. Each invocation of
+	 * {@code container inspect} takes 0.5 seconds and appends a line to {@code <directory>/inspections}.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			case "$1 $2" in
+			"container inspect")
+			  echo "$3" >> "$state/inspections"
+			  sleep 0.5
+			  printf '[{"Id":"%%s","Name":"/test","HostConfig":{"PortBindings":{}},' "$3"
+			  printf '"NetworkSettings":{"Ports":{}},"State":{"Status":"running"}}]\\n'
+			  ;;
+			"container rename")
+			  ;;
+			*)
+			  exit 1
+			  ;;
+			esac
+			""".formatted(directory));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	/**
+	 * @param directory the directory that contains the fake executable's state
+	 * @return the number of times that the container was inspected
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static int getInspections(Path directory) throws IOException
+	{
+		Path inspections = directory.resolve("inspections");
+		if (Files.notExists(inspections))
+			return 0;
+		return Files.readAllLines(inspections).size();
+	}
+
+	/**
+	 * Looks up the container from multiple threads at the same time.
+	 *
+	 * @param client the client to use
+	 * @throws InterruptedException if the thread is interrupted
+	 * @throws ExecutionException   if a lookup fails
+	 */
+	private static void getContainerConcurrently(DockerClient client)
+		throws InterruptedException, ExecutionException
+	{
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			List<Future<Container>> futures = new ArrayList<>(CALLERS);
+			for (int i = 0; i < CALLERS; ++i)
+				futures.add(executor.submit(() -> client.getContainer(CONTAINER_ID)));
+			for (Future<Container> future : futures)
+			{
+				Container container = future.get();
+				requireThat(container.getId().getValue(), "id").isEqualTo(CONTAINER_ID);
+			}
+		}
+	}
+
+	@Test
+	public void concurrentLookupsShareOneCommand()
+		throws IOException, InterruptedException, ExecutionException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			metrics(metrics).
+			coalesceReads(Duration.ZERO))
+		{
+			getContainerConcurrently(client);
+			requireThat(getInspections(directory), "inspections").isEqualTo(1);
+			requireThat(metrics.getStatistics("container inspect").getCoalesced(), "coalesced").
+				isEqualTo((long) CALLERS - 1);
+
+			// Commands that do not overlap are run again
+			client.getContainer(CONTAINER_ID);
+			requireThat(getInspections(directory), "inspections").isEqualTo(2);
+		}
+	}
+
+	@Test
+	public void disabledByDefault() throws IOException, InterruptedException, ExecutionException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			getContainerConcurrently(client);
+			requireThat(getInspections(directory), "inspections").isEqualTo(CALLERS);
+		}
+	}
+
+	@Test
+	public void sharesResultsUntilModified() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			coalesceReads(Duration.ofMinutes(1)))
+		{
+			client.getContainer(CONTAINER_ID);
+			client.getContainer(CONTAINER_ID);
+			requireThat(getInspections(directory), "inspections").isEqualTo(1);
+
+			client.renameContainer(CONTAINER_ID, "renamed");
+			client.getContainer(CONTAINER_ID);
+			requireThat(getInspections(directory), "inspections").isEqualTo(2);
+		}
+	}
+
+	@Test
+	public void readsThatOverlapModificationAreNotShared()
+		throws IOException, InterruptedException, ExecutionException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			coalesceReads(Duration.ofMinutes(1));
+		     ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			Future<Container> before = executor.submit(() -> client.getContainer(CONTAINER_ID));
+			while (getInspections(directory) == 0)
+				Thread.sleep(10);
+
+			// The inspection that is running might not observe the new name
+			client.renameContainer(CONTAINER_ID, "renamed");
+			client.getContainer(CONTAINER_ID);
+			before.get();
+			requireThat(getInspections(directory), "inspections").isEqualTo(2);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.core.internal.client.CommandRecorder;
+import io.github.cowwoc.canister.core.internal.client.CommandReplayer;
+import io.github.cowwoc.canister.core.internal.client.CommandReplayer.Timing;
+import io.github.cowwoc.canister.core.internal.client.CommandRunner;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class CommandRunnerIT
+{
+	/**
+	 * Returns a command that writes numbered lines to a stream.
+	 *
+	 * @param count  the number of lines to write
+	 * @param stream {@code 1} for stdout, {@code 2} for stderr
+	 * @return the command
+	 */
+	private static ProcessBuilder writeLines(int count, int stream)
+	{
+		return new ProcessBuilder("sh", "-c",
+			"i=0; while [ $i -lt " + count + " ]; do echo line$i >&" + stream + "; i=$((i+1)); done");
+	}
+
+	@Test
+	public void streamsStdout() throws IOException, InterruptedException, TimeoutException
+	{
+		AtomicInteger lines = new AtomicInteger();
+		CommandResult result = new CommandRunner(writeLines(5000, 1)).
+			stdoutConsumer(_ -> lines.incrementAndGet()).
+			failureHandler(_ ->
+			{
+			}).
+			apply();
+		requireThat(lines.get(), "lines").isEqualTo(5000);
+		requireThat(result.stdout(), "stdout").isEmpty();
+	}
+
+	@Test
+	public void truncatesStderr() throws IOException, InterruptedException, TimeoutException
+	{
+		CommandResult result = new CommandRunner(writeLines(1500, 2)).
+			stdoutConsumer(_ ->
+			{
+			}).
+			failureHandler(_ ->
+			{
+			}).
+			apply();
+		String stderr = result.stderr();
+		requireThat(stderr, "stderr").startsWith("[500 lines omitted]").endsWith("line1499").
+			doesNotContain("line499\n");
+	}
+
+	@Test(expectedExceptions = AssertionError.class)
+	public void rethrowsConsumerFailure() throws IOException, InterruptedException, TimeoutException
+	{
+		AtomicInteger lines = new AtomicInteger();
+		try
+		{
+			new CommandRunner(writeLines(100, 1)).
+				stdoutConsumer(_ ->
+				{
+					if (lines.incrementAndGet() == 2)
+						throw new AssertionError("Malformed line");
+				}).
+				failureHandler(_ ->
+				{
+				}).
+				apply();
+		}
+		finally
+		{
+			// Lines that follow the failure are discarded
+			requireThat(lines.get(), "lines").isEqualTo(2);
+		}
+	}
+
+	@Test
+	public void deadlineTerminatesProcessTree() throws IOException, InterruptedException
+	{
+		Path pidFile = Files.createTempFile("sleep", ".pid");
+		ProcessBuilder processBuilder = new ProcessBuilder("sh", "-c",
+			"sleep 60 & echo $! > " + pidFile + "; wait");
+		Instant start = Instant.now();
+		try
+		{
+			new CommandRunner(processBuilder).
+				deadline(start.plusMillis(500)).
+				failureHandler(_ ->
+				{
+				}).
+				apply();
+			throw new AssertionError("Expected a TimeoutException");
+		}
+		catch (TimeoutException _)
+		{
+			// expected
+		}
+		requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofSeconds(10));
+		long pid = Long.parseLong(Files.readString(pidFile).strip());
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false))
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void replaysRecordedCommand() throws IOException, InterruptedException, TimeoutException
+	{
+		Path journal = Files.createTempFile("journal", ".gz");
+		try
+		{
+			CommandResult recorded;
+			try (CommandRecorder recorder = new CommandRecorder(journal))
+			{
+				recorded = new CommandRunner(writeLines(3, 1)).
+					recorder(recorder).
+					failureHandler(_ ->
+					{
+					}).
+					apply();
+			}
+			CommandReplayer replayer = new CommandReplayer(journal, Timing.FASTEST);
+			requireThat(replayer.size(), "size").isEqualTo(1);
+
+			// The executable is not part of the journal, so the replayed process does not need to exist
+			List<String> command = writeLines(3, 1).command();
+			command.set(0, "missing-executable");
+			List<String> lines = new ArrayList<>();
+			CommandResult replayed = new CommandRunner(new ProcessBuilder(command)).
+				replayer(replayer).
+				stdoutConsumer(lines::add).
+				failureHandler(_ ->
+				{
+				}).
+				apply();
+			requireThat(lines, "lines").isEqualTo(List.of("line0", "line1", "line2"));
+			requireThat(replayed.stdout(), "replayed.stdout").isEmpty();
+			requireThat(replayed.exitCode(), "replayed.exitCode").isEqualTo(recorded.exitCode());
+		}
+		finally
+		{
+			Files.deleteIfExists(journal);
+		}
+	}
+
+	@Test
+	public void replaysOriginalTiming() throws IOException, InterruptedException, TimeoutException
+	{
+		Path journal = Files.createTempFile("journal", ".gz");
+		try
+		{
+			ProcessBuilder processBuilder = new ProcessBuilder("sh", "-c", "sleep 0.5; echo done");
+			try (CommandRecorder recorder = new CommandRecorder(journal))
+			{
+				new CommandRunner(processBuilder).
+					recorder(recorder).
+					failureHandler(_ ->
+					{
+					}).
+					apply();
+			}
+
+			Instant start = Instant.now();
+			CommandResult result = new CommandRunner(processBuilder).
+				replayer(new CommandReplayer(journal, Timing.ORIGINAL)).
+				failureHandler(_ ->
+				{
+				}).
+				apply();
+			requireThat(result.stdout(), "stdout").isEqualTo("done");
+			requireThat(Duration.between(start, Instant.now()), "elapsed").
+				isGreaterThanOrEqualTo(Duration.ofMillis(500));
+
+			start = Instant.now();
+			new CommandRunner(processBuilder).
+				replayer(new CommandReplayer(journal, Timing.FASTEST)).
+				failureHandler(_ ->
+				{
+				}).
+				apply();
+			requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofMillis(500));
+		}
+		finally
+		{
+			Files.deleteIfExists(journal);
+		}
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void replayRejectsUnrecordedCommand() throws IOException, InterruptedException, TimeoutException
+	{
+		Path journal = Files.createTempFile("journal", ".gz");
+		try
+		{
+			new CommandRecorder(journal).close();
+			new CommandRunner(writeLines(1, 1)).
+				replayer(new CommandReplayer(journal, Timing.FASTEST)).
+				failureHandler(_ ->
+				{
+				}).
+				apply();
+		}
+		finally
+		{
+			Files.deleteIfExists(journal);
+		}
+	}
+}
\ No newline at end of file
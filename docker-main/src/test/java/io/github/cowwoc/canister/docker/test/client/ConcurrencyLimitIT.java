@@ -0,0 +1,109 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.Network;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class ConcurrencyLimitIT
+{
+	private static final int NETWORKS = 40;
+
+	/**
+	 * Creates a fake {@code docker} executable that lists {@value #NETWORKS} networks. Each invocation of
+	 * {@code network inspect} appends the number of inspect commands that are running to
+	 * {@code <directory>/concurrency}.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			case "$1 $2" in
+			"network ls")
+			  i=0
+			  while [ $i -lt %d ]; do
+			    printf '{"ID":"%%064x","Name":"network%%d"}\\n' $i $i
+			    i=$((i+1))
+			  done
+			  ;;
+			"network inspect")
+			  shift 2
+			  mkdir "$state/running.$$"
+			  ls -d "$state"/running.* | wc -l >> "$state/concurrency"
+			  sleep 0.2
+			  separator=''
+			  printf '['
+			  for id in "$@"; do
+			    printf '%%s{"Name":"%%s","Id":"%%s","IPAM":{"Config":[]}}' "$separator" "$id" "$id"
+			    separator=','
+			  done
+			  printf ']\\n'
+			  rmdir "$state/running.$$"
+			  ;;
+			*)
+			  exit 1
+			  ;;
+			esac
+			""".formatted(directory, NETWORKS));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	/**
+	 * @param directory the directory that contains the fake executable's state
+	 * @return the number of inspect commands that were running when each inspect command started
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static List<Integer> getConcurrency(Path directory) throws IOException
+	{
+		return Files.readAllLines(directory.resolve("concurrency")).stream().
+			map(String::strip).
+			map(Integer::parseInt).
+			toList();
+	}
+
+	@Test
+	public void inspectsInParallelBatches() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			maxConcurrentCommands(3))
+		{
+			List<Network> networks = client.getNetworks();
+			requireThat(networks.size(), "networks.size()").isEqualTo(NETWORKS);
+			requireThat(networks.getFirst().getId().getValue(), "id").isEqualTo("%064x".formatted(0));
+			requireThat(networks.getLast().getId().getValue(), "id").isEqualTo("%064x".formatted(NETWORKS - 1));
+
+			List<Integer> concurrency = getConcurrency(directory);
+			requireThat(concurrency.size(), "batches").isEqualTo(3);
+			for (int running : concurrency)
+				requireThat(running, "running").isBetween(1, true, 3, true);
+		}
+	}
+
+	@Test
+	public void limitOfOneRunsSequentially() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			maxConcurrentCommands(1))
+		{
+			requireThat(client.getNetworks().size(), "networks.size()").isEqualTo(NETWORKS);
+			requireThat(getConcurrency(directory), "concurrency").isEqualTo(List.of(1));
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.core.exception.CommandTimeoutException;
+import io.github.cowwoc.canister.core.resource.CommandResult;
+import io.github.cowwoc.canister.docker.api.client.Docker;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.test.FakeEngineApiServer;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class DeadlineIT
+{
+	/**
+	 * Creates a fake {@code docker} executable whose {@code hang} command runs until it is terminated, after
+	 * writing the process ID of its child to {@code <directory>/sleep.pid}. Each invocation appends a line to
+	 * {@code <directory>/invocations}. {@code slow} exits after 0.5 seconds.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			echo "$1" >> "$state/invocations"
+			case "$1" in
+			"hang")
+			  sleep 60 &
+			  echo $! > "$state/sleep.pid"
+			  wait
+			  ;;
+			"slow")
+			  sleep 0.5
+			  echo done
+			  ;;
+			*)
+			  exit 1
+			  ;;
+			esac
+			""".formatted(directory));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	/**
+	 * Waits for a process to exit.
+	 *
+	 * @param pid the process ID
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	private static void waitForExit(long pid) throws InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false))
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void deadlineTerminatesCommand() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			Instant start = Instant.now();
+			try
+			{
+				client.retry(_ -> client.run(List.of("hang")), start.plusMillis(500));
+				throw new AssertionError("Expected a TimeoutException");
+			}
+			catch (TimeoutException e)
+			{
+				requireThat(e.getCause(), "cause").isInstanceOf(CommandTimeoutException.class);
+			}
+			requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofSeconds(10));
+			waitForExit(Long.parseLong(Files.readString(directory.resolve("sleep.pid")).strip()));
+			// Commands that time out are not retried
+			requireThat(Files.readAllLines(directory.resolve("invocations")), "invocations").
+				isEqualTo(List.of("hang"));
+		}
+	}
+
+	@Test
+	public void nestedRetryInheritsDeadline() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			try
+			{
+				client.retry(_ -> client.retry(_ -> client.run(List.of("hang"))), Instant.now().plusMillis(500));
+				throw new AssertionError("Expected a TimeoutException");
+			}
+			catch (TimeoutException _)
+			{
+				// expected
+			}
+			waitForExit(Long.parseLong(Files.readString(directory.resolve("sleep.pid")).strip()));
+		}
+	}
+
+	@Test
+	public void retryTimeoutDoesNotLimitCommands() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			client.retryTimeout(Duration.ofMillis(100));
+			CommandResult result = client.retry(_ -> client.run(List.of("slow")));
+			requireThat(result.stdout(), "stdout").isEqualTo("done");
+		}
+	}
+
+	@Test
+	public void retryTimeoutLimitsReadOnlyCommands() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			client.retryTimeout(Duration.ofMillis(500));
+			Instant start = Instant.now();
+			try
+			{
+				// The second argument marks the command as read-only
+				client.retry(_ -> client.run(List.of("hang", "inspect")));
+				throw new AssertionError("Expected a CommandTimeoutException");
+			}
+			catch (CommandTimeoutException _)
+			{
+				// expected
+			}
+			requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofSeconds(10));
+			waitForExit(Long.parseLong(Files.readString(directory.resolve("sleep.pid")).strip()));
+		}
+	}
+
+	@Test
+	public void retryTimeoutLimitsEngineApiRequests() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			server.stall("/containers/web/json");
+			client.retryTimeout(Duration.ofMillis(500));
+			Instant start = Instant.now();
+			try
+			{
+				client.getContainer("web");
+				throw new AssertionError("Expected a CommandTimeoutException");
+			}
+			catch (CommandTimeoutException _)
+			{
+				// expected
+			}
+			requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofSeconds(10));
+			// The connection is closed instead of being returned to the pool
+			Instant deadline = Instant.now().plusSeconds(10);
+			while (server.getAbandonedCount() == 0)
+			{
+				requireThat(Instant.now(), "now").isLessThan(deadline);
+				Thread.sleep(10);
+			}
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.core.exception.CommandTimeoutException;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.Network;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class DialStdioIT
+{
+	private static final String NETWORK_ID = "f2de39df4171b0dc801e8002d1d999b77256983dfc63041c0f34030aa3977566";
+
+	/**
+	 * Creates a fake {@code docker} executable whose {@code system dial-stdio} command is a fake Engine API
+	 * server that serves keep-alive HTTP/1.1 requests over stdin and stdout. Each {@code dial-stdio} process
+	 * appends its context and process ID to {@code <directory>/dial-stdio}. Any other command is appended to
+	 * {@code <directory>/forked}, and fails as if the network that it refers to does not exist. Requests for
+	 * the {@code stalled} network never receive a response.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			context=default
+			if [ "$1" = "--context" ]; then
+			  context="$2"
+			  shift 2
+			fi
+			if [ "$1 $2" != "system dial-stdio" ]; then
+			  echo "$*" >> "$state/forked"
+			  echo "Error response from daemon: network $3 not found" >&2
+			  exit 1
+			fi
+			echo "$context $$" >> "$state/dial-stdio"
+			cr=$(printf '\\r')
+			while IFS= read -r line; do
+			  set -- ${line%%"$cr"}
+			  target="$2"
+			  while IFS= read -r header; do
+			    [ -z "${header%%"$cr"}" ] && break
+			  done
+			  case "$target" in
+			  "/networks/stalled")
+			    exec sleep 60
+			    ;;
+			  "/networks/bridge")
+			    status=200
+			    body='{"Name":"bridge","Id":"%s","IPAM":{"Config":[]}}'
+			    ;;
+			  /networks/*)
+			    status=404
+			    body='{"message":"network '"${target#/networks/}"' not found"}'
+			    ;;
+			  *)
+			    status=404
+			    body='{"message":"page not found"}'
+			    ;;
+			  esac
+			  printf 'HTTP/1.1 %%s Fake\\r\\nContent-Type: application/json\\r\\nContent-Length: %%s\\r\\n\\r\\n%%s' \\
+			    "$status" "${#body}" "$body"
+			done
+			""".formatted(directory, NETWORK_ID));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	/**
+	 * Waits for a process to exit.
+	 *
+	 * @param pid the process ID
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	private static void waitForExit(long pid) throws InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false))
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void reusesProcessAcrossCommands() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		List<String> dialStdio;
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			dialStdio(true).
+			setClientContext("remote"))
+		{
+			for (int i = 0; i < 3; ++i)
+			{
+				Network network = client.getNetwork("bridge");
+				requireThat(network.getId().getValue(), "network.getId()").isEqualTo(NETWORK_ID);
+			}
+			requireThat(client.getNetwork("missing"), "missing").isNull();
+
+			dialStdio = Files.readAllLines(directory.resolve("dial-stdio"));
+			requireThat(dialStdio, "dialStdio").size().isEqualTo(1);
+			requireThat(dialStdio.getFirst(), "dialStdio").startsWith("remote ");
+			requireThat(Files.exists(directory.resolve("forked")), "forked").isFalse();
+		}
+		// Closing the client terminates the process
+		waitForExit(Long.parseLong(dialStdio.getFirst().split(" ")[1]));
+	}
+
+	@Test
+	public void poolsProcessesPerContext() throws IOException, InterruptedException, ExecutionException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			dialStdio(true);
+		     ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor())
+		{
+			List<Future<Network>> futures = new ArrayList<>();
+			for (int i = 0; i < 10; ++i)
+				futures.add(executor.submit(() -> client.getNetwork("bridge")));
+			for (Future<Network> future : futures)
+				requireThat(future.get().getName(), "name").isEqualTo("bridge");
+			client.setClientContext("remote");
+			requireThat(client.getNetwork("bridge").getName(), "name").isEqualTo("bridge");
+
+			List<String> dialStdio = Files.readAllLines(directory.resolve("dial-stdio"));
+			requireThat(dialStdio.size(), "processes").isBetween(2, true, 11, true);
+			requireThat(dialStdio.stream().filter(line -> line.startsWith("remote ")).count(),
+				"remoteProcesses").isEqualTo(1L);
+		}
+	}
+
+	@Test
+	public void deadlineTerminatesStalledProcess() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			dialStdio(true).
+			retryTimeout(Duration.ofMillis(500)))
+		{
+			Instant start = Instant.now();
+			try
+			{
+				client.getNetwork("stalled");
+				throw new AssertionError("Expected a CommandTimeoutException");
+			}
+			catch (CommandTimeoutException _)
+			{
+				// expected
+			}
+			requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofSeconds(10));
+			// The process that relayed the request is terminated before the client is closed
+			List<String> dialStdio = Files.readAllLines(directory.resolve("dial-stdio"));
+			requireThat(dialStdio, "dialStdio").size().isEqualTo(1);
+			waitForExit(Long.parseLong(dialStdio.getFirst().split(" ")[1]));
+			requireThat(Files.exists(directory.resolve("forked")), "forked").isFalse();
+		}
+	}
+
+	@Test
+	public void disabledByDefault() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			// The fake executable only implements dial-stdio
+			requireThat(client.getNetwork("bridge"), "network").isNull();
+			requireThat(Files.exists(directory.resolve("dial-stdio")), "dialStdio").isFalse();
+			requireThat(Files.exists(directory.resolve("forked")), "forked").isTrue();
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.Docker;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.Network;
+import io.github.cowwoc.canister.docker.test.FakeEngineApiServer;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class EngineApiTransportIT
+{
+	private static final String CONTAINER_ID = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+	private static final String CONTAINER_JSON = """
+		{
+		  "Id": "%s",
+		  "Name": "/web",
+		  "HostConfig": {"PortBindings": {"80/tcp": [{"HostIp": "", "HostPort": "8080"}]}},
+		  "NetworkSettings": {"Ports": {"80/tcp": null}},
+		  "State": {"Status": "running"}
+		}""".formatted(CONTAINER_ID);
+
+	@Test
+	public void getContainer() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			server.respond("/containers/web/json", 200, CONTAINER_JSON);
+
+			Container container = client.getContainer("web");
+			requireThat(container, "container").isNotNull();
+			requireThat(container.getId().getValue(), "container.getId()").isEqualTo(CONTAINER_ID);
+			requireThat(container.getName(), "container.getName()").isEqualTo("web");
+			requireThat(container.getStatus(), "container.getStatus()").isEqualTo(Container.Status.RUNNING);
+		}
+	}
+
+	@Test
+	public void getMissingContainer() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			server.respond("/containers/missing/json", 404, "{\"message\":\"No such container: missing\"}");
+
+			Container container = client.getContainer("missing");
+			requireThat(container, "container").isNull();
+		}
+	}
+
+	@Test
+	public void getContainersReusesConnection() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			server.respond("/containers/json?all=1", 200, """
+				[{"Id": "%s", "Names": ["/web"], "Image": "nginx", "State": "running", "Status": "Up 1 second",
+				  "Labels": {}}]""".formatted(CONTAINER_ID));
+			server.respond("/containers/" + CONTAINER_ID + "/json", 200, CONTAINER_JSON);
+
+			List<Container> containers = client.getContainers();
+			requireThat(containers, "containers").size().isEqualTo(1);
+			requireThat(containers.getFirst().getName(), "name").isEqualTo("web");
+			requireThat(server.getRequestCount(), "requestCount").isEqualTo(2);
+			requireThat(server.getConnectionCount(), "connectionCount").isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void getContainersOmitsRemovedContainers() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			// The second container is removed between "container ls" and "container inspect"
+			server.respond("/containers/json?all=1", 200, """
+				[{"Id": "%s", "Names": ["/web"], "Image": "nginx", "State": "running", "Status": "Up 1 second",
+				  "Labels": {}},
+				 {"Id": "removed", "Names": ["/db"], "Image": "postgres", "State": "exited", "Status": "Exited",
+				  "Labels": {}}]""".formatted(CONTAINER_ID));
+			server.respond("/containers/" + CONTAINER_ID + "/json", 200, CONTAINER_JSON);
+			server.respond("/containers/removed/json", 404, "{\"message\":\"No such container: removed\"}");
+
+			List<Container> containers = client.getContainers();
+			requireThat(containers, "containers").size().isEqualTo(1);
+			requireThat(containers.getFirst().getName(), "name").isEqualTo("web");
+		}
+	}
+
+	@Test
+	public void getNetwork() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			server.respond("/networks/bridge", 200, """
+				{
+				  "Name": "bridge",
+				  "Id": "f2de39df4171b0dc801e8002d1d999b77256983dfc63041c0f34030aa3977566",
+				  "IPAM": {"Config": [{"Subnet": "172.17.0.0/16", "Gateway": "172.17.0.1"}]}
+				}""");
+
+			Network network = client.getNetwork("bridge");
+			requireThat(network, "network").isNotNull();
+			requireThat(network.getName(), "network.getName()").isEqualTo("bridge");
+		}
+	}
+
+	@Test
+	public void malformedResponseIsRetried() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			// A truncated body, such as one cut short by a proxy
+			server.respond("/containers/web/json", 200, "{\"Id\": \"" + CONTAINER_ID);
+			client.retryTimeout(Duration.ofSeconds(1));
+			try
+			{
+				client.getContainer("web");
+				throw new AssertionError("Expected an IOException");
+			}
+			catch (IOException _)
+			{
+				// expected
+			}
+			requireThat(server.getRequestCount(), "requestCount").isGreaterThan(1);
+		}
+	}
+}
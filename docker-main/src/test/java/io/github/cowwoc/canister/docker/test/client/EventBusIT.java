@@ -0,0 +1,114 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
+import io.github.cowwoc.canister.docker.resource.EventListener;
+import io.github.cowwoc.canister.docker.resource.EventSubscription;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class EventBusIT
+{
+	/**
+	 * Creates a fake {@code docker} executable whose {@code system events} command writes a line of output, and
+	 * then runs until it is terminated.
+	 *
+	 * @param directory the directory to write the executable into
+	 * @param output    the line to write
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory, String output) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			case "$1 $2" in
+			"system events")
+			  echo '%s'
+			  exec sleep 60
+			  ;;
+			*)
+			  echo "Unexpected command: $*" >&2
+			  exit 1
+			  ;;
+			esac
+			""".formatted(output));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	@Test
+	public void malformedEventFailsListeners()
+		throws IOException, InterruptedException, ExecutionException, TimeoutException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		// An event that is missing its mandatory properties
+		try (DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory,
+			"{\"Type\":\"container\"}")))
+		{
+			CompletableFuture<Throwable> failure = new CompletableFuture<>();
+			EventListener listener = new EventListener()
+			{
+				@Override
+				public void onEvent(DockerEvent event)
+				{
+					failure.completeExceptionally(new AssertionError("Unexpected event: " + event));
+				}
+
+				@Override
+				public void onFailure(Throwable cause)
+				{
+					failure.complete(cause);
+				}
+			};
+			try (EventSubscription _ = client.events().subscribe(listener))
+			{
+				Throwable cause = failure.get(10, TimeUnit.SECONDS);
+				requireThat(cause, "cause").isNotNull();
+			}
+		}
+	}
+
+	@Test
+	public void closingClientFailsListeners()
+		throws IOException, InterruptedException, ExecutionException, TimeoutException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		CompletableFuture<Throwable> failure = new CompletableFuture<>();
+		try (DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory, "")))
+		{
+			EventListener listener = new EventListener()
+			{
+				@Override
+				public void onEvent(DockerEvent event)
+				{
+					failure.completeExceptionally(new AssertionError("Unexpected event: " + event));
+				}
+
+				@Override
+				public void onFailure(Throwable cause)
+				{
+					failure.complete(cause);
+				}
+			};
+			// The stream is discarded when its only listener unsubscribes, and replaced by the next one
+			client.events().subscribe(_ ->
+			{
+			}).close();
+			client.events().subscribe(listener);
+		}
+		Throwable cause = failure.get(10, TimeUnit.SECONDS);
+		requireThat(cause, "cause").isInstanceOf(IllegalStateException.class);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.api.client.FleetClient;
+import io.github.cowwoc.canister.docker.api.client.FleetResult;
+import io.github.cowwoc.canister.docker.api.client.FleetResult.Sourced;
+import io.github.cowwoc.canister.docker.id.ContextId;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.Network;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class FleetClientIT
+{
+	private static final ContextId FIRST = ContextId.of("a");
+	private static final ContextId SECOND = ContextId.of("b");
+	private static final ContextId BROKEN = ContextId.of("broken");
+	private static final ContextId SLOW = ContextId.of("slow");
+
+	/**
+	 * Creates a fake {@code docker} executable that lists one network per context. Every command takes 1
+	 * second to respond. The {@code broken} context fails as if its daemon is unreachable, and the {@code slow}
+	 * context never responds.
+	 *
+	 * @param directory the directory to write the executable into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			context=default
+			if [ "$1" = "--context" ]; then
+			  context="$2"
+			  shift 2
+			fi
+			case "$context" in
+			slow)
+			  exec sleep 60
+			  ;;
+			broken)
+			  echo "Cannot connect to the Docker daemon at tcp://broken:2375. Is the docker daemon running?" >&2
+			  exit 1
+			  ;;
+			esac
+			sleep 1
+			id=$(printf '%064d' 0 | tr 0 "$context")
+			case "$1 $2" in
+			"network ls")
+			  echo '{"ID":"'"$id"'","Name":"'"$context"'-network"}'
+			  ;;
+			"network inspect")
+			  echo '[{"Name":"'"$context"'-network","Id":"'"$id"'","IPAM":{"Config":[]}}]'
+			  ;;
+			*)
+			  exit 1
+			  ;;
+			esac
+			""");
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	@Test
+	public void queriesContextsInParallel() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory));
+		     FleetClient fleet = client.fleet(List.of(FIRST, SECOND)))
+		{
+			Instant start = Instant.now();
+			FleetResult<Network> result = fleet.getNetworks();
+			// Each context runs two commands that take 1 second each
+			requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofSeconds(4));
+			requireThat(result.isComplete(), "result.isComplete()").isTrue();
+
+			List<Sourced<Network>> values = result.values();
+			requireThat(values, "values").size().isEqualTo(2);
+			requireThat(values.get(0).context(), "values[0].context()").isEqualTo(FIRST);
+			requireThat(values.get(0).value().getName(), "values[0].getName()").isEqualTo("a-network");
+			requireThat(values.get(1).context(), "values[1].context()").isEqualTo(SECOND);
+			requireThat(values.get(1).value().getName(), "values[1].getName()").isEqualTo("b-network");
+		}
+	}
+
+	@Test
+	public void reportsPartialFailures() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)).
+			retryTimeout(Duration.ZERO);
+		     FleetClient fleet = client.fleet(List.of(FIRST, BROKEN, SLOW)).
+			     timeout(Duration.ofSeconds(5)))
+		{
+			Instant start = Instant.now();
+			FleetResult<Network> result = fleet.getNetworks();
+			requireThat(Duration.between(start, Instant.now()), "elapsed").isLessThan(Duration.ofSeconds(15));
+
+			requireThat(result.getValues().stream().map(Network::getName).toList(), "names").
+				isEqualTo(List.of("a-network"));
+			requireThat(result.failures().keySet(), "failures").isEqualTo(Set.of(BROKEN, SLOW));
+			requireThat(result.failures().get(SLOW), "failures[slow]").isInstanceOf(TimeoutException.class);
+		}
+	}
+}
\ No newline at end of file
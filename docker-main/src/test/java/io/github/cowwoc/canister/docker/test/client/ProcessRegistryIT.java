@@ -0,0 +1,153 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.resource.ProcessListener;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.Map;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class ProcessRegistryIT
+{
+	private static final String CONTAINER_ID = "%064x".formatted(1);
+
+	/**
+	 * Creates a fake {@code docker} executable whose {@code container logs} command runs until it is
+	 * terminated, after writing the process ID of its child to {@code <directory>/sleep.pid}.
+	 *
+	 * @param directory the directory to write the executable and its state into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			state="%s"
+			case "$1 $2" in
+			"container logs")
+			  sleep 60 &
+			  echo $! > "$state/sleep.pid.tmp"
+			  mv "$state/sleep.pid.tmp" "$state/sleep.pid"
+			  wait
+			  ;;
+			*)
+			  echo "Unexpected command: $*" >&2
+			  exit 1
+			  ;;
+			esac
+			""".formatted(directory));
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	/**
+	 * Waits for a process to write its ID into a file.
+	 *
+	 * @param path the path of the file
+	 * @return the process ID
+	 * @throws IOException          if an I/O error occurs
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	private static long waitForPid(Path path) throws IOException, InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (Files.notExists(path))
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+		return Long.parseLong(Files.readString(path).strip());
+	}
+
+	/**
+	 * Waits for a process to exit.
+	 *
+	 * @param pid the process ID
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	private static void waitForExit(long pid) throws InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (ProcessHandle.of(pid).map(ProcessHandle::isAlive).orElse(false))
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Waits for a client to stop tracking all of its processes.
+	 *
+	 * @param client the client
+	 * @throws InterruptedException if the thread is interrupted
+	 */
+	private static void waitForNoProcesses(DockerClient client) throws InterruptedException
+	{
+		Instant deadline = Instant.now().plusSeconds(10);
+		while (!client.getRunningProcesses().isEmpty())
+		{
+			requireThat(Instant.now(), "now").isLessThan(deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void closeTerminatesProcesses() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		DockerClient client = new DefaultDockerClient(createExecutable(directory));
+		ProcessListener logs = client.getContainerLogs(CONTAINER_ID).follow().apply();
+		long sleepPid = waitForPid(directory.resolve("sleep.pid"));
+		requireThat(client.getRunningProcesses(), "runningProcesses").
+			isEqualTo(Map.of("container logs", 1));
+
+		client.close();
+		waitForExit(sleepPid);
+		requireThat(logs.waitFor(), "exitCode").isNotEqualTo(0);
+		waitForNoProcesses(client);
+	}
+
+	@Test
+	public void closingListenerTerminatesProcess() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			try (ProcessListener _ = client.getContainerLogs(CONTAINER_ID).follow().apply())
+			{
+				waitForPid(directory.resolve("sleep.pid"));
+			}
+			waitForExit(waitForPid(directory.resolve("sleep.pid")));
+			waitForNoProcesses(client);
+		}
+	}
+
+	@Test
+	public void leakedListenerIsTerminated() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (DockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			client.getContainerLogs(CONTAINER_ID).follow().apply();
+			long sleepPid = waitForPid(directory.resolve("sleep.pid"));
+
+			Instant deadline = Instant.now().plusSeconds(10);
+			while (ProcessHandle.of(sleepPid).map(ProcessHandle::isAlive).orElse(false))
+			{
+				requireThat(Instant.now(), "now").isLessThan(deadline);
+				System.gc();
+				Thread.sleep(10);
+			}
+			waitForNoProcesses(client);
+		}
+	}
+}
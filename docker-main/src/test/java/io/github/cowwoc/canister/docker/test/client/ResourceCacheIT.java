@@ -0,0 +1,158 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.CacheStatistics;
+import io.github.cowwoc.canister.docker.api.client.Docker;
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.main.client.DefaultDockerClient;
+import io.github.cowwoc.canister.docker.main.client.EngineApiTransport;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.test.FakeEngineApiServer;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class ResourceCacheIT
+{
+	private static final String WEB_ID = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+	private static final String DB_ID = "fedcba9876543210fedcba9876543210fedcba9876543210fedcba9876543210";
+
+	/**
+	 * @param id   the container's ID
+	 * @param name the container's name
+	 * @return the response to {@code GET /containers/{id}/json}
+	 */
+	private static String containerJson(String id, String name)
+	{
+		return """
+			{
+			  "Id": "%s",
+			  "Name": "/%s",
+			  "HostConfig": {"PortBindings": {}},
+			  "NetworkSettings": {"Ports": {}},
+			  "State": {"Status": "running"}
+			}""".formatted(id, name);
+	}
+
+	/**
+	 * Creates a fake {@code docker} executable whose {@code system events} command runs until it is
+	 * terminated, without reporting any events. Any other command succeeds without doing anything.
+	 *
+	 * @param directory the directory to write the executable into
+	 * @return the path of the executable
+	 * @throws IOException if an I/O error occurs
+	 */
+	private static Path createExecutable(Path directory) throws IOException
+	{
+		Path executable = directory.resolve("docker");
+		Files.writeString(executable, """
+			#!/bin/sh
+			if [ "$1 $2" = "system events" ]; then
+			  exec sleep 60
+			fi
+			""");
+		Files.setPosixFilePermissions(executable, PosixFilePermissions.fromString("rwx------"));
+		return executable;
+	}
+
+	@Test
+	public void disabledByDefault() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()))
+		{
+			server.respond("/containers/web/json", 200, containerJson(WEB_ID, "web"));
+
+			client.getContainer("web");
+			client.getContainer("web");
+			requireThat(server.getRequestCount(), "requestCount").isEqualTo(2);
+			requireThat(client.getCacheStatistics(), "statistics").
+				isEqualTo(new CacheStatistics(0, 0, 0, 0, 0));
+		}
+	}
+
+	@Test
+	public void repeatedLookupIsCached() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()).cacheResources(10))
+		{
+			server.respond("/containers/web/json", 200, containerJson(WEB_ID, "web"));
+
+			Container first = client.getContainer("web");
+			Container second = client.getContainer("web");
+			requireThat(second, "second").isEqualTo(first, "first");
+			requireThat(server.getRequestCount(), "requestCount").isEqualTo(1);
+
+			CacheStatistics statistics = client.getCacheStatistics();
+			requireThat(statistics.size(), "size").isEqualTo(1);
+			requireThat(statistics.hits(), "hits").isEqualTo(1L);
+			requireThat(statistics.misses(), "misses").isEqualTo(1L);
+		}
+	}
+
+	@Test
+	public void missingResourcesAreNotCached() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()).cacheResources(10))
+		{
+			server.respond("/containers/missing/json", 404, "{\"message\":\"No such container: missing\"}");
+
+			requireThat(client.getContainer("missing"), "container").isNull();
+			requireThat(client.getContainer("missing"), "container").isNull();
+			requireThat(server.getRequestCount(), "requestCount").isEqualTo(2);
+			requireThat(client.getCacheStatistics().size(), "size").isEqualTo(0);
+		}
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DockerClient client = Docker.fromSocket(server.getSocket()).cacheResources(1))
+		{
+			server.respond("/containers/web/json", 200, containerJson(WEB_ID, "web"));
+			server.respond("/containers/db/json", 200, containerJson(DB_ID, "db"));
+
+			client.getContainer("web");
+			client.getContainer("db");
+			client.getContainer("web");
+			requireThat(server.getRequestCount(), "requestCount").isEqualTo(3);
+
+			CacheStatistics statistics = client.getCacheStatistics();
+			requireThat(statistics.size(), "size").isEqualTo(1);
+			requireThat(statistics.evictions(), "evictions").isEqualTo(2L);
+		}
+	}
+
+	@Test
+	public void commandsOnlyInvalidateTheResourcesTheyReferTo() throws IOException, InterruptedException
+	{
+		Path directory = Files.createTempDirectory("docker");
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     DefaultDockerClient client = new DefaultDockerClient(createExecutable(directory)))
+		{
+			client.setTransport(EngineApiTransport.overUnixSocket(client.getJsonMapper(), server.getSocket()));
+			client.cacheResources(10);
+			server.respond("/containers/" + WEB_ID + "/json", 200, containerJson(WEB_ID, "web"));
+			server.respond("/containers/db/json", 200, containerJson(DB_ID, "db"));
+
+			client.getContainer(WEB_ID);
+			client.getContainer("db");
+			requireThat(server.getRequestCount(), "requestCount").isEqualTo(2);
+
+			// The container that was looked up by its ID is invalidated by a command that refers to its name
+			client.run(List.of("container", "stop", "web"));
+			client.getContainer(WEB_ID);
+			client.getContainer("db");
+			requireThat(server.getRequestCount(), "requestCount").isEqualTo(3);
+			requireThat(client.getCacheStatistics().invalidations(), "invalidations").isEqualTo(1L);
+		}
+	}
+}
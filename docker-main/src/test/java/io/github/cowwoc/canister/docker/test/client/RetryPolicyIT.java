@@ -0,0 +1,90 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.core.client.RetryPolicy;
+import io.github.cowwoc.canister.core.metrics.InMemoryClientMetrics;
+import io.github.cowwoc.canister.docker.api.client.Docker;
+import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
+import io.github.cowwoc.canister.docker.test.FakeEngineApiServer;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class RetryPolicyIT
+{
+	@Test
+	public void retriesTransientFailures() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     InternalDockerClient client = (InternalDockerClient) Docker.fromSocket(server.getSocket()))
+		{
+			InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+			client.retryPolicy(RetryPolicy.defaults().withInitialDelay(Duration.ofMillis(1)));
+			client.metrics(metrics);
+			AtomicInteger attempts = new AtomicInteger();
+			String result = client.retry(_ ->
+			{
+				if (attempts.incrementAndGet() <= 2)
+					throw new IOException("Connection reset");
+				return "success";
+			});
+			requireThat(result, "result").isEqualTo("success");
+			requireThat(attempts.get(), "attempts").isEqualTo(3);
+			requireThat(metrics.getBackoffTime().getCount(), "retries").isEqualTo(2L);
+		}
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void doesNotRetryPermanentFailures() throws IOException, InterruptedException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     InternalDockerClient client = (InternalDockerClient) Docker.fromSocket(server.getSocket()))
+		{
+			client.retryPolicy(RetryPolicy.defaults().withTransientFailures(_ -> false));
+			AtomicInteger attempts = new AtomicInteger();
+			try
+			{
+				client.retry(_ ->
+				{
+					attempts.incrementAndGet();
+					throw new IOException("Permanent failure");
+				});
+			}
+			finally
+			{
+				requireThat(attempts.get(), "attempts").isEqualTo(1);
+			}
+		}
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void stopsRetryingAtDeadline() throws IOException, InterruptedException, TimeoutException
+	{
+		try (FakeEngineApiServer server = new FakeEngineApiServer();
+		     InternalDockerClient client = (InternalDockerClient) Docker.fromSocket(server.getSocket()))
+		{
+			InMemoryClientMetrics metrics = new InMemoryClientMetrics();
+			client.retryPolicy(RetryPolicy.defaults().withInitialDelay(Duration.ofMillis(10)).withMultiplier(1.0));
+			client.metrics(metrics);
+			Instant deadline = Instant.now().plusMillis(100);
+			try
+			{
+				client.retry(_ ->
+				{
+					throw new IOException("Connection reset");
+				}, deadline);
+			}
+			finally
+			{
+				requireThat(Instant.now(), "now").isGreaterThanOrEqualTo(deadline, "deadline");
+				requireThat(metrics.getBackoffTime().getTotal(), "backoffTime").
+					isLessThanOrEqualTo(Duration.ofMillis(200));
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package io.github.cowwoc.canister.docker.test.client;
+
+import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.api.client.StateIndex;
+import io.github.cowwoc.canister.docker.api.client.StateMirror;
+import io.github.cowwoc.canister.docker.api.client.StateSnapshot;
+import io.github.cowwoc.canister.docker.resource.Container;
+import io.github.cowwoc.canister.docker.resource.Container.Status;
+import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.test.IntegrationTestContainer;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.github.cowwoc.requirements12.java.DefaultJavaValidators.requireThat;
+
+public final class StateMirrorIT
+{
+	private static final String EXISTING_IMAGE = "ghcr.io/hlesey/busybox";
+
+	@Test
+	public void mirrorsExistingResources() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		DockerImage image = client.pullImage(EXISTING_IMAGE).apply();
+		Container container = image.createContainer().apply();
+
+		try (StateMirror mirror = client.mirror(Duration.ofMinutes(1)))
+		{
+			StateSnapshot snapshot = mirror.getSnapshot();
+			requireThat(snapshot.containers().get(container.getId()), "container").
+				isEqualTo(container, "expected");
+			requireThat(snapshot.images().keySet(), "images").contains(image.getId());
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void indexesResources() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		DockerImage image = client.pullImage(EXISTING_IMAGE).apply();
+		Container container = image.createContainer().apply();
+
+		try (StateMirror mirror = client.mirror(Duration.ofMinutes(1)))
+		{
+			StateIndex index = mirror.getIndex();
+			requireThat(index.getContainerByName(container.getName()), "getContainerByName()").
+				isEqualTo(container, "container");
+			requireThat(index.getContainersByIdPrefix(container.getId().getValue().substring(0, 12)),
+				"getContainersByIdPrefix()").containsExactly(List.of(container));
+			requireThat(index.getContainers(Status.CREATED), "getContainers()").contains(container);
+			requireThat(index.getImagesByReference(EXISTING_IMAGE), "getImagesByReference()").
+				contains(image);
+		}
+		it.onSuccess();
+	}
+
+	@Test
+	public void appliesEvents() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		DockerImage image = client.pullImage(EXISTING_IMAGE).apply();
+
+		try (StateMirror mirror = client.mirror(Duration.ofMinutes(1)))
+		{
+			BlockingQueue<StateSnapshot> snapshots = new LinkedBlockingQueue<>();
+			mirror.addListener((_, current) -> snapshots.add(current));
+
+			Container container = image.createContainer().apply();
+			while (true)
+			{
+				StateSnapshot snapshot = snapshots.poll(30, TimeUnit.SECONDS);
+				requireThat(snapshot, "snapshot").isNotNull();
+				if (snapshot.containers().containsKey(container.getId()))
+					break;
+			}
+
+			container.remove().apply();
+			while (true)
+			{
+				StateSnapshot snapshot = snapshots.poll(30, TimeUnit.SECONDS);
+				requireThat(snapshot, "snapshot").isNotNull();
+				if (!snapshot.containers().containsKey(container.getId()))
+					break;
+			}
+		}
+		it.onSuccess();
+	}
+}
\ No newline at end of file
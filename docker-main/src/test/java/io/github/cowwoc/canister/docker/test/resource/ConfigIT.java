@@ -1,6 +1,8 @@
 package io.github.cowwoc.canister.docker.test.resource;
 
 import io.github.cowwoc.canister.core.exception.ResourceInUseException;
+import io.github.cowwoc.canister.core.util.CreateResult;
+import io.github.cowwoc.canister.core.util.CreateResult.Outcome;
 import io.github.cowwoc.canister.docker.api.client.DockerClient;
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
 import io.github.cowwoc.canister.docker.resource.Config;
@@ -29,6 +31,26 @@ public void create() throws IOException, InterruptedException, TimeoutException
 		it.onSuccess();
 	}
 
+	@Test
+	public void createIfAbsent() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		client.createSwarm().apply();
+
+		CreateResult<Config> created = client.createConfig().applyIfAbsent(it.getName(), "key=value");
+		requireThat(created.getOutcome(), "created.getOutcome()").isEqualTo(Outcome.CREATED);
+
+		CreateResult<Config> existed = client.createConfig().applyIfAbsent(it.getName(), "key=value");
+		requireThat(existed.getOutcome(), "existed.getOutcome()").isEqualTo(Outcome.EXISTED);
+
+		CreateResult<Config> conflicted = client.createConfig().applyIfAbsent(it.getName(), "key=other");
+		requireThat(conflicted.getOutcome(), "conflicted.getOutcome()").isEqualTo(Outcome.CONFLICTED);
+		requireThat(conflicted.getResource().getValueAsString(), "conflicted.getResource().getValueAsString()").
+			isEqualTo("key=value");
+		it.onSuccess();
+	}
+
 	@Test(expectedExceptions = NotSwarmManagerException.class)
 	public void createNotSwarmManager() throws IOException, InterruptedException, TimeoutException
 	{
@@ -4,10 +4,15 @@
 import io.github.cowwoc.canister.core.exception.ResourceNotFoundException;
 import io.github.cowwoc.canister.core.resource.CommandResult;
 import io.github.cowwoc.canister.core.spi.util.Processes;
+import io.github.cowwoc.canister.core.util.CreateResult;
+import io.github.cowwoc.canister.core.util.CreateResult.Outcome;
 import io.github.cowwoc.canister.docker.api.client.DockerClient;
+import io.github.cowwoc.canister.docker.api.client.Filter;
 import io.github.cowwoc.canister.docker.resource.Container;
 import io.github.cowwoc.canister.docker.resource.Container.Status;
+import io.github.cowwoc.canister.docker.resource.DockerEvent;
 import io.github.cowwoc.canister.docker.resource.DockerImage;
+import io.github.cowwoc.canister.docker.resource.EventSubscription;
 import io.github.cowwoc.canister.docker.resource.ProcessListener;
 import io.github.cowwoc.canister.docker.test.IntegrationTestContainer;
 import org.testng.annotations.Test;
@@ -20,6 +25,7 @@
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
 
 import static io.github.cowwoc.canister.docker.test.resource.ImageIT.EXISTING_IMAGE;
 import static io.github.cowwoc.canister.docker.test.resource.ImageIT.MISSING_IMAGE;
@@ -94,6 +100,27 @@ public void createMissing() throws IOException, InterruptedException, TimeoutExc
 		}
 	}
 
+	@Test
+	public void createIfAbsent() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		DockerImage image = client.pullImage(EXISTING_IMAGE).apply();
+
+		CreateResult<Container> created = image.createContainer().name(it.getName()).applyIfAbsent();
+		requireThat(created.getOutcome(), "created.getOutcome()").isEqualTo(Outcome.CREATED);
+
+		CreateResult<Container> existed = image.createContainer().name(it.getName()).applyIfAbsent();
+		requireThat(existed.getOutcome(), "existed.getOutcome()").isEqualTo(Outcome.EXISTED);
+		requireThat(existed.getResource(), "existed.getResource()").
+			isEqualTo(created.getResource(), "created.getResource()");
+
+		CreateResult<Container> conflicted = image.createContainer().name(it.getName()).
+			environmentVariable("key", "value").applyIfAbsent();
+		requireThat(conflicted.getOutcome(), "conflicted.getOutcome()").isEqualTo(Outcome.CONFLICTED);
+		it.onSuccess();
+	}
+
 	@Test
 	public void listEmpty() throws IOException, InterruptedException, TimeoutException
 	{
@@ -119,6 +146,60 @@ public void list() throws IOException, InterruptedException, TimeoutException
 		it.onSuccess();
 	}
 
+	@Test
+	public void listWithFilter() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		DockerImage image = client.pullImage(EXISTING_IMAGE).apply();
+		Container container1 = image.createContainer().apply();
+		Container container2 = image.createContainer().arguments(KEEP_ALIVE).apply().start().apply();
+
+		List<Container> containers = client.getContainers(Filter.empty().status(Status.RUNNING));
+		requireThat(containers, "containers").size().isEqualTo(1);
+		requireThat(containers.getFirst().getId(), "id").isEqualTo(container2.getId(), "container2.getId()");
+
+		containers = client.getContainers(Filter.empty().id(container1.getId().getValue()));
+		requireThat(containers, "containers").size().isEqualTo(1);
+		requireThat(containers.getFirst().getId(), "id").isEqualTo(container1.getId(), "container1.getId()");
+		it.onSuccess();
+	}
+
+	@Test
+	public void stream() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		DockerImage image = client.pullImage(EXISTING_IMAGE).apply();
+		Container container1 = image.createContainer().apply();
+		Container container2 = image.createContainer().apply();
+
+		List<Container> containers = client.streamContainers().toList();
+		requireThat(containers, "containers").containsExactly(List.of(container1, container2));
+
+		try (Stream<Container> stream = client.streamContainers())
+		{
+			requireThat(stream.findFirst(), "first").isPresent();
+		}
+		it.onSuccess();
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void listWithUnsupportedFilter() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		try
+		{
+			client.getContainers(Filter.empty().with("colour", "red"));
+		}
+		catch (IllegalArgumentException e)
+		{
+			it.onSuccess();
+			throw e;
+		}
+	}
+
 	@Test
 	public void get() throws IOException, InterruptedException, TimeoutException
 	{
@@ -335,6 +416,30 @@ public void waitUntilMissingContainerEvent() throws IOException, InterruptedExce
 		}
 	}
 
+	/**
+	 * Subscribes to a container's events.
+	 */
+	@Test
+	public void subscribeToEvents() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer it = new IntegrationTestContainer();
+		DockerClient client = it.getClient();
+		DockerImage image = client.pullImage(EXISTING_IMAGE).apply();
+		Container container = image.createContainer().arguments("sh", "-c", "exit 0").apply();
+
+		BlockingQueue<DockerEvent> events = new LinkedBlockingQueue<>();
+		try (EventSubscription _ = client.events().container(container.getId()).action("start").
+			subscribe(events::add))
+		{
+			container.start().apply();
+			DockerEvent event = events.take();
+			requireThat(event.type(), "event.type()").isEqualTo("container");
+			requireThat(event.action(), "event.action()").isEqualTo("start");
+			requireThat(event.actorId(), "event.actorId()").isEqualTo(container.getId().getValue());
+		}
+		it.onSuccess();
+	}
+
 	@Test
 	public void getContainerLogs() throws IOException, InterruptedException, TimeoutException
 	{
@@ -2,6 +2,7 @@
 
 import io.github.cowwoc.canister.docker.exception.NotSwarmManagerException;
 import io.github.cowwoc.canister.docker.id.NodeId;
+import io.github.cowwoc.canister.docker.main.client.InternalDockerClient;
 import io.github.cowwoc.canister.docker.resource.Service;
 import io.github.cowwoc.canister.docker.resource.SwarmCreator.WelcomePackage;
 import io.github.cowwoc.canister.docker.resource.Task;
@@ -9,6 +10,7 @@
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
@@ -55,6 +57,40 @@ public void createServiceFromWorker() throws IOException, InterruptedException,
 		}
 	}
 
+	@Test
+	public void getServicesOmitsRemovedService() throws IOException, InterruptedException, TimeoutException
+	{
+		IntegrationTestContainer manager = new IntegrationTestContainer();
+		InternalDockerClient client = (InternalDockerClient) manager.getClient();
+		client.createSwarm().apply();
+		Service existing = client.createService(EXISTING_IMAGE).arguments("sleep", "10").
+			updateMonitor(Duration.ofSeconds(1)).apply();
+		Service removed = client.createService(EXISTING_IMAGE).arguments("sleep", "10").
+			updateMonitor(Duration.ofSeconds(1)).apply();
+		// Remove the service after it is listed, but before it is inspected
+		List<Service> services = client.getServices(element ->
+		{
+			if (element.id().equals(removed.getId()))
+			{
+				try
+				{
+					client.run(List.of("service", "rm", removed.getId().getValue()));
+				}
+				catch (IOException e)
+				{
+					throw new UncheckedIOException(e);
+				}
+				catch (InterruptedException e)
+				{
+					throw new AssertionError(e);
+				}
+			}
+			return true;
+		});
+		requireThat(services, "services").isEqualTo(List.of(existing));
+		manager.onSuccess();
+	}
+
 	@Test
 	public void listTasksByServiceFromManager() throws IOException, InterruptedException, TimeoutException
 	{
@@ -16,7 +16,9 @@
 	requires com.fasterxml.jackson.annotation;
 	requires org.testng;
 	requires java.desktop;
+	requires jdk.jfr;
 
 	exports io.github.cowwoc.canister.docker.test to org.testng;
+	exports io.github.cowwoc.canister.docker.test.client to org.testng;
 	exports io.github.cowwoc.canister.docker.test.resource to org.testng;
 }
\ No newline at end of file